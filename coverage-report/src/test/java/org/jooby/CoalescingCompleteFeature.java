@@ -0,0 +1,76 @@
+package org.jooby;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jooby.handlers.CoalescingHandler;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+import com.google.common.io.ByteStreams;
+
+public class CoalescingCompleteFeature extends ServerFeature {
+
+  private static final CountDownLatch arrived = new CountDownLatch(2);
+
+  private static final CountDownLatch completed = new CountDownLatch(2);
+
+  private static final AtomicInteger executions = new AtomicInteger();
+
+  {
+    complete("/coalesce", (req, rsp, cause) -> {
+      if (!cause.isPresent()) {
+        completed.countDown();
+      }
+    });
+
+    use("GET", "/coalesce", (req, rsp, chain) -> {
+      arrived.countDown();
+      chain.next(req, rsp);
+    });
+
+    use("GET", "/coalesce", new CoalescingHandler());
+
+    get("/coalesce", () -> {
+      arrived.await(5, TimeUnit.SECONDS);
+      // give the second request some time to join the flight
+      Thread.sleep(300L);
+      return "executions:" + executions.incrementAndGet();
+    });
+  }
+
+  @Test
+  public void completeListenerFiresForWaiter() throws Exception {
+    ExecutorService clients = Executors.newFixedThreadPool(2);
+    try {
+      Future<String> r1 = clients.submit(() -> get("/coalesce"));
+      Future<String> r2 = clients.submit(() -> get("/coalesce"));
+      assertEquals("executions:1", r1.get(5, TimeUnit.SECONDS));
+      assertEquals("executions:1", r2.get(5, TimeUnit.SECONDS));
+      assertTrue(completed.await(5, TimeUnit.SECONDS));
+    } finally {
+      clients.shutdownNow();
+    }
+  }
+
+  private String get(final String path) throws Exception {
+    HttpURLConnection connection = (HttpURLConnection) new URL(
+        "http://localhost:" + port + path).openConnection();
+    try (InputStream in = connection.getInputStream()) {
+      return new String(ByteStreams.toByteArray(in), "UTF-8");
+    } finally {
+      connection.disconnect();
+    }
+  }
+
+}
@@ -0,0 +1,115 @@
+package org.jooby;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jooby.handlers.ETagHandler;
+import org.jooby.handlers.ResponseCache;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+import com.google.common.base.Strings;
+
+public class LargeBodyFeature extends ServerFeature {
+
+  /** Larger than the default response buffer (16k). */
+  private static final String TEXT = Strings.repeat("0123456789", 5000);
+
+  private static final AtomicInteger executions = new AtomicInteger();
+
+  private static class Page {
+  }
+
+  private static class MemoryStore implements ResponseCache.Store {
+    private final Map<String, ResponseCache.Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public ResponseCache.Entry get(final String key) {
+      return entries.get(key);
+    }
+
+    @Override
+    public void put(final String key, final ResponseCache.Entry entry) {
+      entries.put(key, entry);
+    }
+  }
+
+  {
+    renderer((value, ctx) -> {
+      if (value instanceof Page) {
+        try (Writer writer = ctx.writer()) {
+          writer.write(TEXT);
+        }
+      }
+    });
+
+    use("GET", "/cache", new ResponseCache(new MemoryStore()));
+
+    get("/cache", () -> {
+      executions.incrementAndGet();
+      return new Page();
+    });
+
+    use("GET", "/etag", new ETagHandler());
+
+    get("/etag", () -> new Page());
+
+    use("GET", "/version", new ResponseCache(new MemoryStore()));
+
+    get("/version", (req, rsp) -> {
+      if (!rsp.etag("v1")) {
+        rsp.send(new Page());
+      }
+    });
+  }
+
+  @Test
+  public void cacheLargeBody() throws Exception {
+    for (int i = 0; i < 2; i++) {
+      request()
+          .get("/cache")
+          .expect(200)
+          .header("Content-Length", TEXT.length())
+          .expect(TEXT);
+    }
+    assertEquals(1, executions.get());
+  }
+
+  @Test
+  public void etagLargeBody() throws Exception {
+    request()
+        .get("/etag")
+        .expect(200)
+        .header("Content-Length", TEXT.length())
+        .header("ETag", etag -> {
+          request()
+              .get("/etag")
+              .header("If-None-Match", etag)
+              .expect(304)
+              .header("Content-Length", (String) null)
+              .empty();
+        });
+  }
+
+  @Test
+  public void notModifiedFromCache() throws Exception {
+    request()
+        .get("/version")
+        .expect(200)
+        .header("Content-Length", TEXT.length())
+        .header("ETag", "\"v1\"");
+
+    // cached entry has a Content-Length, the 304 must not
+    request()
+        .get("/version")
+        .header("If-None-Match", "\"v1\"")
+        .expect(304)
+        .header("Content-Length", (String) null)
+        .empty();
+  }
+
+}
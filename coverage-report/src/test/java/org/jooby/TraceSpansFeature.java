@@ -0,0 +1,84 @@
+package org.jooby;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+
+public class TraceSpansFeature extends ServerFeature {
+
+  private static final BlockingQueue<Trace> traces = new LinkedBlockingQueue<>();
+
+  private static final ExecutorService worker = Executors.newSingleThreadExecutor();
+
+  {
+    use(ConfigFactory.empty()
+        .withValue("server.http.Trace", ConfigValueFactory.fromAnyRef(true)));
+
+    use((env, conf, binder) -> {
+      binder.bind(Trace.Exporter.class).toInstance(traces::add);
+    });
+
+    executor("worker", worker);
+
+    use("GET", "/trace", (req, rsp, chain) -> chain.next(req, rsp));
+
+    get("/trace", () -> new Deferred("worker", deferred -> {
+      Trace.Span span = Trace.start("db");
+      span.finish();
+      deferred.resolve(MDC.get(Trace.MDC_KEY));
+    }));
+  }
+
+  @Test
+  public void deferredSpans() throws Exception {
+    for (int i = 0; i < 2; i++) {
+      String[] traceId = new String[1];
+      request()
+          .get("/trace")
+          .expect(200)
+          .expect(rsp -> traceId[0] = rsp);
+
+      Trace trace = traces.poll(5, TimeUnit.SECONDS);
+      assertNotNull(trace);
+      assertEquals(traceId[0], trace.traceId());
+      assertEquals("GET /trace", trace.name());
+
+      List<Trace.Span> spans = trace.spans();
+      assertEquals(4, spans.size());
+      Trace.Span filter = spans.get(0);
+      Trace.Span handler = spans.get(1);
+      Trace.Span deferred = spans.get(2);
+      Trace.Span db = spans.get(3);
+      assertEquals(trace.id(), filter.parent());
+      assertEquals(filter.id(), handler.parent());
+      assertEquals("deferred worker", deferred.name());
+      assertEquals(handler.id(), deferred.parent());
+      assertEquals("db", db.name());
+      assertEquals(deferred.id(), db.parent());
+      assertTrue(deferred.end() > 0);
+      assertTrue(db.end() > 0);
+    }
+    // exported once per request
+    assertNull(traces.poll(500, TimeUnit.MILLISECONDS));
+
+    // deferred thread was cleaned up
+    assertEquals("null:false",
+        worker.submit(() -> MDC.get(Trace.MDC_KEY) + ":" + Trace.current().isPresent()).get());
+  }
+
+}
@@ -23,20 +23,30 @@ import static java.util.Objects.requireNonNull;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
+import javax.inject.Provider;
+
 import org.jooby.Env;
 import org.jooby.Jooby;
 import org.jooby.Session;
+import org.jooby.internal.caffeine.CaffeineLoaders;
+import org.jooby.internal.caffeine.CaffeineMetrics;
 
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
 import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.CaffeineSpec;
 import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.google.common.base.Splitter;
 import com.google.inject.Binder;
 import com.google.inject.Key;
 import com.google.inject.TypeLiteral;
@@ -46,6 +56,8 @@ import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import com.typesafe.config.ConfigValueFactory;
 
+import javaslang.control.Try;
+
 /**
  * <h1>caffeine</h1>
  * <p>
@@ -137,6 +149,52 @@ import com.typesafe.config.ConfigValueFactory;
  * }
  * </pre>
  *
+ * <h2>loaders</h2>
+ * <p>
+ * A {@link CacheLoader} (or {@link AsyncCacheLoader}) might be set per cache. Loaders are created
+ * by Guice, so they can depend on application services:
+ * </p>
+ *
+ * <pre>
+ * {
+ *   use(new CaffeineCache&lt;String, Product&gt;() {}
+ *     .loader("products", ProductLoader.class));
+ * }
+ * </pre>
+ *
+ * <pre>
+ * &#64;Inject
+ * public ProductService(&#64;Named("products") LoadingCache&lt;String, Product&gt; products) {
+ *  ...
+ *  products.getAll(ids);
+ * }
+ * </pre>
+ *
+ * <p>
+ * Bulk loads call {@link CacheLoader#loadAll(Iterable)} when the loader overrides it.
+ * </p>
+ *
+ * <h3>refresh</h3>
+ * <p>
+ * Async loads, refresh (<code>refreshAfterWrite</code>) and removal notifications run in the
+ * common fork join pool by default. The <code>executor</code> option set a named executor, like
+ * the ones provided by the <code>jooby-executor</code> module:
+ * </p>
+ *
+ * <pre>
+ * caffeine.products {
+ *   maximumSize = 1000
+ *   refreshAfterWrite = 1m
+ *   executor = loaders
+ * }
+ * </pre>
+ *
+ * <h3>metrics</h3>
+ * <p>
+ * Caches with <code>recordStats</code> publish hits, misses, loads, evictions and size to
+ * <code>jooby-metrics</code> (if present) under the <code>caffeine.[name]</code> prefix.
+ * </p>
+ *
  * <h2>session store</h2>
  * <p>
  * This module comes with a {@link Session.Store} implementation. In order to use it you need to
@@ -184,11 +242,27 @@ public abstract class CaffeineCache<K, V> implements Jooby.Module {
 
   private static final String DEF = "caffeine";
 
+  /** Executor option, not part of the caffeine spec. */
+  private static final String EXECUTOR = "executor";
+
+  private static final String RECORD_STATS = "recordStats";
+
+  /** True when jooby-metrics is present. */
+  private static final boolean METRICS = Try
+      .of(() -> CaffeineCache.class.getClassLoader().loadClass("org.jooby.metrics.MetricBinder"))
+      .isSuccess();
+
   @SuppressWarnings("rawtypes")
   private BiFunction<String, Caffeine, Object> callback = (n, b) -> b.build();
 
   private final String name;
 
+  @SuppressWarnings("rawtypes")
+  private final Map<String, Class> loaders = new HashMap<>();
+
+  @SuppressWarnings("rawtypes")
+  private final Map<String, Class> asyncLoaders = new HashMap<>();
+
   /**
    * Creates a new {@link CaffeineCache} using the provided namespace.
    *
@@ -239,6 +313,38 @@ public abstract class CaffeineCache<K, V> implements Jooby.Module {
     return this;
   }
 
+  /**
+   * Set a {@link CacheLoader} for the given cache. The loader is created by Guice, so it can
+   * depend on application services. The cache is bound as {@link LoadingCache} and bulk loads
+   * ({@link LoadingCache#getAll(Iterable)}) call {@link CacheLoader#loadAll(Iterable)} when the
+   * loader overrides it.
+   *
+   * @param name Cache name.
+   * @param loader Loader type.
+   * @return This instance.
+   */
+  public CaffeineCache<K, V> loader(final String name,
+      final Class<? extends CacheLoader<K, V>> loader) {
+    this.loaders.put(requireNonNull(name, "Name is required."),
+        requireNonNull(loader, "Loader is required."));
+    return this;
+  }
+
+  /**
+   * Set an {@link AsyncCacheLoader} for the given cache. The loader is created by Guice, so it can
+   * depend on application services. The cache is bound as {@link AsyncLoadingCache}.
+   *
+   * @param name Cache name.
+   * @param loader Loader type.
+   * @return This instance.
+   */
+  public CaffeineCache<K, V> asyncLoader(final String name,
+      final Class<? extends AsyncCacheLoader<K, V>> loader) {
+    this.asyncLoaders.put(requireNonNull(name, "Name is required."),
+        requireNonNull(loader, "Loader is required."));
+    return this;
+  }
+
   @SuppressWarnings({"unchecked", "rawtypes" })
   @Override
   public void configure(final Env env, final Config conf, final Binder binder) {
@@ -247,9 +353,30 @@ public abstract class CaffeineCache<K, V> implements Jooby.Module {
         : ConfigFactory.empty().withValue("caffeine.cache", ConfigValueFactory.fromAnyRef(""));
 
     gconf.getObject(name).unwrapped().forEach((name, spec) -> {
-      Caffeine<K, V> cb = (Caffeine<K, V>) Caffeine.from(toSpec(spec));
+      Map<String, String> options = options(spec);
+      String executor = options.remove(EXECUTOR);
 
-      Object cache = callback.apply(name, cb);
+      Caffeine<K, V> cb = (Caffeine<K, V>) Caffeine.from(toSpec(options));
+      if (executor != null) {
+        Provider<Executor> provider = binder
+            .getProvider(Key.get(Executor.class, Names.named(executor)));
+        cb.executor(task -> provider.get().execute(task));
+      }
+
+      Object cache;
+      Class loader = loaders.get(name);
+      Class asyncLoader = asyncLoaders.get(name);
+      if (loader != null) {
+        cache = CaffeineLoaders.build(cb, loader, binder.getProvider(loader));
+      } else if (asyncLoader != null) {
+        cache = CaffeineLoaders.buildAsync(cb, asyncLoader, binder.getProvider(asyncLoader));
+      } else {
+        cache = callback.apply(name, cb);
+      }
+
+      if (options.containsKey(RECORD_STATS) && METRICS) {
+        CaffeineMetrics.bind(binder, this.name + "." + name, cache);
+      }
 
       List<TypeLiteral> types = cacheType(name, cache, getClass().getGenericSuperclass());
 
@@ -293,15 +420,27 @@ public abstract class CaffeineCache<K, V> implements Jooby.Module {
   }
 
   @SuppressWarnings("unchecked")
-  private String toSpec(final Object spec) {
+  private static Map<String, String> options(final Object spec) {
+    Map<String, String> options = new LinkedHashMap<>();
     if (spec instanceof Map) {
-      Map<String, Object> m = (Map<String, Object>) spec;
-      return m.entrySet().stream()
-          .map(e -> e.getKey() + "=" + e.getValue())
-          .collect(Collectors.joining(","))
-          .toString();
+      ((Map<String, Object>) spec).forEach((k, v) -> options.put(k, v.toString()));
+    } else {
+      Splitter.on(',').trimResults().omitEmptyStrings().split(spec.toString()).forEach(option -> {
+        int eq = option.indexOf('=');
+        if (eq > 0) {
+          options.put(option.substring(0, eq).trim(), option.substring(eq + 1).trim());
+        } else {
+          options.put(option, "");
+        }
+      });
     }
-    return spec.toString();
+    return options;
+  }
+
+  private static String toSpec(final Map<String, String> options) {
+    return options.entrySet().stream()
+        .map(e -> e.getValue().isEmpty() ? e.getKey() : e.getKey() + "=" + e.getValue())
+        .collect(Collectors.joining(","));
   }
 
   private static Type[] types(final Type superclass) {
@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.caffeine;
+
+import static java.util.Objects.requireNonNull;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jooby.handlers.ResponseCache;
+import org.jooby.handlers.ResponseCache.Entry;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * <h1>response store</h1>
+ * <p>
+ * A {@link ResponseCache.Store} for the {@link ResponseCache} filter. In order to use it you need
+ * to define a cache named <code>response</code> in your <code>application.conf</code> file:
+ * </p>
+ *
+ * <pre>
+ * caffeine.response = "maximumSize=1000,expireAfterWrite=10m"
+ * </pre>
+ *
+ * And set the {@link CaffeineResponseStore}:
+ *
+ * <pre>
+ * {
+ *   use("GET", "*", new ResponseCache(CaffeineResponseStore.class));
+ * }
+ * </pre>
+ *
+ * @author edgar
+ * @since 1.0.0
+ */
+@Singleton
+public class CaffeineResponseStore implements ResponseCache.Store {
+
+  private Cache<String, Object> cache;
+
+  @Inject
+  public CaffeineResponseStore(@Named("response") final Cache<String, Object> cache) {
+    this.cache = requireNonNull(cache, "Response cache is required.");
+  }
+
+  @Override
+  public Entry get(final String key) {
+    return (Entry) cache.getIfPresent(key);
+  }
+
+  @Override
+  public void put(final String key, final Entry entry) {
+    cache.put(key, entry);
+  }
+
+}
@@ -0,0 +1,155 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.caffeine;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import javax.inject.Provider;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+/**
+ * Build loading caches from a loader created by Guice. Loader is resolved on first use (there is
+ * no injector at configuration time).
+ *
+ * Caffeine checks if a loader overrides <code>loadAll</code> for bulk loading, so bulk versions
+ * are used only when the application loader does.
+ */
+public class CaffeineLoaders {
+
+  private static class Loader<K, V> implements CacheLoader<K, V> {
+
+    private final Provider<? extends CacheLoader<K, V>> loader;
+
+    public Loader(final Provider<? extends CacheLoader<K, V>> loader) {
+      this.loader = loader;
+    }
+
+    @Override
+    public V load(final K key) throws Exception {
+      return loader.get().load(key);
+    }
+
+    @Override
+    public CompletableFuture<V> asyncLoad(final K key, final Executor executor) {
+      return loader.get().asyncLoad(key, executor);
+    }
+
+    @Override
+    public V reload(final K key, final V oldValue) throws Exception {
+      return loader.get().reload(key, oldValue);
+    }
+
+    @Override
+    public CompletableFuture<V> asyncReload(final K key, final V oldValue,
+        final Executor executor) {
+      return loader.get().asyncReload(key, oldValue, executor);
+    }
+
+    protected CacheLoader<K, V> delegate() {
+      return loader.get();
+    }
+  }
+
+  private static class BulkLoader<K, V> extends Loader<K, V> {
+
+    public BulkLoader(final Provider<? extends CacheLoader<K, V>> loader) {
+      super(loader);
+    }
+
+    @Override
+    public Map<K, V> loadAll(final Iterable<? extends K> keys) throws Exception {
+      return delegate().loadAll(keys);
+    }
+
+    @Override
+    public CompletableFuture<Map<K, V>> asyncLoadAll(final Iterable<? extends K> keys,
+        final Executor executor) {
+      return delegate().asyncLoadAll(keys, executor);
+    }
+  }
+
+  private static class AsyncLoader<K, V> implements AsyncCacheLoader<K, V> {
+
+    private final Provider<? extends AsyncCacheLoader<K, V>> loader;
+
+    public AsyncLoader(final Provider<? extends AsyncCacheLoader<K, V>> loader) {
+      this.loader = loader;
+    }
+
+    @Override
+    public CompletableFuture<V> asyncLoad(final K key, final Executor executor) {
+      return loader.get().asyncLoad(key, executor);
+    }
+
+    @Override
+    public CompletableFuture<V> asyncReload(final K key, final V oldValue,
+        final Executor executor) {
+      return loader.get().asyncReload(key, oldValue, executor);
+    }
+
+    protected AsyncCacheLoader<K, V> delegate() {
+      return loader.get();
+    }
+  }
+
+  private static class AsyncBulkLoader<K, V> extends AsyncLoader<K, V> {
+
+    public AsyncBulkLoader(final Provider<? extends AsyncCacheLoader<K, V>> loader) {
+      super(loader);
+    }
+
+    @Override
+    public CompletableFuture<Map<K, V>> asyncLoadAll(final Iterable<? extends K> keys,
+        final Executor executor) {
+      return delegate().asyncLoadAll(keys, executor);
+    }
+  }
+
+  public static <K, V> LoadingCache<K, V> build(final Caffeine<K, V> builder,
+      final Class<?> type, final Provider<? extends CacheLoader<K, V>> loader) {
+    boolean bulk = overrides(type, "loadAll") || overrides(type, "asyncLoadAll");
+    return builder.build(bulk ? new BulkLoader<>(loader) : new Loader<>(loader));
+  }
+
+  public static <K, V> AsyncLoadingCache<K, V> buildAsync(final Caffeine<K, V> builder,
+      final Class<?> type, final Provider<? extends AsyncCacheLoader<K, V>> loader) {
+    boolean bulk = overrides(type, "loadAll") || overrides(type, "asyncLoadAll");
+    return builder.buildAsync(bulk ? new AsyncBulkLoader<>(loader) : new AsyncLoader<>(loader));
+  }
+
+  private static boolean overrides(final Class<?> type, final String method) {
+    for (Method m : type.getMethods()) {
+      Class<?> owner = m.getDeclaringClass();
+      if (m.getName().equals(method) && owner != CacheLoader.class
+          && owner != AsyncCacheLoader.class) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
@@ -0,0 +1,53 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.caffeine;
+
+import java.util.function.Supplier;
+
+import org.jooby.metrics.MetricBinder;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.google.inject.Binder;
+
+/**
+ * Publish cache statistics to <code>jooby-metrics</code>. Loaded only when metrics are available.
+ */
+public class CaffeineMetrics {
+
+  @SuppressWarnings("rawtypes")
+  public static void bind(final Binder binder, final String name, final Object cache) {
+    Cache c = cache instanceof AsyncLoadingCache
+        ? ((AsyncLoadingCache) cache).synchronous()
+        : (Cache) cache;
+    Supplier<CacheStats> stats = c::stats;
+
+    new MetricBinder(binder, name)
+        .gauge("size", c::estimatedSize)
+        .gauge("hitCount", () -> stats.get().hitCount())
+        .gauge("hitRate", () -> stats.get().hitRate())
+        .gauge("missCount", () -> stats.get().missCount())
+        .gauge("loadSuccessCount", () -> stats.get().loadSuccessCount())
+        .gauge("loadFailureCount", () -> stats.get().loadFailureCount())
+        .gauge("averageLoadPenalty", () -> stats.get().averageLoadPenalty())
+        .gauge("evictionCount", () -> stats.get().evictionCount());
+  }
+
+}
@@ -3,22 +3,37 @@ package org.jooby.caffeine;
 import static java.util.Objects.requireNonNull;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import javax.inject.Inject;
 
 import org.jooby.Env;
 import org.jooby.test.MockUnit;
 import org.junit.Test;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
 import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.inject.ConfigurationException;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
 import com.google.inject.name.Names;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
@@ -214,4 +229,140 @@ public class CaffeineCacheTest {
         });
   }
 
+  public static class Dependency {
+  }
+
+  public static class Loader implements CacheLoader<String, Object> {
+
+    @Inject
+    public Loader(final Dependency dependency) {
+      requireNonNull(dependency, "Dependency is required.");
+    }
+
+    @Override
+    public Object load(final String key) throws Exception {
+      return key + "!";
+    }
+  }
+
+  public static class BulkLoader extends Loader {
+
+    static List<String> calls = new ArrayList<>();
+
+    @Inject
+    public BulkLoader(final Dependency dependency) {
+      super(dependency);
+    }
+
+    @Override
+    public Map<String, Object> loadAll(final Iterable<? extends String> keys) throws Exception {
+      Map<String, Object> values = new HashMap<>();
+      keys.forEach(key -> {
+        calls.add(key);
+        values.put(key, key + "*");
+      });
+      return values;
+    }
+  }
+
+  public static class AsyncLoader implements AsyncCacheLoader<String, Object> {
+
+    @Override
+    public CompletableFuture<Object> asyncLoad(final String key, final Executor executor) {
+      return CompletableFuture.supplyAsync(() -> key + "?", executor);
+    }
+  }
+
+  @Test
+  public void loader() throws Exception {
+    Config conf = ConfigFactory.empty()
+        .withValue("caffeine.products", ConfigValueFactory.fromAnyRef("maximumSize=10"));
+    new MockUnit(Env.class)
+        .run(unit -> {
+          Injector injector = Guice.createInjector(binder -> {
+            CaffeineCache.newCache()
+                .loader("products", Loader.class)
+                .configure(unit.get(Env.class), conf, binder);
+          });
+          LoadingCache<String, Object> cache = injector
+              .getInstance(Key.get(new TypeLiteral<LoadingCache<String, Object>>() {
+              }, Names.named("products")));
+          assertEquals("a!", cache.get("a"));
+          assertEquals(ImmutableMap.of("b", "b!", "c", "c!"),
+              cache.getAll(ImmutableList.of("b", "c")));
+        });
+  }
+
+  @Test
+  public void bulkLoader() throws Exception {
+    Config conf = ConfigFactory.empty()
+        .withValue("caffeine.products", ConfigValueFactory.fromAnyRef("maximumSize=10"));
+    new MockUnit(Env.class)
+        .run(unit -> {
+          Injector injector = Guice.createInjector(binder -> {
+            CaffeineCache.newCache()
+                .loader("products", BulkLoader.class)
+                .configure(unit.get(Env.class), conf, binder);
+          });
+          BulkLoader.calls.clear();
+          LoadingCache<String, Object> cache = injector
+              .getInstance(Key.get(new TypeLiteral<LoadingCache<String, Object>>() {
+              }, Names.named("products")));
+          assertEquals(ImmutableMap.of("b", "b*", "c", "c*"),
+              cache.getAll(ImmutableList.of("b", "c")));
+          assertEquals(ImmutableList.of("b", "c"), BulkLoader.calls);
+        });
+  }
+
+  @Test
+  public void asyncLoaderWithExecutor() throws Exception {
+    Config conf = ConfigFactory.empty()
+        .withValue("caffeine.products.maximumSize", ConfigValueFactory.fromAnyRef(10))
+        .withValue("caffeine.products.executor", ConfigValueFactory.fromAnyRef("loaders"));
+    AtomicInteger tasks = new AtomicInteger();
+    new MockUnit(Env.class)
+        .run(unit -> {
+          Injector injector = Guice.createInjector(binder -> {
+            binder.bind(Key.get(Executor.class, Names.named("loaders"))).toInstance(task -> {
+              tasks.incrementAndGet();
+              task.run();
+            });
+            CaffeineCache.newCache()
+                .asyncLoader("products", AsyncLoader.class)
+                .configure(unit.get(Env.class), conf, binder);
+          });
+          AsyncLoadingCache<String, Object> cache = injector
+              .getInstance(Key.get(new TypeLiteral<AsyncLoadingCache<String, Object>>() {
+              }, Names.named("products")));
+          assertEquals("a?", cache.get("a").get());
+          assertTrue(tasks.get() > 0);
+        });
+  }
+
+  @Test
+  public void metrics() throws Exception {
+    Config conf = ConfigFactory.empty()
+        .withValue("caffeine.cache", ConfigValueFactory.fromAnyRef("maximumSize=10,recordStats"))
+        .withValue("caffeine.session", ConfigValueFactory.fromAnyRef(""));
+    new MockUnit(Env.class)
+        .run(unit -> {
+          Injector injector = Guice.createInjector(binder -> {
+            CaffeineCache.newCache().configure(unit.get(Env.class), conf, binder);
+          });
+          Cache<String, Object> cache = injector
+              .getInstance(Key.get(new TypeLiteral<Cache<String, Object>>() {
+              }));
+          cache.put("a", "b");
+          cache.getIfPresent("a");
+          cache.getIfPresent("x");
+          Map<String, Metric> metrics = injector
+              .getInstance(Key.get(new TypeLiteral<Map<String, Metric>>() {
+              }));
+          assertEquals(1L, ((Gauge<?>) metrics.get("caffeine.cache.hitCount")).getValue());
+          assertEquals(1L, ((Gauge<?>) metrics.get("caffeine.cache.missCount")).getValue());
+          assertEquals(1L, ((Gauge<?>) metrics.get("caffeine.cache.size")).getValue());
+          assertEquals(null, metrics.get("caffeine.session.hitCount"));
+        });
+  }
+
 }
@@ -20,6 +20,8 @@ package org.jooby.ehcache;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
@@ -28,6 +30,8 @@ import org.jooby.Env;
 import org.jooby.Jooby;
 import org.jooby.internal.ehcache.CacheConfigurationBuilder;
 import org.jooby.internal.ehcache.ConfigurationBuilder;
+import org.jooby.internal.ehcache.EhMetrics;
+import org.jooby.internal.ehcache.SerializedCache;
 
 import com.google.inject.Binder;
 import com.google.inject.name.Names;
@@ -36,6 +40,7 @@ import com.typesafe.config.ConfigFactory;
 import com.typesafe.config.ConfigObject;
 import com.typesafe.config.ConfigValue;
 
+import javaslang.control.Try;
 import net.sf.ehcache.CacheManager;
 import net.sf.ehcache.Ehcache;
 import net.sf.ehcache.config.Configuration;
@@ -152,6 +157,56 @@ import net.sf.ehcache.config.Configuration;
  * Please note the <code>default</code> cache works as a template and isn't a real/usable cache.
  * </p>
  *
+ * <h3>off-heap and disk tiers</h3>
+ * <p>
+ * Large values (rendered fragments, API responses, etc.) can live outside of the heap. Tiers are
+ * sized in bytes:
+ * </p>
+ *
+ * <pre>
+ * ehcache.cache.fragments {
+ *   maxBytesLocalHeap = 64m
+ *   maxBytesLocalOffHeap = 2g
+ *   maxBytesLocalDisk = 8g
+ *   persistence.strategy = localTempSwap
+ *   serializer = string
+ * }
+ * </pre>
+ *
+ * <p>
+ * Please note the off-heap tier requires BigMemory (the open source <code>ehcache</code> ships
+ * heap and disk tiers only) plus <code>-XX:MaxDirectMemorySize</code> large enough.
+ * </p>
+ *
+ * <p>
+ * Values moved to off-heap or disk are serialized. A {@link EhSerializer} keeps the values of a
+ * cache as <code>byte[]</code> (cheap to move between tiers and accurately sized). Ready-made
+ * serializers are: <code>bytes</code>, <code>string</code> and <code>jackson</code> (requires
+ * <code>jackson-databind</code>). Custom serializers are set via class name in
+ * <code>.conf</code> or with {@link #serializer(String, EhSerializer)}.
+ * </p>
+ *
+ * <h3>metrics</h3>
+ * <p>
+ * Cache and tier statistics are published to <code>jooby-metrics</code> when enabled:
+ * </p>
+ *
+ * <pre>
+ * {
+ *   use(new Eh().metrics(true));
+ *
+ *   use(new Metrics());
+ * }
+ * </pre>
+ *
+ * <p>
+ * Available metrics are: <code>ehcache.[name].size</code>, <code>ehcache.[name].hitCount</code>,
+ * <code>ehcache.[name].missCount</code>, <code>ehcache.[name].evictionCount</code> and
+ * <code>hitCount</code>, <code>missCount</code> and <code>bytes</code> for each tier:
+ * <code>ehcache.[name].heap.*</code>, <code>ehcache.[name].offheap.*</code> and
+ * <code>ehcache.[name].disk.*</code>.
+ * </p>
+ *
  * <h2>session store</h2>
  * <p>
  * This module provides an {@link EhSessionStore}. In order to use the {@link EhSessionStore} all
@@ -244,6 +299,10 @@ public class Eh implements Jooby.Module {
    */
   private BiConsumer<Configuration, Config> configurer;
 
+  private Map<String, EhSerializer> serializers = new HashMap<>();
+
+  private boolean metrics;
+
   @Override
   public void configure(final Env env, final Config config, final Binder binder) {
 
@@ -259,6 +318,7 @@ public class Eh implements Jooby.Module {
 
     Config userCaches = caches.withoutPath("default");
 
+    Map<String, EhSerializer> serializers = new HashMap<>();
     for (Entry<String, ConfigValue> userCache : userCaches.root().entrySet()) {
       ConfigValue value = userCache.getValue();
       String cname = userCache.getKey();
@@ -266,19 +326,41 @@ public class Eh implements Jooby.Module {
       if (value instanceof ConfigObject) {
         ccache = ((ConfigObject) value).toConfig();
       }
-      ehconfig.addCache(new CacheConfigurationBuilder(cname).build(ccache.withFallback(defcache)));
+      ccache = ccache.withFallback(defcache);
+      ehconfig.addCache(new CacheConfigurationBuilder(cname).build(ccache));
+      if (ccache.hasPath("serializer")) {
+        serializers.put(cname, serializer(ccache.getString("serializer")));
+      }
     }
+    serializers.putAll(this.serializers);
 
     if (configurer != null) {
       configurer.accept(ehconfig, config);
     }
 
+    serializers.keySet().forEach(name -> {
+      if (!ehconfig.getCacheConfigurations().containsKey(name)) {
+        throw new IllegalArgumentException("No such cache: " + name);
+      }
+    });
+
     CacheManager cm = CacheManager.newInstance(ehconfig);
 
     binder.bind(CacheManager.class).toInstance(cm);
 
     env.onStop(cm::shutdown);
 
+    serializers.forEach((name, serializer) -> {
+      Ehcache cache = cm.getEhcache(name);
+      cm.replaceCacheWithDecoratedCache(cache, new SerializedCache(cache, serializer));
+    });
+
+    if (metrics) {
+      for (String name : cm.getCacheNames()) {
+        EhMetrics.bind(binder, cm.getEhcache(name));
+      }
+    }
+
     String[] names = cm.getCacheNames();
     if (names.length == 1) {
       // just one cache, bind it without name
@@ -313,9 +395,52 @@ public class Eh implements Jooby.Module {
     return doWith((ehconf, conf) -> configurer.accept(ehconf));
   }
 
+  /**
+   * Keep values of the given cache as <code>byte[]</code> using the provided serializer. Useful
+   * for caches with off-heap or disk tiers. The cache must be defined in <code>.conf</code> or
+   * via {@link #doWith(Consumer)}, otherwise startup fails with an
+   * {@link IllegalArgumentException}.
+   *
+   * @param cache Cache name.
+   * @param serializer Value serializer.
+   * @return This {@link Eh} cache.
+   */
+  public Eh serializer(final String cache, final EhSerializer serializer) {
+    serializers.put(requireNonNull(cache, "Cache name is required."),
+        requireNonNull(serializer, "Serializer is required."));
+    return this;
+  }
+
+  /**
+   * Publish cache and tier (heap, off-heap, disk) statistics. Metrics are available when the
+   * <code>jooby-metrics</code> module is installed.
+   *
+   * @param metrics True for publishing cache metrics.
+   * @return This {@link Eh} cache.
+   */
+  public Eh metrics(final boolean metrics) {
+    this.metrics = metrics;
+    return this;
+  }
+
   @Override
   public Config config() {
     return ConfigFactory.parseResources(getClass(), "ehcache.conf");
   }
 
+  private static EhSerializer serializer(final String name) {
+    switch (name) {
+      case "bytes":
+        return EhSerializer.bytes();
+      case "string":
+        return EhSerializer.string();
+      case "jackson":
+        return EhSerializer.jackson();
+      default:
+        return Try.of(() -> (EhSerializer) Eh.class.getClassLoader().loadClass(name)
+            .newInstance())
+            .get();
+    }
+  }
+
 }
@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.ehcache;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.jooby.handlers.ResponseCache;
+import org.jooby.handlers.ResponseCache.Entry;
+
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.Element;
+
+/**
+ * <h1>response store</h1>
+ * <p>
+ * A {@link ResponseCache.Store} for the {@link ResponseCache} filter. In order to use it you need
+ * to define a cache named <code>response</code> in your <code>application.conf</code> file:
+ * </p>
+ *
+ * <pre>
+ * ehcache.cache.response {
+ *   maxEntriesLocalHeap = 1000
+ * }
+ * </pre>
+ *
+ * And set the {@link EhResponseStore}:
+ *
+ * <pre>
+ * {
+ *   use("GET", "*", new ResponseCache(EhResponseStore.class));
+ * }
+ * </pre>
+ *
+ * <p>
+ * Elements are saved with a time to live that matches the response expiration.
+ * </p>
+ *
+ * @author edgar
+ * @since 1.0.0
+ */
+public class EhResponseStore implements ResponseCache.Store {
+
+  private Ehcache cache;
+
+  @Inject
+  public EhResponseStore(@Named("response") final Ehcache cache) {
+    this.cache = requireNonNull(cache, "Response cache is required.");
+  }
+
+  @Override
+  public Entry get(final String key) {
+    Element element = cache.get(key);
+    if (element == null) {
+      return null;
+    }
+    return (Entry) element.getObjectValue();
+  }
+
+  @Override
+  public void put(final String key, final Entry entry) {
+    Element element = new Element(key, entry);
+    element.setTimeToLive(ttl(entry));
+    cache.put(element);
+  }
+
+  private static int ttl(final Entry entry) {
+    long millis = entry.staleAt() - System.currentTimeMillis();
+    return (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(millis));
+  }
+
+}
@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.ehcache;
+
+import java.nio.charset.StandardCharsets;
+
+import org.jooby.internal.ehcache.JacksonSerializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Convert cache values to <code>byte[]</code> and back. Caches with a serializer keep values as
+ * <code>byte[]</code>, which are cheap to move to off-heap and disk tiers (no java serialization
+ * of the value graph) and are accurately sized by the byte based limits.
+ *
+ * <pre>
+ * ehcache.cache.fragments {
+ *   maxBytesLocalHeap = 64m
+ *   maxBytesLocalDisk = 4g
+ *   persistence.strategy = localTempSwap
+ *   serializer = string
+ * }
+ * </pre>
+ *
+ * <p>
+ * Available serializers are: <code>bytes</code>, <code>string</code>, <code>jackson</code> or the
+ * name of a class that implements {@link EhSerializer}.
+ * </p>
+ *
+ * @author edgar
+ * @since 1.0.0
+ */
+public interface EhSerializer {
+
+  /**
+   * Convert a value to bytes.
+   *
+   * @param value Value to convert.
+   * @return Bytes.
+   * @throws Exception If conversion fails.
+   */
+  byte[] serialize(Object value) throws Exception;
+
+  /**
+   * Convert bytes to a value.
+   *
+   * @param bytes Bytes.
+   * @return A value.
+   * @throws Exception If conversion fails.
+   */
+  Object deserialize(byte[] bytes) throws Exception;
+
+  /**
+   * @return A serializer for <code>byte[]</code> values (values are stored as they are).
+   */
+  static EhSerializer bytes() {
+    return new EhSerializer() {
+      @Override
+      public byte[] serialize(final Object value) {
+        return (byte[]) value;
+      }
+
+      @Override
+      public Object deserialize(final byte[] bytes) {
+        return bytes;
+      }
+    };
+  }
+
+  /**
+   * @return A serializer for {@link String} values (UTF-8).
+   */
+  static EhSerializer string() {
+    return new EhSerializer() {
+      @Override
+      public byte[] serialize(final Object value) {
+        return value.toString().getBytes(StandardCharsets.UTF_8);
+      }
+
+      @Override
+      public Object deserialize(final byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+      }
+    };
+  }
+
+  /**
+   * A JSON serializer for any value that Jackson is able to write and read. Requires
+   * <code>jackson-databind</code>.
+   *
+   * @param mapper Object mapper.
+   * @return A JSON serializer.
+   */
+  static EhSerializer jackson(final ObjectMapper mapper) {
+    return new JacksonSerializer(mapper);
+  }
+
+  /**
+   * A JSON serializer with a default {@link ObjectMapper}. Requires
+   * <code>jackson-databind</code>.
+   *
+   * @return A JSON serializer.
+   */
+  static EhSerializer jackson() {
+    return jackson(new ObjectMapper());
+  }
+
+}
@@ -45,6 +45,12 @@ import org.jooby.Session.Builder;
  * In this example cache will expire after 30 minutes of inactivity. But of course, you can do
  * whatever you want/need.
  *
+ * <p>
+ * Sessions are saved as <code>byte[]</code> using the {@link Session.Codec} of
+ * {@link Session.Definition#codec()}, which makes them cheap to copy/serialize by off-heap, disk
+ * or replicated caches. Sessions saved as a {@link Map} (previous format) are still readable.
+ * </p>
+ *
  * @author edgar
  * @since 0.6.0
  */
@@ -52,9 +58,20 @@ public class EhSessionStore implements Session.Store {
 
   private Ehcache cache;
 
-  @Inject
-  public EhSessionStore(@Named("session") final Ehcache cache) {
+  private Session.Codec codec;
+
+  public EhSessionStore(final Ehcache cache, final Session.Codec codec) {
     this.cache = requireNonNull(cache, "Sessions cache is required.");
+    this.codec = requireNonNull(codec, "Codec is required.");
+  }
+
+  public EhSessionStore(final Ehcache cache) {
+    this(cache, new Session.BinaryCodec());
+  }
+
+  @Inject
+  public EhSessionStore(@Named("session") final Ehcache cache, final Session.Definition session) {
+    this(cache, session.codec().orElseGet(Session.BinaryCodec::new));
   }
 
   @SuppressWarnings("unchecked")
@@ -65,7 +82,11 @@ public class EhSessionStore implements Session.Store {
     if (element == null) {
       return null;
     }
-    Map<String, String> attrs = new HashMap<>((Map<String, String>) element.getObjectValue());
+    Object value = element.getObjectValue();
+    if (value instanceof byte[]) {
+      return codec.decode(builder, (byte[]) value);
+    }
+    Map<String, String> attrs = new HashMap<>((Map<String, String>) value);
     return builder
         .accessedAt(Long.parseLong(attrs.remove("_accessedAt")))
         .createdAt(Long.parseLong(attrs.remove("_createdAt")))
@@ -76,12 +97,7 @@ public class EhSessionStore implements Session.Store {
 
   @Override
   public void save(final Session session) {
-    Map<String, String> attributes = new HashMap<>(session.attributes());
-    attributes.put("_accessedAt", Long.toString(session.accessedAt()));
-    attributes.put("_createdAt", Long.toString(session.createdAt()));
-    attributes.put("_savedAt", Long.toString(session.savedAt()));
-
-    cache.put(new Element(session.id(), attributes));
+    cache.put(new Element(session.id(), codec.encode(session)));
   }
 
   @Override
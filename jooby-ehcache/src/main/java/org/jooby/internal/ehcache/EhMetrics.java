@@ -0,0 +1,56 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.ehcache;
+
+import org.jooby.metrics.MetricBinder;
+
+import com.google.inject.Binder;
+
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.statistics.StatisticsGateway;
+
+/**
+ * Publish cache and tier (heap, off-heap, disk) statistics to <code>jooby-metrics</code>. Loaded
+ * only when metrics are enabled.
+ */
+public class EhMetrics {
+
+  public static void bind(final Binder binder, final Ehcache cache) {
+    StatisticsGateway stats = cache.getStatistics();
+
+    new MetricBinder(binder, "ehcache." + cache.getName())
+        .gauge("size", stats::getSize)
+        .gauge("hitCount", stats::cacheHitCount)
+        .gauge("missCount", stats::cacheMissCount)
+        .gauge("evictionCount", stats::cacheEvictedCount)
+
+        .gauge("heap.hitCount", stats::localHeapHitCount)
+        .gauge("heap.missCount", stats::localHeapMissCount)
+        .gauge("heap.bytes", stats::getLocalHeapSizeInBytes)
+
+        .gauge("offheap.hitCount", stats::localOffHeapHitCount)
+        .gauge("offheap.missCount", stats::localOffHeapMissCount)
+        .gauge("offheap.bytes", stats::getLocalOffHeapSizeInBytes)
+
+        .gauge("disk.hitCount", stats::localDiskHitCount)
+        .gauge("disk.missCount", stats::localDiskMissCount)
+        .gauge("disk.bytes", stats::getLocalDiskSizeInBytes);
+  }
+
+}
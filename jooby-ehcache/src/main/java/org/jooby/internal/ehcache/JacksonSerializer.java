@@ -0,0 +1,61 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.ehcache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.jooby.ehcache.EhSerializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Write values as JSON prefixed by the value type, so they can be read back without knowing the
+ * type up front.
+ */
+public class JacksonSerializer implements EhSerializer {
+
+  private ObjectMapper mapper;
+
+  public JacksonSerializer(final ObjectMapper mapper) {
+    this.mapper = mapper;
+  }
+
+  @Override
+  public byte[] serialize(final Object value) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeUTF(value.getClass().getName());
+    // DataOutputStream is a DataOutput too, pick the stream overloads
+    mapper.writeValue((OutputStream) out, value);
+    return bytes.toByteArray();
+  }
+
+  @Override
+  public Object deserialize(final byte[] bytes) throws Exception {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+    Class<?> type = getClass().getClassLoader().loadClass(in.readUTF());
+    return mapper.readValue((InputStream) in, type);
+  }
+
+}
@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.ehcache;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jooby.ehcache.EhSerializer;
+
+import net.sf.ehcache.CacheException;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.Element;
+import net.sf.ehcache.constructs.EhcacheDecoratorAdapter;
+
+/**
+ * Keep cache values as <code>byte[]</code> using an {@link EhSerializer}. Values are serialized
+ * on writes and deserialized on reads.
+ */
+public class SerializedCache extends EhcacheDecoratorAdapter {
+
+  private EhSerializer serializer;
+
+  public SerializedCache(final Ehcache cache, final EhSerializer serializer) {
+    super(cache);
+    this.serializer = serializer;
+  }
+
+  @Override
+  public void put(final Element element) {
+    super.put(encode(element));
+  }
+
+  @Override
+  public void put(final Element element, final boolean doNotNotifyCacheReplicators) {
+    super.put(encode(element), doNotNotifyCacheReplicators);
+  }
+
+  @Override
+  public void putQuiet(final Element element) {
+    super.putQuiet(encode(element));
+  }
+
+  @Override
+  public void putWithWriter(final Element element) {
+    super.putWithWriter(encode(element));
+  }
+
+  @Override
+  public void putAll(final Collection<Element> elements) {
+    elements.forEach(this::put);
+  }
+
+  @Override
+  public Element putIfAbsent(final Element element) {
+    return decode(super.putIfAbsent(encode(element)));
+  }
+
+  @Override
+  public Element putIfAbsent(final Element element, final boolean doNotNotifyCacheReplicators) {
+    return decode(super.putIfAbsent(encode(element), doNotNotifyCacheReplicators));
+  }
+
+  @Override
+  public Element replace(final Element element) {
+    return decode(super.replace(encode(element)));
+  }
+
+  @Override
+  public boolean replace(final Element old, final Element element) {
+    return super.replace(encode(old), encode(element));
+  }
+
+  @Override
+  public boolean removeElement(final Element element) {
+    return super.removeElement(encode(element));
+  }
+
+  @Override
+  public Element get(final Object key) {
+    return decode(super.get(key));
+  }
+
+  @Override
+  public Element get(final Serializable key) {
+    return decode(super.get(key));
+  }
+
+  @Override
+  public Element getQuiet(final Object key) {
+    return decode(super.getQuiet(key));
+  }
+
+  @Override
+  public Element getQuiet(final Serializable key) {
+    return decode(super.getQuiet(key));
+  }
+
+  @Override
+  public Map<Object, Element> getAll(final Collection<?> keys) {
+    Map<Object, Element> elements = super.getAll(keys);
+    Map<Object, Element> result = new HashMap<>(elements.size());
+    elements.forEach((key, element) -> result.put(key, decode(element)));
+    return result;
+  }
+
+  private Element encode(final Element element) {
+    Object value = element.getObjectValue();
+    if (value == null) {
+      return element;
+    }
+    try {
+      return copy(element, serializer.serialize(value));
+    } catch (Exception ex) {
+      throw new CacheException("Unable to serialize value of: " + element.getObjectKey(), ex);
+    }
+  }
+
+  private Element decode(final Element element) {
+    if (element == null || !(element.getObjectValue() instanceof byte[])) {
+      return element;
+    }
+    try {
+      return copy(element, serializer.deserialize((byte[]) element.getObjectValue()));
+    } catch (Exception ex) {
+      throw new CacheException("Unable to deserialize value of: " + element.getObjectKey(), ex);
+    }
+  }
+
+  private static Element copy(final Element element, final Object value) {
+    return new Element(element.getObjectKey(), value, element.getVersion(),
+        element.getCreationTime(), element.getLastAccessTime(), element.getHitCount(),
+        element.usesCacheDefaultLifespan(), element.getTimeToLive(), element.getTimeToIdle(),
+        element.getLastUpdateTime());
+  }
+
+}
@@ -54,6 +54,22 @@ public class EhCacheTest {
         });
   }
 
+  @Test(expected = IllegalArgumentException.class)
+  public void serializerOnMissingCache() throws Exception {
+
+    new MockUnit(Env.class, Config.class, Binder.class)
+        .expect(unit -> {
+          Config ehcache = unit.get(Config.class);
+
+          expect(ehcache.getConfig("ehcache")).andReturn(empty());
+        })
+        .run(unit -> {
+          new Eh()
+              .serializer("missing", EhSerializer.bytes())
+              .configure(unit.get(Env.class), unit.get(Config.class), unit.get(Binder.class));
+        });
+  }
+
   private Config empty() {
     return ConfigFactory.empty()
           .withValue("cache.default", ConfigValueFactory.fromAnyRef(defaultCache()));
@@ -0,0 +1,50 @@
+package org.jooby.ehcache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+public class EhSerializerTest {
+
+  public static class Bean {
+    public String name;
+
+    public List<Integer> values;
+  }
+
+  @Test
+  public void bytes() throws Exception {
+    EhSerializer serializer = EhSerializer.bytes();
+    byte[] bytes = {1, 2, 3 };
+    assertArrayEquals(bytes, serializer.serialize(bytes));
+    assertArrayEquals(bytes, (byte[]) serializer.deserialize(bytes));
+  }
+
+  @Test
+  public void string() throws Exception {
+    EhSerializer serializer = EhSerializer.string();
+    assertEquals("jooby ñ", serializer.deserialize(serializer.serialize("jooby ñ")));
+  }
+
+  @Test
+  public void jackson() throws Exception {
+    EhSerializer serializer = EhSerializer.jackson();
+
+    Bean bean = new Bean();
+    bean.name = "jooby";
+    bean.values = Lists.newArrayList(1, 2);
+    Bean copy = (Bean) serializer.deserialize(serializer.serialize(bean));
+    assertEquals("jooby", copy.name);
+    assertEquals(Lists.newArrayList(1, 2), copy.values);
+
+    assertEquals(ImmutableMap.of("k", "v"),
+        serializer.deserialize(serializer.serialize(ImmutableMap.of("k", "v"))));
+  }
+
+}
@@ -0,0 +1,79 @@
+package org.jooby.internal.ehcache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.jooby.ehcache.EhSerializer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.Element;
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.config.Configuration;
+
+public class SerializedCacheTest {
+
+  private CacheManager cm;
+
+  private Ehcache cache;
+
+  @Before
+  public void before() {
+    Configuration conf = new Configuration();
+    conf.setName("SerializedCacheTest");
+    conf.addCache(new CacheConfiguration("c", 100));
+    cm = CacheManager.newInstance(conf);
+    Ehcache cache = cm.getEhcache("c");
+    cm.replaceCacheWithDecoratedCache(cache,
+        new SerializedCache(cache, EhSerializer.string()));
+    this.cache = cm.getEhcache("c");
+  }
+
+  @After
+  public void after() {
+    cm.shutdown();
+  }
+
+  @Test
+  public void putAndGet() throws Exception {
+    assertTrue(cache instanceof SerializedCache);
+    cache.put(new Element("k", "v"));
+
+    assertEquals("v", cache.get("k").getObjectValue());
+    assertEquals("v", cache.getQuiet("k").getObjectValue());
+    // stored as bytes
+    assertTrue(((SerializedCache) cache).getUnderlyingCache().get("k")
+        .getObjectValue() instanceof byte[]);
+    assertEquals(null, cache.get("missing"));
+  }
+
+  @Test
+  public void getAll() throws Exception {
+    cache.put(new Element("a", "1"));
+    cache.put(new Element("b", "2"));
+
+    Map<Object, Element> elements = cache.getAll(Arrays.asList("a", "b"));
+    assertEquals("1", elements.get("a").getObjectValue());
+    assertEquals("2", elements.get("b").getObjectValue());
+  }
+
+  @Test
+  public void putIfAbsentAndReplace() throws Exception {
+    assertEquals(null, cache.putIfAbsent(new Element("k", "v1")));
+    assertEquals("v1", cache.putIfAbsent(new Element("k", "v2")).getObjectValue());
+
+    assertTrue(cache.replace(new Element("k", "v1"), new Element("k", "v3")));
+    assertEquals("v3", cache.get("k").getObjectValue());
+
+    assertEquals("v3", cache.replace(new Element("k", "v4")).getObjectValue());
+    assertTrue(cache.removeElement(new Element("k", "v4")));
+    assertEquals(null, cache.get("k"));
+  }
+
+}
@@ -0,0 +1,203 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.exec;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * <h1>bounded executor</h1>
+ * <p>
+ * A {@link ThreadPoolExecutor} with a bounded work queue and admission control. Created by
+ * {@link Exec} when an executor spec defines a <code>queue</code> or <code>deadline</code> option:
+ * </p>
+ *
+ * <pre>
+ * executors = "fixed = 10, queue = 100, deadline = 500"
+ * </pre>
+ *
+ * <p>
+ * A task submitted while the queue is full is rejected with a
+ * {@link RejectedExecutionException}, which Jooby translates to a <code>503</code> response.
+ * </p>
+ * <p>
+ * A task that waited in the queue for longer than <code>deadline</code> milliseconds is dropped
+ * when it is a {@link Future} (like deferred requests are): the future is cancelled instead of
+ * executed. Tasks that aren't a {@link Future} always run.
+ * </p>
+ *
+ * @author edgar
+ * @since 1.0.0
+ */
+public class BoundedExecutor extends ThreadPoolExecutor {
+
+  /**
+   * Keep track of the time a task was enqueued.
+   */
+  private class Task implements Runnable {
+
+    private final Runnable task;
+
+    private final long queuedAt;
+
+    Task(final Runnable task) {
+      this.task = task;
+      this.queuedAt = System.nanoTime();
+    }
+
+    @Override
+    public void run() {
+      long waitTime = System.nanoTime() - queuedAt;
+      waits.increment();
+      totalWaitTime.add(waitTime);
+      onWait.accept(waitTime);
+      if (deadline > 0 && waitTime > deadline && task instanceof Future) {
+        expired.increment();
+        ((Future<?>) task).cancel(false);
+      } else {
+        task.run();
+      }
+    }
+
+    @Override
+    public String toString() {
+      return task.toString();
+    }
+  }
+
+  private static final LongConsumer NOOP = waitTime -> {
+  };
+
+  private final String name;
+
+  private final int capacity;
+
+  private final long deadline;
+
+  private final LongAdder rejected = new LongAdder();
+
+  private final LongAdder expired = new LongAdder();
+
+  private final LongAdder waits = new LongAdder();
+
+  private final LongAdder totalWaitTime = new LongAdder();
+
+  private volatile LongConsumer onWait = NOOP;
+
+  /**
+   * Creates a new {@link BoundedExecutor}.
+   *
+   * @param name Executor's name, used in error messages.
+   * @param threads Max number of threads.
+   * @param capacity Queue capacity, must be positive.
+   * @param deadline Max time (in millis) a task is allowed to wait in the queue. Zero or less for
+   *        no deadline.
+   * @param threadFactory Thread factory.
+   */
+  public BoundedExecutor(final String name, final int threads, final int capacity,
+      final long deadline, final ThreadFactory threadFactory) {
+    super(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(capacity),
+        threadFactory);
+    this.name = requireNonNull(name, "Name is required.");
+    this.capacity = capacity;
+    this.deadline = TimeUnit.MILLISECONDS.toNanos(Math.max(0, deadline));
+    setRejectedExecutionHandler((task, executor) -> {
+      rejected.increment();
+      throw new RejectedExecutionException(
+          "Executor '" + this.name + "' is saturated: " + getActiveCount() + " active of "
+              + getMaximumPoolSize() + " with " + getQueue().size() + " of " + this.capacity
+              + " queued task(s)");
+    });
+  }
+
+  @Override
+  public void execute(final Runnable command) {
+    super.execute(new Task(requireNonNull(command, "Command is required.")));
+  }
+
+  /**
+   * Set a listener that is notified of the time (in nanos) every task waited in the queue. Useful
+   * for publishing the queue time to a metric system.
+   *
+   * @param listener A wait time listener.
+   * @return This executor.
+   */
+  public BoundedExecutor onWait(final LongConsumer listener) {
+    this.onWait = requireNonNull(listener, "Listener is required.");
+    return this;
+  }
+
+  /**
+   * @return Executor's name.
+   */
+  public String name() {
+    return name;
+  }
+
+  /**
+   * @return Queue capacity.
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * @return Number of tasks waiting in the queue.
+   */
+  public int queued() {
+    return getQueue().size();
+  }
+
+  /**
+   * @return Number of tasks rejected because the queue was full.
+   */
+  public long rejected() {
+    return rejected.sum();
+  }
+
+  /**
+   * @return Number of tasks cancelled because they exceeded the queue deadline.
+   */
+  public long expired() {
+    return expired.sum();
+  }
+
+  /**
+   * @return Average time (in nanos) a task waited in the queue.
+   */
+  public long avgWaitTime() {
+    long count = waits.sum();
+    return count == 0 ? 0 : totalWaitTime.sum() / count;
+  }
+
+  @Override
+  public String toString() {
+    return name + "[threads=" + getMaximumPoolSize() + ", queue=" + capacity + ", deadline="
+        + TimeUnit.NANOSECONDS.toMillis(deadline) + "ms]";
+  }
+
+}
@@ -34,6 +34,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
 import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
@@ -41,6 +42,7 @@ import java.util.function.Supplier;
 
 import org.jooby.Env;
 import org.jooby.Jooby.Module;
+import org.jooby.internal.exec.ExecMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -99,7 +101,8 @@ import javaslang.control.Try;
  * </p>
  *
  * <pre>
- * type (= int)? (, daemon (= boolean)? )? (, priority (= int)? )?
+ * type (= int)? (, daemon (= boolean)? )? (, priority (= int)? )? (, queue = int)?
+ *   (, deadline = int)?
  * </pre>
  *
  * <p>
@@ -160,6 +163,49 @@ import javaslang.control.Try;
  * }
  * }</pre>
  *
+ * <h2>bounded executors</h2>
+ * <p>
+ * The <code>fixed</code> and <code>cached</code> executors use an unbounded queue (or unbounded
+ * threads), so under overload deferred requests pile up until the heap fills. Admission control is
+ * provided by the <code>queue</code> and <code>deadline</code> options:
+ * </p>
+ *
+ * <pre>
+ * # 10 threads, at most 100 waiting tasks and a queue time of 500ms
+ * executors = "fixed = 10, queue = 100, deadline = 500"
+ * </pre>
+ *
+ * <pre>
+ * # up to 50 threads (idle threads die after 60s), at most 200 waiting tasks
+ * executors = "cached = 50, queue = 200"
+ * </pre>
+ *
+ * <p>
+ * A deferred request submitted while the queue is full, or that waited in the queue for longer
+ * than <code>deadline</code> milliseconds, is shed: it never runs and the client gets a
+ * <code>503</code> response with a <code>Retry-After</code> header. See {@link #retryAfter(int)}
+ * and {@link BoundedExecutor}.
+ * </p>
+ *
+ * <h2>metrics</h2>
+ * <p>
+ * Executor metrics are published to <code>jooby-metrics</code> when enabled:
+ * </p>
+ * <pre>{@code
+ * {
+ *   use(new Exec().metrics(true));
+ *
+ *   use(new Metrics());
+ * }
+ * }</pre>
+ *
+ * <p>
+ * Available metrics are: <code>executors.[name].queue</code>, <code>executors.[name].active</code>
+ * and <code>executors.[name].size</code>. Bounded executors also publish
+ * <code>executors.[name].wait</code> (queue time), <code>executors.[name].rejected</code> and
+ * <code>executors.[name].expired</code>.
+ * </p>
+ *
  * <h2>shutdown</h2>
  * <p>
  * Any {@link ExecutorService} created by this module will automatically shutdown on application
@@ -181,12 +227,25 @@ public class Exec implements Module {
 
   private int priority = Thread.NORM_PRIORITY;
 
+  private int retryAfter = 1;
+
+  private boolean metrics;
+
   private Map<String, Function4<String, Integer, Supplier<ThreadFactory>, Map<String, Object>, ExecutorService>> f =
       /** executor factory. */
       ImmutableMap
           .of(
-              "cached", (name, n, tf, opts) -> Executors.newCachedThreadPool(tf.get()),
-              "fixed", (name, n, tf, opts) -> Executors.newFixedThreadPool(n, tf.get()),
+              "cached", (name, n, tf, opts) -> {
+                if (bounded(opts)) {
+                  BoundedExecutor executor = bounded(name, n, tf, opts);
+                  executor.allowCoreThreadTimeOut(true);
+                  return executor;
+                }
+                return Executors.newCachedThreadPool(tf.get());
+              },
+              "fixed", (name, n, tf, opts) -> bounded(opts)
+                  ? bounded(name, n, tf, opts)
+                  : Executors.newFixedThreadPool(n, tf.get()),
               "scheduled", (name, n, tf, opts) -> Executors.newScheduledThreadPool(n, tf.get()),
               "forkjoin", (name, n, tf, opts) -> {
                 boolean asyncMode = Boolean.parseBoolean(opts.getOrDefault("asyncMode", "false")
@@ -229,6 +288,31 @@ public class Exec implements Module {
     return this;
   }
 
+  /**
+   * Set the value of the <code>Retry-After</code> header (in seconds) sent it when a request got
+   * rejected by a bounded executor. Default is: <code>1</code>.
+   *
+   * @param retryAfter Retry after value in seconds.
+   * @return This module.
+   */
+  public Exec retryAfter(final int retryAfter) {
+    this.retryAfter = retryAfter;
+    return this;
+  }
+
+  /**
+   * Publish executor metrics (queue depth, active threads, pool size, plus queue time, rejected
+   * and expired tasks for bounded executors) under the <code>executors.[name]</code> prefix. The
+   * metrics are available when the <code>jooby-metrics</code> module is installed.
+   *
+   * @param metrics True for publishing executor metrics.
+   * @return This module.
+   */
+  public Exec metrics(final boolean metrics) {
+    this.metrics = metrics;
+    return this;
+  }
+
   @Override
   public Config config() {
     return ConfigFactory.empty("exec.conf").withValue(namespace,
@@ -247,6 +331,7 @@ public class Exec implements Module {
             Runtime.getRuntime().availableProcessors())
         : Collections.emptyList();
     List<Entry<String, ExecutorService>> services = new ArrayList<>(executors.size());
+    boolean bounded = false;
     for (Map<String, Object> options : executors) {
       // thread factory options
       String name = (String) options.remove("name");
@@ -264,12 +349,17 @@ public class Exec implements Module {
         throw new IllegalArgumentException(
             "Unknown executor: " + type + " must be one of " + f.keySet());
       }
-      ExecutorService executor = factory.apply(type, n, () -> factory(name, daemon, priority),
+      ExecutorService executor = factory.apply(name, n, () -> factory(name, daemon, priority),
           options);
 
       bind(binder, name, executor);
       callback.accept(name, executor);
 
+      bounded |= executor instanceof BoundedExecutor;
+      if (metrics) {
+        ExecMetrics.bind(binder, name, executor);
+      }
+
       services.add(Maps.immutableEntry(name, executor));
     }
 
@@ -280,6 +370,15 @@ public class Exec implements Module {
           bind(binder, null, e.getValue());
         });
 
+    if (bounded) {
+      int retryAfter = this.retryAfter;
+      env.router().err((req, rsp, err) -> {
+        if (err.getCause() instanceof RejectedExecutionException) {
+          rsp.header("Retry-After", retryAfter);
+        }
+      });
+    }
+
     env.onStop(() -> {
       services.forEach(exec -> Try.run(() -> exec.getValue().shutdown()).onFailure(cause -> {
         log.error("shutdown of {} resulted in error", exec.getKey(), cause);
@@ -288,6 +387,17 @@ public class Exec implements Module {
     });
   }
 
+  private static boolean bounded(final Map<String, Object> options) {
+    return options.containsKey("queue") || options.containsKey("deadline");
+  }
+
+  private static BoundedExecutor bounded(final String name, final int n,
+      final Supplier<ThreadFactory> tf, final Map<String, Object> options) {
+    int queue = (Integer) options.getOrDefault("queue", Integer.MAX_VALUE);
+    int deadline = (Integer) options.getOrDefault("deadline", 0);
+    return new BoundedExecutor(name, n, queue, deadline, tf.get());
+  }
+
   @SuppressWarnings({"rawtypes", "unchecked" })
   private static void bind(final Binder binder, final String name, final ExecutorService executor) {
     Class klass = executor.getClass();
@@ -372,6 +482,11 @@ public class Exec implements Module {
         optvalue = opt.length > 1 ? Boolean.parseBoolean(opt[1].trim()) : false;
       } else if (optname.equals("priority")) {
         optvalue = opt.length > 1 ? Integer.parseInt(opt[1].trim()) : priority;
+      } else if (optname.equals("queue") || optname.equals("deadline")) {
+        if (opt.length < 2) {
+          throw new IllegalArgumentException("Missing value for: " + optname + " in " + value);
+        }
+        optvalue = Integer.parseInt(opt[1].trim());
       } else {
         optvalue = opt.length > 1 ? Integer.parseInt(opt[1].trim()) : n;
         options.put("type", optname);
@@ -0,0 +1,58 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.exec;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.jooby.exec.BoundedExecutor;
+import org.jooby.metrics.MetricBinder;
+
+import com.codahale.metrics.Timer;
+import com.google.inject.Binder;
+
+public class ExecMetrics {
+
+  public static void bind(final Binder binder, final String name,
+      final ExecutorService executor) {
+    MetricBinder metrics = new MetricBinder(binder, "executors." + name);
+    if (executor instanceof ThreadPoolExecutor) {
+      ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+      metrics.gauge("queue", () -> pool.getQueue().size())
+          .gauge("active", pool::getActiveCount)
+          .gauge("size", pool::getPoolSize);
+    } else if (executor instanceof ForkJoinPool) {
+      ForkJoinPool pool = (ForkJoinPool) executor;
+      metrics.gauge("queue", () -> pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount())
+          .gauge("active", pool::getActiveThreadCount)
+          .gauge("size", pool::getPoolSize);
+    }
+    if (executor instanceof BoundedExecutor) {
+      BoundedExecutor bounded = (BoundedExecutor) executor;
+      Timer wait = new Timer();
+      bounded.onWait(time -> wait.update(time, TimeUnit.NANOSECONDS));
+      metrics.metric("wait", wait)
+          .gauge("rejected", bounded::rejected)
+          .gauge("expired", bounded::expired);
+    }
+  }
+
+}
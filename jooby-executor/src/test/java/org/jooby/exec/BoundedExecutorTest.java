@@ -0,0 +1,112 @@
+package org.jooby.exec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class BoundedExecutorTest {
+
+  @Test
+  public void shouldRejectWhenQueueIsFull() throws Exception {
+    BoundedExecutor executor = new BoundedExecutor("b", 1, 1, 0,
+        Executors.defaultThreadFactory());
+    CountDownLatch running = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      executor.execute(() -> {
+        running.countDown();
+        await(release);
+      });
+      running.await();
+      // fill the queue
+      executor.execute(() -> {
+      });
+      assertEquals(1, executor.queued());
+      try {
+        executor.execute(() -> {
+        });
+      } catch (RejectedExecutionException ex) {
+        assertEquals(1, executor.rejected());
+        return;
+      } finally {
+        release.countDown();
+      }
+      throw new AssertionError("Must reject");
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void shouldCancelFutureOnDeadline() throws Exception {
+    BoundedExecutor executor = new BoundedExecutor("b", 1, 10, 10,
+        Executors.defaultThreadFactory());
+    AtomicLong waitTime = new AtomicLong();
+    executor.onWait(waitTime::set);
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      executor.execute(() -> await(release));
+      FutureTask<Void> task = new FutureTask<>(() -> {
+      }, null);
+      executor.execute(task);
+      Thread.sleep(50L);
+      release.countDown();
+      try {
+        task.get(1, TimeUnit.SECONDS);
+      } catch (CancellationException ex) {
+        // expected
+      }
+      assertTrue(task.isCancelled());
+      assertEquals(1, executor.expired());
+      assertTrue(waitTime.get() >= TimeUnit.MILLISECONDS.toNanos(10));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void shouldRunPlainRunnableOnDeadline() throws Exception {
+    BoundedExecutor executor = new BoundedExecutor("b", 1, 10, 10,
+        Executors.defaultThreadFactory());
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch ran = new CountDownLatch(1);
+    try {
+      executor.execute(() -> await(release));
+      executor.execute(ran::countDown);
+      Thread.sleep(50L);
+      release.countDown();
+      assertTrue(ran.await(1, TimeUnit.SECONDS));
+      assertEquals(0, executor.expired());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void string() {
+    BoundedExecutor executor = new BoundedExecutor("b", 2, 10, 500,
+        Executors.defaultThreadFactory());
+    assertEquals("b[threads=2, queue=10, deadline=500ms]", executor.toString());
+    assertEquals("b", executor.name());
+    assertEquals(10, executor.capacity());
+    assertEquals(0, executor.avgWaitTime());
+    executor.shutdown();
+  }
+
+  private static void await(final CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
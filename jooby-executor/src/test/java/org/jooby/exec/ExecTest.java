@@ -11,11 +11,18 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.function.Function;
 
 import org.jooby.Env;
+import org.jooby.Err;
+import org.jooby.Request;
+import org.jooby.Response;
+import org.jooby.Router;
+import org.jooby.Status;
 import org.jooby.test.MockUnit;
 import org.jooby.test.MockUnit.Block;
 import org.junit.Test;
@@ -274,6 +281,97 @@ public class ExecTest {
         });
   }
 
+  @Test
+  public void fixedBounded() throws Exception {
+    Config conf = ConfigFactory.empty()
+        .withValue("executors", ConfigValueFactory.fromAnyRef("fixed = 3, queue = 10, deadline = 50"));
+    new MockUnit(Env.class, Binder.class, Router.class)
+        .expect(unit -> {
+          BoundedExecutor executor = unit.constructor(BoundedExecutor.class)
+              .args(String.class, int.class, int.class, long.class, ThreadFactory.class)
+              .build(eq("default"), eq(3), eq(10), eq(50L), isA(ThreadFactory.class));
+          unit.registerMock(ExecutorService.class, executor);
+        })
+        .expect(bind("default", true, ExecutorService.class, Executor.class,
+            ThreadPoolExecutor.class, BoundedExecutor.class))
+        .expect(retryAfter)
+        .expect(onStop)
+        .run(unit -> {
+          new Exec().configure(unit.get(Env.class), conf, unit.get(Binder.class));
+        });
+  }
+
+  @Test
+  public void cachedBounded() throws Exception {
+    Config conf = ConfigFactory.empty()
+        .withValue("executors", ConfigValueFactory.fromAnyRef("cached = 5, queue = 10"));
+    new MockUnit(Env.class, Binder.class, Router.class)
+        .expect(unit -> {
+          BoundedExecutor executor = unit.constructor(BoundedExecutor.class)
+              .args(String.class, int.class, int.class, long.class, ThreadFactory.class)
+              .build(eq("default"), eq(5), eq(10), eq(0L), isA(ThreadFactory.class));
+          executor.allowCoreThreadTimeOut(true);
+          unit.registerMock(ExecutorService.class, executor);
+        })
+        .expect(bind("default", true, ExecutorService.class, Executor.class,
+            ThreadPoolExecutor.class, BoundedExecutor.class))
+        .expect(retryAfter)
+        .expect(onStop)
+        .run(unit -> {
+          new Exec().configure(unit.get(Env.class), conf, unit.get(Binder.class));
+        });
+  }
+
+  @Test
+  public void retryAfterHeader() throws Exception {
+    Config conf = ConfigFactory.empty()
+        .withValue("executors", ConfigValueFactory.fromAnyRef("fixed = 1, queue = 1"));
+    new MockUnit(Env.class, Binder.class, Router.class, Request.class, Response.class)
+        .expect(unit -> {
+          BoundedExecutor executor = unit.constructor(BoundedExecutor.class)
+              .args(String.class, int.class, int.class, long.class, ThreadFactory.class)
+              .build(eq("default"), eq(1), eq(1), eq(0L), isA(ThreadFactory.class));
+          unit.registerMock(ExecutorService.class, executor);
+        })
+        .expect(bind("default", true, ExecutorService.class, Executor.class,
+            ThreadPoolExecutor.class, BoundedExecutor.class))
+        .expect(retryAfter)
+        .expect(onStop)
+        .expect(unit -> {
+          Response rsp = unit.get(Response.class);
+          expect(rsp.header("Retry-After", 5)).andReturn(rsp);
+        })
+        .run(unit -> {
+          new Exec().retryAfter(5)
+              .configure(unit.get(Env.class), conf, unit.get(Binder.class));
+        }, unit -> {
+          Err.Handler handler = unit.captured(Err.Handler.class).iterator().next();
+          handler.handle(unit.get(Request.class), unit.get(Response.class),
+              new Err(Status.SERVICE_UNAVAILABLE, new RejectedExecutionException()));
+          // ignored
+          handler.handle(unit.get(Request.class), unit.get(Response.class),
+              new Err(Status.SERVER_ERROR));
+        });
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void queueWithoutValue() throws Exception {
+    Config conf = ConfigFactory.empty()
+        .withValue("executors", ConfigValueFactory.fromAnyRef("fixed, queue"));
+    new MockUnit(Env.class, Binder.class)
+        .run(unit -> {
+          new Exec().configure(unit.get(Env.class), conf, unit.get(Binder.class));
+        });
+  }
+
+  private Block retryAfter = unit -> {
+    Router router = unit.get(Router.class);
+    expect(router.err(unit.capture(Err.Handler.class))).andReturn(router);
+
+    Env env = unit.get(Env.class);
+    expect(env.router()).andReturn(router);
+  };
+
   private Block fixedPool(final int n) {
     return unit -> {
       expect(Executors.newFixedThreadPool(eq(n), unit.capture(ThreadFactory.class)))
@@ -21,15 +21,21 @@ package org.jooby.internal.ftl;
 import static java.util.Objects.requireNonNull;
 
 import java.io.FileNotFoundException;
-import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import org.jooby.MediaType;
 import org.jooby.Renderer;
 import org.jooby.View;
+import org.jooby.internal.TemplateScanner;
 
+import freemarker.cache.ClassTemplateLoader;
+import freemarker.cache.TemplateLoader;
 import freemarker.template.Configuration;
 import freemarker.template.SimpleHash;
 import freemarker.template.Template;
@@ -69,14 +75,28 @@ public class Engine implements View.Engine {
     hash.putAll(view.model());
     TemplateModel model = new SimpleHash(hash, new FtlWrapper(freemarker.getObjectWrapper()));
 
-    // TODO: remove string writer
-    StringWriter writer = new StringWriter();
-
     // output
+    Writer writer = ctx.type(MediaType.html).writer();
     template.process(model, writer);
-    ctx.type(MediaType.html)
-        .send(writer.toString());
+    writer.close();
+
+  }
+
+  @Override
+  public Set<String> templates() throws Exception {
+    TemplateLoader loader = freemarker.getTemplateLoader();
+    if (loader instanceof ClassTemplateLoader) {
+      ClassTemplateLoader classpath = (ClassTemplateLoader) loader;
+      ClassLoader classLoader = Optional.ofNullable(classpath.getClassLoader())
+          .orElseGet(() -> classpath.getResourceLoaderClass().getClassLoader());
+      return new TemplateScanner(classLoader, classpath.getBasePackagePath(), suffix).scan();
+    }
+    return Collections.emptySet();
+  }
 
+  @Override
+  public void compile(final String name) throws Exception {
+    template(name + suffix, Charset.forName(freemarker.getDefaultEncoding()));
   }
 
   private Template template(final String name, final Charset charset) throws Exception {
@@ -23,17 +23,26 @@ import static java.util.Objects.requireNonNull;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
+import javax.inject.Provider;
+
 import org.jooby.Env;
 import org.jooby.Jooby;
 import org.jooby.Session;
+import org.jooby.internal.guava.GuavaLoader;
+import org.jooby.internal.guava.GuavaMetrics;
 
+import com.google.common.base.Splitter;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheBuilderSpec;
+import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.inject.Binder;
 import com.google.inject.Key;
@@ -44,6 +53,8 @@ import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import com.typesafe.config.ConfigValueFactory;
 
+import javaslang.control.Try;
+
 /**
  * <h1>guava-cache</h1>
  * <p>
@@ -136,6 +147,57 @@ import com.typesafe.config.ConfigValueFactory;
  * }
  * </pre>
  *
+ * <h2>loaders</h2>
+ * <p>
+ * A {@link CacheLoader} might be set per cache. Loaders are created by Guice, so they can depend
+ * on application services:
+ * </p>
+ *
+ * <pre>
+ * {
+ *   use(new GuavaCache&lt;String, Product&gt;() {}
+ *     .loader("products", ProductLoader.class));
+ * }
+ * </pre>
+ *
+ * <pre>
+ * &#64;Inject
+ * public ProductService(&#64;Named("products") LoadingCache&lt;String, Product&gt; products) {
+ *  ...
+ *  products.getAll(ids);
+ * }
+ * </pre>
+ *
+ * <p>
+ * Bulk loads call {@link CacheLoader#loadAll(Iterable)} when the loader overrides it.
+ * </p>
+ *
+ * <p>
+ * Loaders can't be combined with {@link #doWith(Callback)}, which builds every cache itself.
+ * Build the {@link LoadingCache} from the callback instead.
+ * </p>
+ *
+ * <h3>refresh</h3>
+ * <p>
+ * Guava reloads entries (<code>refreshAfterWrite</code>) in the calling thread. The
+ * <code>executor</code> option set a named executor for reloads, like the ones provided by the
+ * <code>jooby-executor</code> module:
+ * </p>
+ *
+ * <pre>
+ * guava.products {
+ *   maximumSize = 1000
+ *   refreshAfterWrite = 1m
+ *   executor = loaders
+ * }
+ * </pre>
+ *
+ * <h3>metrics</h3>
+ * <p>
+ * Caches with <code>recordStats</code> publish hits, misses, loads, evictions and size to
+ * <code>jooby-metrics</code> (if present) under the <code>guava.[name]</code> prefix.
+ * </p>
+ *
  * <h2>session store</h2>
  * <p>
  * This module comes with a {@link Session.Store} implementation. In order to use it you need to
@@ -178,10 +240,22 @@ public abstract class GuavaCache<K, V> implements Jooby.Module {
 
   private static final String DEF = "guava";
 
-  private Callback<K, V, Cache<K, V>> callback = (n, b) -> b.build();
+  /** Executor option, not part of the guava spec. */
+  private static final String EXECUTOR = "executor";
+
+  private static final String RECORD_STATS = "recordStats";
+
+  /** True when jooby-metrics is present. */
+  private static final boolean METRICS = Try
+      .of(() -> GuavaCache.class.getClassLoader().loadClass("org.jooby.metrics.MetricBinder"))
+      .isSuccess();
+
+  private Callback<K, V, Cache<K, V>> callback;
 
   private final String name;
 
+  private final Map<String, Class<? extends CacheLoader<K, V>>> loaders = new HashMap<>();
+
   /**
    * Creates a new {@link GuavaCache} using the provided namespace.
    *
@@ -209,7 +283,8 @@ public abstract class GuavaCache<K, V> implements Jooby.Module {
   }
 
   /**
-   * Configure a cache builder and creates a new {@link Cache}.
+   * Configure a cache builder and creates a new {@link Cache}. Can't be combined with
+   * {@link #loader(String, Class)}.
    *
    * @param configurer Configurer callback.
    * @return This instance.
@@ -219,6 +294,23 @@ public abstract class GuavaCache<K, V> implements Jooby.Module {
     return this;
   }
 
+  /**
+   * Set a {@link CacheLoader} for the given cache. The loader is created by Guice, so it can
+   * depend on application services. The cache is bound as {@link LoadingCache} and bulk loads
+   * ({@link LoadingCache#getAll(Iterable)}) call {@link CacheLoader#loadAll(Iterable)} when the
+   * loader overrides it.
+   *
+   * @param name Cache name.
+   * @param loader Loader type.
+   * @return This instance.
+   */
+  public GuavaCache<K, V> loader(final String name,
+      final Class<? extends CacheLoader<K, V>> loader) {
+    this.loaders.put(requireNonNull(name, "Name is required."),
+        requireNonNull(loader, "Loader is required."));
+    return this;
+  }
+
   @SuppressWarnings({"unchecked", "rawtypes" })
   @Override
   public void configure(final Env env, final Config conf, final Binder binder) {
@@ -227,9 +319,32 @@ public abstract class GuavaCache<K, V> implements Jooby.Module {
         : ConfigFactory.empty().withValue("guava.cache", ConfigValueFactory.fromAnyRef(""));
 
     gconf.getObject(name).unwrapped().forEach((name, spec) -> {
-      CacheBuilder<K, V> cb = (CacheBuilder<K, V>) CacheBuilder.from(toSpec(spec));
+      Map<String, String> options = options(spec);
+      String executor = options.remove(EXECUTOR);
 
-      Cache<K, V> cache = callback.apply(name, cb);
+      CacheBuilder<K, V> cb = (CacheBuilder<K, V>) CacheBuilder.from(toSpec(options));
+
+      Cache<K, V> cache;
+      Class<? extends CacheLoader<K, V>> loader = loaders.get(name);
+      if (loader != null) {
+        if (callback != null) {
+          throw new IllegalStateException(
+              "Cache '" + name + "' has a loader, it can't be built by doWith()");
+        }
+        CacheLoader<K, V> cl = new GuavaLoader<>(binder.getProvider(loader));
+        if (executor != null) {
+          Provider<Executor> provider = binder
+              .getProvider(Key.get(Executor.class, Names.named(executor)));
+          cl = CacheLoader.asyncReloading(cl, task -> provider.get().execute(task));
+        }
+        cache = cb.build(cl);
+      } else {
+        cache = callback == null ? cb.build() : callback.apply(name, cb);
+      }
+
+      if (options.containsKey(RECORD_STATS) && METRICS) {
+        GuavaMetrics.bind(binder, this.name + "." + name, cache);
+      }
 
       List<TypeLiteral> types = cacheType(name, cache, getClass().getGenericSuperclass());
 
@@ -267,15 +382,27 @@ public abstract class GuavaCache<K, V> implements Jooby.Module {
   }
 
   @SuppressWarnings("unchecked")
-  private String toSpec(final Object spec) {
+  private static Map<String, String> options(final Object spec) {
+    Map<String, String> options = new LinkedHashMap<>();
     if (spec instanceof Map) {
-      Map<String, Object> m = (Map<String, Object>) spec;
-      return m.entrySet().stream()
-          .map(e -> e.getKey() + "=" + e.getValue())
-          .collect(Collectors.joining(","))
-          .toString();
+      ((Map<String, Object>) spec).forEach((k, v) -> options.put(k, v.toString()));
+    } else {
+      Splitter.on(',').trimResults().omitEmptyStrings().split(spec.toString()).forEach(option -> {
+        int eq = option.indexOf('=');
+        if (eq > 0) {
+          options.put(option.substring(0, eq).trim(), option.substring(eq + 1).trim());
+        } else {
+          options.put(option, "");
+        }
+      });
     }
-    return spec.toString();
+    return options;
+  }
+
+  private static String toSpec(final Map<String, String> options) {
+    return options.entrySet().stream()
+        .map(e -> e.getValue().isEmpty() ? e.getKey() : e.getKey() + "=" + e.getValue())
+        .collect(Collectors.joining(","));
   }
 
   private static Type[] types(final Type superclass) {
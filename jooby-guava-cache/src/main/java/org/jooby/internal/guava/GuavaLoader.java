@@ -0,0 +1,55 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.guava;
+
+import java.util.Map;
+
+import javax.inject.Provider;
+
+import com.google.common.cache.CacheLoader;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Forward calls to a loader created by Guice. Loader is resolved on first use (there is no
+ * injector at configuration time).
+ */
+public class GuavaLoader<K, V> extends CacheLoader<K, V> {
+
+  private final Provider<? extends CacheLoader<K, V>> loader;
+
+  public GuavaLoader(final Provider<? extends CacheLoader<K, V>> loader) {
+    this.loader = loader;
+  }
+
+  @Override
+  public V load(final K key) throws Exception {
+    return loader.get().load(key);
+  }
+
+  @Override
+  public Map<K, V> loadAll(final Iterable<? extends K> keys) throws Exception {
+    return loader.get().loadAll(keys);
+  }
+
+  @Override
+  public ListenableFuture<V> reload(final K key, final V oldValue) throws Exception {
+    return loader.get().reload(key, oldValue);
+  }
+
+}
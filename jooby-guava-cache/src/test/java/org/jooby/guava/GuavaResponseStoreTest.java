@@ -0,0 +1,53 @@
+package org.jooby.guava;
+
+import static org.easymock.EasyMock.expect;
+import static org.junit.Assert.assertEquals;
+
+import org.jooby.handlers.ResponseCache;
+import org.jooby.test.MockUnit;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.cache.Cache;
+
+public class GuavaResponseStoreTest {
+
+  private ResponseCache.Entry entry = new ResponseCache.Entry(200, ImmutableMap.of(),
+      new byte[0], 0L, 1000L, 0L);
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void defaults() throws Exception {
+    new MockUnit(Cache.class)
+        .run(unit -> {
+          new GuavaResponseStore(unit.get(Cache.class));
+        });
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes" })
+  @Test
+  public void get() throws Exception {
+    new MockUnit(Cache.class)
+        .expect(unit -> {
+          Cache cache = unit.get(Cache.class);
+          expect(cache.getIfPresent("/path")).andReturn(entry);
+        })
+        .run(unit -> {
+          assertEquals(entry, new GuavaResponseStore(unit.get(Cache.class)).get("/path"));
+        });
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes" })
+  @Test
+  public void put() throws Exception {
+    new MockUnit(Cache.class)
+        .expect(unit -> {
+          Cache cache = unit.get(Cache.class);
+          cache.put("/path", entry);
+        })
+        .run(unit -> {
+          new GuavaResponseStore(unit.get(Cache.class)).put("/path", entry);
+        });
+  }
+
+}
@@ -21,6 +21,7 @@ package org.jooby.hazelcast;
 import static java.util.Objects.requireNonNull;
 
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -29,6 +30,8 @@ import org.jooby.Jooby.Module;
 import org.jooby.internal.hazelcast.HcastManaged;
 
 import com.google.inject.Binder;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.core.HazelcastInstance;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
@@ -60,6 +63,20 @@ import com.typesafe.config.ConfigFactory;
  * </p>
  *
  * <p>
+ * A near cache is configured for the session map (see {@link HcastSessionStore}). It can be
+ * tuned or turned off via <code>hazelcast.session.nearCache</code>:
+ * </p>
+ *
+ * <pre>
+ * hazelcast.session.nearCache {
+ *   enabled = true
+ *   maxSize = 10000
+ *   maxIdle = 5m
+ *   inMemoryFormat = OBJECT
+ * }
+ * </pre>
+ *
+ * <p>
  * Configuration can be done programmatically via: {@link #doWith(Consumer)}.
  * </p>
  *
@@ -106,7 +123,14 @@ public class Hcast implements Module {
   public void configure(final Env env, final Config conf, final Binder binder) {
     com.hazelcast.config.Config config = new com.hazelcast.config.Config();
 
-    config.setProperties(toProperties(conf.getConfig("hazelcast")));
+    Config $hazelcast = conf.getConfig("hazelcast");
+    config.setProperties(toProperties($hazelcast));
+
+    Config $session = $hazelcast.getConfig("session");
+    if ($session.getBoolean("nearCache.enabled")) {
+      config.getMapConfig($session.getString("name"))
+          .setNearCacheConfig(nearCache($session.getConfig("nearCache")));
+    }
 
     if (configurer != null) {
       configurer.accept(config, conf);
@@ -122,10 +146,18 @@ public class Hcast implements Module {
     return ConfigFactory.parseResources(getClass(), "hcast.conf");
   }
 
+  private static NearCacheConfig nearCache(final Config $nearCache) {
+    return new NearCacheConfig()
+        .setMaxSize($nearCache.getInt("maxSize"))
+        .setMaxIdleSeconds((int) $nearCache.getDuration("maxIdle", TimeUnit.SECONDS))
+        .setInMemoryFormat(InMemoryFormat.valueOf($nearCache.getString("inMemoryFormat")))
+        .setInvalidateOnChange(true);
+  }
+
   private Properties toProperties(final Config config) {
     Properties properties = new Properties();
 
-    config.withoutPath("session").entrySet().forEach(prop -> {
+    config.withoutPath("session").withoutPath("response").entrySet().forEach(prop -> {
       properties.setProperty("hazelcast." + prop.getKey(), prop.getValue().unwrapped().toString());
     });
 
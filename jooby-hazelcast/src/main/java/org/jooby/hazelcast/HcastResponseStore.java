@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.hazelcast;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.jooby.handlers.ResponseCache;
+import org.jooby.handlers.ResponseCache.Entry;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+
+/**
+ * <h1>response store</h1>
+ * <p>
+ * A {@link ResponseCache.Store} for the {@link ResponseCache} filter, responses are saved in the
+ * <code>hazelcast.response.name</code> map:
+ * </p>
+ *
+ * <pre>
+ * {
+ *   use(new Hcast());
+ *
+ *   use("GET", "*", new ResponseCache(HcastResponseStore.class));
+ * }
+ * </pre>
+ *
+ * <p>
+ * Entries are saved with a time to live that matches the response expiration.
+ * </p>
+ *
+ * @author edgar
+ * @since 1.0.0
+ */
+public class HcastResponseStore implements ResponseCache.Store {
+
+  private IMap<String, Entry> responses;
+
+  /**
+   * Creates a new {@link HcastResponseStore}.
+   *
+   * @param hazelcast Hazelcast instance.
+   * @param name Map name.
+   */
+  @Inject
+  public HcastResponseStore(final HazelcastInstance hazelcast,
+      @Named("hazelcast.response.name") final String name) {
+    requireNonNull(hazelcast, "Hazelcast is required.");
+    this.responses = hazelcast.getMap(name);
+  }
+
+  @Override
+  public Entry get(final String key) {
+    return responses.get(key);
+  }
+
+  @Override
+  public void put(final String key, final Entry entry) {
+    long ttl = Math.max(1, entry.staleAt() - System.currentTimeMillis());
+    responses.set(key, entry, ttl, TimeUnit.MILLISECONDS);
+  }
+
+}
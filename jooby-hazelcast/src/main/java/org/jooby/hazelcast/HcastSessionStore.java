@@ -29,6 +29,7 @@ import javax.inject.Named;
 
 import org.jooby.Session;
 import org.jooby.Session.Builder;
+import org.jooby.internal.hazelcast.SessionTouch;
 
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IMap;
@@ -79,27 +80,64 @@ import com.typesafe.config.ConfigValueFactory;
  * setting the property: <code>hazelcast.sesssion.name</code>.
  * </p>
  *
+ * <h3>format</h3>
+ * <p>
+ * Sessions are saved as <code>byte[]</code> using the {@link Session.Codec} of
+ * {@link Session.Definition#codec()}. Sessions saved as a {@link Map} (previous format) are still
+ * readable.
+ * </p>
+ *
+ * <p>
+ * Sessions that didn't change (only access time did) are updated with an
+ * {@link com.hazelcast.map.EntryProcessor}, so the new times are applied by the member that owns
+ * the session without shipping the session attributes.
+ * </p>
+ *
+ * <h3>near cache</h3>
+ * <p>
+ * A near cache is configured for the session map, so reading a session owned by another member
+ * doesn't go over the network every time. The near cache is invalidated on change. See
+ * <code>hazelcast.session.nearCache</code> in {@link Hcast}.
+ * </p>
+ *
  * @author edgar
  * @since 0.9.0
  */
 public class HcastSessionStore implements Session.Store {
 
-  private IMap<String, Map<String, String>> sessions;
+  private IMap<String, Object> sessions;
 
   private int timeout;
 
+  private Session.Codec codec;
+
   /**
    * Creates a new {@link HcastSessionStore}.
    *
    * @param hazelcast Hazelcast instance.
    * @param name Session name.
    * @param timeout Session timeout expression, like <code>30m</code>.
+   * @param session Session definition.
    */
   @Inject
   public HcastSessionStore(final HazelcastInstance hazelcast,
       @Named("hazelcast.session.name") final String name,
-      @Named("hazelcast.session.timeout") final String timeout) {
-    this(hazelcast, name, seconds(timeout));
+      @Named("hazelcast.session.timeout") final String timeout,
+      final Session.Definition session) {
+    this(hazelcast, name, seconds(timeout),
+        session.codec().orElseGet(Session.BinaryCodec::new));
+  }
+
+  /**
+   * Creates a new {@link HcastSessionStore}.
+   *
+   * @param hazelcast Hazelcast instance.
+   * @param name Session name.
+   * @param timeout Session timeout expression, like <code>30m</code>.
+   */
+  public HcastSessionStore(final HazelcastInstance hazelcast, final String name,
+      final String timeout) {
+    this(hazelcast, name, seconds(timeout), new Session.BinaryCodec());
   }
 
   /**
@@ -111,17 +149,36 @@ public class HcastSessionStore implements Session.Store {
    */
   public HcastSessionStore(final HazelcastInstance hazelcast, final String name,
       final int timeout) {
+    this(hazelcast, name, timeout, new Session.BinaryCodec());
+  }
+
+  /**
+   * Creates a new {@link HcastSessionStore}.
+   *
+   * @param hazelcast Hazelcast instance.
+   * @param name Session name.
+   * @param timeout Session timeout in seconds.
+   * @param codec Session codec.
+   */
+  public HcastSessionStore(final HazelcastInstance hazelcast, final String name,
+      final int timeout, final Session.Codec codec) {
     requireNonNull(hazelcast, "Hazelcast is required.");
     this.sessions = hazelcast.getMap(name);
     this.timeout = timeout > 0 ? timeout : 0;
+    this.codec = requireNonNull(codec, "Codec is required.");
   }
 
+  @SuppressWarnings("unchecked")
   @Override
   public Session get(final Builder builder) {
-    Map<String, String> attrs = sessions.get(builder.sessionId());
-    if (attrs == null) {
+    Object value = sessions.get(builder.sessionId());
+    if (value == null) {
       return null;
     }
+    if (value instanceof byte[]) {
+      return codec.decode(builder, (byte[]) value);
+    }
+    Map<String, String> attrs = new HashMap<>((Map<String, String>) value);
     return builder
         .accessedAt(Long.parseLong(attrs.remove("_accessedAt")))
         .createdAt(Long.parseLong(attrs.remove("_createdAt")))
@@ -132,12 +189,20 @@ public class HcastSessionStore implements Session.Store {
 
   @Override
   public void save(final Session session) {
-    Map<String, String> attrs = new HashMap<>(session.attributes());
-    attrs.put("_createdAt", Long.toString(session.createdAt()));
-    attrs.put("_accessedAt", Long.toString(session.accessedAt()));
-    attrs.put("_savedAt", Long.toString(session.savedAt()));
+    sessions.set(session.id(), codec.encode(session), timeout, TimeUnit.SECONDS);
+  }
 
-    sessions.set(session.id(), attrs, timeout, TimeUnit.SECONDS);
+  @Override
+  public void touch(final Session session) {
+    if (codec instanceof Session.BinaryCodec) {
+      // update times on the owner member, attributes don't travel
+      Object touched = sessions.executeOnKey(session.id(),
+          new SessionTouch(session.accessedAt(), session.savedAt()));
+      if (Boolean.TRUE.equals(touched)) {
+        return;
+      }
+    }
+    save(session);
   }
 
   @Override
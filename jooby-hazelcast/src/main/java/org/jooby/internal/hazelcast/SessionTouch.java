@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.hazelcast;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jooby.Session;
+
+import com.hazelcast.map.AbstractEntryProcessor;
+
+/**
+ * Update access and save times of a session on the member that owns it (and on backups), without
+ * shipping the session attributes over the network.
+ *
+ * @author edgar
+ * @since 1.0.0
+ */
+public class SessionTouch extends AbstractEntryProcessor<String, Object> {
+
+  private static final long serialVersionUID = 1L;
+
+  private final long accessedAt;
+
+  private final long savedAt;
+
+  public SessionTouch(final long accessedAt, final long savedAt) {
+    this.accessedAt = accessedAt;
+    this.savedAt = savedAt;
+  }
+
+  /**
+   * @return True if the session was updated, false if it is missing or in an unknown format.
+   */
+  @SuppressWarnings("unchecked")
+  @Override
+  public Object process(final Map.Entry<String, Object> entry) {
+    Object value = entry.getValue();
+    if (value instanceof byte[]) {
+      byte[] bytes = Session.BinaryCodec.touch((byte[]) value, accessedAt, savedAt);
+      if (bytes == null) {
+        return Boolean.FALSE;
+      }
+      entry.setValue(bytes);
+      return Boolean.TRUE;
+    }
+    if (value instanceof Map) {
+      Map<String, String> attrs = new HashMap<>((Map<String, String>) value);
+      attrs.put("_accessedAt", Long.toString(accessedAt));
+      attrs.put("_savedAt", Long.toString(savedAt));
+      entry.setValue(attrs);
+      return Boolean.TRUE;
+    }
+    return Boolean.FALSE;
+  }
+
+}
@@ -1,6 +1,7 @@
 package org.jooby.hazelcast;
 
 import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.isA;
 
 import java.util.Properties;
 import java.util.function.Consumer;
@@ -16,6 +17,8 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import com.google.inject.Binder;
 import com.google.inject.binder.AnnotatedBindingBuilder;
 import com.google.inject.binder.ScopedBindingBuilder;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
 import com.typesafe.config.Config;
@@ -37,6 +40,10 @@ public class HcastTest {
     unit.registerMock(com.hazelcast.config.Config.class, config);
     expect(config.setProperties(properties)).andReturn(config);
 
+    MapConfig sessions = unit.mock(MapConfig.class);
+    expect(sessions.setNearCacheConfig(isA(NearCacheConfig.class))).andReturn(sessions);
+    expect(config.getMapConfig("sessions")).andReturn(sessions);
+
     AnnotatedBindingBuilder<com.hazelcast.config.Config> abbConfig = unit
         .mock(AnnotatedBindingBuilder.class);
     abbConfig.toInstance(config);
@@ -1,6 +1,9 @@
 package org.jooby.internal.hazelcast;
 
+import static org.easymock.EasyMock.aryEq;
+import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.isA;
 import static org.junit.Assert.assertEquals;
 
 import java.util.Map;
@@ -70,6 +73,30 @@ public class HcastSessionStoreTest {
         });
   }
 
+  @Test
+  public void getBinary() throws Exception {
+    byte[] bytes = {1, 0};
+    new MockUnit(HazelcastInstance.class, IMap.class, Session.class, Session.Builder.class,
+        Session.Codec.class)
+            .expect(sessions)
+            .expect(unit -> {
+              Session.Builder builder = unit.get(Session.Builder.class);
+              expect(builder.sessionId()).andReturn("sid");
+
+              Session.Codec codec = unit.get(Session.Codec.class);
+              expect(codec.decode(builder, bytes)).andReturn(unit.get(Session.class));
+            })
+            .expect(unit -> {
+              IMap<String, Object> session = unit.get(IMap.class);
+              expect(session.get("sid")).andReturn(bytes);
+            })
+            .run(unit -> {
+              HcastSessionStore store = new HcastSessionStore(unit.get(HazelcastInstance.class),
+                  "sessions", 1800, unit.get(Session.Codec.class));
+              assertEquals(unit.get(Session.class), store.get(unit.get(Session.Builder.class)));
+            });
+  }
+
   @Test
   public void getNoSession() throws Exception {
     new MockUnit(HazelcastInstance.class, IMap.class, Session.class, Session.Builder.class)
@@ -91,53 +118,116 @@ public class HcastSessionStoreTest {
 
   @Test
   public void save() throws Exception {
-    Map<String, String> sessionMap = ImmutableMap.of("k", "v");
-    new MockUnit(HazelcastInstance.class, IMap.class, Session.class)
+    byte[] bytes = {1, 0};
+    new MockUnit(HazelcastInstance.class, IMap.class, Session.class, Session.Codec.class)
         .expect(sessions)
         .expect(unit -> {
           Session session = unit.get(Session.class);
-          expect(session.attributes()).andReturn(sessionMap);
-          expect(session.createdAt()).andReturn(1L);
-          expect(session.accessedAt()).andReturn(2L);
-          expect(session.savedAt()).andReturn(3L);
           expect(session.id()).andReturn("sid");
+
+          Session.Codec codec = unit.get(Session.Codec.class);
+          expect(codec.encode(session)).andReturn(bytes);
         })
         .expect(unit -> {
           IMap<String, Object> session = unit.get(IMap.class);
-          session.set("sid",
-              ImmutableMap.of("_createdAt", "1", "_accessedAt", "2", "_savedAt", "3", "k", "v"),
-              1800, TimeUnit.SECONDS);
+          session.set("sid", bytes, 1800, TimeUnit.SECONDS);
         })
         .run(unit -> {
           HcastSessionStore store = new HcastSessionStore(unit.get(HazelcastInstance.class),
-              "sessions", "30m");
+              "sessions", 1800, unit.get(Session.Codec.class));
           store.save(unit.get(Session.class));
         });
   }
 
   @Test
   public void create() throws Exception {
-    Map<String, String> sessionMap = ImmutableMap.of("k", "v");
+    byte[] bytes = {1, 0};
+    new MockUnit(HazelcastInstance.class, IMap.class, Session.class, Session.Codec.class)
+        .expect(sessions)
+        .expect(unit -> {
+          Session session = unit.get(Session.class);
+          expect(session.id()).andReturn("sid");
+
+          Session.Codec codec = unit.get(Session.Codec.class);
+          expect(codec.encode(session)).andReturn(bytes);
+        })
+        .expect(unit -> {
+          IMap<String, Object> session = unit.get(IMap.class);
+          session.set("sid", bytes, 1800, TimeUnit.SECONDS);
+        })
+        .run(unit -> {
+          HcastSessionStore store = new HcastSessionStore(unit.get(HazelcastInstance.class),
+              "sessions", 1800, unit.get(Session.Codec.class));
+          store.create(unit.get(Session.class));
+        });
+  }
+
+  @Test
+  public void touch() throws Exception {
     new MockUnit(HazelcastInstance.class, IMap.class, Session.class)
         .expect(sessions)
         .expect(unit -> {
           Session session = unit.get(Session.class);
-          expect(session.attributes()).andReturn(sessionMap);
-          expect(session.createdAt()).andReturn(1L);
+          expect(session.id()).andReturn("sid");
           expect(session.accessedAt()).andReturn(2L);
           expect(session.savedAt()).andReturn(3L);
-          expect(session.id()).andReturn("sid");
         })
         .expect(unit -> {
           IMap<String, Object> session = unit.get(IMap.class);
-          session.set("sid",
-              ImmutableMap.of("_createdAt", "1", "_accessedAt", "2", "_savedAt", "3", "k", "v"),
-              1800, TimeUnit.SECONDS);
+          expect(session.executeOnKey(eq("sid"), isA(SessionTouch.class))).andReturn(true);
         })
         .run(unit -> {
           HcastSessionStore store = new HcastSessionStore(unit.get(HazelcastInstance.class),
               "sessions", "30m");
-          store.create(unit.get(Session.class));
+          store.touch(unit.get(Session.class));
+        });
+  }
+
+  @Test
+  public void touchMissingSession() throws Exception {
+    new MockUnit(HazelcastInstance.class, IMap.class, Session.class)
+        .expect(sessions)
+        .expect(unit -> {
+          Session session = unit.get(Session.class);
+          expect(session.id()).andReturn("sid").times(2);
+          expect(session.createdAt()).andReturn(1L);
+          expect(session.accessedAt()).andReturn(2L).times(2);
+          expect(session.savedAt()).andReturn(3L).times(2);
+          expect(session.attributes()).andReturn(ImmutableMap.of());
+        })
+        .expect(unit -> {
+          IMap<String, Object> session = unit.get(IMap.class);
+          expect(session.executeOnKey(eq("sid"), isA(SessionTouch.class))).andReturn(false);
+          session.set(eq("sid"), aryEq(new byte[]{1, 0, 2, 2, 4, 0 }), eq(1800L),
+              eq(TimeUnit.SECONDS));
+        })
+        .run(unit -> {
+          HcastSessionStore store = new HcastSessionStore(unit.get(HazelcastInstance.class),
+              "sessions", "30m");
+          store.touch(unit.get(Session.class));
+        });
+  }
+
+  @Test
+  public void touchCustomCodec() throws Exception {
+    byte[] bytes = {1, 0};
+    new MockUnit(HazelcastInstance.class, IMap.class, Session.class, Session.Codec.class)
+        .expect(sessions)
+        .expect(unit -> {
+          Session session = unit.get(Session.class);
+          expect(session.id()).andReturn("sid");
+
+          Session.Codec codec = unit.get(Session.Codec.class);
+          expect(codec.encode(session)).andReturn(bytes);
+        })
+        .expect(unit -> {
+          IMap<String, Object> session = unit.get(IMap.class);
+          session.set("sid", bytes, 1800, TimeUnit.SECONDS);
+        })
+        .run(unit -> {
+          HcastSessionStore store = new HcastSessionStore(unit.get(HazelcastInstance.class),
+              "sessions", 1800, unit.get(Session.Codec.class));
+          store.touch(unit.get(Session.class));
         });
   }
 
@@ -20,22 +20,28 @@ package org.jooby.hbs;
 
 import static java.util.Objects.requireNonNull;
 
+import java.nio.file.Path;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
 import java.util.function.BiConsumer;
 
 import org.jooby.Env;
 import org.jooby.Jooby;
 import org.jooby.Renderer;
+import org.jooby.internal.TemplateScanner;
 import org.jooby.internal.hbs.ConfigValueResolver;
 import org.jooby.internal.hbs.HbsEngine;
 import org.jooby.internal.hbs.HbsHelpers;
 import org.jooby.internal.hbs.RequestValueResolver;
 import org.jooby.internal.hbs.SessionValueResolver;
+import org.jooby.internal.hbs.TemplateWatcher;
 
 import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Template;
 import com.github.jknack.handlebars.ValueResolver;
 import com.github.jknack.handlebars.cache.GuavaTemplateCache;
 import com.github.jknack.handlebars.cache.NullTemplateCache;
@@ -44,6 +50,8 @@ import com.github.jknack.handlebars.context.JavaBeanValueResolver;
 import com.github.jknack.handlebars.context.MapValueResolver;
 import com.github.jknack.handlebars.context.MethodValueResolver;
 import com.github.jknack.handlebars.io.ClassPathTemplateLoader;
+import com.github.jknack.handlebars.io.TemplateLoader;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheBuilderSpec;
 import com.google.inject.Binder;
@@ -53,6 +61,8 @@ import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import com.typesafe.config.ConfigValueFactory;
 
+import javaslang.control.Try;
+
 /**
  * Exposes a {@link Handlebars} and a {@link Renderer}.
  *
@@ -144,6 +154,17 @@ import com.typesafe.config.ConfigValueFactory;
  * </p>
  *
  * <p>
+ * Resolved templates (view name to template) are cached too, so renders skip the template loader.
+ * In <code>dev</code> a file watcher discards them when a template changes.
+ * </p>
+ *
+ * <h1>warm-up</h1>
+ * <p>
+ * Set <code>view.warmup.enabled = true</code> to compile all the templates under the prefix (in
+ * parallel) at startup time.
+ * </p>
+ *
+ * <p>
  * That's all folks! Enjoy it!!!
  * </p>
  *
@@ -202,8 +223,9 @@ public class Hbs implements Jooby.Module {
   @Override
   public void configure(final Env env, final Config config, final Binder binder) {
 
+    boolean dev = "dev".equals(env.name());
     // cache
-    if ("dev".equals(env.name()) || config.getString("hbs.cache").isEmpty()) {
+    if (dev || config.getString("hbs.cache").isEmpty()) {
       // noop cache
       hbs.with(NullTemplateCache.INSTANCE);
     } else {
@@ -217,6 +239,30 @@ public class Hbs implements Jooby.Module {
       configurer.accept(hbs, config);
     }
 
+    TemplateLoader loader = hbs.getLoader();
+    TemplateScanner scanner = new TemplateScanner(getClass().getClassLoader(),
+        loader.getPrefix(), loader.getSuffix());
+
+    // resolved templates: view name -> template
+    Cache<String, Template> templates = null;
+    if (dev) {
+      // cache them while nothing changes on disk
+      List<Path> dirs = Try.of(scanner::dirs).getOrElse(Collections.emptyList());
+      if (dirs.size() > 0) {
+        Cache<String, Template> cache = CacheBuilder.newBuilder().build();
+        templates = Try
+            .of(() -> new TemplateWatcher(dirs, loader.getSuffix(), cache::invalidateAll))
+            .map(watcher -> {
+              env.onStart(watcher::start);
+              env.onStop(watcher::stop);
+              return cache;
+            })
+            .getOrElse((Cache<String, Template>) null);
+      }
+    } else if (!config.getString("hbs.cache").isEmpty()) {
+      templates = CacheBuilder.from(config.getString("hbs.cache")).build();
+    }
+
     /** XSS */
     hbs.registerHelper("xss", (value, opts) -> {
       String[] xss = new String[opts.params.length];
@@ -230,7 +276,8 @@ public class Hbs implements Jooby.Module {
         .newSetBinder(binder, Object.class, Names.named("hbs.helpers"));
     helpers.forEach(h -> helpersBinding.addBinding().to(h));
 
-    HbsEngine engine = new HbsEngine(hbs, resolvers.toArray(new ValueResolver[resolvers.size()]));
+    HbsEngine engine = new HbsEngine(hbs, resolvers.toArray(new ValueResolver[resolvers.size()]),
+        templates);
 
     Multibinder.newSetBinder(binder, Renderer.class).addBinding()
         .toInstance(engine);
@@ -20,16 +20,23 @@ package org.jooby.internal.hbs;
 
 import static java.util.Objects.requireNonNull;
 
+import java.io.Writer;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
 import org.jooby.MediaType;
 import org.jooby.Renderer;
 import org.jooby.View;
+import org.jooby.internal.TemplateScanner;
 
 import com.github.jknack.handlebars.Handlebars;
 import com.github.jknack.handlebars.Template;
 import com.github.jknack.handlebars.ValueResolver;
+import com.github.jknack.handlebars.io.TemplateLoader;
 import com.github.jknack.handlebars.io.TemplateSource;
+import com.google.common.cache.Cache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 public class HbsEngine implements View.Engine {
 
@@ -37,20 +44,67 @@ public class HbsEngine implements View.Engine {
 
   private ValueResolver[] resolvers;
 
-  public HbsEngine(final Handlebars handlebars, final ValueResolver[] resolvers) {
+  /** View name to compiled template, or <code>null</code> for no cache. */
+  private Cache<String, Template> templates;
+
+  public HbsEngine(final Handlebars handlebars, final ValueResolver[] resolvers,
+      final Cache<String, Template> templates) {
     this.handlebars = requireNonNull(handlebars, "Handlebars is required.");
     this.resolvers = requireNonNull(resolvers, "Resolvers are required.");
+    this.templates = templates;
+  }
+
+  public HbsEngine(final Handlebars handlebars, final ValueResolver[] resolvers) {
+    this(handlebars, resolvers, null);
+  }
+
+  /**
+   * Find a template by view name. Cached templates don't go through the template loader.
+   *
+   * @param vname View name.
+   * @return A template.
+   * @throws Exception If template is missing or has errors.
+   */
+  public Template template(final String vname) throws Exception {
+    if (templates == null) {
+      return load(vname);
+    }
+    try {
+      return templates.get(vname, () -> load(vname));
+    } catch (ExecutionException | UncheckedExecutionException x) {
+      Throwable cause = x.getCause();
+      if (cause instanceof Exception) {
+        throw (Exception) cause;
+      }
+      throw x;
+    }
+  }
+
+  @Override
+  public Set<String> templates() throws Exception {
+    TemplateLoader loader = handlebars.getLoader();
+    return new TemplateScanner(getClass().getClassLoader(), loader.getPrefix(), loader.getSuffix())
+        .scan();
+  }
+
+  @Override
+  public void compile(final String name) throws Exception {
+    template(name);
+  }
+
+  private Template load(final String vname) throws Exception {
+    TemplateSource source = handlebars.getLoader().sourceAt(vname);
+    return handlebars.compile(source);
   }
 
   @Override
   public void render(final View view, final Renderer.Context ctx) throws Exception {
     String vname = view.name();
-    TemplateSource source = handlebars.getLoader().sourceAt(vname);
-    Template template = handlebars.compile(source);
+    Template template = template(vname);
 
     Map<String, Object> locals = ctx.locals();
     locals.putIfAbsent("_vname", vname);
-    locals.putIfAbsent("_vpath", source.filename());
+    locals.putIfAbsent("_vpath", template.filename());
 
     com.github.jknack.handlebars.Context context = com.github.jknack.handlebars.Context
         .newBuilder(view.model())
@@ -59,9 +113,10 @@ public class HbsEngine implements View.Engine {
         .resolver(resolvers)
         .build();
 
-    // rendering it
-    ctx.type(MediaType.html)
-        .send(template.apply(context));
+    // rendering it, straight into the response buffers
+    Writer writer = ctx.type(MediaType.html).writer();
+    template.apply(context, writer);
+    writer.close();
   }
 
   @Override
@@ -0,0 +1,133 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.hbs;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watch template directories (dev only) and notify when a template changes.
+ *
+ * @author edgar
+ */
+public class TemplateWatcher {
+
+  /** The logging system. */
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final WatchService watcher;
+
+  private final Map<WatchKey, Path> keys = new ConcurrentHashMap<>();
+
+  private final String suffix;
+
+  private final Runnable listener;
+
+  private final Thread scanner;
+
+  public TemplateWatcher(final List<Path> dirs, final String suffix, final Runnable listener)
+      throws IOException {
+    this.watcher = FileSystems.getDefault().newWatchService();
+    this.suffix = suffix;
+    this.listener = listener;
+    for (Path dir : dirs) {
+      registerAll(dir);
+    }
+    this.scanner = new Thread(() -> {
+      try {
+        while (processEvents()) {
+          // keep watching
+        }
+      } catch (ClosedWatchServiceException x) {
+        log.trace("watch service closed", x);
+      }
+    }, "hbs-watcher");
+    scanner.setDaemon(true);
+  }
+
+  public void start() {
+    scanner.start();
+  }
+
+  public void stop() throws IOException {
+    watcher.close();
+  }
+
+  private void registerAll(final Path dir) throws IOException {
+    try (Stream<Path> tree = Files.walk(dir)) {
+      for (Path it : (Iterable<Path>) tree.filter(Files::isDirectory)::iterator) {
+        keys.put(it.register(watcher, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), it);
+      }
+    }
+  }
+
+  private boolean processEvents() {
+    WatchKey key;
+    try {
+      key = watcher.take();
+    } catch (InterruptedException x) {
+      return false;
+    }
+    Path dir = keys.get(key);
+    if (dir != null) {
+      boolean changed = false;
+      for (WatchEvent<?> event : key.pollEvents()) {
+        if (event.kind() == OVERFLOW) {
+          changed = true;
+          continue;
+        }
+        Path child = dir.resolve((Path) event.context());
+        if (event.kind() == ENTRY_CREATE && Files.isDirectory(child)) {
+          try {
+            registerAll(child);
+          } catch (IOException x) {
+            log.debug("unable to watch: {}", child, x);
+          }
+        }
+        changed |= child.toString().endsWith(suffix);
+      }
+      if (changed) {
+        listener.run();
+      }
+    }
+    if (!key.reset()) {
+      keys.remove(key);
+    }
+    return true;
+  }
+
+}
@@ -21,6 +21,8 @@ import com.google.inject.multibindings.Multibinder;
 import com.google.inject.name.Names;
 import com.typesafe.config.Config;
 
+import javaslang.control.Try.CheckedRunnable;
+
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({Hbs.class, Multibinder.class })
 public class HbsTest {
@@ -32,6 +34,9 @@ public class HbsTest {
         .expect(unit -> {
           Env env = unit.get(Env.class);
           expect(env.name()).andReturn("dev");
+          // template watcher
+          expect(env.onStart(isA(CheckedRunnable.class))).andReturn(env);
+          expect(env.onStop(isA(CheckedRunnable.class))).andReturn(env);
         })
         .expect(unit -> {
           AnnotatedBindingBuilder<Handlebars> hABB = unit.mock(AnnotatedBindingBuilder.class);
@@ -19,13 +19,19 @@
 package org.jooby.jade;
 
 import java.io.FileNotFoundException;
+import java.io.Writer;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.jooby.MediaType;
 import org.jooby.View;
+import org.jooby.internal.TemplateScanner;
 
 import de.neuland.jade4j.JadeConfiguration;
+import de.neuland.jade4j.template.ClasspathTemplateLoader;
+import de.neuland.jade4j.template.TemplateLoader;
 import de.neuland.jade4j.template.JadeTemplate;
 
 class Engine implements View.Engine {
@@ -54,8 +60,26 @@ class Engine implements View.Engine {
     hash.putAll(ctx.locals());
     hash.putAll(view.model());
 
-    String output = jadeConfiguration.renderTemplate(template, hash);
-    ctx.type(MediaType.html).send(output);
+    Writer writer = ctx.type(MediaType.html).writer();
+    jadeConfiguration.renderTemplate(template, hash, writer);
+    writer.close();
+  }
+
+  @Override
+  public Set<String> templates() throws Exception {
+    TemplateLoader loader = jadeConfiguration.getTemplateLoader();
+    if (loader instanceof Jade.IOTemplateLoader) {
+      loader = ((Jade.IOTemplateLoader) loader).loader();
+    }
+    if (loader instanceof ClasspathTemplateLoader) {
+      return new TemplateScanner(getClass().getClassLoader(), "/", suffix).scan();
+    }
+    return Collections.emptySet();
+  }
+
+  @Override
+  public void compile(final String name) throws Exception {
+    jadeConfiguration.getTemplate(name + suffix);
   }
 
   @Override
@@ -136,6 +136,10 @@ public class Jade implements Jooby.Module {
       this.loader = loader;
     }
 
+    TemplateLoader loader() {
+      return loader;
+    }
+
     @Override
     public long getLastModified(final String name) throws IOException {
       return loader.getLastModified(name);
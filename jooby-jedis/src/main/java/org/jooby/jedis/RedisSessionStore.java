@@ -20,7 +20,6 @@ package org.jooby.jedis;
 
 import static java.util.Objects.requireNonNull;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -33,6 +32,8 @@ import org.jooby.Session.Builder;
 
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.util.SafeEncoder;
 
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
@@ -58,8 +59,12 @@ import com.typesafe.config.ConfigValueFactory;
  * The <code>name</code> attribute and value will be stored in a
  * <a href="http://redis.io/">Redis</a> db.
  *
- * Session are persisted as
- * a <a href="http://redis.io/topics/data-types#hashes">Redis Hash</a>.
+ * Session are persisted as a binary
+ * <a href="http://redis.io/topics/data-types#strings">Redis String</a> using the
+ * {@link Session.Codec} of {@link Session.Definition#codec()}, so saving a session is a single
+ * <code>SETEX</code> command. Sessions saved as a
+ * <a href="http://redis.io/topics/data-types#hashes">Redis Hash</a> (previous format) are still
+ * readable.
  *
  * <h2>options</h2>
  *
@@ -104,18 +109,45 @@ public class RedisSessionStore implements Session.Store {
 
   private String prefix;
 
+  private Session.Codec codec;
+
   /**
    * Creates a new {@link RedisSessionStore}.
    *
    * @param pool Jedis pool.
    * @param prefix Session key prefix on redis.
    * @param timeout Session timeout in seconds.
+   * @param codec Session codec.
    */
   public RedisSessionStore(final JedisPool pool, final String prefix,
-      final int timeout) {
+      final int timeout, final Session.Codec codec) {
     this.pool = requireNonNull(pool, "Jedis pool is required.");
     this.timeout = timeout;
     this.prefix = requireNonNull(prefix, "Prefix is required.");
+    this.codec = requireNonNull(codec, "Codec is required.");
+  }
+
+  /**
+   * Creates a new {@link RedisSessionStore}.
+   *
+   * @param pool Jedis pool.
+   * @param prefix Session key prefix on redis.
+   * @param timeout Session timeout in seconds.
+   */
+  public RedisSessionStore(final JedisPool pool, final String prefix,
+      final int timeout) {
+    this(pool, prefix, timeout, new Session.BinaryCodec());
+  }
+
+  /**
+   * Creates a new {@link RedisSessionStore}.
+   *
+   * @param pool Jedis pool.
+   * @param prefix Session key prefix on redis.
+   * @param timeout Session timeout expression, like <code>30m</code>.
+   */
+  public RedisSessionStore(final JedisPool pool, final String prefix, final String timeout) {
+    this(pool, prefix, seconds(timeout));
   }
 
   /**
@@ -124,12 +156,14 @@ public class RedisSessionStore implements Session.Store {
    * @param pool Jedis pool.
    * @param prefix Session key prefix on redis.
    * @param timeout Session timeout expression, like <code>30m</code>.
+   * @param session Session definition.
    */
   @Inject
   public RedisSessionStore(final JedisPool pool,
       final @Named("jedis.session.prefix") String prefix,
-      @Named("jedis.session.timeout") final String timeout) {
-    this(pool, prefix, seconds(timeout));
+      @Named("jedis.session.timeout") final String timeout,
+      final Session.Definition session) {
+    this(pool, prefix, seconds(timeout), session.codec().orElseGet(Session.BinaryCodec::new));
   }
 
   @Override
@@ -138,21 +172,26 @@ public class RedisSessionStore implements Session.Store {
     try {
       jedis = pool.getResource();
       String key = key(builder.sessionId());
-      Map<String, String> attrs = jedis.hgetAll(key);
-      if (attrs == null || attrs.size() == 0) {
-        // expired
-        return null;
+      Session session;
+      try {
+        byte[] bytes = jedis.get(SafeEncoder.encode(key));
+        if (bytes == null) {
+          // expired
+          return null;
+        }
+        session = codec.decode(builder, bytes);
+      } catch (JedisDataException ex) {
+        // WRONGTYPE: session saved as a hash
+        session = legacy(jedis.hgetAll(key), builder);
+        if (session == null) {
+          return null;
+        }
       }
       if (timeout > 0) {
         // touch session
         jedis.expire(key, timeout);
       }
-      return builder
-          .accessedAt(Long.parseLong(attrs.remove("_accessedAt")))
-          .createdAt(Long.parseLong(attrs.remove("_createdAt")))
-          .savedAt(Long.parseLong(attrs.remove("_savedAt")))
-          .set(attrs)
-          .build();
+      return session;
     } finally {
       if (jedis != null) {
         jedis.close();
@@ -165,14 +204,12 @@ public class RedisSessionStore implements Session.Store {
     Jedis jedis = null;
     try {
       jedis = pool.getResource();
-      String key = key(session);
-      Map<String, String> attrs = new HashMap<>(session.attributes());
-      attrs.put("_createdAt", Long.toString(session.createdAt()));
-      attrs.put("_accessedAt", Long.toString(session.accessedAt()));
-      attrs.put("_savedAt", Long.toString(session.savedAt()));
-      jedis.hmset(key, attrs);
+      byte[] key = SafeEncoder.encode(key(session));
+      byte[] value = codec.encode(session);
       if (timeout > 0) {
-        jedis.expire(key, timeout);
+        jedis.setex(key, timeout, value);
+      } else {
+        jedis.set(key, value);
       }
     } finally {
       if (jedis != null) {
@@ -200,6 +237,18 @@ public class RedisSessionStore implements Session.Store {
 
   }
 
+  private static Session legacy(final Map<String, String> attrs, final Builder builder) {
+    if (attrs == null || attrs.size() == 0) {
+      return null;
+    }
+    return builder
+        .accessedAt(Long.parseLong(attrs.remove("_accessedAt")))
+        .createdAt(Long.parseLong(attrs.remove("_createdAt")))
+        .savedAt(Long.parseLong(attrs.remove("_savedAt")))
+        .set(attrs)
+        .build();
+  }
+
   private String key(final String id) {
     return prefix + ":" + id;
   }
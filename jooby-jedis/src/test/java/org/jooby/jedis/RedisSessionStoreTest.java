@@ -1,5 +1,7 @@
 package org.jooby.jedis;
 
+import static org.easymock.EasyMock.aryEq;
+import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
 import static org.junit.Assert.assertEquals;
 
@@ -12,136 +14,98 @@ import org.junit.Test;
 
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.util.SafeEncoder;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 
 public class RedisSessionStoreTest {
 
+  private static final byte[] KEY = SafeEncoder.encode("sessions:1234");
+
+  private static final byte[] BYTES = {1, 0 };
+
+  private MockUnit.Block encode = unit -> {
+    Session session = unit.get(Session.class);
+    expect(session.id()).andReturn("1234");
+
+    Session.Codec codec = unit.get(Session.Codec.class);
+    expect(codec.encode(session)).andReturn(BYTES);
+  };
+
   @Test
   public void save() throws Exception {
-    Map<String, String> attrs = ImmutableMap.of("x", "X");
-    Map<String, String> attrsToSave = ImmutableMap
-        .of(
-            "x", "X",
-            "_accessedAt", "2",
-            "_createdAt", "1",
-            "_savedAt", "3"
-        );
-    new MockUnit(JedisPool.class, Session.class)
-        .expect(unit -> {
-          Session session = unit.get(Session.class);
-          expect(session.id()).andReturn("1234");
-          expect(session.attributes()).andReturn(attrs);
-          expect(session.createdAt()).andReturn(1L);
-          expect(session.accessedAt()).andReturn(2L);
-          expect(session.savedAt()).andReturn(3L);
-        })
+    new MockUnit(JedisPool.class, Session.class, Session.Codec.class)
+        .expect(encode)
         .expect(unit -> {
           Jedis jedis = unit.mock(Jedis.class);
-          expect(jedis.hmset("sessions:1234", attrsToSave)).andReturn("sessions:1234");
-          expect(jedis.expire("sessions:1234", 1800)).andReturn(1L);
+          expect(jedis.setex(aryEq(KEY), eq(1800), aryEq(BYTES))).andReturn("OK");
           jedis.close();
 
           JedisPool pool = unit.get(JedisPool.class);
           expect(pool.getResource()).andReturn(jedis);
         })
         .run(unit -> {
-          new RedisSessionStore(unit.get(JedisPool.class), "sessions", "30m")
-              .save(unit.get(Session.class));
+          new RedisSessionStore(unit.get(JedisPool.class), "sessions", 1800,
+              unit.get(Session.Codec.class))
+                  .save(unit.get(Session.class));
         });
   }
 
   @Test
   public void saveNoTimeout() throws Exception {
-    Map<String, String> attrs = ImmutableMap.of("x", "X");
-    Map<String, String> attrsToSave = ImmutableMap
-        .of(
-            "x", "X",
-            "_accessedAt", "2",
-            "_createdAt", "1",
-            "_savedAt", "3"
-        );
-    new MockUnit(JedisPool.class, Session.class)
-        .expect(unit -> {
-          Session session = unit.get(Session.class);
-          expect(session.id()).andReturn("1234");
-          expect(session.attributes()).andReturn(attrs);
-          expect(session.createdAt()).andReturn(1L);
-          expect(session.accessedAt()).andReturn(2L);
-          expect(session.savedAt()).andReturn(3L);
-        })
+    new MockUnit(JedisPool.class, Session.class, Session.Codec.class)
+        .expect(encode)
         .expect(unit -> {
           Jedis jedis = unit.mock(Jedis.class);
-          expect(jedis.hmset("sessions:1234", attrsToSave)).andReturn("sessions:1234");
+          expect(jedis.set(aryEq(KEY), aryEq(BYTES))).andReturn("OK");
           jedis.close();
 
           JedisPool pool = unit.get(JedisPool.class);
           expect(pool.getResource()).andReturn(jedis);
         })
         .run(unit -> {
-          new RedisSessionStore(unit.get(JedisPool.class), "sessions", "0")
-              .save(unit.get(Session.class));
+          new RedisSessionStore(unit.get(JedisPool.class), "sessions", 0,
+              unit.get(Session.Codec.class))
+                  .save(unit.get(Session.class));
         });
   }
 
   @Test
   public void create() throws Exception {
-    Map<String, String> attrs = ImmutableMap.of("x", "X");
-    Map<String, String> attrsToSave = ImmutableMap
-        .of(
-            "x", "X",
-            "_accessedAt", "2",
-            "_createdAt", "1",
-            "_savedAt", "3"
-        );
-    new MockUnit(JedisPool.class, Session.class)
-        .expect(unit -> {
-          Session session = unit.get(Session.class);
-          expect(session.id()).andReturn("1234");
-          expect(session.attributes()).andReturn(attrs);
-          expect(session.createdAt()).andReturn(1L);
-          expect(session.accessedAt()).andReturn(2L);
-          expect(session.savedAt()).andReturn(3L);
-        })
+    new MockUnit(JedisPool.class, Session.class, Session.Codec.class)
+        .expect(encode)
         .expect(unit -> {
           Jedis jedis = unit.mock(Jedis.class);
-          expect(jedis.hmset("sessions:1234", attrsToSave)).andReturn("sessions:1234");
-          expect(jedis.expire("sessions:1234", 1800)).andReturn(1L);
+          expect(jedis.setex(aryEq(KEY), eq(1800), aryEq(BYTES))).andReturn("OK");
           jedis.close();
 
           JedisPool pool = unit.get(JedisPool.class);
           expect(pool.getResource()).andReturn(jedis);
         })
         .run(unit -> {
-          new RedisSessionStore(unit.get(JedisPool.class), "sessions", "30m")
-              .create(unit.get(Session.class));
+          new RedisSessionStore(unit.get(JedisPool.class), "sessions", 1800,
+              unit.get(Session.Codec.class))
+                  .create(unit.get(Session.class));
         });
   }
 
   @Test
-  public void saveTimeoutInSecs() throws Exception {
-    Map<String, String> attrs = ImmutableMap.of("x", "X");
-    Map<String, String> attrsToSave = ImmutableMap
-        .of(
-            "x", "X",
-            "_accessedAt", "2",
-            "_createdAt", "1",
-            "_savedAt", "3"
-        );
+  public void saveDefaultCodec() throws Exception {
     new MockUnit(JedisPool.class, Session.class)
         .expect(unit -> {
           Session session = unit.get(Session.class);
           expect(session.id()).andReturn("1234");
-          expect(session.attributes()).andReturn(attrs);
+          expect(session.attributes()).andReturn(ImmutableMap.of("x", "X"));
           expect(session.createdAt()).andReturn(1L);
           expect(session.accessedAt()).andReturn(2L);
           expect(session.savedAt()).andReturn(3L);
         })
         .expect(unit -> {
           Jedis jedis = unit.mock(Jedis.class);
-          expect(jedis.hmset("sessions:1234", attrsToSave)).andReturn("sessions:1234");
-          expect(jedis.expire("sessions:1234", 30)).andReturn(1L);
+          expect(jedis.setex(aryEq(KEY), eq(30),
+              aryEq(new byte[]{1, 0, 2, 2, 4, 1, 1, 'x', 1, 'X' }))).andReturn("OK");
 
           jedis.close();
 
@@ -174,27 +138,17 @@ public class RedisSessionStoreTest {
 
   @Test
   public void get() throws Exception {
-    Map<String, String> attrs = Maps.newHashMap(ImmutableMap
-        .of(
-            "x", "X",
-            "_accessedAt", "2",
-            "_createdAt", "1",
-            "_savedAt", "3"
-        ));
-
-    new MockUnit(JedisPool.class, Session.class, Session.Builder.class)
+    new MockUnit(JedisPool.class, Session.class, Session.Builder.class, Session.Codec.class)
         .expect(unit -> {
           Session.Builder sb = unit.get(Session.Builder.class);
           expect(sb.sessionId()).andReturn("1234");
-          expect(sb.accessedAt(2)).andReturn(sb);
-          expect(sb.createdAt(1)).andReturn(sb);
-          expect(sb.savedAt(3)).andReturn(sb);
-          expect(sb.set(ImmutableMap.of("x", "X"))).andReturn(sb);
-          expect(sb.build()).andReturn(unit.get(Session.class));
+
+          Session.Codec codec = unit.get(Session.Codec.class);
+          expect(codec.decode(sb, BYTES)).andReturn(unit.get(Session.class));
         })
         .expect(unit -> {
           Jedis jedis = unit.mock(Jedis.class);
-          expect(jedis.hgetAll("sessions:1234")).andReturn(attrs);
+          expect(jedis.get(aryEq(KEY))).andReturn(BYTES);
           expect(jedis.expire("sessions:1234", 1800)).andReturn(1L);
           jedis.close();
 
@@ -203,13 +157,38 @@ public class RedisSessionStoreTest {
         })
         .run(unit -> {
           assertEquals(unit.get(Session.class), new RedisSessionStore(
-              unit.get(JedisPool.class), "sessions", "30m")
-              .get(unit.get(Session.Builder.class)));
+              unit.get(JedisPool.class), "sessions", 1800, unit.get(Session.Codec.class))
+                  .get(unit.get(Session.Builder.class)));
         });
   }
 
   @Test
   public void getNoTimeout() throws Exception {
+    new MockUnit(JedisPool.class, Session.class, Session.Builder.class, Session.Codec.class)
+        .expect(unit -> {
+          Session.Builder sb = unit.get(Session.Builder.class);
+          expect(sb.sessionId()).andReturn("1234");
+
+          Session.Codec codec = unit.get(Session.Codec.class);
+          expect(codec.decode(sb, BYTES)).andReturn(unit.get(Session.class));
+        })
+        .expect(unit -> {
+          Jedis jedis = unit.mock(Jedis.class);
+          expect(jedis.get(aryEq(KEY))).andReturn(BYTES);
+          jedis.close();
+
+          JedisPool pool = unit.get(JedisPool.class);
+          expect(pool.getResource()).andReturn(jedis);
+        })
+        .run(unit -> {
+          assertEquals(unit.get(Session.class), new RedisSessionStore(
+              unit.get(JedisPool.class), "sessions", 0, unit.get(Session.Codec.class))
+                  .get(unit.get(Session.Builder.class)));
+        });
+  }
+
+  @Test
+  public void getHash() throws Exception {
     Map<String, String> attrs = Maps.newHashMap(ImmutableMap
         .of(
             "x", "X",
@@ -230,7 +209,10 @@ public class RedisSessionStoreTest {
         })
         .expect(unit -> {
           Jedis jedis = unit.mock(Jedis.class);
+          expect(jedis.get(aryEq(KEY))).andThrow(new JedisDataException(
+              "WRONGTYPE Operation against a key holding the wrong kind of value"));
           expect(jedis.hgetAll("sessions:1234")).andReturn(attrs);
+          expect(jedis.expire("sessions:1234", 1800)).andReturn(1L);
           jedis.close();
 
           JedisPool pool = unit.get(JedisPool.class);
@@ -238,14 +220,14 @@ public class RedisSessionStoreTest {
         })
         .run(unit -> {
           assertEquals(unit.get(Session.class), new RedisSessionStore(
-              unit.get(JedisPool.class), "sessions", "0")
-              .get(unit.get(Session.Builder.class)));
+              unit.get(JedisPool.class), "sessions", "30m")
+                  .get(unit.get(Session.Builder.class)));
         });
   }
 
   @Test
-  public void getNullExpired() throws Exception {
-    Map<String, String> attrs = null;
+  public void getEmptyHashExpired() throws Exception {
+    Map<String, String> attrs = Collections.emptyMap();
 
     new MockUnit(JedisPool.class, Session.Builder.class)
         .expect(unit -> {
@@ -254,6 +236,7 @@ public class RedisSessionStoreTest {
         })
         .expect(unit -> {
           Jedis jedis = unit.mock(Jedis.class);
+          expect(jedis.get(aryEq(KEY))).andThrow(new JedisDataException("WRONGTYPE"));
           expect(jedis.hgetAll("sessions:1234")).andReturn(attrs);
           jedis.close();
 
@@ -263,14 +246,12 @@ public class RedisSessionStoreTest {
         .run(unit -> {
           assertEquals(null, new RedisSessionStore(
               unit.get(JedisPool.class), "sessions", "30m")
-              .get(unit.get(Session.Builder.class)));
+                  .get(unit.get(Session.Builder.class)));
         });
   }
 
   @Test
-  public void getEmptyExpired() throws Exception {
-    Map<String, String> attrs = Collections.emptyMap();
-
+  public void getNullExpired() throws Exception {
     new MockUnit(JedisPool.class, Session.Builder.class)
         .expect(unit -> {
           Session.Builder sb = unit.get(Session.Builder.class);
@@ -278,7 +259,7 @@ public class RedisSessionStoreTest {
         })
         .expect(unit -> {
           Jedis jedis = unit.mock(Jedis.class);
-          expect(jedis.hgetAll("sessions:1234")).andReturn(attrs);
+          expect(jedis.get(aryEq(KEY))).andReturn(null);
           jedis.close();
 
           JedisPool pool = unit.get(JedisPool.class);
@@ -287,7 +268,7 @@ public class RedisSessionStoreTest {
         .run(unit -> {
           assertEquals(null, new RedisSessionStore(
               unit.get(JedisPool.class), "sessions", "30m")
-              .get(unit.get(Session.Builder.class)));
+                  .get(unit.get(Session.Builder.class)));
         });
   }
 
@@ -300,7 +281,7 @@ public class RedisSessionStoreTest {
         })
         .expect(unit -> {
           Jedis jedis = unit.mock(Jedis.class);
-          expect(jedis.hgetAll("sessions:1234"))
+          expect(jedis.get(aryEq(KEY)))
               .andThrow(new IllegalStateException("intentional err"));
 
           jedis.close();
@@ -330,26 +311,11 @@ public class RedisSessionStoreTest {
 
   @Test(expected = IllegalStateException.class)
   public void shouldCloseJedisOnSaveErr() throws Exception {
-    Map<String, String> attrs = ImmutableMap.of("x", "X");
-    Map<String, String> attrsToSave = ImmutableMap
-        .of(
-            "x", "X",
-            "_accessedAt", "2",
-            "_createdAt", "1",
-            "_savedAt", "3"
-        );
-    new MockUnit(JedisPool.class, Session.class)
-        .expect(unit -> {
-          Session session = unit.get(Session.class);
-          expect(session.id()).andReturn("1234");
-          expect(session.attributes()).andReturn(attrs);
-          expect(session.createdAt()).andReturn(1L);
-          expect(session.accessedAt()).andReturn(2L);
-          expect(session.savedAt()).andReturn(3L);
-        })
+    new MockUnit(JedisPool.class, Session.class, Session.Codec.class)
+        .expect(encode)
         .expect(unit -> {
           Jedis jedis = unit.mock(Jedis.class);
-          expect(jedis.hmset("sessions:1234", attrsToSave))
+          expect(jedis.setex(aryEq(KEY), eq(1800), aryEq(BYTES)))
               .andThrow(new IllegalStateException("intentional err"));
           jedis.close();
 
@@ -357,8 +323,9 @@ public class RedisSessionStoreTest {
           expect(pool.getResource()).andReturn(jedis);
         })
         .run(unit -> {
-          new RedisSessionStore(unit.get(JedisPool.class), "sessions", "30m")
-              .save(unit.get(Session.class));
+          new RedisSessionStore(unit.get(JedisPool.class), "sessions", 1800,
+              unit.get(Session.Codec.class))
+                  .save(unit.get(Session.class));
         });
   }
 
@@ -39,7 +39,8 @@ public class JettyResponse extends ServletServletResponse implements Callback {
   /** The logging system. */
   private final Logger log = LoggerFactory.getLogger(org.jooby.Response.class);
 
-  private ServletServletRequest nreq;
+  /** Callbacks might run after end (async sends), never clear it. */
+  private final ServletServletRequest nreq;
 
   private volatile boolean endRequest = true;
 
@@ -50,12 +51,19 @@ public class JettyResponse extends ServletServletResponse implements Callback {
 
   @Override
   public void send(final byte[] bytes) throws Exception {
-    sender().sendContent(ByteBuffer.wrap(bytes));
+    send(ByteBuffer.wrap(bytes));
   }
 
   @Override
   public void send(final ByteBuffer buffer) throws Exception {
-    sender().sendContent(buffer);
+    if (buffer.remaining() <= rsp.getBufferSize()) {
+      // sync version, content fits in the output buffer
+      sender().sendContent(buffer);
+    } else {
+      endRequest = false;
+      startAsyncIfNeedIt();
+      sender().sendContent(buffer, this);
+    }
   }
 
   @Override
@@ -96,7 +104,6 @@ public class JettyResponse extends ServletServletResponse implements Callback {
     if (endRequest) {
       super.end();
     }
-    nreq = null;
   }
 
   @Override
@@ -21,9 +21,12 @@ package org.jooby.internal.jetty;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -33,6 +36,10 @@ import javax.net.ssl.SSLContext;
 import org.eclipse.jetty.alpn.server.ALPNServerConnectionFactory;
 import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
 import org.eclipse.jetty.http2.server.HTTP2ServerConnectionFactory;
+import org.eclipse.jetty.io.ArrayByteBufferPool;
+import org.eclipse.jetty.io.ByteBufferPool;
+import org.eclipse.jetty.server.ConnectionFactory;
+import org.eclipse.jetty.server.Connector;
 import org.eclipse.jetty.server.HttpConfiguration;
 import org.eclipse.jetty.server.HttpConnectionFactory;
 import org.eclipse.jetty.server.SecureRequestCustomizer;
@@ -42,6 +49,7 @@ import org.eclipse.jetty.server.SslConnectionFactory;
 import org.eclipse.jetty.server.handler.ContextHandler;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
 import org.eclipse.jetty.websocket.api.WebSocketBehavior;
 import org.eclipse.jetty.websocket.api.WebSocketPolicy;
 import org.eclipse.jetty.websocket.server.WebSocketServerFactory;
@@ -93,13 +101,16 @@ public class JettyServer implements org.jooby.spi.Server {
     // HTTP connector
     boolean http2 = conf.getBoolean("server.http2.enabled");
 
-    ServerConnector http = http(server, conf.getConfig(JETTY_HTTP), JETTY_HTTP, http2);
+    // buffers are shared between connectors
+    ByteBufferPool buffers = bufferPool(conf.getConfig("jetty.byteBufferPool"));
+
+    ServerConnector http = http(server, buffers, conf.getConfig(JETTY_HTTP), JETTY_HTTP, http2);
     http.setPort(conf.getInt("application.port"));
     http.setHost(conf.getString("application.host"));
 
     if (conf.hasPath("application.securePort")) {
 
-      ServerConnector https = https(server, conf.getConfig(JETTY_HTTP), JETTY_HTTP,
+      ServerConnector https = https(server, buffers, conf.getConfig(JETTY_HTTP), JETTY_HTTP,
           sslCtx.get(), http2);
       https.setPort(conf.getInt("application.securePort"));
 
@@ -128,24 +139,36 @@ public class JettyServer implements org.jooby.spi.Server {
     return server;
   }
 
-  private ServerConnector http(final Server server, final Config conf, final String path,
-      final boolean http2) {
+  private static ByteBufferPool bufferPool(final Config conf) {
+    return new ArrayByteBufferPool(conf.getBytes("MinSize").intValue(),
+        conf.getBytes("Increment").intValue(), conf.getBytes("MaxSize").intValue(),
+        conf.getInt("MaxQueue"));
+  }
+
+  private static ServerConnector connector(final Server server, final ByteBufferPool buffers,
+      final ConnectionFactory... factories) {
+    // -1 means: default number of acceptors and selectors
+    return new ServerConnector(server, null, null, buffers, -1, -1, factories);
+  }
+
+  private ServerConnector http(final Server server, final ByteBufferPool buffers,
+      final Config conf, final String path, final boolean http2) {
     HttpConfiguration httpConfig = conf(new HttpConfiguration(), conf.withoutPath(CONNECTOR),
         path);
 
     ServerConnector connector;
     if (http2) {
-      connector = new ServerConnector(server, new HttpConnectionFactory(httpConfig),
+      connector = connector(server, buffers, new HttpConnectionFactory(httpConfig),
           new HTTP2CServerConnectionFactory(httpConfig));
     } else {
-      connector = new ServerConnector(server, new HttpConnectionFactory(httpConfig));
+      connector = connector(server, buffers, new HttpConnectionFactory(httpConfig));
     }
 
     return conf(connector, conf.getConfig(CONNECTOR), path + "." + CONNECTOR);
   }
 
-  private ServerConnector https(final Server server, final Config conf, final String path,
-      final SSLContext sslContext, final boolean http2) {
+  private ServerConnector https(final Server server, final ByteBufferPool buffers,
+      final Config conf, final String path, final SSLContext sslContext, final boolean http2) {
 
     HttpConfiguration httpConf = conf(new HttpConfiguration(), conf.withoutPath(CONNECTOR),
         path);
@@ -166,13 +189,13 @@ public class JettyServer implements org.jooby.spi.Server {
 
       HTTP2ServerConnectionFactory https2 = new HTTP2ServerConnectionFactory(httpsConf);
 
-      ServerConnector connector = new ServerConnector(server,
+      ServerConnector connector = connector(server, buffers,
           new SslConnectionFactory(sslContextFactory, "alpn"), alpn, https2, https11);
 
       return conf(connector, conf.getConfig(CONNECTOR), path + ".connector");
     } else {
 
-      ServerConnector connector = new ServerConnector(server,
+      ServerConnector connector = connector(server, buffers,
           new SslConnectionFactory(sslContextFactory, HTTP_1_1), https11);
 
       return conf(connector, conf.getConfig(CONNECTOR), path + ".connector");
@@ -194,6 +217,30 @@ public class JettyServer implements org.jooby.spi.Server {
     server.stop();
   }
 
+  @Override
+  public Map<String, Supplier<Number>> metrics() {
+    Map<String, Supplier<Number>> metrics = new LinkedHashMap<>();
+    metrics.put("threads", () -> pool(QueuedThreadPool::getThreads));
+    metrics.put("threads.idle", () -> pool(QueuedThreadPool::getIdleThreads));
+    metrics.put("threads.max", () -> pool(QueuedThreadPool::getMaxThreads));
+    metrics.put("threads.queueSize", () -> pool(QueuedThreadPool::getQueueSize));
+    metrics.put("connections", this::connections);
+    return metrics;
+  }
+
+  private int pool(final ToIntFunction<QueuedThreadPool> value) {
+    ThreadPool pool = server.getThreadPool();
+    return pool instanceof QueuedThreadPool ? value.applyAsInt((QueuedThreadPool) pool) : 0;
+  }
+
+  private int connections() {
+    int connections = 0;
+    for (Connector connector : server.getConnectors()) {
+      connections += connector.getConnectedEndPoints().size();
+    }
+    return connections;
+  }
+
   private void tryOption(final Object source, final Config config, final Method option) {
     Try.run(() -> {
       String optionName = option.getName().replace("set", "");
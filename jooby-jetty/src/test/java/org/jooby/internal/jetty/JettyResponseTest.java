@@ -77,6 +77,7 @@ public class JettyResponseTest {
           output.sendContent(unit.capture(ByteBuffer.class));
 
           Response rsp = unit.get(Response.class);
+          expect(rsp.getBufferSize()).andReturn(5);
           expect(rsp.getHttpOutput()).andReturn(output);
         })
         .run(unit -> {
@@ -98,6 +99,7 @@ public class JettyResponseTest {
           output.sendContent(eq(buffer));
 
           Response rsp = unit.get(Response.class);
+          expect(rsp.getBufferSize()).andReturn(5);
           expect(rsp.getHttpOutput()).andReturn(output);
         })
         .run(unit -> {
@@ -106,6 +108,31 @@ public class JettyResponseTest {
         });
   }
 
+  @Test
+  public void sendLargeBuffer() throws Exception {
+    byte[] bytes = "bytes".getBytes();
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    new MockUnit(ServletServletRequest.class, Request.class, Response.class, HttpOutput.class,
+        AsyncContext.class)
+            .expect(servletRequest)
+            .expect(unit -> {
+              HttpOutput output = unit.get(HttpOutput.class);
+              output.sendContent(eq(buffer), isA(JettyResponse.class));
+
+              Response rsp = unit.get(Response.class);
+              expect(rsp.getBufferSize()).andReturn(4);
+              expect(rsp.getHttpOutput()).andReturn(output);
+            })
+            .expect(startAsync)
+            .run(unit -> {
+              JettyResponse rsp = new JettyResponse(unit.get(ServletServletRequest.class),
+                  unit.get(Response.class));
+              rsp.send(buffer);
+              // async: ignored
+              rsp.end();
+            });
+  }
+
   @Test
   public void sendInputStream() throws Exception {
     new MockUnit(ServletServletRequest.class, Request.class, Response.class, HttpOutput.class,
@@ -212,6 +239,7 @@ public class JettyResponseTest {
               output.close();
 
               Response rsp = unit.get(Response.class);
+              expect(rsp.getBufferSize()).andReturn(5);
               expect(rsp.getHttpOutput()).andReturn(output).times(2);
             })
             .expect(noAsyncStarted)
@@ -303,6 +331,53 @@ public class JettyResponseTest {
         });
   }
 
+  @Test
+  public void failedAsync() throws Exception {
+    IOException cause = new IOException();
+    ByteBuffer buffer = ByteBuffer.wrap("bytes".getBytes());
+    new MockUnit(ServletServletRequest.class, Request.class, Response.class, HttpOutput.class,
+        AsyncContext.class)
+            .expect(servletRequest)
+            .expect(unit -> {
+              HttpOutput output = unit.get(HttpOutput.class);
+              output.sendContent(eq(buffer), isA(JettyResponse.class));
+
+              Response rsp = unit.get(Response.class);
+              expect(rsp.getBufferSize()).andReturn(4);
+              expect(rsp.getHttpOutput()).andReturn(output);
+            })
+            .expect(startAsync)
+            .expect(unit -> {
+              Logger log = unit.mock(Logger.class);
+              log.error("execution of /path resulted in exception", cause);
+
+              unit.mockStatic(LoggerFactory.class);
+              expect(LoggerFactory.getLogger(org.jooby.Response.class)).andReturn(log);
+            })
+            .expect(unit -> {
+              ServletServletRequest req = unit.get(ServletServletRequest.class);
+              expect(req.path()).andReturn("/path");
+            })
+            .expect(asyncStarted)
+            .expect(unit -> {
+              Request req = unit.get(Request.class);
+
+              AsyncContext ctx = unit.get(AsyncContext.class);
+              ctx.complete();
+
+              expect(req.getAsyncContext()).andReturn(ctx);
+            })
+            .run(unit -> {
+              JettyResponse rsp = new JettyResponse(unit.get(ServletServletRequest.class),
+                  unit.get(Response.class));
+              rsp.send(buffer);
+              // async: ignored
+              rsp.end();
+              // send failed after end
+              rsp.failed(cause);
+            });
+  }
+
   private FileChannel newFileChannel(final int size) {
     return new FileChannel() {
       @Override
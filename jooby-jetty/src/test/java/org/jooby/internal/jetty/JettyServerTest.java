@@ -4,9 +4,12 @@ import static org.easymock.EasyMock.expectLastCall;
 import static org.easymock.EasyMock.isA;
 
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import javax.inject.Provider;
 
+import org.eclipse.jetty.io.ArrayByteBufferPool;
+import org.eclipse.jetty.io.ByteBufferPool;
 import org.eclipse.jetty.server.ConnectionFactory;
 import org.eclipse.jetty.server.HttpConfiguration;
 import org.eclipse.jetty.server.HttpConnectionFactory;
@@ -14,6 +17,7 @@ import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.ServerConnector;
 import org.eclipse.jetty.server.handler.ContextHandler;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.Scheduler;
 import org.eclipse.jetty.util.thread.ThreadPool;
 import org.eclipse.jetty.websocket.api.WebSocketBehavior;
 import org.eclipse.jetty.websocket.api.WebSocketPolicy;
@@ -36,7 +40,7 @@ import com.typesafe.config.ConfigValueFactory;
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({JettyServer.class, Server.class, QueuedThreadPool.class, ServerConnector.class,
     HttpConfiguration.class, HttpConnectionFactory.class, WebSocketPolicy.class,
-    WebSocketServerFactory.class })
+    WebSocketServerFactory.class, ArrayByteBufferPool.class })
 public class JettyServerTest {
 
   Map<String, Object> httpConfig = ImmutableMap.<String, Object> builder()
@@ -73,6 +77,10 @@ public class JettyServerTest {
       .withValue("jetty.threads.IdleTimeout", ConfigValueFactory.fromAnyRef("3s"))
       .withValue("jetty.threads.Name", ConfigValueFactory.fromAnyRef("jetty task"))
       .withValue("jetty.FileSizeThreshold", ConfigValueFactory.fromAnyRef(1024))
+      .withValue("jetty.byteBufferPool.MinSize", ConfigValueFactory.fromAnyRef(0))
+      .withValue("jetty.byteBufferPool.Increment", ConfigValueFactory.fromAnyRef("1k"))
+      .withValue("jetty.byteBufferPool.MaxSize", ConfigValueFactory.fromAnyRef("64k"))
+      .withValue("jetty.byteBufferPool.MaxQueue", ConfigValueFactory.fromAnyRef(-1))
       .withValue("jetty.url.charset", ConfigValueFactory.fromAnyRef("UTF-8"))
       .withValue("jetty.http", ConfigValueFactory.fromAnyRef(httpConfig))
       .withValue("jetty.ws", ConfigValueFactory.fromAnyRef(ws))
@@ -132,9 +140,18 @@ public class JettyServerTest {
     unit.registerMock(HttpConnectionFactory.class, factory);
   };
 
+  private MockUnit.Block bufferPool = unit -> {
+    ArrayByteBufferPool buffers = unit.constructor(ArrayByteBufferPool.class)
+        .args(int.class, int.class, int.class, int.class)
+        .build(0, 1024, 65536, -1);
+
+    unit.registerMock(ByteBufferPool.class, buffers);
+  };
+
   private MockUnit.Block connector = unit -> {
     ServerConnector connector = unit.constructor(ServerConnector.class)
-        .args(Server.class, ConnectionFactory[].class)
+        .args(Server.class, Executor.class, Scheduler.class, ByteBufferPool.class, int.class,
+            int.class, ConnectionFactory[].class)
         .build(unit.get(HttpConnectionFactory.class));
 
     connector.setSoLingerTime(-1);
@@ -187,6 +204,7 @@ public class JettyServerTest {
         .expect(server)
         .expect(httpConf)
         .expect(httpFactory)
+        .expect(bufferPool)
         .expect(connector)
         .expect(wsPolicy)
         .expect(wsFactory)
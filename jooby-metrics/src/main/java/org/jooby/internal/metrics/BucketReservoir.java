@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.codahale.metrics.Reservoir;
+
+/**
+ * Cumulative, log-linear bucketed reservoir (HdrHistogram style). Every power of two is split in
+ * <code>8</code> linear buckets, so a recorded value is off by at most <code>12.5%</code>. An update
+ * is a single array increment, memory is fixed (~2.5kb) regardless of how many values are
+ * recorded.
+ */
+public class BucketReservoir implements Reservoir {
+
+  static final int SUB_BITS = 3;
+
+  static final int SUB = 1 << SUB_BITS;
+
+  /** Values above 2^40 (~18 minutes in nanos) go to the last bucket. */
+  static final int MAX_EXP = 40;
+
+  static final int BUCKETS = (MAX_EXP - SUB_BITS + 2) << SUB_BITS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+  private final LongAdder count = new LongAdder();
+
+  private final LongAdder sum = new LongAdder();
+
+  @Override
+  public int size() {
+    return (int) Math.min(Integer.MAX_VALUE, count.sum());
+  }
+
+  @Override
+  public void update(final long value) {
+    long v = Math.max(0, value);
+    counts.incrementAndGet(index(v));
+    count.increment();
+    sum.add(v);
+  }
+
+  @Override
+  public BucketSnapshot getSnapshot() {
+    long[] buckets = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets[i] = counts.get(i);
+      total += buckets[i];
+    }
+    return new BucketSnapshot(buckets, total, sum.sum());
+  }
+
+  static int index(final long value) {
+    if (value < SUB) {
+      return (int) value;
+    }
+    int exp = 63 - Long.numberOfLeadingZeros(value);
+    if (exp > MAX_EXP) {
+      return BUCKETS - 1;
+    }
+    return ((exp - SUB_BITS + 1) << SUB_BITS) | (int) ((value >>> (exp - SUB_BITS)) & (SUB - 1));
+  }
+
+  /**
+   * @param index Bucket index.
+   * @return Smallest value of the bucket.
+   */
+  static long lower(final int index) {
+    if (index < SUB) {
+      return index;
+    }
+    int exp = (index >> SUB_BITS) + SUB_BITS - 1;
+    return ((long) (SUB | (index & (SUB - 1)))) << (exp - SUB_BITS);
+  }
+
+  /**
+   * @param index Bucket index.
+   * @return Largest value of the bucket.
+   */
+  static long upper(final int index) {
+    if (index == BUCKETS - 1) {
+      return Long.MAX_VALUE;
+    }
+    return lower(index + 1) - 1;
+  }
+
+}
@@ -0,0 +1,176 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.metrics;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+import com.codahale.metrics.Snapshot;
+
+/**
+ * Snapshot of a {@link BucketReservoir}. Quantiles are resolved to the middle of the bucket where
+ * they fall, mean is exact.
+ */
+public class BucketSnapshot extends Snapshot {
+
+  private final long[] counts;
+
+  private final long count;
+
+  private final long sum;
+
+  public BucketSnapshot(final long[] counts, final long count, final long sum) {
+    this.counts = counts;
+    this.count = count;
+    this.sum = sum;
+  }
+
+  /**
+   * @return Number of values recorded.
+   */
+  public long count() {
+    return count;
+  }
+
+  /**
+   * @return Sum of all the values recorded.
+   */
+  public long sum() {
+    return sum;
+  }
+
+  /**
+   * @return Bucket counts.
+   */
+  public long[] counts() {
+    return counts;
+  }
+
+  /**
+   * @param value A value.
+   * @return Bucket index for the value.
+   */
+  public int index(final long value) {
+    return BucketReservoir.index(value);
+  }
+
+  @Override
+  public double getValue(final double quantile) {
+    if (quantile < 0.0 || quantile > 1.0 || Double.isNaN(quantile)) {
+      throw new IllegalArgumentException(quantile + " is not in [0..1]");
+    }
+    if (count == 0) {
+      return 0.0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(quantile * count));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return value(i);
+      }
+    }
+    return getMax();
+  }
+
+  @Override
+  public long[] getValues() {
+    int size = 0;
+    for (long c : counts) {
+      if (c > 0) {
+        size += 1;
+      }
+    }
+    long[] values = new long[size];
+    int j = 0;
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] > 0) {
+        values[j++] = value(i);
+      }
+    }
+    return values;
+  }
+
+  @Override
+  public int size() {
+    return (int) Math.min(Integer.MAX_VALUE, count);
+  }
+
+  @Override
+  public long getMax() {
+    for (int i = counts.length - 1; i >= 0; i--) {
+      if (counts[i] > 0) {
+        return value(i);
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public double getMean() {
+    return count == 0 ? 0.0 : (double) sum / count;
+  }
+
+  @Override
+  public long getMin() {
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] > 0) {
+        return value(i);
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public double getStdDev() {
+    if (count <= 1) {
+      return 0.0;
+    }
+    double mean = getMean();
+    double variance = 0;
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] > 0) {
+        double diff = value(i) - mean;
+        variance += counts[i] * diff * diff;
+      }
+    }
+    return Math.sqrt(variance / (count - 1));
+  }
+
+  @Override
+  public void dump(final OutputStream output) {
+    try (PrintWriter out = new PrintWriter(
+        new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+      for (long value : getValues()) {
+        out.printf("%d%n", value);
+      }
+    }
+  }
+
+  private static long value(final int index) {
+    long lower = BucketReservoir.lower(index);
+    if (index == BucketReservoir.BUCKETS - 1) {
+      return lower;
+    }
+    return lower + (BucketReservoir.upper(index) - lower) / 2;
+  }
+
+}
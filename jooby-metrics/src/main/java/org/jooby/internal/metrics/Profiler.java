@@ -0,0 +1,171 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.jooby.Request;
+import org.jooby.Route;
+
+/**
+ * Sampling profiler for request threads. Threads executing a route chain are always tracked,
+ * each thread has a slot with the request it is running (two volatile writes per request), so
+ * requests that started before a session are sampled too. While a session is running, stacks of
+ * tracked threads are sampled periodically. Samples are aggregated as collapsed stacks (one line
+ * per stack: <code>frame;frame;... count</code>) prefixed by the current route, ready for
+ * <code>flamegraph.pl</code>.
+ *
+ * All the tracked threads are sampled in one {@link ThreadMXBean#getThreadInfo(long[], int)} call.
+ * The time between samples grows if needed, so sampling never takes more than <code>1%</code> of
+ * the session time.
+ */
+public class Profiler {
+
+  /** Request running on a thread. */
+  private static class Slot {
+
+    private final Thread thread;
+
+    private volatile Request req;
+
+    Slot(final Thread thread) {
+      this.thread = thread;
+    }
+  }
+
+  /** Sampling busy time must be under 1%. */
+  private static final int DUTY = 99;
+
+  /** A slot per thread that executed a route chain. */
+  private final Set<Slot> slots = ConcurrentHashMap.newKeySet();
+
+  private final ThreadLocal<Slot> slot = ThreadLocal.withInitial(() -> {
+    Slot slot = new Slot(Thread.currentThread());
+    slots.add(slot);
+    return slot;
+  });
+
+  private final ThreadMXBean threads;
+
+  public Profiler(final ThreadMXBean threads) {
+    this.threads = threads;
+  }
+
+  public Profiler() {
+    this(ManagementFactory.getThreadMXBean());
+  }
+
+  /**
+   * @return A filter that track request threads.
+   */
+  public Route.Filter filter() {
+    return (req, rsp, chain) -> {
+      Slot slot = this.slot.get();
+      // forward and error handling might run a nested chain
+      Request outer = slot.req;
+      slot.req = req;
+      try {
+        chain.next(req, rsp);
+      } finally {
+        slot.req = outer;
+      }
+    };
+  }
+
+  /**
+   * Sample request threads for the given time. The caller thread is blocked.
+   *
+   * @param duration Session duration.
+   * @param interval Min time between samples.
+   * @param unit Time unit.
+   * @param depth Max stack depth.
+   * @return Collapsed stacks.
+   * @throws InterruptedException If the caller thread is interrupted.
+   */
+  public String profile(final long duration, final long interval, final TimeUnit unit,
+      final int depth) throws InterruptedException {
+    Map<String, long[]> stacks = new HashMap<>();
+    long pause = unit.toNanos(interval);
+    long end = System.nanoTime() + unit.toNanos(duration);
+    long now = System.nanoTime();
+    while (now < end) {
+      sample(stacks, depth);
+      long spent = System.nanoTime() - now;
+      long sleep = Math.min(end - now, Math.max(pause, spent * DUTY));
+      TimeUnit.NANOSECONDS.sleep(sleep);
+      now = System.nanoTime();
+    }
+    StringBuilder output = new StringBuilder();
+    new TreeMap<>(stacks).forEach((stack, count) -> output.append(stack).append(' ')
+        .append(count[0]).append('\n'));
+    return output.toString();
+  }
+
+  private void sample(final Map<String, long[]> stacks, final int depth) {
+    Thread self = Thread.currentThread();
+    List<Request> requests = new ArrayList<>();
+    List<Thread> tracked = new ArrayList<>();
+    for (Slot slot : slots) {
+      Request req = slot.req;
+      if (req != null && slot.thread != self) {
+        tracked.add(slot.thread);
+        requests.add(req);
+      } else if (!slot.thread.isAlive()) {
+        slots.remove(slot);
+      }
+    }
+    if (tracked.isEmpty()) {
+      return;
+    }
+    long[] ids = new long[tracked.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = tracked.get(i).getId();
+    }
+    ThreadInfo[] infos = threads.getThreadInfo(ids, depth);
+    StringBuilder stack = new StringBuilder();
+    for (int i = 0; i < infos.length; i++) {
+      ThreadInfo info = infos[i];
+      if (info == null || info.getStackTrace().length == 0) {
+        // dead or not running anymore
+        continue;
+      }
+      stack.setLength(0);
+      Route route = requests.get(i).route();
+      stack.append(route.method()).append(' ').append(route.pattern());
+      StackTraceElement[] frames = info.getStackTrace();
+      // root frame first
+      for (int f = frames.length - 1; f >= 0; f--) {
+        stack.append(';').append(frames[f].getClassName()).append('.')
+            .append(frames[f].getMethodName());
+      }
+      stacks.computeIfAbsent(stack.toString(), k -> new long[1])[0] += 1;
+    }
+  }
+
+}
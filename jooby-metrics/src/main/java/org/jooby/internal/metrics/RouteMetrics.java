@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.jooby.Route;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * Per route (method and pattern) timers and response counters. All the metrics are created and
+ * registered at startup, so finding them for a request is a map lookup (pattern is the route
+ * definition string, hash is cached) plus array indexing (method and status class).
+ *
+ * Metrics are registered as:
+ * <ul>
+ * <li><code>request.[method].[pattern]</code>: a {@link Timer} backed by a
+ * {@link BucketReservoir}.</li>
+ * <li><code>request.[method].[pattern].responses.[1xx-5xx]</code>: a {@link Counter} per status
+ * class.</li>
+ * </ul>
+ */
+public class RouteMetrics {
+
+  public static class Slot {
+
+    private final Timer timer;
+
+    private final Counter[] responses;
+
+    Slot(final Timer timer, final Counter[] responses) {
+      this.timer = timer;
+      this.responses = responses;
+    }
+
+    public Timer timer() {
+      return timer;
+    }
+
+    public void status(final int status) {
+      responses[Math.min(4, Math.max(0, status / 100 - 1))].inc();
+    }
+  }
+
+  private static final String[] METHODS = {"GET", "POST", "PUT", "DELETE", "PATCH", "HEAD",
+      "CONNECT", "OPTIONS", "TRACE", "*" };
+
+  private static final int ANY = METHODS.length - 1;
+
+  private final MetricRegistry registry;
+
+  private volatile Map<String, Slot[]> slots = new HashMap<>();
+
+  public RouteMetrics(final MetricRegistry registry) {
+    this.registry = registry;
+  }
+
+  public void register(final Set<Route.Definition> routes) {
+    Map<String, Slot[]> slots = new HashMap<>();
+    for (Route.Definition route : routes) {
+      int method = method(route.method());
+      if (method < 0) {
+        continue;
+      }
+      Slot[] byMethod = slots.computeIfAbsent(route.pattern(), k -> new Slot[METHODS.length]);
+      if (byMethod[method] == null) {
+        String name = MetricRegistry.name("request", METHODS[method], route.pattern());
+        Timer timer = register(name, new Timer(new BucketReservoir()));
+        Counter[] responses = new Counter[5];
+        for (int i = 0; i < responses.length; i++) {
+          responses[i] = register(MetricRegistry.name(name, "responses", (i + 1) + "xx"),
+              new Counter());
+        }
+        byMethod[method] = new Slot(timer, responses);
+      }
+    }
+    this.slots = slots;
+  }
+
+  /**
+   * @param method Request method.
+   * @param pattern Matched route pattern.
+   * @return Metrics for the route or <code>null</code>.
+   */
+  public Slot slot(final String method, final String pattern) {
+    Slot[] byMethod = slots.get(pattern);
+    if (byMethod == null) {
+      return null;
+    }
+    int index = method(method);
+    Slot slot = index < 0 ? null : byMethod[index];
+    return slot == null ? byMethod[ANY] : slot;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <M extends Metric> M register(final String name, final M metric) {
+    try {
+      return registry.register(name, metric);
+    } catch (IllegalArgumentException x) {
+      // already registered
+      return (M) registry.getMetrics().get(name);
+    }
+  }
+
+  private static int method(final String method) {
+    switch (method) {
+      case "GET":
+        return 0;
+      case "POST":
+        return 1;
+      case "PUT":
+        return 2;
+      case "DELETE":
+        return 3;
+      case "PATCH":
+        return 4;
+      case "HEAD":
+        return 5;
+      case "CONNECT":
+        return 6;
+      case "OPTIONS":
+        return 7;
+      case "TRACE":
+        return 8;
+      case "*":
+        return ANY;
+      default:
+        return -1;
+    }
+  }
+
+}
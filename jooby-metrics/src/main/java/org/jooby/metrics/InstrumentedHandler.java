@@ -18,11 +18,15 @@
  */
 package org.jooby.metrics;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 import org.jooby.Request;
 import org.jooby.Response;
 import org.jooby.Route;
 import org.jooby.Route.Chain;
 import org.jooby.Status;
+import org.jooby.internal.metrics.RouteMetrics;
 
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Meter;
@@ -32,25 +36,87 @@ import com.codahale.metrics.Timer;
 /**
  * Track request information like: active requests, request time and responses.
  *
+ * <p>
+ * When installed via {@link Metrics#request()} it also tracks request time (timer with percentiles)
+ * and responses (by status class) per route: <code>request.[method].[pattern]</code>. Per route
+ * metrics are registered at startup, a request just updates them.
+ * </p>
+ *
  * @author edgar
  * @since 0.13.0
  */
 public class InstrumentedHandler implements Route.Filter {
 
+  private final RouteMetrics routes;
+
+  private volatile Counter actives;
+
+  private volatile Timer timer;
+
+  private final AtomicReferenceArray<Meter> responses = new AtomicReferenceArray<>(600);
+
+  /**
+   * Creates a new {@link InstrumentedHandler} with per route metrics.
+   *
+   * @param routes Per route metrics.
+   */
+  InstrumentedHandler(final RouteMetrics routes) {
+    this.routes = routes;
+  }
+
+  /**
+   * Creates a new {@link InstrumentedHandler}.
+   */
+  public InstrumentedHandler() {
+    this(null);
+  }
+
   @Override
   public void handle(final Request req, final Response rsp, final Chain chain) throws Throwable {
-    MetricRegistry registry = req.require(MetricRegistry.class);
-    Counter counter = registry.counter("request.actives");
-    Timer.Context timer = registry.timer("request").time();
+    Counter actives = this.actives;
+    Timer timer = this.timer;
+    MetricRegistry registry = null;
+    if (actives == null) {
+      registry = req.require(MetricRegistry.class);
+      actives = registry.counter("request.actives");
+      timer = registry.timer("request");
+      this.timer = timer;
+      this.actives = actives;
+    }
+    long start = System.nanoTime();
     try {
-      counter.inc();
+      actives.inc();
       chain.next(req, rsp);
     } finally {
-      timer.stop();
-      counter.dec();
-      Meter meter = registry.meter("responses." + rsp.status().orElse(Status.OK).value());
+      long elapsed = System.nanoTime() - start;
+      timer.update(elapsed, TimeUnit.NANOSECONDS);
+      actives.dec();
+      int status = rsp.status().orElse(Status.OK).value();
+      Meter meter = meter(req, registry, status);
       meter.mark();
+      if (routes != null) {
+        // route is now the last route executed by the chain
+        Route route = req.route();
+        RouteMetrics.Slot slot = routes.slot(route.method(), route.pattern());
+        if (slot != null) {
+          slot.timer().update(elapsed, TimeUnit.NANOSECONDS);
+          slot.status(status);
+        }
+      }
+    }
+  }
+
+  private Meter meter(final Request req, final MetricRegistry registry, final int status) {
+    int index = status < 0 || status >= responses.length() ? 0 : status;
+    Meter meter = responses.get(index);
+    if (meter == null) {
+      MetricRegistry metrics = registry == null ? req.require(MetricRegistry.class) : registry;
+      meter = metrics.meter("responses." + status);
+      if (index > 0) {
+        responses.set(index, meter);
+      }
     }
+    return meter;
   }
 
 }
@@ -0,0 +1,83 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.metrics;
+
+import static java.util.Objects.requireNonNull;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.google.inject.Binder;
+import com.google.inject.multibindings.MapBinder;
+
+/**
+ * Publish metrics from other modules. Metrics are bound under a common prefix and registered in
+ * the {@link MetricRegistry} once the {@link Metrics} module is installed:
+ *
+ * <pre>{@code
+ *   new MetricBinder(binder, "caches." + name)
+ *       .gauge("size", cache::size)
+ *       .gauge("hitCount", () -> cache.stats().hitCount());
+ * }</pre>
+ *
+ * @author edgar
+ * @since 1.0.0
+ */
+public class MetricBinder {
+
+  private final MapBinder<String, Metric> metrics;
+
+  private final String prefix;
+
+  /**
+   * Creates a new {@link MetricBinder}.
+   *
+   * @param binder Guice binder.
+   * @param prefix Metric name prefix, a <code>.</code> is appended when missing.
+   */
+  public MetricBinder(final Binder binder, final String prefix) {
+    this.metrics = MapBinder.newMapBinder(binder, String.class, Metric.class);
+    this.prefix = prefix.endsWith(".") ? prefix : prefix + ".";
+  }
+
+  /**
+   * Bind a metric.
+   *
+   * @param name Metric name, without prefix.
+   * @param metric Metric.
+   * @return This binder.
+   */
+  public MetricBinder metric(final String name, final Metric metric) {
+    metrics.addBinding(prefix + name).toInstance(requireNonNull(metric, "Metric required."));
+    return this;
+  }
+
+  /**
+   * Bind a gauge.
+   *
+   * @param name Metric name, without prefix.
+   * @param gauge Gauge.
+   * @param <T> Gauge type.
+   * @return This binder.
+   */
+  public <T> MetricBinder gauge(final String name, final Gauge<T> gauge) {
+    return metric(name, gauge);
+  }
+
+}
@@ -25,15 +25,20 @@ import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 import org.jooby.Env;
 import org.jooby.Jooby;
+import org.jooby.Route;
 import org.jooby.Router;
 import org.jooby.internal.metrics.HealthCheckRegistryProvider;
 import org.jooby.internal.metrics.MetricRegistryInitializer;
+import org.jooby.internal.metrics.Profiler;
+import org.jooby.internal.metrics.RouteMetrics;
+import org.jooby.internal.metrics.ServerMetricSet;
 
 import com.codahale.metrics.Metric;
 import com.codahale.metrics.MetricRegistry;
@@ -92,6 +97,40 @@ import com.typesafe.config.Config;
  * metrics where the name starts with the given <code>name</code>.
  * </p>
  *
+ * <h2>prometheus</h2>
+ * <p>
+ * Metrics in the Prometheus text format are available at <code>/sys/prometheus</code> via:
+ * </p>
+ * <pre>
+ *   use(new Metrics()
+ *      .prometheus());
+ * </pre>
+ * <p>
+ * Output is cached for <code>1s</code> (or the given interval), see {@link PrometheusHandler}.
+ * </p>
+ *
+ * <h2>server</h2>
+ * <p>
+ * Web server internals like event loop pending tasks, worker queue size or open connections are
+ * exported as gauges (prefixed by <code>server.</code>) via:
+ * </p>
+ * <pre>
+ *   use(new Metrics()
+ *      .server());
+ * </pre>
+ *
+ * <h2>profiler</h2>
+ * <p>
+ * A sampling profiler is available at <code>/sys/profile?seconds=30</code> via:
+ * </p>
+ * <pre>
+ *   use(new Metrics()
+ *      .profiler());
+ * </pre>
+ * <p>
+ * It produces flame graph ready collapsed stacks per route, see {@link ProfileHandler}.
+ * </p>
+ *
  * <h2>health checks</h2>
  * <p>
  * Health checks are available at <code>/sys/healthCheck</code> via:
@@ -110,6 +149,12 @@ import com.typesafe.config.Config;
  *   use(new Metrics()
  *      .request());
  * </pre>
+ * <p>
+ * Request time and responses are tracked per route too: <code>request.[method].[pattern]</code>
+ * is a timer with p50...p999 and <code>request.[method].[pattern].responses.[1xx-5xx]</code> are
+ * counters. They are registered at startup for every route, so the request doesn't pay for a
+ * metric lookup.
+ * </p>
  *
  * <h2>thread dump</h2>
  * <p>
@@ -162,6 +207,8 @@ public class Metrics implements Jooby.Module {
 
   private MetricRegistry registry;
 
+  private RouteMetrics routeMetrics;
+
   /**
    * Creates a new {@link Metric} module.
    *
@@ -206,7 +253,11 @@ public class Metrics implements Jooby.Module {
    * @return This metrics module.
    */
   public Metrics request(final String method, final String pattern) {
-    routes.add(r -> r.use(method, pattern, new InstrumentedHandler()));
+    if (routeMetrics == null) {
+      routeMetrics = new RouteMetrics(registry);
+    }
+    RouteMetrics metrics = routeMetrics;
+    routes.add(r -> r.use(method, pattern, new InstrumentedHandler(metrics)));
     return this;
   }
 
@@ -255,6 +306,59 @@ public class Metrics implements Jooby.Module {
     return this;
   }
 
+  /**
+   * Append a handler that produces metrics in the Prometheus text format at
+   * <code>/sys/prometheus</code>. See {@link PrometheusHandler}.
+   *
+   * @param cacheFor How long to keep the encoded output. Zero turn off caching.
+   * @param unit Time unit.
+   * @return This metrics module.
+   */
+  public Metrics prometheus(final long cacheFor, final TimeUnit unit) {
+    bindings.add((binder, routes, conf) -> {
+      routes.use("GET", this.pattern + "/prometheus", new PrometheusHandler(cacheFor, unit));
+    });
+    return this;
+  }
+
+  /**
+   * Append a handler that produces metrics in the Prometheus text format at
+   * <code>/sys/prometheus</code>. Output is cached for <code>1s</code>. See
+   * {@link PrometheusHandler}.
+   *
+   * @return This metrics module.
+   */
+  public Metrics prometheus() {
+    return prometheus(1, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Export web server internals (IO threads, worker queues, connections, etc...) as gauges under
+   * the <code>server</code> name. Available metrics depends on the server: netty, undertow or
+   * jetty.
+   *
+   * @return This metrics module.
+   */
+  public Metrics server() {
+    return metric("server", ServerMetricSet.class);
+  }
+
+  /**
+   * Append a sampling profiler at <code>/sys/profile</code>. See {@link ProfileHandler}. Request
+   * threads are tracked by a <code>*</code> filter, which sets the current request in a per thread
+   * slot (so requests that started before a profiling session are sampled too).
+   *
+   * @return This metrics module.
+   */
+  public Metrics profiler() {
+    Profiler profiler = new Profiler();
+    routes.add(r -> r.use("*", "*", profiler.filter()));
+    bindings.add((binder, routes, conf) -> {
+      routes.use("GET", this.pattern + "/profile", new ProfileHandler(profiler));
+    });
+    return this;
+  }
+
   /**
    * Append a metric to the {@link MetricRegistry}, this call is identical to
    * {@link MetricRegistry#register(String, Metric)}.
@@ -366,6 +470,11 @@ public class Metrics implements Jooby.Module {
 
     env.onStop(app -> app.require(MetricRegistryInitializer.class).close());
 
+    if (routeMetrics != null) {
+      RouteMetrics metrics = routeMetrics;
+      env.onStart(app -> metrics.register(app.require(Route.KEY)));
+    }
+
     binder.bind(HealthCheckRegistry.class)
         .toProvider(HealthCheckRegistryProvider.class)
         .asEagerSingleton();
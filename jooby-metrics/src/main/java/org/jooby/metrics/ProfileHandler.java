@@ -0,0 +1,149 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.metrics;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.jooby.Deferred;
+import org.jooby.MediaType;
+import org.jooby.Request;
+import org.jooby.Response;
+import org.jooby.Result;
+import org.jooby.Results;
+import org.jooby.Route.Handler;
+import org.jooby.Status;
+import org.jooby.internal.metrics.Profiler;
+
+/**
+ * Sample request threads for a while and produces
+ * <a href="https://github.com/brendangregg/FlameGraph">flame graph</a> ready collapsed stacks, one
+ * line per stack with the current route as root frame:
+ *
+ * <pre>
+ * GET /users/:id;java.lang.Thread.run;...;app.UserService.find 42
+ * </pre>
+ *
+ * <p>
+ * Parameters:
+ * </p>
+ * <ul>
+ * <li><code>seconds</code>: how long to sample, default is <code>30</code>, max is
+ * <code>300</code>.</li>
+ * <li><code>interval</code>: min time between samples in millis, default is
+ * <code>10</code>.</li>
+ * <li><code>depth</code>: max stack depth, default is <code>64</code>.</li>
+ * </ul>
+ *
+ * <p>
+ * Only one profiling session runs at a time, a second call gets a <code>409</code>. The session
+ * runs in its own thread, the request is {@link Deferred} and doesn't hold a worker thread.
+ * </p>
+ *
+ * @author edgar
+ * @since 1.0.0
+ */
+public class ProfileHandler implements Handler {
+
+  private static final String CACHE_CONTROL = "Cache-Control";
+
+  private static final String NO_CACHE = "must-revalidate,no-cache,no-store";
+
+  private static final int MAX_SECONDS = 300;
+
+  private final Profiler profiler;
+
+  private final Executor executor;
+
+  private final Object lock = new Object();
+
+  private boolean running;
+
+  /**
+   * Creates a new {@link ProfileHandler}.
+   *
+   * @param profiler Profiler.
+   * @param executor Executor for profiling sessions.
+   */
+  ProfileHandler(final Profiler profiler, final Executor executor) {
+    this.profiler = profiler;
+    this.executor = executor;
+  }
+
+  /**
+   * Creates a new {@link ProfileHandler}. Each profiling session runs in a new daemon thread.
+   *
+   * @param profiler Profiler.
+   */
+  ProfileHandler(final Profiler profiler) {
+    this(profiler, task -> {
+      Thread thread = new Thread(task, "profiler");
+      thread.setDaemon(true);
+      thread.start();
+    });
+  }
+
+  @Override
+  public void handle(final Request req, final Response rsp) throws Throwable {
+    int seconds = Math.max(1, Math.min(MAX_SECONDS, req.param("seconds").intValue(30)));
+    long interval = Math.max(1, req.param("interval").longValue(10));
+    int depth = Math.max(1, req.param("depth").intValue(64));
+    rsp.send(new Deferred(deferred -> {
+      synchronized (lock) {
+        if (running) {
+          deferred.resolve(result("Profiling is already running.", Status.CONFLICT));
+          return;
+        }
+        running = true;
+      }
+      try {
+        executor.execute(() -> {
+          try {
+            String stacks;
+            try {
+              stacks = profiler.profile(TimeUnit.SECONDS.toMillis(seconds), interval,
+                  TimeUnit.MILLISECONDS, depth);
+            } finally {
+              done();
+            }
+            deferred.resolve(result(stacks, Status.OK));
+          } catch (Throwable x) {
+            deferred.reject(x);
+          }
+        });
+      } catch (Throwable x) {
+        done();
+        deferred.reject(x);
+      }
+    }));
+  }
+
+  private static Result result(final String text, final Status status) {
+    return Results.with(text, status)
+        .type(MediaType.plain)
+        .header(CACHE_CONTROL, NO_CACHE);
+  }
+
+  private void done() {
+    synchronized (lock) {
+      running = false;
+    }
+  }
+
+}
@@ -0,0 +1,417 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.metrics;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.jooby.MediaType;
+import org.jooby.Request;
+import org.jooby.Response;
+import org.jooby.Route.Handler;
+import org.jooby.Status;
+import org.jooby.internal.metrics.BucketSnapshot;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+
+/**
+ * Produces metrics in the
+ * <a href="https://prometheus.io/docs/instrumenting/exposition_formats/">Prometheus text
+ * format</a>:
+ *
+ * <ul>
+ * <li>Gauges and counters are exported as <code>gauge</code>.</li>
+ * <li>Meters are exported as <code>counter</code> (<code>_total</code>).</li>
+ * <li>Histograms and timers are exported as <code>summary</code> (timers in seconds). Timers
+ * created by {@link Metrics#request()} are exported as <code>histogram</code>.</li>
+ * </ul>
+ *
+ * <p>
+ * Route metrics of {@link Metrics#request()} are exported as two families with labels:
+ * <code>request_seconds{method="GET",route="/api/:id"}</code> and
+ * <code>request_responses{method="GET",route="/api/:id",status="2xx"}</code>. The
+ * <code>request_seconds</code> family belongs to route metrics, the global <code>request</code>
+ * timer is left out when there are route metrics (sum the route histograms instead).
+ * </p>
+ *
+ * <p>
+ * Metric names are sanitized: characters outside of <code>[a-zA-Z0-9_]</code> are replaced with
+ * <code>_</code>. When two metrics end up with the same name, the first one (in name order) wins.
+ * There is a <code>name</code> filter: <code>/sys/prometheus?name=request</code> exports all the
+ * metrics where the name starts with the given <code>name</code>.
+ * </p>
+ *
+ * <p>
+ * The registry is written into reusable buffers (no JSON) and the output (without
+ * <code>name</code> filter) is cached for a short time, so scrapes from several Prometheus
+ * servers encode the registry once.
+ * </p>
+ *
+ * @author edgar
+ * @since 1.0.0
+ */
+public class PrometheusHandler implements Handler {
+
+  private static class Output {
+    final long time;
+
+    final byte[] bytes;
+
+    Output(final long time, final byte[] bytes) {
+      this.time = time;
+      this.bytes = bytes;
+    }
+  }
+
+  /**
+   * Samples of a metric family, reused between scrapes.
+   */
+  private static class Family {
+    String type;
+
+    final Set<String> series = new HashSet<>();
+
+    final StringBuilder samples = new StringBuilder();
+
+    void reset() {
+      type = null;
+      series.clear();
+      samples.setLength(0);
+    }
+  }
+
+  private static final String CACHE_CONTROL = "Cache-Control";
+
+  private static final String REQUEST = "request";
+
+  private static final String REQUEST_RESPONSES = "request_responses";
+
+  /** Offset of the method in a route metric name: request.[method].[pattern]. */
+  private static final int ROUTE_METHOD = "request.".length();
+
+  private static final String METHOD = "method";
+
+  private static final String ROUTE = "route";
+
+  private static final String STATUS = "status";
+
+  private static final String LE = "le";
+
+  private static final String QUANTILE = "quantile";
+
+  private static final String NO_CACHE = "must-revalidate,no-cache,no-store";
+
+  private static final double[] QUANTILES = {0.5, 0.75, 0.95, 0.98, 0.99, 0.999 };
+
+  /** Export bucket boundaries from 2^10 (~1 micro) to 2^36 (~68s) when values are nanos. */
+  private static final int MIN_BUCKET = 10;
+
+  private static final int MAX_BUCKET = 36;
+
+  private static final double NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final long cacheFor;
+
+  private final Object lock = new Object();
+
+  private final StringBuilder buffer = new StringBuilder(8192);
+
+  private final Map<String, Family> families = new LinkedHashMap<>();
+
+  private volatile Output output;
+
+  /**
+   * Creates a new {@link PrometheusHandler}.
+   *
+   * @param cacheFor How long to keep the encoded output.
+   * @param unit Time unit.
+   */
+  public PrometheusHandler(final long cacheFor, final TimeUnit unit) {
+    this.cacheFor = unit.toNanos(cacheFor);
+  }
+
+  /**
+   * Creates a new {@link PrometheusHandler} and cache output for <code>1s</code>.
+   */
+  public PrometheusHandler() {
+    this(1, TimeUnit.SECONDS);
+  }
+
+  @Override
+  public void handle(final Request req, final Response rsp) throws Throwable {
+    MetricRegistry registry = req.require(MetricRegistry.class);
+    Optional<String> name = req.param("name").toOptional();
+    byte[] bytes = name.isPresent() ? encode(registry, name.get()) : cached(registry);
+    rsp.type(MediaType.plain)
+        .status(Status.OK)
+        .header(CACHE_CONTROL, NO_CACHE)
+        .send(bytes);
+  }
+
+  private byte[] cached(final MetricRegistry registry) {
+    Output output = this.output;
+    long now = System.nanoTime();
+    if (output != null && now - output.time < cacheFor) {
+      return output.bytes;
+    }
+    synchronized (lock) {
+      output = this.output;
+      // concurrent scrape might did the work
+      if (output != null && now - output.time < cacheFor) {
+        return output.bytes;
+      }
+      output = new Output(now, encode(registry, null));
+      if (cacheFor > 0) {
+        this.output = output;
+      }
+      return output.bytes;
+    }
+  }
+
+  private byte[] encode(final MetricRegistry registry, final String prefix) {
+    synchronized (lock) {
+      families.values().forEach(Family::reset);
+      // a view of the registry, not a copy
+      Map<String, Metric> metrics = registry.getMetrics();
+      // route metrics go first, so they own the request families
+      for (Map.Entry<String, Metric> entry : metrics.entrySet()) {
+        String name = entry.getKey();
+        if (prefix == null || name.startsWith(prefix)) {
+          String[] route = route(name, entry.getValue());
+          if (route != null) {
+            String labels = label(label(new StringBuilder(), METHOD, route[0]), ROUTE, route[1])
+                .toString();
+            if (route[2] == null) {
+              metric(REQUEST, labels, entry.getValue());
+            } else {
+              metric(REQUEST_RESPONSES, label(new StringBuilder(labels), STATUS, route[2])
+                  .toString(), entry.getValue());
+            }
+          }
+        }
+      }
+      for (Map.Entry<String, Metric> entry : metrics.entrySet()) {
+        String name = entry.getKey();
+        if ((prefix == null || name.startsWith(prefix)) && route(name, entry.getValue()) == null) {
+          metric(sanitize(name), "", entry.getValue());
+        }
+      }
+
+      StringBuilder out = buffer;
+      out.setLength(0);
+      for (Map.Entry<String, Family> entry : families.entrySet()) {
+        Family family = entry.getValue();
+        if (family.samples.length() > 0) {
+          out.append("# TYPE ").append(entry.getKey()).append(' ').append(family.type)
+              .append('\n').append(family.samples);
+        }
+      }
+      return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+  }
+
+  /**
+   * Find a family for a new series. Series are skipped when the (sanitized) name is taken by a
+   * metric of another type or by a series with the same labels.
+   *
+   * @param name Family name.
+   * @param labels Series labels.
+   * @param type Family type.
+   * @return Family samples or <code>null</code>.
+   */
+  private StringBuilder family(final String name, final String labels, final String type) {
+    Family family = families.computeIfAbsent(name, k -> new Family());
+    if (family.type == null) {
+      family.type = type;
+    } else if (!family.type.equals(type)) {
+      return null;
+    }
+    return family.series.add(labels) ? family.samples : null;
+  }
+
+  @SuppressWarnings("rawtypes")
+  private void metric(final String name, final String labels, final Metric metric) {
+    if (metric instanceof Gauge) {
+      Object value;
+      try {
+        value = ((Gauge) metric).getValue();
+      } catch (Exception x) {
+        return;
+      }
+      if (value instanceof Number) {
+        sample(family(name, labels, "gauge"), name, labels, ((Number) value).doubleValue());
+      } else if (value instanceof Boolean) {
+        sample(family(name, labels, "gauge"), name, labels,
+            ((Boolean) value).booleanValue() ? 1 : 0);
+      }
+    } else if (metric instanceof Counter) {
+      sample(family(name, labels, "gauge"), name, labels, ((Counter) metric).getCount());
+    } else if (metric instanceof Meter) {
+      String total = name + "_total";
+      sample(family(total, labels, "counter"), total, labels, ((Meter) metric).getCount());
+    } else if (metric instanceof Timer) {
+      Timer timer = (Timer) metric;
+      snapshot(name + "_seconds", labels, timer.getSnapshot(), timer.getCount(), NANOS);
+    } else if (metric instanceof Histogram) {
+      Histogram histogram = (Histogram) metric;
+      snapshot(name, labels, histogram.getSnapshot(), histogram.getCount(), 1);
+    }
+  }
+
+  private void snapshot(final String name, final String labels, final Snapshot snapshot,
+      final long count, final double scale) {
+    if (snapshot instanceof BucketSnapshot) {
+      BucketSnapshot buckets = (BucketSnapshot) snapshot;
+      StringBuilder out = family(name, labels, "histogram");
+      if (out == null) {
+        return;
+      }
+      long[] counts = buckets.counts();
+      long seen = 0;
+      int i = 0;
+      for (int exp = MIN_BUCKET; exp <= MAX_BUCKET; exp++) {
+        long le = 1L << exp;
+        // buckets are aligned to powers of two, so all the values before le
+        int last = buckets.index(le);
+        while (i < last) {
+          seen += counts[i++];
+        }
+        labels(out.append(name).append("_bucket"), labels, LE, Double.toString(le / scale))
+            .append(' ').append(seen).append('\n');
+      }
+      labels(out.append(name).append("_bucket"), labels, LE, "+Inf")
+          .append(' ').append(buckets.count()).append('\n');
+      sample(out, name + "_sum", labels, buckets.sum() / scale);
+      sample(out, name + "_count", labels, buckets.count());
+    } else {
+      StringBuilder out = family(name, labels, "summary");
+      if (out == null) {
+        return;
+      }
+      for (double quantile : QUANTILES) {
+        labels(out.append(name), labels, QUANTILE, Double.toString(quantile))
+            .append(' ').append(snapshot.getValue(quantile) / scale).append('\n');
+      }
+      sample(out, name + "_count", labels, count);
+    }
+  }
+
+  private static void sample(final StringBuilder out, final String name, final String labels,
+      final double value) {
+    if (out != null) {
+      labels(out.append(name), labels, null, null).append(' ').append(value).append('\n');
+    }
+  }
+
+  private static void sample(final StringBuilder out, final String name, final String labels,
+      final long value) {
+    if (out != null) {
+      labels(out.append(name), labels, null, null).append(' ').append(value).append('\n');
+    }
+  }
+
+  private static StringBuilder labels(final StringBuilder out, final String labels,
+      final String name, final String value) {
+    if (labels.length() == 0 && name == null) {
+      return out;
+    }
+    out.append('{').append(labels);
+    if (name != null) {
+      label(labels.length() > 0 ? out.append(',') : out, name, value);
+    }
+    return out.append('}');
+  }
+
+  private static StringBuilder label(final StringBuilder out, final String name,
+      final String value) {
+    if (out.length() > 0 && out.charAt(out.length() - 1) == '"') {
+      out.append(',');
+    }
+    out.append(name).append("=\"");
+    for (int i = 0; i < value.length(); i++) {
+      char ch = value.charAt(i);
+      if (ch == '\\' || ch == '"') {
+        out.append('\\').append(ch);
+      } else if (ch == '\n') {
+        out.append("\\n");
+      } else {
+        out.append(ch);
+      }
+    }
+    return out.append('"');
+  }
+
+  /**
+   * Parse a route metric name (see {@link Metrics#request()}):
+   * <code>request.[method].[pattern]</code> timer or
+   * <code>request.[method].[pattern].responses.[1xx-5xx]</code> counter.
+   *
+   * @param name Metric name.
+   * @param metric Metric.
+   * @return Method, pattern and status class (or <code>null</code>). Or <code>null</code> for
+   *         anything else.
+   */
+  private static String[] route(final String name, final Metric metric) {
+    if (!name.startsWith("request.")) {
+      return null;
+    }
+    int dot = name.indexOf('.', ROUTE_METHOD);
+    // patterns always start with a slash
+    if (dot < 0 || dot + 1 >= name.length() || name.charAt(dot + 1) != '/') {
+      return null;
+    }
+    String method = name.substring(ROUTE_METHOD, dot);
+    String pattern = name.substring(dot + 1);
+    if (metric instanceof Timer) {
+      return new String[]{method, pattern, null };
+    }
+    int responses = pattern.lastIndexOf(".responses.");
+    if (metric instanceof Counter && responses > 0) {
+      String status = pattern.substring(responses + ".responses.".length());
+      if (status.length() == 3 && status.endsWith("xx")) {
+        return new String[]{method, pattern.substring(0, responses), status };
+      }
+    }
+    return null;
+  }
+
+  private static String sanitize(final String name) {
+    StringBuilder out = new StringBuilder(name.length());
+    for (int i = 0; i < name.length(); i++) {
+      char ch = name.charAt(i);
+      boolean valid = (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || ch == '_'
+          || (i > 0 && ch >= '0' && ch <= '9');
+      out.append(valid ? ch : '_');
+    }
+    return out.toString();
+  }
+
+}
@@ -0,0 +1,58 @@
+package org.jooby.internal.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Test;
+
+public class BucketReservoirTest {
+
+  @Test
+  public void buckets() {
+    for (long value : new long[]{0, 1, 7, 8, 15, 16, 17, 1000, 123456789L, 1L << 40 }) {
+      int index = BucketReservoir.index(value);
+      assertTrue(value + " >= " + BucketReservoir.lower(index),
+          value >= BucketReservoir.lower(index));
+      assertTrue(value + " <= " + BucketReservoir.upper(index),
+          value <= BucketReservoir.upper(index));
+    }
+    assertEquals(BucketReservoir.BUCKETS - 1, BucketReservoir.index(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void snapshot() {
+    BucketReservoir reservoir = new BucketReservoir();
+    for (int i = 1; i <= 100; i++) {
+      reservoir.update(i * 1000L);
+    }
+    BucketSnapshot snapshot = reservoir.getSnapshot();
+    assertEquals(100, reservoir.size());
+    assertEquals(100, snapshot.count());
+    assertEquals(5050000L, snapshot.sum());
+    assertEquals(50500.0, snapshot.getMean(), 0.0);
+    assertEquals(50000.0, snapshot.getMedian(), 50000.0 * 0.125);
+    assertEquals(99000.0, snapshot.get99thPercentile(), 99000.0 * 0.125);
+    assertEquals(1000.0, snapshot.getMin(), 1000.0 * 0.125);
+    assertEquals(100000.0, snapshot.getMax(), 100000.0 * 0.125);
+    assertTrue(snapshot.getStdDev() > 0);
+    assertTrue(snapshot.getValues().length > 0);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    snapshot.dump(out);
+    assertTrue(out.size() > 0);
+  }
+
+  @Test
+  public void empty() {
+    BucketSnapshot snapshot = new BucketReservoir().getSnapshot();
+    assertEquals(0, snapshot.size());
+    assertEquals(0.0, snapshot.getMedian(), 0.0);
+    assertEquals(0.0, snapshot.getMean(), 0.0);
+    assertEquals(0, snapshot.getMax());
+    assertEquals(0, snapshot.getMin());
+    assertEquals(0.0, snapshot.getStdDev(), 0.0);
+  }
+
+}
@@ -0,0 +1,115 @@
+package org.jooby.internal.metrics;
+
+import static org.easymock.EasyMock.expect;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jooby.Request;
+import org.jooby.Response;
+import org.jooby.Route;
+import org.jooby.test.MockUnit;
+import org.junit.Test;
+
+public class ProfilerTest {
+
+  @Test
+  public void noSession() throws Throwable {
+    new MockUnit(Request.class, Response.class, Route.Chain.class)
+        .expect(unit -> {
+          unit.get(Route.Chain.class).next(unit.get(Request.class), unit.get(Response.class));
+        })
+        .run(unit -> {
+          new Profiler().filter().handle(unit.get(Request.class), unit.get(Response.class),
+              unit.get(Route.Chain.class));
+        });
+  }
+
+  @Test
+  public void emptyProfile() throws Exception {
+    assertEquals("", new Profiler().profile(50, 10, TimeUnit.MILLISECONDS, 64));
+  }
+
+  @Test
+  public void profile() throws Exception {
+    new MockUnit(Request.class, Response.class, Route.class)
+        .expect(unit -> {
+          Route route = unit.get(Route.class);
+          expect(route.method()).andReturn("GET").anyTimes();
+          expect(route.pattern()).andReturn("/slow").anyTimes();
+
+          Request req = unit.get(Request.class);
+          expect(req.route()).andReturn(route).anyTimes();
+        })
+        .run(unit -> {
+          Profiler profiler = new Profiler();
+          CountDownLatch done = new CountDownLatch(1);
+          Thread worker = new Thread(() -> {
+            try {
+              while (done.getCount() > 0) {
+                profiler.filter().handle(unit.get(Request.class), unit.get(Response.class),
+                    (prefix, req, rsp) -> slow(done));
+              }
+            } catch (Throwable x) {
+              throw new IllegalStateException(x);
+            }
+          });
+          worker.start();
+          try {
+            String stacks = profiler.profile(300, 5, TimeUnit.MILLISECONDS, 64);
+            assertTrue(stacks, stacks.startsWith("GET /slow;"));
+            assertTrue(stacks, stacks.contains(ProfilerTest.class.getName() + ".slow"));
+          } finally {
+            done.countDown();
+            worker.join();
+          }
+        });
+  }
+
+  @Test
+  public void requestStartedBeforeSession() throws Exception {
+    new MockUnit(Request.class, Response.class, Route.class)
+        .expect(unit -> {
+          Route route = unit.get(Route.class);
+          expect(route.method()).andReturn("GET").anyTimes();
+          expect(route.pattern()).andReturn("/slow").anyTimes();
+
+          Request req = unit.get(Request.class);
+          expect(req.route()).andReturn(route).anyTimes();
+        })
+        .run(unit -> {
+          Profiler profiler = new Profiler();
+          CountDownLatch started = new CountDownLatch(1);
+          CountDownLatch done = new CountDownLatch(1);
+          Thread worker = new Thread(() -> {
+            try {
+              profiler.filter().handle(unit.get(Request.class), unit.get(Response.class),
+                  (prefix, req, rsp) -> {
+                    started.countDown();
+                    done.await();
+                  });
+            } catch (Throwable x) {
+              throw new IllegalStateException(x);
+            }
+          });
+          worker.start();
+          try {
+            started.await();
+            String stacks = profiler.profile(50, 5, TimeUnit.MILLISECONDS, 64);
+            assertTrue(stacks, stacks.startsWith("GET /slow;"));
+          } finally {
+            done.countDown();
+            worker.join();
+          }
+          // slot is clear once the request is done
+          assertEquals("", profiler.profile(20, 5, TimeUnit.MILLISECONDS, 64));
+        });
+  }
+
+  private static void slow(final CountDownLatch done) throws InterruptedException {
+    done.await(10, TimeUnit.MILLISECONDS);
+  }
+
+}
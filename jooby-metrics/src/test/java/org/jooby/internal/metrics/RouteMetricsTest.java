@@ -0,0 +1,58 @@
+package org.jooby.internal.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jooby.Route;
+import org.junit.Test;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableSet;
+
+public class RouteMetricsTest {
+
+  @Test
+  public void slots() {
+    MetricRegistry registry = new MetricRegistry();
+    RouteMetrics routes = new RouteMetrics(registry);
+    routes.register(ImmutableSet.of(
+        new Route.Definition("GET", "/", () -> ""),
+        new Route.Definition("POST", "/", () -> ""),
+        new Route.Definition("*", "/any", () -> "")));
+
+    assertTrue(registry.getTimers().containsKey("request.GET./"));
+    assertTrue(registry.getTimers().containsKey("request.POST./"));
+    assertTrue(registry.getTimers().containsKey("request.*./any"));
+    assertTrue(registry.getCounters().containsKey("request.GET./.responses.5xx"));
+
+    RouteMetrics.Slot get = routes.slot("GET", "/");
+    assertNotNull(get);
+    assertTrue(get != routes.slot("POST", "/"));
+    assertNull(routes.slot("PUT", "/"));
+    assertNull(routes.slot("GET", "/missing"));
+    assertNotNull(routes.slot("DELETE", "/any"));
+
+    get.timer().update(1, TimeUnit.MILLISECONDS);
+    get.status(200);
+    get.status(503);
+    get.status(999);
+    assertEquals(1, registry.timer("request.GET./").getCount());
+    assertEquals(1, registry.counter("request.GET./.responses.2xx").getCount());
+    assertEquals(2, registry.counter("request.GET./.responses.5xx").getCount());
+  }
+
+  @Test
+  public void registerTwice() {
+    MetricRegistry registry = new MetricRegistry();
+    new RouteMetrics(registry)
+        .register(ImmutableSet.of(new Route.Definition("GET", "/", () -> "")));
+    RouteMetrics routes = new RouteMetrics(registry);
+    routes.register(ImmutableSet.of(new Route.Definition("GET", "/", () -> "")));
+    assertTrue(routes.slot("GET", "/").timer() == registry.getTimers().get("request.GET./"));
+  }
+
+}
@@ -0,0 +1,50 @@
+package org.jooby.internal.metrics;
+
+import static org.easymock.EasyMock.expect;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.jooby.spi.Server;
+import org.jooby.test.MockUnit;
+import org.junit.Test;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableMap;
+
+public class ServerMetricSetTest {
+
+  @SuppressWarnings("rawtypes")
+  @Test
+  public void gauges() throws Exception {
+    Map<String, Supplier<Number>> metrics = ImmutableMap.of("eventLoop.pendingTasks", () -> 3,
+        "channels", () -> 7L);
+    new MockUnit(Server.class)
+        .expect(unit -> {
+          expect(unit.get(Server.class).metrics()).andReturn(metrics);
+        })
+        .run(unit -> {
+          MetricRegistry registry = new MetricRegistry();
+          registry.register("server", new ServerMetricSet(unit.get(Server.class)));
+          Map<String, Gauge> gauges = registry.getGauges();
+          assertEquals(3, gauges.get("server.eventLoop.pendingTasks").getValue());
+          assertEquals(7L, gauges.get("server.channels").getValue());
+        });
+  }
+
+  @Test
+  public void empty() throws Exception {
+    new MockUnit(Server.class)
+        .expect(unit -> {
+          expect(unit.get(Server.class).metrics()).andReturn(ImmutableMap.of());
+        })
+        .run(unit -> {
+          Map<String, Metric> metrics = new ServerMetricSet(unit.get(Server.class)).getMetrics();
+          assertEquals(0, metrics.size());
+        });
+  }
+
+}
@@ -1,15 +1,20 @@
 package org.jooby.metrics;
 
+import static org.easymock.EasyMock.anyLong;
+import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.expectLastCall;
+import static org.junit.Assert.assertEquals;
 
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import org.jooby.Request;
 import org.jooby.Response;
 import org.jooby.Route;
 import org.jooby.Status;
+import org.jooby.internal.metrics.RouteMetrics;
 import org.jooby.test.MockUnit;
 import org.jooby.test.MockUnit.Block;
 import org.junit.Test;
@@ -18,7 +23,7 @@ import com.codahale.metrics.Counter;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
-import com.codahale.metrics.Timer.Context;
+import com.google.common.collect.ImmutableSet;
 
 public class InstrumentedHandlerTest {
 
@@ -38,11 +43,8 @@ public class InstrumentedHandlerTest {
   };
 
   private Block timer = unit -> {
-    Context ctx = unit.mock(Context.class);
-    expect(ctx.stop()).andReturn(1L);
-
     Timer timer = unit.mock(Timer.class);
-    expect(timer.time()).andReturn(ctx);
+    timer.update(anyLong(), eq(TimeUnit.NANOSECONDS));
 
     MetricRegistry registry = unit.get(MetricRegistry.class);
     expect(registry.timer("request")).andReturn(timer);
@@ -102,4 +104,35 @@ public class InstrumentedHandlerTest {
         });
   }
 
+  @Test
+  public void instrumentRoute() throws Exception {
+    MetricRegistry registry = new MetricRegistry();
+    RouteMetrics routes = new RouteMetrics(registry);
+    routes.register(ImmutableSet.of(new Route.Definition("GET", "/users/:id", () -> "")));
+    new MockUnit(Request.class, Response.class, Route.Chain.class, Route.class)
+        .expect(next)
+        .expect(unit -> {
+          Request req = unit.get(Request.class);
+          expect(req.require(MetricRegistry.class)).andReturn(registry);
+          expect(req.route()).andReturn(unit.get(Route.class));
+
+          Route route = unit.get(Route.class);
+          expect(route.method()).andReturn("GET");
+          expect(route.pattern()).andReturn("/users/:id");
+
+          Response rsp = unit.get(Response.class);
+          expect(rsp.status()).andReturn(Optional.of(Status.NOT_FOUND));
+        })
+        .run(unit -> {
+          new InstrumentedHandler(routes).handle(unit.get(Request.class),
+              unit.get(Response.class), unit.get(Route.Chain.class));
+        });
+    assertEquals(1, registry.timer("request").getCount());
+    assertEquals(1, registry.meter("responses.404").getCount());
+    assertEquals(0, registry.counter("request.actives").getCount());
+    assertEquals(1, registry.timer("request.GET./users/:id").getCount());
+    assertEquals(1, registry.counter("request.GET./users/:id.responses.4xx").getCount());
+    assertEquals(0, registry.counter("request.GET./users/:id.responses.2xx").getCount());
+  }
+
 }
@@ -3,6 +3,7 @@ package org.jooby.metrics;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.isA;
 
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 
 import org.jooby.Env;
@@ -11,6 +12,7 @@ import org.jooby.Route;
 import org.jooby.Router;
 import org.jooby.internal.metrics.HealthCheckRegistryProvider;
 import org.jooby.internal.metrics.MetricRegistryInitializer;
+import org.jooby.internal.metrics.RouteMetrics;
 import org.jooby.test.MockUnit;
 import org.jooby.test.MockUnit.Block;
 import org.junit.Test;
@@ -198,7 +200,9 @@ public class MetricsTest {
               unit.constructor(HealthCheckHandler.class).build());
 
           route(unit, routes, "*",
-              unit.constructor(InstrumentedHandler.class).build());
+              unit.constructor(InstrumentedHandler.class)
+                  .args(RouteMetrics.class)
+                  .build(isA(RouteMetrics.class)));
         })
         .expect(setbinder(Reporter.class, (unit, binder) -> {
 
@@ -207,6 +211,10 @@ public class MetricsTest {
         .expect(bindRegistryInitializer)
         .expect(bindHealthCheckRegistry)
         .expect(onStop)
+        .expect(unit -> {
+          Env env = unit.get(Env.class);
+          expect(env.onStart(isA(CheckedConsumer.class))).andReturn(env);
+        })
         .run(unit -> {
           Metrics metrics = new Metrics().request();
           metrics.configure(unit.get(Env.class), unit.get(Config.class), unit.get(Binder.class));
@@ -271,6 +279,36 @@ public class MetricsTest {
         });
   }
 
+  @Test
+  public void prometheus() throws Exception {
+    new MockUnit(Env.class, Config.class, Binder.class)
+        .expect(newRegistry)
+        .expect(mapBinderStatic)
+        .expect(mapbinder(Metric.class, (unit, binder) -> {
+        }))
+        .expect(mapbinder(HealthCheck.class, (unit, binder) -> {
+        }))
+        .expect(multibinderStatic)
+        .expect(routes)
+        .expect(unit -> {
+          Router routes = unit.get(Router.class);
+
+          route(unit, routes, "/sys/prometheus",
+              unit.constructor(PrometheusHandler.class).build(1L, TimeUnit.SECONDS));
+        })
+        .expect(setbinder(Reporter.class, (unit, binder) -> {
+
+        }))
+        .expect(bindRegistry)
+        .expect(bindRegistryInitializer)
+        .expect(bindHealthCheckRegistry)
+        .expect(onStop)
+        .run(unit -> {
+          Metrics metrics = new Metrics().prometheus();
+          metrics.configure(unit.get(Env.class), unit.get(Config.class), unit.get(Binder.class));
+        });
+  }
+
   @SuppressWarnings("unchecked")
   @Test
   public void metricInstance() throws Exception {
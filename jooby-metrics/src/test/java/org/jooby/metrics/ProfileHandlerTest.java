@@ -0,0 +1,136 @@
+package org.jooby.metrics;
+
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jooby.Deferred;
+import org.jooby.MediaType;
+import org.jooby.Mutant;
+import org.jooby.Request;
+import org.jooby.Response;
+import org.jooby.Result;
+import org.jooby.Status;
+import org.jooby.internal.metrics.Profiler;
+import org.jooby.test.MockUnit;
+import org.jooby.test.MockUnit.Block;
+import org.junit.Test;
+
+public class ProfileHandlerTest {
+
+  @Test
+  public void profile() throws Exception {
+    new MockUnit(Request.class, Response.class, Profiler.class, Deferred.Handler.class)
+        .expect(iparam("seconds", 30, 5))
+        .expect(lparam("interval", 10, 20))
+        .expect(iparam("depth", 64, 64))
+        .expect(unit -> {
+          Profiler profiler = unit.get(Profiler.class);
+          expect(profiler.profile(5000L, 20L, TimeUnit.MILLISECONDS, 64)).andReturn("stacks 1\n");
+
+          Response rsp = unit.get(Response.class);
+          rsp.send(unit.capture(Deferred.class));
+
+          Deferred.Handler handler = unit.get(Deferred.Handler.class);
+          handler.handle(unit.capture(Result.class), eq(null));
+        })
+        .run(unit -> {
+          new ProfileHandler(unit.get(Profiler.class), Runnable::run)
+              .handle(unit.get(Request.class), unit.get(Response.class));
+
+          unit.captured(Deferred.class).iterator().next()
+              .handler(unit.get(Request.class), unit.get(Deferred.Handler.class));
+        }, unit -> {
+          Result result = unit.captured(Result.class).iterator().next();
+          assertEquals("stacks 1\n", result.get());
+          assertEquals(Status.OK, result.status().get());
+          assertEquals(MediaType.plain, result.type().get());
+          assertEquals("must-revalidate,no-cache,no-store", result.headers().get("Cache-Control"));
+        });
+  }
+
+  @Test
+  public void maxSeconds() throws Exception {
+    new MockUnit(Request.class, Response.class, Profiler.class, Deferred.Handler.class)
+        .expect(iparam("seconds", 30, 3600))
+        .expect(lparam("interval", 10, 10))
+        .expect(iparam("depth", 64, 64))
+        .expect(unit -> {
+          Profiler profiler = unit.get(Profiler.class);
+          expect(profiler.profile(300000L, 10L, TimeUnit.MILLISECONDS, 64)).andReturn("");
+
+          Response rsp = unit.get(Response.class);
+          rsp.send(unit.capture(Deferred.class));
+
+          Deferred.Handler handler = unit.get(Deferred.Handler.class);
+          handler.handle(unit.capture(Result.class), eq(null));
+        })
+        .run(unit -> {
+          new ProfileHandler(unit.get(Profiler.class), Runnable::run)
+              .handle(unit.get(Request.class), unit.get(Response.class));
+
+          unit.captured(Deferred.class).iterator().next()
+              .handler(unit.get(Request.class), unit.get(Deferred.Handler.class));
+        }, unit -> {
+          assertEquals("", unit.captured(Result.class).iterator().next().get());
+        });
+  }
+
+  @Test
+  public void conflict() throws Exception {
+    Runnable[] session = new Runnable[1];
+    new MockUnit(Request.class, Response.class, Profiler.class, Deferred.Handler.class)
+        .expect(iparam("seconds", 30, 5))
+        .expect(lparam("interval", 10, 10))
+        .expect(iparam("depth", 64, 64))
+        .expect(iparam("seconds", 30, 5))
+        .expect(lparam("interval", 10, 10))
+        .expect(iparam("depth", 64, 64))
+        .expect(unit -> {
+          Response rsp = unit.get(Response.class);
+          rsp.send(unit.capture(Deferred.class));
+          rsp.send(unit.capture(Deferred.class));
+
+          Deferred.Handler handler = unit.get(Deferred.Handler.class);
+          handler.handle(unit.capture(Result.class), eq(null));
+        })
+        .run(unit -> {
+          // session never ends
+          ProfileHandler handler = new ProfileHandler(unit.get(Profiler.class),
+              task -> session[0] = task);
+          handler.handle(unit.get(Request.class), unit.get(Response.class));
+          handler.handle(unit.get(Request.class), unit.get(Response.class));
+
+          for (Deferred deferred : unit.captured(Deferred.class)) {
+            deferred.handler(unit.get(Request.class), unit.get(Deferred.Handler.class));
+          }
+        }, unit -> {
+          Result result = unit.captured(Result.class).iterator().next();
+          assertEquals(Status.CONFLICT, result.status().get());
+          assertEquals("Profiling is already running.", result.get());
+        });
+  }
+
+  private Block iparam(final String name, final int defaultValue, final int value) {
+    return unit -> {
+      Mutant mvalue = unit.mock(Mutant.class);
+      expect(mvalue.intValue(defaultValue)).andReturn(value);
+
+      Request req = unit.get(Request.class);
+      expect(req.param(name)).andReturn(mvalue);
+    };
+  }
+
+  private Block lparam(final String name, final long defaultValue, final long value) {
+    return unit -> {
+      Mutant mvalue = unit.mock(Mutant.class);
+      expect(mvalue.longValue(defaultValue)).andReturn(value);
+
+      Request req = unit.get(Request.class);
+      expect(req.param(name)).andReturn(mvalue);
+    };
+  }
+
+}
@@ -0,0 +1,199 @@
+package org.jooby.metrics;
+
+import static org.easymock.EasyMock.expect;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.jooby.MediaType;
+import org.jooby.Mutant;
+import org.jooby.Request;
+import org.jooby.Response;
+import org.jooby.Status;
+import org.jooby.internal.metrics.BucketReservoir;
+import org.jooby.test.MockUnit;
+import org.jooby.test.MockUnit.Block;
+import org.junit.Test;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.UniformReservoir;
+
+public class PrometheusHandlerTest {
+
+  @Test
+  public void export() throws Exception {
+    MetricRegistry registry = new MetricRegistry();
+    registry.counter("request.actives").inc(3);
+    registry.meter("responses.200").mark(2);
+    registry.register("jvm.up", (Gauge<Boolean>) () -> true);
+    registry.register("jvm.name", (Gauge<String>) () -> "ignored");
+    Histogram histogram = registry.register("sizes", new Histogram(new UniformReservoir()));
+    histogram.update(10);
+    registry.timer("request").update(5, TimeUnit.MILLISECONDS);
+    new MockUnit(Request.class, Response.class)
+        .expect(registry(registry))
+        .expect(name(Optional.empty()))
+        .expect(send)
+        .run(unit -> {
+          new PrometheusHandler().handle(unit.get(Request.class), unit.get(Response.class));
+        }, unit -> {
+          String output = output(unit);
+          assertTrue(output, output.contains("# TYPE request_actives gauge\nrequest_actives 3\n"));
+          assertTrue(output,
+              output.contains("# TYPE responses_200_total counter\nresponses_200_total 2\n"));
+          assertTrue(output, output.contains("jvm_up 1\n"));
+          assertTrue(output, !output.contains("jvm_name"));
+          assertTrue(output, output.contains("# TYPE sizes summary\n"));
+          assertTrue(output, output.contains("sizes{quantile=\"0.5\"} 10.0\n"));
+          assertTrue(output, output.contains("sizes_count 1\n"));
+          assertTrue(output, output.contains("# TYPE request_seconds summary\n"));
+          assertTrue(output, output.contains("request_seconds{quantile=\"0.99\"} 0.005\n"));
+          assertTrue(output, output.contains("request_seconds_count 1\n"));
+        });
+  }
+
+  @Test
+  public void histogram() throws Exception {
+    MetricRegistry registry = new MetricRegistry();
+    registry.register("request.GET./", new Timer(new BucketReservoir()))
+        .update(1500, TimeUnit.NANOSECONDS);
+    new MockUnit(Request.class, Response.class)
+        .expect(registry(registry))
+        .expect(name(Optional.of("request")))
+        .expect(send)
+        .run(unit -> {
+          new PrometheusHandler().handle(unit.get(Request.class), unit.get(Response.class));
+        }, unit -> {
+          String output = output(unit);
+          assertTrue(output, output.startsWith("# TYPE request_seconds histogram\n"));
+          assertTrue(output, output.contains(
+              "request_seconds_bucket{method=\"GET\",route=\"/\",le=\"2.048E-6\"} 1\n"));
+          assertTrue(output, output.contains(
+              "request_seconds_bucket{method=\"GET\",route=\"/\",le=\"1.024E-6\"} 0\n"));
+          assertTrue(output, output.contains(
+              "request_seconds_bucket{method=\"GET\",route=\"/\",le=\"+Inf\"} 1\n"));
+          assertTrue(output,
+              output.contains("request_seconds_sum{method=\"GET\",route=\"/\"} 1.5E-6\n"));
+          assertTrue(output,
+              output.contains("request_seconds_count{method=\"GET\",route=\"/\"} 1\n"));
+        });
+  }
+
+  @Test
+  public void routeLabels() throws Exception {
+    MetricRegistry registry = new MetricRegistry();
+    registry.timer("request").update(5, TimeUnit.MILLISECONDS);
+    registry.register("request.GET./", new Timer(new BucketReservoir()));
+    registry.register("request.*./api/\"v1\"", new Timer(new BucketReservoir()));
+    registry.counter("request.GET./.responses.2xx").inc(2);
+    registry.counter("request.GET./.responses.5xx").inc();
+    new MockUnit(Request.class, Response.class)
+        .expect(registry(registry))
+        .expect(name(Optional.empty()))
+        .expect(send)
+        .run(unit -> {
+          new PrometheusHandler().handle(unit.get(Request.class), unit.get(Response.class));
+        }, unit -> {
+          String output = output(unit);
+          assertEquals(output, 1, occurrences(output, "# TYPE request_seconds histogram\n"));
+          assertEquals(output, 0, occurrences(output, "# TYPE request_seconds summary\n"));
+          assertTrue(output, !output.contains("quantile"));
+          assertTrue(output, output.contains(
+              "request_seconds_count{method=\"*\",route=\"/api/\\\"v1\\\"\"} 0\n"));
+          assertEquals(output, 1, occurrences(output, "# TYPE request_responses gauge\n"));
+          assertTrue(output, output.contains(
+              "request_responses{method=\"GET\",route=\"/\",status=\"2xx\"} 2\n"));
+          assertTrue(output, output.contains(
+              "request_responses{method=\"GET\",route=\"/\",status=\"5xx\"} 1\n"));
+        });
+  }
+
+  @Test
+  public void nameCollision() throws Exception {
+    MetricRegistry registry = new MetricRegistry();
+    registry.counter("a.b").inc(1);
+    registry.counter("a_b").inc(2);
+    registry.meter("a-b");
+    new MockUnit(Request.class, Response.class)
+        .expect(registry(registry))
+        .expect(name(Optional.empty()))
+        .expect(send)
+        .run(unit -> {
+          new PrometheusHandler().handle(unit.get(Request.class), unit.get(Response.class));
+        }, unit -> {
+          String output = output(unit);
+          assertEquals("# TYPE a_b_total counter\na_b_total 0\n# TYPE a_b gauge\na_b 1\n",
+              output);
+        });
+  }
+
+  @Test
+  public void cache() throws Exception {
+    MetricRegistry registry = new MetricRegistry();
+    Counter counter = registry.counter("c");
+    PrometheusHandler handler = new PrometheusHandler(1, TimeUnit.HOURS);
+    new MockUnit(Request.class, Response.class)
+        .expect(registry(registry))
+        .expect(name(Optional.empty()))
+        .expect(registry(registry))
+        .expect(name(Optional.empty()))
+        .expect(send)
+        .expect(send)
+        .run(unit -> {
+          handler.handle(unit.get(Request.class), unit.get(Response.class));
+          counter.inc();
+          handler.handle(unit.get(Request.class), unit.get(Response.class));
+        }, unit -> {
+          List<byte[]> outputs = unit.captured(byte[].class);
+          assertEquals(2, outputs.size());
+          assertTrue(outputs.get(0) == outputs.get(1));
+          assertEquals("# TYPE c gauge\nc 0\n", new String(outputs.get(1), StandardCharsets.UTF_8));
+        });
+  }
+
+  private Block send = unit -> {
+    Response rsp = unit.get(Response.class);
+    expect(rsp.type(MediaType.plain)).andReturn(rsp);
+    expect(rsp.status(Status.OK)).andReturn(rsp);
+    expect(rsp.header("Cache-Control", "must-revalidate,no-cache,no-store")).andReturn(rsp);
+    rsp.send(unit.capture(byte[].class));
+  };
+
+  private static int occurrences(final String output, final String value) {
+    int count = 0;
+    for (int i = output.indexOf(value); i >= 0; i = output.indexOf(value, i + 1)) {
+      count += 1;
+    }
+    return count;
+  }
+
+  private String output(final MockUnit unit) {
+    return new String(unit.captured(byte[].class).get(0), StandardCharsets.UTF_8);
+  }
+
+  private Block name(final Optional<String> value) {
+    return unit -> {
+      Mutant mvalue = unit.mock(Mutant.class);
+      expect(mvalue.toOptional()).andReturn(value);
+
+      Request req = unit.get(Request.class);
+      expect(req.param("name")).andReturn(mvalue);
+    };
+  }
+
+  private Block registry(final MetricRegistry registry) {
+    return unit -> {
+      Request req = unit.get(Request.class);
+      expect(req.require(MetricRegistry.class)).andReturn(registry);
+    };
+  }
+
+}
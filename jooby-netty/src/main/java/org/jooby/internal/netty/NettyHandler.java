@@ -111,6 +111,15 @@ public class NettyHandler extends SimpleChannelInboundHandler<Object> {
     }
   }
 
+  @Override
+  public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+    Runnable abort = ctx.channel().attr(NettyRequest.ABORT).getAndSet(null);
+    if (abort != null) {
+      abort.run();
+    }
+    super.channelInactive(ctx);
+  }
+
   @Override
   public void exceptionCaught(final ChannelHandlerContext ctx, final Throwable cause) {
     try {
@@ -30,6 +30,7 @@ import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
+import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.handler.codec.http.HttpObjectAggregator;
@@ -74,6 +75,14 @@ public class NettyPipeline extends ChannelInitializer<SocketChannel> {
 
   private boolean supportH2;
 
+  private ChannelGroup channels;
+
+  public NettyPipeline(final EventExecutorGroup executor, final HttpHandler handler,
+      final Config conf, final SslContext sslCtx, final ChannelGroup channels) {
+    this(executor, handler, conf, sslCtx);
+    this.channels = channels;
+  }
+
   public NettyPipeline(final EventExecutorGroup executor, final HttpHandler handler,
       final Config conf, final SslContext sslCtx) {
     this.executor = executor;
@@ -91,6 +100,10 @@ public class NettyPipeline extends ChannelInitializer<SocketChannel> {
 
   @Override
   protected void initChannel(final SocketChannel ch) throws Exception {
+    if (channels != null) {
+      // closed channels are removed by the group
+      channels.add(ch);
+    }
     final ChannelPipeline p = ch.pipeline();
     if (sslCtx != null) {
       p.addLast("ssl", sslCtx.newHandler(ch.alloc()));
@@ -78,6 +78,9 @@ public class NettyRequest implements NativeRequest {
   public static final AttributeKey<Boolean> SECURE = AttributeKey
       .newInstance(NettyRequest.class.getName() + ".secure");;
 
+  public static final AttributeKey<Runnable> ABORT = AttributeKey
+      .newInstance(NettyRequest.class.getName() + ".abort");
+
   private HttpRequest req;
 
   private QueryStringDecoder query;
@@ -238,6 +241,11 @@ public class NettyRequest implements NativeRequest {
     executor.execute(runnable);
   }
 
+  @Override
+  public void onAbort(final Runnable callback) {
+    ctx.channel().attr(ABORT).set(callback);
+  }
+
   private org.jooby.Cookie cookie(final Cookie c) {
     org.jooby.Cookie.Definition cookie = new org.jooby.Cookie.Definition(c.name(), c.value());
     Optional.ofNullable(c.domain()).ifPresent(cookie::domain);
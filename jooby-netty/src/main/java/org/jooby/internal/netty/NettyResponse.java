@@ -34,6 +34,7 @@ import com.google.common.io.ByteStreams;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPipeline;
@@ -99,6 +100,11 @@ public class NettyResponse implements NativeResponse {
     headers.set(name, value);
   }
 
+  @Override
+  public void removeHeader(final String name) {
+    headers.remove(name);
+  }
+
   @Override
   public void header(final String name, final Iterable<String> values) {
     headers.remove(name)
@@ -246,7 +252,10 @@ public class NettyResponse implements NativeResponse {
   @Override
   public void end() {
     if (ctx != null) {
-      Attribute<NettyWebSocket> ws = ctx.channel().attr(NettyWebSocket.KEY);
+      Channel channel = ctx.channel();
+      // request is done, a keep-alive channel must not abort it later
+      channel.attr(NettyRequest.ABORT).set(null);
+      Attribute<NettyWebSocket> ws = channel.attr(NettyWebSocket.KEY);
       if (ws != null && ws.get() != null) {
         status = HttpResponseStatus.SWITCHING_PROTOCOLS;
         ws.get().hankshake();
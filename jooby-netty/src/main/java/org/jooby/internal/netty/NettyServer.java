@@ -24,10 +24,16 @@ import static javaslang.Predicates.is;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 import javax.inject.Inject;
 
@@ -42,11 +48,14 @@ import com.typesafe.config.Config;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelOutboundBuffer;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.epoll.Epoll;
 import io.netty.channel.epoll.EpollChannelOption;
 import io.netty.channel.epoll.EpollEventLoopGroup;
 import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.logging.LogLevel;
@@ -55,10 +64,64 @@ import io.netty.handler.ssl.SslContext;
 import io.netty.util.ResourceLeakDetector;
 import io.netty.util.concurrent.DefaultEventExecutorGroup;
 import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutor;
 import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
 
 public class NettyServer implements Server {
 
+  /**
+   * Pending tasks of an event loop group. NIO and Epoll loops block the caller while asking for
+   * pending tasks from outside the loop, so each loop samples its own queue once per second.
+   */
+  private static class LoopTasks implements Supplier<Number> {
+
+    private final Supplier<EventLoopGroup> group;
+
+    private volatile List<AtomicInteger> samples;
+
+    LoopTasks(final Supplier<EventLoopGroup> group) {
+      this.group = group;
+    }
+
+    @Override
+    public Number get() {
+      EventLoopGroup group = this.group.get();
+      if (group == null) {
+        return 0;
+      }
+      int tasks = 0;
+      for (AtomicInteger sample : samples(group)) {
+        tasks += sample.get();
+      }
+      return tasks;
+    }
+
+    private List<AtomicInteger> samples(final EventLoopGroup group) {
+      List<AtomicInteger> samples = this.samples;
+      if (samples == null) {
+        synchronized (this) {
+          samples = this.samples;
+          if (samples == null) {
+            samples = new ArrayList<>();
+            for (EventExecutor loop : group) {
+              if (loop instanceof SingleThreadEventExecutor) {
+                AtomicInteger sample = new AtomicInteger();
+                SingleThreadEventExecutor executor = (SingleThreadEventExecutor) loop;
+                loop.scheduleAtFixedRate(() -> sample.set(executor.pendingTasks()), 0, 1,
+                    TimeUnit.SECONDS);
+                samples.add(sample);
+              }
+            }
+            this.samples = samples;
+          }
+        }
+      }
+      return samples;
+    }
+  }
+
   static {
     ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.DISABLED);
   }
@@ -76,6 +139,11 @@ public class NettyServer implements Server {
 
   private HttpHandler dispatcher;
 
+  private DefaultEventExecutorGroup executor;
+
+  private final ChannelGroup channels = new DefaultChannelGroup("jooby",
+      GlobalEventExecutor.INSTANCE);
+
   @Inject
   public NettyServer(final HttpHandler dispatcher, final Config config) {
     this.dispatcher = dispatcher;
@@ -94,8 +162,7 @@ public class NettyServer implements Server {
     }
 
     ThreadFactory threadFactory = new DefaultThreadFactory(conf.getString("netty.threads.Name"));
-    DefaultEventExecutorGroup executor = new DefaultEventExecutorGroup(
-        conf.getInt("netty.threads.Max"), threadFactory);
+    executor = new DefaultEventExecutorGroup(conf.getInt("netty.threads.Max"), threadFactory);
 
     this.ch = bootstrap(executor, null, conf.getInt("application.port"));
 
@@ -114,7 +181,7 @@ public class NettyServer implements Server {
     bootstrap.group(bossLoop, workerLoop)
         .channel(epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class)
         .handler(new LoggingHandler(Server.class, LogLevel.DEBUG))
-        .childHandler(new NettyPipeline(executor, dispatcher, conf, sslCtx));
+        .childHandler(new NettyPipeline(executor, dispatcher, conf, sslCtx, channels));
 
     configure(conf.getConfig("netty.options"), "netty.options",
         (option, value) -> bootstrap.option(option, value));
@@ -145,6 +212,52 @@ public class NettyServer implements Server {
     ch.closeFuture().sync();
   }
 
+  @Override
+  public Map<String, Supplier<Number>> metrics() {
+    Map<String, Supplier<Number>> metrics = new LinkedHashMap<>();
+    metrics.put("eventLoop.boss.pendingTasks", new LoopTasks(() -> bossLoop));
+    metrics.put("eventLoop.worker.pendingTasks", new LoopTasks(() -> workerLoop));
+    metrics.put("executor.pendingTasks", () -> pendingTasks(executor));
+    metrics.put("executor.threads", () -> size(executor));
+    metrics.put("channels", channels::size);
+    metrics.put("channels.outboundBytes", this::outboundBytes);
+    return metrics;
+  }
+
+  private long outboundBytes() {
+    long bytes = 0;
+    for (Channel channel : channels) {
+      ChannelOutboundBuffer buffer = channel.unsafe().outboundBuffer();
+      if (buffer != null) {
+        bytes += buffer.totalPendingWriteBytes();
+      }
+    }
+    return bytes;
+  }
+
+  private static int pendingTasks(final DefaultEventExecutorGroup group) {
+    // default executors are backed by a blocking queue, safe to ask from any thread
+    int tasks = 0;
+    if (group != null) {
+      for (EventExecutor executor : group) {
+        if (executor instanceof SingleThreadEventExecutor) {
+          tasks += ((SingleThreadEventExecutor) executor).pendingTasks();
+        }
+      }
+    }
+    return tasks;
+  }
+
+  private static int size(final EventExecutorGroup group) {
+    int size = 0;
+    if (group != null) {
+      for (@SuppressWarnings("unused") EventExecutor executor : group) {
+        size += 1;
+      }
+    }
+    return size;
+  }
+
   @SuppressWarnings({"rawtypes", "unchecked" })
   private void configure(final Config config, final String path,
       final BiConsumer<ChannelOption<Object>, Object> setter) {
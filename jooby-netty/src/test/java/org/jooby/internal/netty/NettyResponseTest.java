@@ -159,6 +159,15 @@ public class NettyResponseTest {
     expect(channel.attr(NettyRequest.ASYNC)).andReturn(async);
   };
 
+  @SuppressWarnings("unchecked")
+  private Block clearAbort = unit -> {
+    Attribute<Runnable> abort = unit.mock(Attribute.class);
+    abort.set(null);
+
+    Channel channel = unit.get(Channel.class);
+    expect(channel.attr(NettyRequest.ABORT)).andReturn(abort);
+  };
+
   @SuppressWarnings("unchecked")
   private Block setNeedFlush = unit -> {
     Attribute<Boolean> needFlush = unit.mock(Attribute.class);
@@ -690,6 +699,7 @@ public class NettyResponseTest {
     new MockUnit(ChannelHandlerContext.class, ByteBuf.class, ChannelFuture.class)
         .expect(channel)
         .expect(headers)
+        .expect(clearAbort)
         .expect(unit -> {
           Channel ctx = unit.get(Channel.class);
           expect(ctx.attr(NettyWebSocket.KEY)).andReturn(null);
@@ -725,6 +735,7 @@ public class NettyResponseTest {
     new MockUnit(ChannelHandlerContext.class, ByteBuf.class, ChannelFuture.class)
         .expect(headers)
         .expect(channel)
+        .expect(clearAbort)
         .expect(unit -> {
           Attribute<NettyWebSocket> attr = unit.mock(Attribute.class);
           expect(attr.get()).andReturn(null);
@@ -1,10 +1,17 @@
 package org.jooby.internal.netty;
 
+import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.isA;
+import static org.junit.Assert.assertEquals;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import org.jooby.spi.HttpHandler;
 import org.jooby.spi.Server;
@@ -14,7 +21,9 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
 
+import com.google.common.collect.Iterators;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import com.typesafe.config.ConfigValueFactory;
@@ -37,8 +46,11 @@ import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.util.concurrent.DefaultEventExecutorGroup;
 import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutor;
 import io.netty.util.concurrent.EventExecutorGroup;
 import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.ScheduledFuture;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
 
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({NettyServer.class, NioEventLoopGroup.class, DefaultThreadFactory.class,
@@ -104,6 +116,43 @@ public class NettyServerTest {
     expect(Epoll.isAvailable()).andReturn(false).times(1, 2);
   };
 
+  @Test
+  public void metricsBeforeStart() throws Exception {
+    new MockUnit(HttpHandler.class)
+        .run(unit -> {
+          Map<String, Supplier<Number>> metrics = new NettyServer(unit.get(HttpHandler.class),
+              config).metrics();
+          assertEquals(Arrays.asList("eventLoop.boss.pendingTasks",
+              "eventLoop.worker.pendingTasks", "executor.pendingTasks", "executor.threads",
+              "channels", "channels.outboundBytes"), new ArrayList<>(metrics.keySet()));
+          metrics.values().forEach(it -> assertEquals(0L, it.get().longValue()));
+        });
+  }
+
+  @Test
+  public void eventLoopPendingTasks() throws Exception {
+    new MockUnit(HttpHandler.class, EventLoopGroup.class, SingleThreadEventExecutor.class,
+        ScheduledFuture.class)
+            .expect(unit -> {
+              SingleThreadEventExecutor loop = unit.get(SingleThreadEventExecutor.class);
+              expect(loop.scheduleAtFixedRate(unit.capture(Runnable.class), eq(0L), eq(1L),
+                  eq(TimeUnit.SECONDS))).andReturn(unit.get(ScheduledFuture.class));
+              expect(loop.pendingTasks()).andReturn(3);
+
+              EventLoopGroup group = unit.get(EventLoopGroup.class);
+              expect(group.iterator()).andReturn(Iterators.<EventExecutor> singletonIterator(loop));
+            })
+            .run(unit -> {
+              NettyServer server = new NettyServer(unit.get(HttpHandler.class), config);
+              Whitebox.setInternalState(server, "bossLoop", unit.get(EventLoopGroup.class));
+              Supplier<Number> tasks = server.metrics().get("eventLoop.boss.pendingTasks");
+              assertEquals(0, tasks.get().intValue());
+              // sampled from the event loop
+              unit.captured(Runnable.class).iterator().next().run();
+              assertEquals(3, tasks.get().intValue());
+            });
+  }
+
   @Test
   public void defaultServer() throws Exception {
     new MockUnit(HttpHandler.class)
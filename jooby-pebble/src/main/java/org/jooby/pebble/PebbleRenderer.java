@@ -18,16 +18,21 @@
  */
 package org.jooby.pebble;
 
-import java.io.StringWriter;
 import java.io.Writer;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import org.jooby.MediaType;
 import org.jooby.Renderer;
 import org.jooby.View;
+import org.jooby.internal.TemplateScanner;
 
 import com.mitchellbosecke.pebble.PebbleEngine;
+import com.mitchellbosecke.pebble.loader.ClasspathLoader;
+import com.mitchellbosecke.pebble.loader.Loader;
 import com.mitchellbosecke.pebble.template.PebbleTemplate;;
 
 class PebbleRenderer implements View.Engine {
@@ -42,7 +47,6 @@ class PebbleRenderer implements View.Engine {
   public void render(final View view, final Renderer.Context ctx) throws Exception {
     String vname = view.name();
     PebbleTemplate template = pebble.getTemplate(vname);
-    Writer writer = new StringWriter();
     Map<String, Object> model = new HashMap<>();
     // push locals
     model.putAll(ctx.locals());
@@ -52,9 +56,26 @@ class PebbleRenderer implements View.Engine {
     model.putAll(view.model());
 
     // render and send
+    Writer writer = ctx.type(MediaType.html).writer();
     template.evaluate(writer, model);
-    ctx.type(MediaType.html)
-        .send(writer.toString());
+    writer.close();
+  }
+
+  @Override
+  public Set<String> templates() throws Exception {
+    Loader<?> loader = pebble.getLoader();
+    if (loader instanceof ClasspathLoader) {
+      ClasspathLoader classpath = (ClasspathLoader) loader;
+      String prefix = Optional.ofNullable(classpath.getPrefix()).orElse("/");
+      String suffix = Optional.ofNullable(classpath.getSuffix()).orElse("");
+      return new TemplateScanner(getClass().getClassLoader(), prefix, suffix).scan();
+    }
+    return Collections.emptySet();
+  }
+
+  @Override
+  public void compile(final String name) throws Exception {
+    pebble.getTemplate(name);
   }
 
   @Override
@@ -3,7 +3,7 @@ package org.jooby.pebble;
 import static org.easymock.EasyMock.expect;
 import static org.junit.Assert.assertEquals;
 
-import java.io.StringWriter;
+import java.io.Writer;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -40,12 +40,13 @@ public class PebbleRendererTest {
           expect(view.name()).andReturn("vname");
           expect(view.model()).andReturn(vmodel);
 
-          StringWriter writer = unit.constructor(StringWriter.class).build();
+          Writer writer = unit.mock(Writer.class);
+          writer.close();
 
           Renderer.Context ctx = unit.get(Renderer.Context.class);
           expect(ctx.locals()).andReturn(locals);
           expect(ctx.type(MediaType.html)).andReturn(ctx);
-          ctx.send(writer.toString());
+          expect(ctx.writer()).andReturn(writer);
 
           PebbleTemplate template = unit.mock(PebbleTemplate.class);
           template.evaluate(writer, model);
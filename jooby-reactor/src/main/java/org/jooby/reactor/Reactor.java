@@ -24,12 +24,14 @@ import static javaslang.API.Case;
 import static javaslang.API.Match;
 import static javaslang.Predicates.instanceOf;
 
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 import org.jooby.Deferred;
 import org.jooby.Env;
 import org.jooby.Jooby;
 import org.jooby.Route;
+import org.jooby.Trace;
 
 import com.google.inject.Binder;
 import com.typesafe.config.Config;
@@ -171,17 +173,35 @@ public class Reactor implements Jooby.Module {
     return Route.Mapper.create("reactor", value -> Match(value).of(
         /** Flux: */
         Case(instanceOf(Flux.class),
-            it -> new Deferred(deferred -> flux.apply(it)
-                .consume(deferred::set, deferred::set))),
+            it -> new Deferred(deferred -> {
+              Consumer<Object> done = traced(Trace.start("flux"), deferred::set);
+              deferred.onCancel(flux.apply(it).consume(done, done)::dispose);
+            })),
         /** Mono: */
         Case(instanceOf(Mono.class),
-            it -> new Deferred(deferred -> mono.apply(it)
-                .consume(deferred::set, deferred::set))),
+            it -> new Deferred(deferred -> {
+              Consumer<Object> done = traced(Trace.start("mono"), deferred::set);
+              deferred.onCancel(mono.apply(it).consume(done, done)::dispose);
+            })),
         /** Ignore */
         Case($(), value)));
 
   }
 
+  /**
+   * Finish the span (time from subscription to the first signal) before completing the deferred.
+   *
+   * @param span Request span.
+   * @param next Deferred callback.
+   * @return A consumer.
+   */
+  private static Consumer<Object> traced(final Trace.Span span, final Consumer<Object> next) {
+    return value -> {
+      span.finish();
+      next.accept(value);
+    };
+  }
+
   /**
    * Map a reactor object like {@link Flux} or {@link Mono} into a {@link Deferred} object.
    *
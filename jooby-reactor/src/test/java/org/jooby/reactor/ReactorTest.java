@@ -21,6 +21,7 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import com.google.inject.Binder;
 import com.typesafe.config.Config;
 
+import reactor.core.flow.Cancellation;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
@@ -39,7 +40,8 @@ public class ReactorTest {
   @SuppressWarnings({"rawtypes", "unchecked" })
   private Block flux = unit -> {
     Flux flux = unit.powerMock(Flux.class);
-    expect(flux.consume(isA(Consumer.class), isA(Consumer.class))).andReturn(null);
+    expect(flux.consume(isA(Consumer.class), isA(Consumer.class)))
+        .andReturn(unit.mock(Cancellation.class));
 
     unit.registerMock(Flux.class, flux);
   };
@@ -47,7 +49,8 @@ public class ReactorTest {
   @SuppressWarnings({"rawtypes", "unchecked" })
   private Block mono = unit -> {
     Mono mono = unit.powerMock(Mono.class);
-    expect(mono.consume(isA(Consumer.class), isA(Consumer.class))).andReturn(null);
+    expect(mono.consume(isA(Consumer.class), isA(Consumer.class)))
+        .andReturn(unit.mock(Cancellation.class));
 
     unit.registerMock(Mono.class, mono);
   };
@@ -21,10 +21,13 @@ package org.jooby.rx;
 import java.util.Map;
 import java.util.concurrent.Executor;
 
+import org.jooby.Trace;
+
 import com.google.common.collect.ImmutableMap;
 
 import javaslang.Lazy;
 import rx.Scheduler;
+import rx.functions.Action0;
 import rx.plugins.RxJavaSchedulersHook;
 import rx.schedulers.Schedulers;
 
@@ -56,4 +59,14 @@ class ExecSchedulerHook extends RxJavaSchedulersHook {
     return schedulers.get().get("newThread");
   }
 
+  /**
+   * Scheduled actions run with the {@link Trace} and MDC of the thread who scheduled them.
+   */
+  @Override
+  public Action0 onSchedule(final Action0 action) {
+    Runnable task = action::call;
+    Runnable traced = Trace.wrap(task);
+    return traced == task ? action : traced::run;
+  }
+
 }
@@ -183,6 +183,8 @@ public class Rx extends Exec {
 
     public DeferredSubscriber(final Deferred deferred) {
       this.deferred = deferred;
+      // stop the stream on deadline or when the client went away
+      deferred.onCancel(this::unsubscribe);
     }
 
     @Override
@@ -1,15 +1,26 @@
 package org.jooby.rx;
 
+import static org.easymock.EasyMock.expect;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 import org.jooby.Deferred;
 import org.jooby.rx.Rx.DeferredSubscriber;
 import org.jooby.test.MockUnit;
+import org.jooby.test.MockUnit.Block;
 import org.junit.Test;
 
 public class DeferredSubscriberTest {
 
+  private Block onCancel = unit -> {
+    Deferred deferred = unit.get(Deferred.class);
+    expect(deferred.onCancel(unit.capture(Runnable.class))).andReturn(deferred);
+  };
+
   @Test
   public void newObject() throws Exception {
     new MockUnit(Deferred.class)
+        .expect(onCancel)
         .run(unit -> {
           new Rx.DeferredSubscriber(unit.get(Deferred.class));
         });
@@ -18,6 +29,7 @@ public class DeferredSubscriberTest {
   @Test
   public void onComplete() throws Exception {
     new MockUnit(Deferred.class)
+        .expect(onCancel)
         .expect(unit -> {
           Deferred deferred = unit.get(Deferred.class);
           deferred.resolve((Object) null);
@@ -34,6 +46,7 @@ public class DeferredSubscriberTest {
   public void onError() throws Exception {
     Throwable cause = new Throwable();
     new MockUnit(Deferred.class)
+        .expect(onCancel)
         .expect(unit -> {
           Deferred deferred = unit.get(Deferred.class);
           deferred.reject(cause);
@@ -48,6 +61,7 @@ public class DeferredSubscriberTest {
   public void onNext() throws Exception {
     Object value = new Object();
     new MockUnit(Deferred.class)
+        .expect(onCancel)
         .expect(unit -> {
           Deferred deferred = unit.get(Deferred.class);
           deferred.resolve(value);
@@ -62,4 +76,16 @@ public class DeferredSubscriberTest {
         });
   }
 
+  @Test
+  public void cancel() throws Exception {
+    new MockUnit(Deferred.class)
+        .expect(onCancel)
+        .run(unit -> {
+          DeferredSubscriber subscriber = new Rx.DeferredSubscriber(unit.get(Deferred.class));
+          assertFalse(subscriber.isUnsubscribed());
+          unit.captured(Runnable.class).iterator().next().run();
+          assertTrue(subscriber.isUnsubscribed());
+        });
+  }
+
 }
@@ -2,12 +2,15 @@ package org.jooby.rx;
 
 import static org.easymock.EasyMock.expect;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.jooby.Trace;
 import org.jooby.test.MockUnit;
 import org.jooby.test.MockUnit.Block;
 import org.junit.Test;
@@ -19,6 +22,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMap.Builder;
 
 import rx.Scheduler;
+import rx.functions.Action0;
 import rx.plugins.RxJavaSchedulersHook;
 import rx.schedulers.Schedulers;
 
@@ -95,6 +99,29 @@ public class RxJavaSchedulersHookTest {
         });
   }
 
+  @Test
+  public void onSchedule() throws Exception {
+    RxJavaSchedulersHook hook = new ExecSchedulerHook(Collections.emptyMap());
+    Action0 action = () -> {
+    };
+    // nothing to propagate
+    assertTrue(action == hook.onSchedule(action));
+
+    Trace trace = new Trace("GET /");
+    AtomicReference<Trace> current = new AtomicReference<>();
+    Action0 traced;
+    Trace.enter(trace);
+    try {
+      traced = hook.onSchedule(() -> current.set(Trace.current().orElse(null)));
+    } finally {
+      Trace.exit();
+    }
+    Thread thread = new Thread(traced::call);
+    thread.start();
+    thread.join();
+    assertEquals(trace, current.get());
+  }
+
   private Block executor(final String name) {
     return unit -> {
       unit.mockStatic(ImmutableMap.class);
@@ -31,6 +31,9 @@ import java.util.Optional;
 import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 
@@ -55,6 +58,8 @@ public class ServletServletRequest implements NativeRequest {
 
   private ServletUpgrade upgrade = noupgrade();
 
+  private Runnable abort;
+
   public ServletServletRequest(final HttpServletRequest req, final String tmpdir,
       final boolean multipart) throws IOException {
     this.req = requireNonNull(req, "HTTP req is required.");
@@ -189,10 +194,36 @@ public class ServletServletRequest implements NativeRequest {
 
   @Override
   public void startAsync(final Executor executor, final Runnable runnable) {
-    req.startAsync();
+    AsyncContext async = req.startAsync();
+    if (abort != null) {
+      Runnable callback = abort;
+      async.addListener(new AsyncListener() {
+        @Override
+        public void onStartAsync(final AsyncEvent event) {
+        }
+
+        @Override
+        public void onComplete(final AsyncEvent event) {
+        }
+
+        @Override
+        public void onTimeout(final AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(final AsyncEvent event) {
+          callback.run();
+        }
+      });
+    }
     executor.execute(runnable);
   }
 
+  @Override
+  public void onAbort(final Runnable callback) {
+    this.abort = callback;
+  }
+
   private static boolean multipart(final HttpServletRequest req) {
     String contentType = req.getContentType();
     return contentType != null && contentType.toLowerCase().startsWith(MediaType.multipart.name());
@@ -73,6 +73,12 @@ public class ServletServletResponse implements NativeResponse {
     rsp.setHeader(name, value);
   }
 
+  @Override
+  public void removeHeader(final String name) {
+    // there is no remove in the servlet API, containers remove a header set to null
+    rsp.setHeader(name, null);
+  }
+
   @Override
   public void header(final String name, final Iterable<String> values) {
     for (String value : values) {
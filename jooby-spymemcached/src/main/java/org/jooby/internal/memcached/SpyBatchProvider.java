@@ -0,0 +1,62 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.memcached;
+
+import java.util.function.ObjLongConsumer;
+
+import javax.inject.Provider;
+
+import org.jooby.memcached.SpyBatch;
+
+import net.spy.memcached.MemcachedClient;
+
+public class SpyBatchProvider implements Provider<SpyBatch> {
+
+  private Provider<MemcachedClient> client;
+
+  private long window;
+
+  private int maxSize;
+
+  private ObjLongConsumer<String> latency;
+
+  private SpyBatch batch;
+
+  public SpyBatchProvider(final Provider<MemcachedClient> client, final long window,
+      final int maxSize, final ObjLongConsumer<String> latency) {
+    this.client = client;
+    this.window = window;
+    this.maxSize = maxSize;
+    this.latency = latency;
+  }
+
+  public void destroy() {
+    if (batch != null) {
+      batch.shutdown();
+      batch = null;
+    }
+  }
+
+  @Override
+  public SpyBatch get() {
+    batch = new SpyBatch(client.get(), window, maxSize, latency);
+    return batch;
+  }
+
+}
@@ -0,0 +1,51 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.memcached;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjLongConsumer;
+
+import org.jooby.metrics.MetricBinder;
+
+import com.codahale.metrics.Timer;
+import com.google.inject.Binder;
+
+/**
+ * Publish memcached operation latencies to <code>jooby-metrics</code>. Loaded only when metrics
+ * are enabled.
+ */
+public class SpyMetrics {
+
+  private static final String[] OPERATIONS = {"get", "getBulk", "gat", "touch", "set",
+      "replace" };
+
+  public static ObjLongConsumer<String> bind(final Binder binder) {
+    MetricBinder metrics = new MetricBinder(binder, "memcached");
+    Map<String, Timer> timers = new HashMap<>();
+    for (String operation : OPERATIONS) {
+      Timer timer = new Timer();
+      timers.put(operation, timer);
+      metrics.metric(operation, timer);
+    }
+    return (operation, nanos) -> timers.get(operation).update(nanos, TimeUnit.NANOSECONDS);
+  }
+
+}
@@ -0,0 +1,342 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.memcached;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+import net.spy.memcached.CASValue;
+import net.spy.memcached.MemcachedClient;
+import net.spy.memcached.OperationTimeoutException;
+import net.spy.memcached.internal.BulkFuture;
+import net.spy.memcached.internal.OperationFuture;
+
+/**
+ * <h1>memcached batch</h1>
+ * <p>
+ * A thin facade on top of {@link MemcachedClient} that:
+ * </p>
+ * <ul>
+ * <li>Coalesces concurrent gets (from different requests) into a single <code>getBulk</code>
+ * call. Keys requested within a short <code>window</code> are sent together, or as soon as the
+ * batch reaches <code>maxSize</code> keys. Concurrent gets of the same key share one lookup.</li>
+ * <li>Refreshes expiration with <code>touch</code> or <code>gat</code> (get and touch), so
+ * values don't need to be set again just for extending their life.</li>
+ * <li>Reports per operation latency (when metrics are enabled via
+ * {@link SpyMemcached#metrics(boolean)}).</li>
+ * </ul>
+ *
+ * <h2>usage</h2>
+ *
+ * <pre>
+ * memcached.batch.window = 2ms
+ * memcached.batch.maxSize = 64
+ * </pre>
+ *
+ * <pre>
+ * {
+ *   use(new SpyMemcached());
+ *
+ *   get("/", req {@literal ->} {
+ *     SpyBatch batch = req.require(SpyBatch.class);
+ *     return batch.get("foo");
+ *   });
+ * }
+ * </pre>
+ *
+ * <p>
+ * Batching is off by default (<code>window = 0</code>): gets go straight to memcached.
+ * </p>
+ *
+ * @author edgar
+ * @since 1.0.0
+ */
+public class SpyBatch {
+
+  private final MemcachedClient memcached;
+
+  private final long window;
+
+  private final int maxSize;
+
+  private final ObjLongConsumer<String> latency;
+
+  private final Object lock = new Object();
+
+  private Map<String, CompletableFuture<Object>> pending = new HashMap<>();
+
+  private ScheduledExecutorService scheduler;
+
+  /** False once the server told us gat isn't supported (ascii protocol). */
+  private volatile boolean gat = true;
+
+  /**
+   * Creates a new {@link SpyBatch}.
+   *
+   * @param memcached Memcached client.
+   * @param window Batch window in millis. Zero or negative turn off batching.
+   * @param maxSize Max number of keys per batch.
+   * @param latency Latency listener (operation name and nanos) or <code>null</code>.
+   */
+  public SpyBatch(final MemcachedClient memcached, final long window, final int maxSize,
+      final ObjLongConsumer<String> latency) {
+    this.memcached = requireNonNull(memcached, "Memcached client is required.");
+    this.window = window;
+    this.maxSize = Math.max(1, maxSize);
+    this.latency = latency;
+    if (window > 0) {
+      this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "memcached-batch");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+  }
+
+  /**
+   * Creates a new {@link SpyBatch} without batching and without metrics.
+   *
+   * @param memcached Memcached client.
+   */
+  public SpyBatch(final MemcachedClient memcached) {
+    this(memcached, 0, 1, null);
+  }
+
+  /**
+   * @return Memcached client.
+   */
+  public MemcachedClient client() {
+    return memcached;
+  }
+
+  /**
+   * Get a value, it might be part of a batch.
+   *
+   * @param key A key.
+   * @return Value or <code>null</code>.
+   */
+  public Object get(final String key) {
+    if (window <= 0) {
+      long start = System.nanoTime();
+      Object value = memcached.get(key);
+      record("get", start);
+      return value;
+    }
+    try {
+      return getAsync(key).get(memcached.getOperationTimeout() + window, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException x) {
+      throw new OperationTimeoutException("Timeout waiting for value: " + key, x);
+    } catch (InterruptedException x) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted waiting for value: " + key, x);
+    } catch (ExecutionException x) {
+      Throwable cause = x.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new RuntimeException("Exception waiting for value: " + key, cause);
+    }
+  }
+
+  /**
+   * Get a value asynchronously. The key is sent to memcached in the next batch.
+   *
+   * @param key A key.
+   * @return Value (or <code>null</code>) future.
+   */
+  public CompletableFuture<Object> getAsync(final String key) {
+    if (window <= 0) {
+      return CompletableFuture.completedFuture(get(key));
+    }
+    Map<String, CompletableFuture<Object>> batch = null;
+    CompletableFuture<Object> future;
+    synchronized (lock) {
+      future = pending.get(key);
+      if (future == null) {
+        future = new CompletableFuture<>();
+        pending.put(key, future);
+        if (pending.size() >= maxSize) {
+          batch = pending;
+          pending = new HashMap<>();
+        } else if (pending.size() == 1) {
+          Map<String, CompletableFuture<Object>> expected = pending;
+          scheduler.schedule(() -> flush(expected), window, TimeUnit.MILLISECONDS);
+        }
+      }
+    }
+    if (batch != null) {
+      send(batch);
+    }
+    return future;
+  }
+
+  /**
+   * Get multiple values in a single call.
+   *
+   * @param keys Keys.
+   * @return Values found.
+   */
+  public Map<String, Object> getBulk(final Collection<String> keys) {
+    long start = System.nanoTime();
+    Map<String, Object> values = memcached.getBulk(keys);
+    record("getBulk", start);
+    return values;
+  }
+
+  /**
+   * Get a value and set a new expiration time. Uses <code>gat</code> when the protocol supports
+   * it (binary), otherwise a get followed by a touch of existing values. When batching is on, the
+   * get is part of a batch (<code>getBulk</code> has no touch version) and it is always followed by
+   * a touch.
+   *
+   * @param key A key.
+   * @param exp New expiration time in seconds.
+   * @return Value or <code>null</code>.
+   */
+  public Object getAndTouch(final String key, final int exp) {
+    if (gat && window <= 0) {
+      try {
+        long start = System.nanoTime();
+        CASValue<Object> value = memcached.getAndTouch(key, exp);
+        record("gat", start);
+        return value == null ? null : value.getValue();
+      } catch (UnsupportedOperationException x) {
+        // ascii protocol
+        gat = false;
+      }
+    }
+    Object value = get(key);
+    if (value != null) {
+      touch(key, exp);
+    }
+    return value;
+  }
+
+  /**
+   * Set a new expiration time, the value isn't sent.
+   *
+   * @param key A key.
+   * @param exp New expiration time in seconds.
+   * @return Operation future.
+   */
+  public Future<Boolean> touch(final String key, final int exp) {
+    return track("touch", () -> memcached.touch(key, exp));
+  }
+
+  /**
+   * Set a value.
+   *
+   * @param key A key.
+   * @param exp Expiration time in seconds.
+   * @param value A value.
+   * @return Operation future.
+   */
+  public Future<Boolean> set(final String key, final int exp, final Object value) {
+    return track("set", () -> memcached.set(key, exp, value));
+  }
+
+  /**
+   * Replace an existing value.
+   *
+   * @param key A key.
+   * @param exp Expiration time in seconds.
+   * @param value A value.
+   * @return Operation future.
+   */
+  public Future<Boolean> replace(final String key, final int exp, final Object value) {
+    return track("replace", () -> memcached.replace(key, exp, value));
+  }
+
+  /**
+   * Stop batching, pending gets are sent right away.
+   */
+  public void shutdown() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      Map<String, CompletableFuture<Object>> batch;
+      synchronized (lock) {
+        batch = pending;
+        pending = new HashMap<>();
+      }
+      if (batch.size() > 0) {
+        send(batch);
+      }
+    }
+  }
+
+  private void flush(final Map<String, CompletableFuture<Object>> expected) {
+    synchronized (lock) {
+      if (pending != expected) {
+        // already sent bc it was full
+        return;
+      }
+      pending = new HashMap<>();
+    }
+    send(expected);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void send(final Map<String, CompletableFuture<Object>> batch) {
+    long start = System.nanoTime();
+    try {
+      BulkFuture<Map<String, Object>> bulk = memcached.asyncGetBulk(batch.keySet());
+      bulk.addListener(future -> {
+        record("getBulk", start);
+        try {
+          Map<String, Object> values = (Map<String, Object>) future.get();
+          batch.forEach((key, it) -> it.complete(values.get(key)));
+        } catch (Exception x) {
+          batch.values().forEach(it -> it.completeExceptionally(x));
+        }
+      });
+    } catch (Exception x) {
+      batch.values().forEach(it -> it.completeExceptionally(x));
+    }
+  }
+
+  private Future<Boolean> track(final String name,
+      final Supplier<OperationFuture<Boolean>> operation) {
+    if (latency == null) {
+      return operation.get();
+    }
+    long start = System.nanoTime();
+    OperationFuture<Boolean> future = operation.get();
+    future.addListener(it -> record(name, start));
+    return future;
+  }
+
+  private void record(final String name, final long start) {
+    if (latency != null) {
+      latency.accept(name, System.nanoTime() - start);
+    }
+  }
+
+}
@@ -31,6 +31,8 @@ import org.jooby.Env;
 import org.jooby.Jooby;
 import org.jooby.Session;
 import org.jooby.internal.memcached.MemcachedClientProvider;
+import org.jooby.internal.memcached.SpyBatchProvider;
+import org.jooby.internal.memcached.SpyMetrics;
 
 import com.google.inject.Binder;
 import com.typesafe.config.Config;
@@ -55,6 +57,7 @@ import net.spy.memcached.metrics.MetricType;
  * <h2>exposes</h2>
  * <ul>
  * <li>A {@link MemcachedClient} service</li>
+ * <li>A {@link SpyBatch} service</li>
  * </ul>
  *
  * <h2>usage</h2>
@@ -98,6 +101,36 @@ import net.spy.memcached.metrics.MetricType;
  * }
  * </pre>
  *
+ * <h2>batch</h2>
+ * <p>
+ * Concurrent gets can be coalesced into <code>getBulk</code> calls via {@link SpyBatch}:
+ * </p>
+ *
+ * <pre>
+ * memcached.batch.window = 2ms
+ * memcached.batch.maxSize = 64
+ * </pre>
+ *
+ * <h2>metrics</h2>
+ * <p>
+ * Latency of {@link SpyBatch} operations are published to <code>jooby-metrics</code> when
+ * enabled:
+ * </p>
+ *
+ * <pre>
+ * {
+ *   use(new SpyMemcached().metrics(true));
+ *
+ *   use(new Metrics());
+ * }
+ * </pre>
+ *
+ * <p>
+ * Available timers are: <code>memcached.get</code>, <code>memcached.getBulk</code>,
+ * <code>memcached.gat</code>, <code>memcached.touch</code>, <code>memcached.set</code> and
+ * <code>memcached.replace</code>.
+ * </p>
+ *
  * <p>
  * This module comes with a {@link Session.Store} too. See {@link SpySessionStore}.
  * </p>
@@ -113,6 +146,8 @@ public class SpyMemcached implements Jooby.Module {
 
   private BiConsumer<ConnectionFactoryBuilder, Config> configurer;
 
+  private boolean metrics;
+
   /**
    * Creates a new {@link SpyMemcached} module.
    */
@@ -150,6 +185,32 @@ public class SpyMemcached implements Jooby.Module {
         .bind(MemcachedClient.class)
         .toProvider(provider)
         .asEagerSingleton();
+
+    Config $batch = $memcached.getConfig("batch");
+    SpyBatchProvider batch = new SpyBatchProvider(
+        binder.getProvider(MemcachedClient.class),
+        $batch.getDuration("window", TimeUnit.MILLISECONDS),
+        $batch.getInt("maxSize"),
+        metrics ? SpyMetrics.bind(binder) : null);
+
+    env.onStop(batch::destroy);
+
+    binder
+        .bind(SpyBatch.class)
+        .toProvider(batch)
+        .asEagerSingleton();
+  }
+
+  /**
+   * Publish latency of {@link SpyBatch} operations. Metrics are available when the
+   * <code>jooby-metrics</code> module is installed.
+   *
+   * @param metrics True for publishing latency metrics.
+   * @return This module.
+   */
+  public SpyMemcached metrics(final boolean metrics) {
+    this.metrics = metrics;
+    return this;
   }
 
   /**
@@ -18,6 +18,8 @@
  */
 package org.jooby.memcached;
 
+import static java.util.Objects.requireNonNull;
+
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -56,7 +58,14 @@ import com.typesafe.config.ConfigValueFactory;
  * The <code>name</code> attribute and value will be stored in a
  * <a href="http://memcached.org//">Memcached</a> db.
  *
- * Session are persisted using the default {@link Transcoder}.
+ * Session are persisted as <code>byte[]</code> using the {@link Session.Codec} of
+ * {@link Session.Definition#codec()}, so the default {@link Transcoder} saves them as they are
+ * (no java serialization). Sessions saved as a {@link Map} (previous format) are still readable.
+ *
+ * Reading a session refreshes its expiration with <code>gat</code> (binary protocol) or
+ * <code>touch</code>. Reads go through {@link SpyBatch}, so they are coalesced into
+ * <code>getBulk</code> calls (followed by a <code>touch</code>) when
+ * <code>memcached.batch.window</code> is set.
  *
  * <h2>options</h2>
  *
@@ -95,40 +104,69 @@ import com.typesafe.config.ConfigValueFactory;
  */
 public class SpySessionStore implements Session.Store {
 
-  private MemcachedClient memcached;
+  private SpyBatch memcached;
 
   private String prefix;
 
   private int timeout;
 
-  public SpySessionStore(final MemcachedClient memcached,
-      final String prefix, final int timeoutInSeconds) {
-    this.memcached = memcached;
+  private Session.Codec codec;
+
+  public SpySessionStore(final SpyBatch memcached,
+      final String prefix, final int timeoutInSeconds, final Session.Codec codec) {
+    this.memcached = requireNonNull(memcached, "Memcached is required.");
     this.prefix = prefix;
     this.timeout = timeoutInSeconds;
+    this.codec = requireNonNull(codec, "Codec is required.");
   }
 
-  @Inject
   public SpySessionStore(final MemcachedClient memcached,
-      final @Named("memcached.session.prefix") String prefix,
-      @Named("memcached.session.timeout") final String timeout) {
+      final String prefix, final int timeoutInSeconds, final Session.Codec codec) {
+    this(new SpyBatch(memcached), prefix, timeoutInSeconds, codec);
+  }
+
+  public SpySessionStore(final MemcachedClient memcached,
+      final String prefix, final int timeoutInSeconds) {
+    this(memcached, prefix, timeoutInSeconds, new Session.BinaryCodec());
+  }
+
+  public SpySessionStore(final MemcachedClient memcached,
+      final String prefix, final String timeout) {
     this(memcached, prefix, seconds(timeout));
   }
 
+  @Inject
+  public SpySessionStore(final SpyBatch memcached,
+      final @Named("memcached.session.prefix") String prefix,
+      @Named("memcached.session.timeout") final String timeout,
+      final Session.Definition session) {
+    this(memcached, prefix, seconds(timeout),
+        session.codec().orElseGet(Session.BinaryCodec::new));
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public Session get(final Builder builder) {
     String key = key(builder.sessionId());
-    Map<String, String> attrs = (Map<String, String>) memcached.get(key);
+    // get and touch session
+    Object value = memcached.getAndTouch(key, timeout);
+
+    if (value instanceof byte[]) {
+      byte[] bytes = (byte[]) value;
+      if (bytes.length == 0) {
+        // deleted
+        return null;
+      }
+      return codec.decode(builder, bytes);
+    }
 
+    Map<String, String> attrs = (Map<String, String>) value;
     if (attrs == null || attrs.size() == 0) {
       // expired
       return null;
     }
 
-    // touch session
-    memcached.touch(key, timeout);
-
+    attrs = new HashMap<>(attrs);
     return builder
         .accessedAt(Long.parseLong(attrs.remove("_accessedAt")))
         .createdAt(Long.parseLong(attrs.remove("_createdAt")))
@@ -139,14 +177,14 @@ public class SpySessionStore implements Session.Store {
 
   @Override
   public void save(final Session session) {
-    String key = key(session);
-
-    Map<String, String> attrs = new HashMap<>(session.attributes());
-    attrs.put("_createdAt", Long.toString(session.createdAt()));
-    attrs.put("_accessedAt", Long.toString(session.accessedAt()));
-    attrs.put("_savedAt", Long.toString(session.savedAt()));
+    memcached.set(key(session), timeout, codec.encode(session));
+  }
 
-    memcached.set(key, timeout, attrs);
+  @Override
+  public void touch(final Session session) {
+    // access and save times are part of the encoded session and memcached can't update part of
+    // a value: save it again
+    save(session);
   }
 
   @Override
@@ -158,7 +196,7 @@ public class SpySessionStore implements Session.Store {
   public void delete(final String id) {
     String key = key(id);
 
-    memcached.replace(key, 1, new HashMap<>());
+    memcached.replace(key, 1, new byte[0]);
   }
 
   private String key(final String id) {
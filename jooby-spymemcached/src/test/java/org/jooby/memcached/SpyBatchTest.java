@@ -0,0 +1,170 @@
+package org.jooby.memcached;
+
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.isA;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.jooby.test.MockUnit;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+import net.spy.memcached.CASValue;
+import net.spy.memcached.MemcachedClient;
+import net.spy.memcached.internal.BulkFuture;
+import net.spy.memcached.internal.BulkGetCompletionListener;
+import net.spy.memcached.internal.BulkGetFuture;
+import net.spy.memcached.internal.OperationCompletionListener;
+import net.spy.memcached.internal.OperationFuture;
+
+public class SpyBatchTest {
+
+  @Test
+  public void get() throws Exception {
+    new MockUnit(MemcachedClient.class)
+        .expect(unit -> {
+          MemcachedClient client = unit.get(MemcachedClient.class);
+          expect(client.get("k")).andReturn("v");
+        })
+        .run(unit -> {
+          SpyBatch batch = new SpyBatch(unit.get(MemcachedClient.class));
+          assertEquals("v", batch.get("k"));
+          assertEquals("v", batch.getAsync("k").get());
+        });
+  }
+
+  @Test
+  public void getAndTouch() throws Exception {
+    new MockUnit(MemcachedClient.class)
+        .expect(unit -> {
+          MemcachedClient client = unit.get(MemcachedClient.class);
+          expect(client.getAndTouch("k", 60)).andReturn(new CASValue<>(1L, "v"));
+          expect(client.getAndTouch("x", 60)).andReturn(null);
+        })
+        .run(unit -> {
+          SpyBatch batch = new SpyBatch(unit.get(MemcachedClient.class));
+          assertEquals("v", batch.getAndTouch("k", 60));
+          assertEquals(null, batch.getAndTouch("x", 60));
+        });
+  }
+
+  @Test
+  public void getAndTouchTextProtocol() throws Exception {
+    new MockUnit(MemcachedClient.class)
+        .expect(unit -> {
+          MemcachedClient client = unit.get(MemcachedClient.class);
+          expect(client.getAndTouch("k", 60)).andThrow(new UnsupportedOperationException());
+          expect(client.get("k")).andReturn("v");
+          expect(client.touch("k", 60)).andReturn(null);
+          // no gat anymore
+          expect(client.get("x")).andReturn(null);
+        })
+        .run(unit -> {
+          SpyBatch batch = new SpyBatch(unit.get(MemcachedClient.class));
+          assertEquals("v", batch.getAndTouch("k", 60));
+          assertEquals(null, batch.getAndTouch("x", 60));
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void coalesceGets() throws Exception {
+    new MockUnit(MemcachedClient.class, BulkFuture.class, BulkGetFuture.class)
+        .expect(unit -> {
+          MemcachedClient client = unit.get(MemcachedClient.class);
+          expect(client.asyncGetBulk(ImmutableSet.of("a", "b")))
+              .andReturn(unit.get(BulkFuture.class));
+
+          BulkFuture<?> bulk = unit.get(BulkFuture.class);
+          expect(bulk.addListener(unit.capture(BulkGetCompletionListener.class)))
+              .andReturn(null);
+
+          BulkGetFuture<?> result = unit.get(BulkGetFuture.class);
+          expect(result.get()).andReturn(ImmutableMap.of("a", "1"));
+        })
+        .run(unit -> {
+          SpyBatch batch = new SpyBatch(unit.get(MemcachedClient.class), 60000, 2, null);
+          CompletableFuture<Object> a = batch.getAsync("a");
+          // same key, same lookup
+          assertTrue(a == batch.getAsync("a"));
+          // full batch
+          CompletableFuture<Object> b = batch.getAsync("b");
+
+          unit.captured(BulkGetCompletionListener.class).iterator().next()
+              .onComplete(unit.get(BulkGetFuture.class));
+          assertEquals("1", a.get());
+          assertEquals(null, b.get());
+          batch.shutdown();
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void flushOnShutdown() throws Exception {
+    new MockUnit(MemcachedClient.class, BulkFuture.class)
+        .expect(unit -> {
+          MemcachedClient client = unit.get(MemcachedClient.class);
+          expect(client.asyncGetBulk(ImmutableSet.of("a")))
+              .andReturn(unit.get(BulkFuture.class));
+
+          BulkFuture<?> bulk = unit.get(BulkFuture.class);
+          expect(bulk.addListener(isA(BulkGetCompletionListener.class))).andReturn(null);
+        })
+        .run(unit -> {
+          SpyBatch batch = new SpyBatch(unit.get(MemcachedClient.class), 60000, 64, null);
+          batch.getAsync("a");
+          batch.shutdown();
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void bulkErr() throws Exception {
+    IllegalStateException cause = new IllegalStateException("Shutting down");
+    new MockUnit(MemcachedClient.class)
+        .expect(unit -> {
+          MemcachedClient client = unit.get(MemcachedClient.class);
+          expect(client.asyncGetBulk(isA(Collection.class))).andThrow(cause);
+        })
+        .run(unit -> {
+          SpyBatch batch = new SpyBatch(unit.get(MemcachedClient.class), 60000, 1, null);
+          CompletableFuture<Object> a = batch.getAsync("a");
+          assertTrue(a.isCompletedExceptionally());
+          batch.shutdown();
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void latency() throws Exception {
+    List<String> operations = new ArrayList<>();
+    new MockUnit(MemcachedClient.class, OperationFuture.class)
+        .expect(unit -> {
+          MemcachedClient client = unit.get(MemcachedClient.class);
+          expect(client.get("k")).andReturn("v");
+          expect(client.touch("k", 60)).andReturn(unit.get(OperationFuture.class));
+
+          OperationFuture<Boolean> future = unit.get(OperationFuture.class);
+          expect(future.addListener(unit.capture(OperationCompletionListener.class)))
+              .andReturn(null);
+        })
+        .run(unit -> {
+          SpyBatch batch = new SpyBatch(unit.get(MemcachedClient.class), 0, 1,
+              (operation, nanos) -> operations.add(operation));
+          batch.get("k");
+          batch.touch("k", 60);
+          unit.captured(OperationCompletionListener.class).iterator().next()
+              .onComplete(unit.get(OperationFuture.class));
+          assertEquals(Lists.newArrayList("get", "touch"), operations);
+        });
+  }
+
+}
@@ -7,6 +7,7 @@ import java.util.Arrays;
 
 import org.jooby.Env;
 import org.jooby.internal.memcached.MemcachedClientProvider;
+import org.jooby.internal.memcached.SpyBatchProvider;
 import org.jooby.test.MockUnit;
 import org.jooby.test.MockUnit.Block;
 import org.junit.Test;
@@ -15,6 +16,7 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 import com.google.inject.Binder;
+import com.google.inject.Provider;
 import com.google.inject.binder.AnnotatedBindingBuilder;
 import com.google.inject.binder.ScopedBindingBuilder;
 import com.typesafe.config.Config;
@@ -76,12 +78,22 @@ public class SpyMemcachedTest {
 
     Binder binder = unit.get(Binder.class);
     expect(binder.bind(MemcachedClient.class)).andReturn(abbMC);
+
+    expect(binder.getProvider(MemcachedClient.class)).andReturn(unit.mock(Provider.class));
+
+    ScopedBindingBuilder sbbBatch = unit.mock(ScopedBindingBuilder.class);
+    sbbBatch.asEagerSingleton();
+
+    AnnotatedBindingBuilder<SpyBatch> abbBatch = unit.mock(AnnotatedBindingBuilder.class);
+    expect(abbBatch.toProvider(isA(SpyBatchProvider.class))).andReturn(sbbBatch);
+
+    expect(binder.bind(SpyBatch.class)).andReturn(abbBatch);
   };
 
   private Block onStop = unit -> {
     Env env = unit.get(Env.class);
 
-    expect(env.onStop(unit.capture(CheckedRunnable.class))).andReturn(env);
+    expect(env.onStop(unit.capture(CheckedRunnable.class))).andReturn(env).times(2);
   };
 
   @Test
@@ -97,7 +109,9 @@ public class SpyMemcachedTest {
           new SpyMemcached()
               .configure(unit.get(Env.class), config, unit.get(Binder.class));
         }, unit -> {
-          unit.captured(CheckedRunnable.class).iterator().next().run();
+          for (CheckedRunnable onStop : unit.captured(CheckedRunnable.class)) {
+            onStop.run();
+          }
         });
   }
 
@@ -1,12 +1,14 @@
 package org.jooby.memcached;
 
+import static org.easymock.EasyMock.aryEq;
+import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
 import static org.junit.Assert.assertEquals;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 
+import net.spy.memcached.CASValue;
 import net.spy.memcached.MemcachedClient;
 
 import org.jooby.Session;
@@ -40,9 +42,8 @@ public class SpySessionStoreTest {
     new MockUnit(MemcachedClient.class, Session.class, Session.Builder.class)
         .expect(unit -> {
           MemcachedClient client = unit.get(MemcachedClient.class);
-          expect(client.get("sessions:sid")).andReturn(msession);
-
-          expect(client.touch("sessions:sid", 1800)).andReturn(null);
+          expect(client.getAndTouch("sessions:sid", 1800))
+              .andReturn(new CASValue<>(1L, msession));
         })
         .expect(unit -> {
           Builder builder = unit.get(Session.Builder.class);
@@ -62,13 +63,82 @@ public class SpySessionStoreTest {
         });
   }
 
+  @Test
+  public void getBinary() throws Exception {
+    byte[] bytes = {1, 0};
+    new MockUnit(MemcachedClient.class, Session.class, Session.Builder.class, Session.Codec.class)
+        .expect(unit -> {
+          MemcachedClient client = unit.get(MemcachedClient.class);
+          expect(client.getAndTouch("sessions:sid", 1800)).andReturn(new CASValue<>(1L, bytes));
+        })
+        .expect(unit -> {
+          Builder builder = unit.get(Session.Builder.class);
+          expect(builder.sessionId()).andReturn("sid");
+
+          Session.Codec codec = unit.get(Session.Codec.class);
+          expect(codec.decode(builder, bytes)).andReturn(unit.get(Session.class));
+        })
+        .run(unit -> {
+          Session session = new SpySessionStore(
+              unit.get(MemcachedClient.class), "sessions:", 1800, unit.get(Session.Codec.class)
+              ).get(unit.get(Session.Builder.class));
+          assertEquals(unit.get(Session.class), session);
+        });
+  }
+
+  @Test
+  public void getTextProtocol() throws Exception {
+    byte[] bytes = {1, 0};
+    new MockUnit(MemcachedClient.class, Session.class, Session.Builder.class, Session.Codec.class)
+        .expect(unit -> {
+          MemcachedClient client = unit.get(MemcachedClient.class);
+          expect(client.getAndTouch("sessions:sid", 1800))
+              .andThrow(new UnsupportedOperationException());
+          expect(client.get("sessions:sid")).andReturn(bytes);
+          expect(client.touch("sessions:sid", 1800)).andReturn(null);
+        })
+        .expect(unit -> {
+          Builder builder = unit.get(Session.Builder.class);
+          expect(builder.sessionId()).andReturn("sid");
+
+          Session.Codec codec = unit.get(Session.Codec.class);
+          expect(codec.decode(builder, bytes)).andReturn(unit.get(Session.class));
+        })
+        .run(unit -> {
+          Session session = new SpySessionStore(
+              unit.get(MemcachedClient.class), "sessions:", 1800, unit.get(Session.Codec.class)
+              ).get(unit.get(Session.Builder.class));
+          assertEquals(unit.get(Session.class), session);
+        });
+  }
+
+  @Test
+  public void getDeletedSession() throws Exception {
+    new MockUnit(MemcachedClient.class, Session.Builder.class)
+        .expect(unit -> {
+          MemcachedClient client = unit.get(MemcachedClient.class);
+          expect(client.getAndTouch("sessions:sid", 1800))
+              .andReturn(new CASValue<>(1L, new byte[0]));
+        })
+        .expect(unit -> {
+          Builder builder = unit.get(Session.Builder.class);
+          expect(builder.sessionId()).andReturn("sid");
+        })
+        .run(unit -> {
+          Session session = new SpySessionStore(
+              unit.get(MemcachedClient.class), "sessions:", "30m"
+              ).get(unit.get(Session.Builder.class));
+          assertEquals(null, session);
+        });
+  }
+
   @Test
   public void getNullSession() throws Exception {
     Map<String, String> msession = null;
     new MockUnit(MemcachedClient.class, Session.Builder.class)
         .expect(unit -> {
           MemcachedClient client = unit.get(MemcachedClient.class);
-          expect(client.get("sessions:sid")).andReturn(msession);
+          expect(client.getAndTouch("sessions:sid", 1800)).andReturn(null);
         })
         .expect(unit -> {
           Builder builder = unit.get(Session.Builder.class);
@@ -88,7 +158,8 @@ public class SpySessionStoreTest {
     new MockUnit(MemcachedClient.class, Session.Builder.class)
         .expect(unit -> {
           MemcachedClient client = unit.get(MemcachedClient.class);
-          expect(client.get("sessions:sid")).andReturn(msession);
+          expect(client.getAndTouch("sessions:sid", 1800))
+              .andReturn(new CASValue<>(1L, msession));
         })
         .expect(unit -> {
           Builder builder = unit.get(Session.Builder.class);
@@ -104,56 +175,67 @@ public class SpySessionStoreTest {
 
   @Test
   public void save() throws Exception {
-    Map<String, String> msession = ImmutableMap.of(
-        "_accessedAt", "1",
-        "_createdAt", "2",
-        "_savedAt", "3",
-        "foo", "bar"
-        );
-    new MockUnit(MemcachedClient.class, Session.class, Session.Builder.class)
+    byte[] bytes = {1, 0};
+    new MockUnit(MemcachedClient.class, Session.class, Session.Codec.class)
         .expect(unit -> {
           MemcachedClient client = unit.get(MemcachedClient.class);
-          expect(client.set("sessions:sid", 1800, msession)).andReturn(null);
+          expect(client.set("sessions:sid", 1800, bytes)).andReturn(null);
         })
         .expect(unit -> {
           Session session = unit.get(Session.class);
           expect(session.id()).andReturn("sid");
-          expect(session.createdAt()).andReturn(2L);
-          expect(session.accessedAt()).andReturn(1L);
-          expect(session.savedAt()).andReturn(3L);
-          expect(session.attributes()).andReturn(msession);
+
+          Session.Codec codec = unit.get(Session.Codec.class);
+          expect(codec.encode(session)).andReturn(bytes);
         })
         .run(unit -> {
           new SpySessionStore(
-              unit.get(MemcachedClient.class), "sessions:", "30m"
+              unit.get(MemcachedClient.class), "sessions:", 1800, unit.get(Session.Codec.class)
             ).save(unit.get(Session.class));
           });
   }
 
+  @Test
+  public void touch() throws Exception {
+    byte[] bytes = {1, 0};
+    new MockUnit(MemcachedClient.class, Session.class, Session.Codec.class)
+        .expect(unit -> {
+          // new access and save times are saved
+          MemcachedClient client = unit.get(MemcachedClient.class);
+          expect(client.set("sessions:sid", 1800, bytes)).andReturn(null);
+        })
+        .expect(unit -> {
+          Session session = unit.get(Session.class);
+          expect(session.id()).andReturn("sid");
+
+          Session.Codec codec = unit.get(Session.Codec.class);
+          expect(codec.encode(session)).andReturn(bytes);
+        })
+        .run(unit -> {
+          new SpySessionStore(
+              unit.get(MemcachedClient.class), "sessions:", 1800, unit.get(Session.Codec.class)
+            ).touch(unit.get(Session.class));
+          });
+  }
+
   @Test
   public void create() throws Exception {
-    Map<String, String> msession = ImmutableMap.of(
-        "_accessedAt", "1",
-        "_createdAt", "2",
-        "_savedAt", "3",
-        "foo", "bar"
-        );
-    new MockUnit(MemcachedClient.class, Session.class, Session.Builder.class)
+    byte[] bytes = {1, 0};
+    new MockUnit(MemcachedClient.class, Session.class, Session.Codec.class)
         .expect(unit -> {
           MemcachedClient client = unit.get(MemcachedClient.class);
-          expect(client.set("sessions:sid", 1800, msession)).andReturn(null);
+          expect(client.set("sessions:sid", 1800, bytes)).andReturn(null);
         })
         .expect(unit -> {
           Session session = unit.get(Session.class);
           expect(session.id()).andReturn("sid");
-          expect(session.createdAt()).andReturn(2L);
-          expect(session.accessedAt()).andReturn(1L);
-          expect(session.savedAt()).andReturn(3L);
-          expect(session.attributes()).andReturn(msession);
+
+          Session.Codec codec = unit.get(Session.Codec.class);
+          expect(codec.encode(session)).andReturn(bytes);
         })
         .run(unit -> {
           new SpySessionStore(
-              unit.get(MemcachedClient.class), "sessions:", "1800"
+              unit.get(MemcachedClient.class), "sessions:", 1800, unit.get(Session.Codec.class)
             ).create(unit.get(Session.class));
           });
   }
@@ -163,7 +245,7 @@ public class SpySessionStoreTest {
     new MockUnit(MemcachedClient.class, Session.class, Session.Builder.class)
         .expect(unit -> {
           MemcachedClient client = unit.get(MemcachedClient.class);
-          expect(client.replace("sessions:sid", 1, new HashMap<>())).andReturn(null);
+          expect(client.replace(eq("sessions:sid"), eq(1), aryEq(new byte[0]))).andReturn(null);
         })
         .run(unit -> {
           new SpySessionStore(
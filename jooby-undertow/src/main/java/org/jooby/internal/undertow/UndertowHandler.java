@@ -36,6 +36,10 @@ import com.typesafe.config.Config;
 
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.form.FormDataParser;
+import io.undertow.server.handlers.form.FormParserFactory;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.Headers;
 
 public class UndertowHandler implements HttpHandler {
 
@@ -43,20 +47,50 @@ public class UndertowHandler implements HttpHandler {
 
   private Config config;
 
+  private boolean ioThread;
+
+  private FormParserFactory form;
+
+  /** True, when form bodies are parsed by the IO thread. */
+  private boolean asyncForm;
+
   public UndertowHandler(final org.jooby.spi.HttpHandler handler, final Config config) {
     this.handler = handler;
     this.config = config;
+    this.ioThread = config.getBoolean("undertow.ioThread");
+    this.form = UndertowRequest.formParser(config);
+    this.asyncForm = config.getBoolean("undertow.form.async");
   }
 
   @Override
   public void handleRequest(final HttpServerExchange exchange) throws Exception {
 
     if (exchange.isInIoThread()) {
-      exchange.dispatch(this);
-      return;
+      // read form and multipart bodies without holding a worker thread, we are called back once
+      // the form has been parsed
+      if (asyncForm && exchange.getAttachment(FormDataParser.FORM_DATA) == null) {
+        FormDataParser parser = form.createParser(exchange);
+        if (parser != null) {
+          parser.parse(this);
+          return;
+        }
+      }
+      // request body and websockets require a worker thread, routes decide about everything else
+      if (!ioThread || blocking(exchange.getRequestHeaders())) {
+        exchange.dispatch(this);
+        return;
+      }
     }
 
-    handler.handle(new UndertowRequest(exchange, config), new UndertowResponse(exchange));
+    handler.handle(new UndertowRequest(exchange, config, form), new UndertowResponse(exchange));
+  }
+
+  static boolean blocking(final HeaderMap headers) {
+    if (headers.contains(Headers.UPGRADE) || headers.contains(Headers.TRANSFER_ENCODING)) {
+      return true;
+    }
+    String len = headers.getFirst(Headers.CONTENT_LENGTH);
+    return len != null && !len.equals("0");
   }
 
 }
@@ -48,7 +48,9 @@ import io.undertow.server.BlockingHttpExchange;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.server.handlers.form.FormData;
 import io.undertow.server.handlers.form.FormData.FormValue;
+import io.undertow.server.handlers.form.FormDataParser;
 import io.undertow.server.handlers.form.FormEncodedDataDefinition;
+import io.undertow.server.handlers.form.FormParserFactory;
 import io.undertow.server.handlers.form.MultiPartParserDefinition;
 import io.undertow.util.AttachmentKey;
 import io.undertow.util.HeaderValues;
@@ -71,13 +73,12 @@ public class UndertowRequest implements NativeRequest {
 
   private Supplier<BlockingHttpExchange> blocking;
 
-  public UndertowRequest(final HttpServerExchange exchange, final Config conf)
-      throws IOException {
+  public UndertowRequest(final HttpServerExchange exchange, final Config conf,
+      final FormParserFactory formParser) throws IOException {
     this.exchange = exchange;
     this.blocking = Suppliers.memoize(() -> this.exchange.startBlocking());
     this.config = conf;
-    this.form = Lazy.of(() -> Try.of(() -> parseForm(exchange, conf.getString("application.tmpdir"),
-        conf.getString("application.charset"))).get());
+    this.form = Lazy.of(() -> Try.of(() -> parseForm(exchange, formParser)).get());
     this.path = URLDecoder.decode(exchange.getRequestPath(), "UTF-8");
   }
 
@@ -217,26 +218,62 @@ public class UndertowRequest implements NativeRequest {
     exchange.dispatch(executor, runnable);
   }
 
-  private FormData parseForm(final HttpServerExchange exchange, final String tmpdir,
-      final String charset) throws IOException {
-    String value = exchange.getRequestHeaders().getFirst("Content-Type");
-    if (value != null) {
-      MediaType type = MediaType.valueOf(value);
-      if (MediaType.form.name().equals(type.name())) {
-        blocking.get();
-        return new FormEncodedDataDefinition()
-            .setDefaultEncoding(charset)
-            .create(exchange)
-            .parseBlocking();
-      } else if (MediaType.multipart.name().equals(type.name())) {
-        blocking.get();
-        return new MultiPartParserDefinition()
-            .setTempFileLocation(new File(tmpdir).toPath())
-            .setDefaultEncoding(charset)
-            .create(exchange)
-            .parseBlocking();
-
+  @Override
+  public void onAbort(final Runnable callback) {
+    exchange.addExchangeCompleteListener((exchange, next) -> {
+      try {
+        // called on every completion: the client went away when the response wasn't sent or the
+        // connection was closed under us
+        if (!exchange.isResponseComplete() || !exchange.getConnection().isOpen()) {
+          callback.run();
+        }
+      } finally {
+        next.proceed();
       }
+    });
+  }
+
+  @Override
+  public boolean inIoThread() {
+    return exchange.isInIoThread();
+  }
+
+  @Override
+  public void dispatch(final Runnable task) {
+    exchange.dispatch(task);
+  }
+
+  /**
+   * Creates a form parser for <code>application/x-www-form-urlencoded</code> and
+   * <code>multipart/form-data</code> requests. File parts are spooled to
+   * <code>application.tmpdir</code>.
+   *
+   * @param conf Application config.
+   * @return A form parser factory.
+   */
+  public static FormParserFactory formParser(final Config conf) {
+    MultiPartParserDefinition multipart = new MultiPartParserDefinition()
+        .setTempFileLocation(new File(conf.getString("application.tmpdir")).toPath())
+        .setDefaultEncoding(conf.getString("application.charset"));
+    multipart.setMaxIndividualFileSize(conf.getBytes("undertow.form.maxFileSize"));
+    return FormParserFactory.builder(false)
+        .addParser(new FormEncodedDataDefinition()
+            .setDefaultEncoding(conf.getString("application.charset")))
+        .addParser(multipart)
+        .build();
+  }
+
+  private FormData parseForm(final HttpServerExchange exchange,
+      final FormParserFactory formParser) throws IOException {
+    // parsed by the IO thread?
+    FormData data = exchange.getAttachment(FormDataParser.FORM_DATA);
+    if (data != null) {
+      return data;
+    }
+    FormDataParser parser = formParser.createParser(exchange);
+    if (parser != null) {
+      blocking.get();
+      return parser.parseBlocking();
     }
     return new FormData(0);
   }
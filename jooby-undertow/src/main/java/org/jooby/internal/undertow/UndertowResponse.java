@@ -73,6 +73,11 @@ public class UndertowResponse implements NativeResponse {
     exchange.getResponseHeaders().put(new HttpString(name), value);
   }
 
+  @Override
+  public void removeHeader(final String name) {
+    exchange.getResponseHeaders().remove(new HttpString(name));
+  }
+
   @Override
   public void header(final String name, final Iterable<String> values) {
     HeaderMap headers = exchange.getResponseHeaders();
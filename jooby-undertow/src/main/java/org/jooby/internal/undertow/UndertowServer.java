@@ -19,10 +19,13 @@
 package org.jooby.internal.undertow;
 
 import java.lang.reflect.Field;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
@@ -32,6 +35,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xnio.Option;
 import org.xnio.Options;
+import org.xnio.XnioWorker;
+import org.xnio.management.XnioWorkerMXBean;
 
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
@@ -206,4 +211,20 @@ public class UndertowServer implements org.jooby.spi.Server {
     server.stop();
   }
 
+  @Override
+  public Map<String, Supplier<Number>> metrics() {
+    Map<String, Supplier<Number>> metrics = new LinkedHashMap<>();
+    metrics.put("worker.ioThreads", () -> worker(XnioWorkerMXBean::getIoThreadCount));
+    metrics.put("worker.coreThreads", () -> worker(XnioWorkerMXBean::getCoreWorkerPoolSize));
+    metrics.put("worker.maxThreads", () -> worker(XnioWorkerMXBean::getMaxWorkerPoolSize));
+    metrics.put("worker.queueSize", () -> worker(XnioWorkerMXBean::getWorkerQueueSize));
+    return metrics;
+  }
+
+  private int worker(final ToIntFunction<XnioWorkerMXBean> value) {
+    // null until started
+    XnioWorker worker = server.getWorker();
+    return worker == null ? 0 : value.applyAsInt(worker.getMXBean());
+  }
+
 }
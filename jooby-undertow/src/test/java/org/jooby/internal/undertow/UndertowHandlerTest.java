@@ -0,0 +1,118 @@
+package org.jooby.internal.undertow;
+
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.isA;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.jooby.spi.HttpHandler;
+import org.jooby.test.MockUnit;
+import org.jooby.test.MockUnit.Block;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import com.google.common.collect.ImmutableMap;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.Headers;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({UndertowHandler.class, HttpServerExchange.class })
+public class UndertowHandlerTest {
+
+  private static Config conf(final boolean ioThread) {
+    return ConfigFactory.parseMap(ImmutableMap.<String, Object> builder()
+        .put("undertow.ioThread", ioThread)
+        .put("undertow.form.async", false)
+        .put("undertow.form.maxFileSize", "200k")
+        .put("application.tmpdir", System.getProperty("java.io.tmpdir"))
+        .put("application.charset", "UTF-8")
+        .build());
+  }
+
+  private Block ioThread(final HeaderMap headers) {
+    return unit -> {
+      HttpServerExchange exchange = unit.get(HttpServerExchange.class);
+      expect(exchange.isInIoThread()).andReturn(true);
+      expect(exchange.getRequestHeaders()).andReturn(headers);
+    };
+  }
+
+  @Test
+  public void blocking() {
+    assertFalse(UndertowHandler.blocking(new HeaderMap()));
+    assertFalse(UndertowHandler.blocking(new HeaderMap().put(Headers.CONTENT_LENGTH, "0")));
+    assertTrue(UndertowHandler.blocking(new HeaderMap().put(Headers.CONTENT_LENGTH, "10")));
+    assertTrue(UndertowHandler.blocking(new HeaderMap().put(Headers.TRANSFER_ENCODING,
+        "chunked")));
+    assertTrue(UndertowHandler.blocking(new HeaderMap().put(Headers.UPGRADE, "websocket")));
+  }
+
+  @Test
+  public void stayInIoThread() throws Exception {
+    new MockUnit(HttpHandler.class, HttpServerExchange.class)
+        .expect(ioThread(new HeaderMap()))
+        .expect(unit -> {
+          HttpServerExchange exchange = unit.get(HttpServerExchange.class);
+          expect(exchange.getRequestPath()).andReturn("/");
+
+          HttpHandler handler = unit.get(HttpHandler.class);
+          handler.handle(isA(UndertowRequest.class), isA(UndertowResponse.class));
+        })
+        .run(unit -> {
+          new UndertowHandler(unit.get(HttpHandler.class), conf(true))
+              .handleRequest(unit.get(HttpServerExchange.class));
+        });
+  }
+
+  @Test
+  public void dispatchRequestBody() throws Exception {
+    new MockUnit(HttpHandler.class, HttpServerExchange.class)
+        .expect(ioThread(new HeaderMap().put(Headers.CONTENT_LENGTH, "10")))
+        .expect(unit -> {
+          HttpServerExchange exchange = unit.get(HttpServerExchange.class);
+          expect(exchange.dispatch(isA(UndertowHandler.class))).andReturn(exchange);
+        })
+        .run(unit -> {
+          new UndertowHandler(unit.get(HttpHandler.class), conf(true))
+              .handleRequest(unit.get(HttpServerExchange.class));
+        });
+  }
+
+  @Test
+  public void dispatchWhenIoThreadIsOff() throws Exception {
+    new MockUnit(HttpHandler.class, HttpServerExchange.class)
+        .expect(unit -> {
+          HttpServerExchange exchange = unit.get(HttpServerExchange.class);
+          expect(exchange.isInIoThread()).andReturn(true);
+          expect(exchange.dispatch(isA(UndertowHandler.class))).andReturn(exchange);
+        })
+        .run(unit -> {
+          new UndertowHandler(unit.get(HttpHandler.class), conf(false))
+              .handleRequest(unit.get(HttpServerExchange.class));
+        });
+  }
+
+  @Test
+  public void workerThread() throws Exception {
+    new MockUnit(HttpHandler.class, HttpServerExchange.class)
+        .expect(unit -> {
+          HttpServerExchange exchange = unit.get(HttpServerExchange.class);
+          expect(exchange.isInIoThread()).andReturn(false);
+          expect(exchange.getRequestPath()).andReturn("/");
+
+          HttpHandler handler = unit.get(HttpHandler.class);
+          handler.handle(isA(UndertowRequest.class), isA(UndertowResponse.class));
+        })
+        .run(unit -> {
+          new UndertowHandler(unit.get(HttpHandler.class), conf(true))
+              .handleRequest(unit.get(HttpServerExchange.class));
+        });
+  }
+
+}
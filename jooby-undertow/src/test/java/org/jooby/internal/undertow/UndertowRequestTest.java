@@ -0,0 +1,111 @@
+package org.jooby.internal.undertow;
+
+import static org.easymock.EasyMock.expect;
+
+import org.jooby.test.MockUnit;
+import org.jooby.test.MockUnit.Block;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import com.typesafe.config.Config;
+
+import io.undertow.server.ExchangeCompletionListener;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.ServerConnection;
+import io.undertow.server.handlers.form.FormParserFactory;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({UndertowRequest.class, HttpServerExchange.class, FormParserFactory.class })
+public class UndertowRequestTest {
+
+  private Block exchange = unit -> {
+    HttpServerExchange exchange = unit.get(HttpServerExchange.class);
+    expect(exchange.getRequestPath()).andReturn("/");
+    expect(exchange.addExchangeCompleteListener(unit.capture(ExchangeCompletionListener.class)))
+        .andReturn(exchange);
+  };
+
+  private Block next = unit -> {
+    ExchangeCompletionListener.NextListener next = unit
+        .get(ExchangeCompletionListener.NextListener.class);
+    next.proceed();
+  };
+
+  @Test
+  public void completeIsNotAbort() throws Exception {
+    new MockUnit(HttpServerExchange.class, Config.class, FormParserFactory.class, Runnable.class,
+        ServerConnection.class, ExchangeCompletionListener.NextListener.class)
+            .expect(exchange)
+            .expect(unit -> {
+              ServerConnection connection = unit.get(ServerConnection.class);
+              expect(connection.isOpen()).andReturn(true);
+
+              HttpServerExchange exchange = unit.get(HttpServerExchange.class);
+              expect(exchange.isResponseComplete()).andReturn(true);
+              expect(exchange.getConnection()).andReturn(connection);
+            })
+            .expect(next)
+            .run(unit -> {
+              new UndertowRequest(unit.get(HttpServerExchange.class), unit.get(Config.class),
+                  unit.get(FormParserFactory.class))
+                      .onAbort(unit.get(Runnable.class));
+            }, unit -> {
+              unit.captured(ExchangeCompletionListener.class).iterator().next()
+                  .exchangeEvent(unit.get(HttpServerExchange.class),
+                      unit.get(ExchangeCompletionListener.NextListener.class));
+            });
+  }
+
+  @Test
+  public void abortIncompleteResponse() throws Exception {
+    new MockUnit(HttpServerExchange.class, Config.class, FormParserFactory.class, Runnable.class,
+        ExchangeCompletionListener.NextListener.class)
+            .expect(exchange)
+            .expect(unit -> {
+              HttpServerExchange exchange = unit.get(HttpServerExchange.class);
+              expect(exchange.isResponseComplete()).andReturn(false);
+
+              unit.get(Runnable.class).run();
+            })
+            .expect(next)
+            .run(unit -> {
+              new UndertowRequest(unit.get(HttpServerExchange.class), unit.get(Config.class),
+                  unit.get(FormParserFactory.class))
+                      .onAbort(unit.get(Runnable.class));
+            }, unit -> {
+              unit.captured(ExchangeCompletionListener.class).iterator().next()
+                  .exchangeEvent(unit.get(HttpServerExchange.class),
+                      unit.get(ExchangeCompletionListener.NextListener.class));
+            });
+  }
+
+  @Test
+  public void abortClosedConnection() throws Exception {
+    new MockUnit(HttpServerExchange.class, Config.class, FormParserFactory.class, Runnable.class,
+        ServerConnection.class, ExchangeCompletionListener.NextListener.class)
+            .expect(exchange)
+            .expect(unit -> {
+              ServerConnection connection = unit.get(ServerConnection.class);
+              expect(connection.isOpen()).andReturn(false);
+
+              HttpServerExchange exchange = unit.get(HttpServerExchange.class);
+              expect(exchange.isResponseComplete()).andReturn(true);
+              expect(exchange.getConnection()).andReturn(connection);
+
+              unit.get(Runnable.class).run();
+            })
+            .expect(next)
+            .run(unit -> {
+              new UndertowRequest(unit.get(HttpServerExchange.class), unit.get(Config.class),
+                  unit.get(FormParserFactory.class))
+                      .onAbort(unit.get(Runnable.class));
+            }, unit -> {
+              unit.captured(ExchangeCompletionListener.class).iterator().next()
+                  .exchangeEvent(unit.get(HttpServerExchange.class),
+                      unit.get(ExchangeCompletionListener.NextListener.class));
+            });
+  }
+
+}
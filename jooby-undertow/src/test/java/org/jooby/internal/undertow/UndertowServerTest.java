@@ -18,6 +18,12 @@ public class UndertowServerTest {
     Config config = ConfigFactory.empty()
         .withValue("undertow.ioThreads", ConfigValueFactory.fromAnyRef("2"))
         .withValue("undertow.workerThreads", ConfigValueFactory.fromAnyRef("1"))
+        .withValue("undertow.ioThread", ConfigValueFactory.fromAnyRef(false))
+        .withValue("undertow.form.async", ConfigValueFactory.fromAnyRef(false))
+        .withValue("undertow.form.maxFileSize", ConfigValueFactory.fromAnyRef(-1))
+        .withValue("application.tmpdir",
+            ConfigValueFactory.fromAnyRef(System.getProperty("java.io.tmpdir")))
+        .withValue("application.charset", ConfigValueFactory.fromAnyRef("UTF-8"))
         .withValue("undertow.bufferSize", ConfigValueFactory.fromAnyRef("16k"))
         .withValue("undertow.directBuffers", ConfigValueFactory.fromAnyRef(true))
         .withValue("undertow.buffersPerRegion", ConfigValueFactory.fromAnyRef("1"))
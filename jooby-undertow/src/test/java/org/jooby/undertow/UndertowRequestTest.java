@@ -29,7 +29,7 @@ public class UndertowRequestTest {
     new MockUnit(HttpServerExchange.class, Config.class)
         .expect(form)
         .run(unit -> {
-          new UndertowRequest(unit.get(HttpServerExchange.class), unit.get(Config.class));
+          new UndertowRequest(unit.get(HttpServerExchange.class), unit.get(Config.class), null);
         });
   }
 
@@ -38,7 +38,7 @@ public class UndertowRequestTest {
     new MockUnit(HttpServerExchange.class, Config.class)
         .expect(form)
         .run(unit -> {
-          new UndertowRequest(unit.get(HttpServerExchange.class), unit.get(Config.class))
+          new UndertowRequest(unit.get(HttpServerExchange.class), unit.get(Config.class), null)
               .upgrade(Object.class);
         });
   }
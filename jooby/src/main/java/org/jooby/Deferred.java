@@ -20,6 +20,8 @@ package org.jooby;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Executor;
@@ -195,6 +197,11 @@ public class Deferred extends Result {
 
   private String callerThread;
 
+  /** Cancel callbacks. */
+  private List<Runnable> onCancel;
+
+  private boolean cancelled;
+
   /**
    * Creates a new {@link Deferred} with an initializer.
    *
@@ -306,6 +313,67 @@ public class Deferred extends Result {
     handler.handle(null, cause);
   }
 
+  /**
+   * Register a callback to be executed when this deferred is cancelled, because the request
+   * deadline has passed or the client went away. Async code should release resources and stop
+   * working on it, like:
+   *
+   * <pre>{@code
+   * {
+   *   get("/", req -> new Deferred(deferred -> {
+   *     CompletableFuture<Object> future = ...;
+   *     deferred.onCancel(() -> future.cancel(true));
+   *     ...
+   *   }));
+   * }
+   * }</pre>
+   *
+   * If the deferred has been cancelled already the callback runs immediately.
+   *
+   * @param callback A cancel callback.
+   * @return This deferred.
+   */
+  public Deferred onCancel(final Runnable callback) {
+    requireNonNull(callback, "Callback is required.");
+    synchronized (this) {
+      if (!cancelled) {
+        if (onCancel == null) {
+          onCancel = new ArrayList<>(2);
+        }
+        onCancel.add(callback);
+        return this;
+      }
+    }
+    callback.run();
+    return this;
+  }
+
+  /**
+   * Cancel this deferred and execute cancel callbacks. Application code should never call this
+   * method: INTERNAL USE ONLY.
+   */
+  public void cancel() {
+    List<Runnable> callbacks;
+    synchronized (this) {
+      if (cancelled) {
+        return;
+      }
+      cancelled = true;
+      callbacks = onCancel;
+      onCancel = null;
+    }
+    if (callbacks != null) {
+      callbacks.forEach(Runnable::run);
+    }
+  }
+
+  /**
+   * @return True if this deferred has been cancelled.
+   */
+  public synchronized boolean cancelled() {
+    return cancelled;
+  }
+
   /**
    * Setup a handler for this deferred. Application code should never call this method: INTERNAL USE
    * ONLY.
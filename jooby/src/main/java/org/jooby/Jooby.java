@@ -109,6 +109,7 @@ import org.jooby.internal.ServerLookup;
 import org.jooby.internal.ServerSessionManager;
 import org.jooby.internal.SessionManager;
 import org.jooby.internal.TypeConverters;
+import org.jooby.internal.ViewWarmup;
 import org.jooby.internal.handlers.HeadHandler;
 import org.jooby.internal.handlers.OptionsHandler;
 import org.jooby.internal.handlers.TraceHandler;
@@ -1928,6 +1929,11 @@ public class Jooby implements Router, LifeCycle, Registry {
       onStart.accept(this);
     }
 
+    // compile templates
+    if (conf.getBoolean("view.warmup.enabled")) {
+      new ViewWarmup(conf).run(injector.getInstance(Renderer.KEY));
+    }
+
     // route mapper
     Set<Route.Definition> routeDefs = injector.getInstance(Route.KEY);
     Set<WebSocket.Definition> sockets = injector.getInstance(WebSocket.KEY);
@@ -2663,6 +2669,11 @@ public class Jooby implements Router, LifeCycle, Registry {
       session.saveInterval(session.saveInterval()
           .orElse($session.getDuration("saveInterval", TimeUnit.MILLISECONDS)));
 
+      // codec
+      if (!session.codec().isPresent()) {
+        session.codec(new Session.BinaryCodec($session.getBytes("compressAbove").intValue()));
+      }
+
       // build cookie
       Cookie.Definition source = session.cookie();
 
@@ -2734,6 +2745,8 @@ public class Jooby implements Router, LifeCycle, Registry {
           if (routeClasses.add(routeClass)) {
             binder.bind(routeClass);
           }
+        } else if (h instanceof RequestLogger) {
+          ((RequestLogger) h).lifeCycle(env);
         }
         definitions.addBinding().toInstance(rdef);
       } else if (it instanceof WebSocket.Definition) {
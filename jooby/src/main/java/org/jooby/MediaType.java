@@ -31,11 +31,13 @@ import java.util.Map;
 import java.util.Optional;
 
 import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
@@ -59,14 +61,14 @@ public class MediaType implements Comparable<MediaType> {
     /**
      * The source of media types.
      */
-    private Iterable<MediaType> acceptable;
+    private List<MediaType> acceptable;
 
     /**
      * Creates a new {@link Matcher}.
      *
      * @param acceptable The source to compare with.
      */
-    Matcher(final Iterable<MediaType> acceptable) {
+    Matcher(final List<MediaType> acceptable) {
       this.acceptable = acceptable;
     }
 
@@ -87,7 +89,12 @@ public class MediaType implements Comparable<MediaType> {
      */
     public boolean matches(final MediaType candidate) {
       requireNonNull(candidate, "A candidate media type is required.");
-      return doFirst(ImmutableList.of(candidate)) != null;
+      for (MediaType accept : acceptable) {
+        if (accept.matches(candidate)) {
+          return true;
+        }
+      }
+      return false;
     }
 
     /**
@@ -125,7 +132,7 @@ public class MediaType implements Comparable<MediaType> {
      * @return A first most relevant media type or an empty optional.
      */
     public Optional<MediaType> first(final MediaType candidate) {
-      return first(ImmutableList.of(candidate));
+      return matches(candidate) ? Optional.of(candidate) : Optional.empty();
     }
 
     /**
@@ -168,6 +175,19 @@ public class MediaType implements Comparable<MediaType> {
      */
     public List<MediaType> filter(final List<MediaType> types) {
       checkArgument(types != null && types.size() > 0, "Media types are required");
+      Negotiation key = new Negotiation(acceptable, types);
+      List<MediaType> result = negotiations.getIfPresent(key);
+      if (result == null) {
+        result = doFilter(types);
+        // copy lists, cache keys must not change
+        negotiations.put(
+            new Negotiation(ImmutableList.copyOf(acceptable), ImmutableList.copyOf(types)),
+            result);
+      }
+      return result;
+    }
+
+    private List<MediaType> doFilter(final List<MediaType> types) {
       ImmutableList.Builder<MediaType> result = ImmutableList.builder();
       final List<MediaType> sortedTypes;
       if (types.size() == 1) {
@@ -207,6 +227,44 @@ public class MediaType implements Comparable<MediaType> {
     }
   }
 
+  /**
+   * Cache key of a content negotiation: acceptable types plus candidate types.
+   */
+  private static final class Negotiation {
+
+    private final List<MediaType> acceptable;
+
+    private final List<MediaType> types;
+
+    private final int hc;
+
+    Negotiation(final List<MediaType> acceptable, final List<MediaType> types) {
+      this.acceptable = acceptable;
+      this.types = types;
+      this.hc = 31 * acceptable.hashCode() + types.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (obj instanceof Negotiation) {
+        Negotiation that = (Negotiation) obj;
+        return hc == that.hc && acceptable.equals(that.acceptable) && types.equals(that.types);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return hc;
+    }
+  }
+
+  /**
+   * Max number of distinct media type expressions (like <code>Accept</code> headers) and content
+   * negotiations to keep. Real clients send a handful of distinct values.
+   */
+  private static final int CACHE_SIZE = 1024;
+
   /**
    * Default parameters.
    */
@@ -302,10 +360,39 @@ public class MediaType implements Comparable<MediaType> {
 
   private int hc;
 
+  /** Quality, parsed on first use. */
+  private float quality = -1;
+
   /**
    * Alias for most used types.
    */
+  private static final Map<String, List<MediaType>> aliases = ImmutableMap
+      .<String, List<MediaType>> builder()
+      .put("html", ImmutableList.of(html))
+      .put("json", ImmutableList.of(json))
+      .put("css", ImmutableList.of(css))
+      .put("js", ImmutableList.of(js))
+      .put("octetstream", ImmutableList.of(octetstream))
+      .put("form", ImmutableList.of(form))
+      .put("multipart", ImmutableList.of(multipart))
+      .put("xml", ImmutableList.of(xml))
+      .put("plain", ImmutableList.of(plain))
+      .put("*", ALL)
+      .build();
+
+  /**
+   * Well-known types, parsing one of these (without parameters) returns the same instance.
+   */
+  private static final Map<String, MediaType> interned = Maps.uniqueIndex(
+      ImmutableList.of(json, text, plain, css, js, html, octetstream, all, multipart, form, xml,
+          sse),
+      MediaType::name);
+
+  /**
+   * Parsed media types, like <code>Accept</code> headers.
+   */
   private static final LoadingCache<String, List<MediaType>> cache = CacheBuilder.newBuilder()
+      .maximumSize(CACHE_SIZE)
       .build(new CacheLoader<String, List<MediaType>>() {
         @Override
         public List<MediaType> load(final String type) throws Exception {
@@ -314,18 +401,13 @@ public class MediaType implements Comparable<MediaType> {
 
       });
 
-  static {
-    cache.put("html", ImmutableList.of(html));
-    cache.put("json", ImmutableList.of(json));
-    cache.put("css", ImmutableList.of(css));
-    cache.put("js", ImmutableList.of(js));
-    cache.put("octetstream", ImmutableList.of(octetstream));
-    cache.put("form", ImmutableList.of(form));
-    cache.put("multipart", ImmutableList.of(multipart));
-    cache.put("xml", ImmutableList.of(xml));
-    cache.put("plain", ImmutableList.of(plain));
-    cache.put("*", ALL);
-  }
+  /**
+   * Content negotiation results.
+   */
+  private static final Cache<Negotiation, List<MediaType>> negotiations = CacheBuilder
+      .newBuilder()
+      .maximumSize(CACHE_SIZE)
+      .build();
 
   static final Config types = ConfigFactory
       .parseResources("mime.properties")
@@ -364,7 +446,12 @@ public class MediaType implements Comparable<MediaType> {
    * @return The quality of this media type. Default is: 1.
    */
   public float quality() {
-    return Float.valueOf(params.get("q"));
+    float quality = this.quality;
+    if (quality < 0) {
+      quality = Float.valueOf(params.get("q"));
+      this.quality = quality;
+    }
+    return quality;
   }
 
   /**
@@ -549,6 +636,13 @@ public class MediaType implements Comparable<MediaType> {
         checkArgument(!(stype.equals("*") && !subtype.equals("*")),
             "Bad media type found '%s' while parsing '%s'", type, value);
         Map<String, String> parameters = DEFAULT_PARAMS;
+        if (parts.length == 1) {
+          MediaType known = interned.get(stype + "/" + subtype);
+          if (known != null) {
+            result.add(known);
+            continue;
+          }
+        }
         if (parts.length > 1) {
           parameters = new LinkedHashMap<>(DEFAULT_PARAMS);
           for (int i = 1; i < parts.length; i++) {
@@ -589,6 +683,10 @@ public class MediaType implements Comparable<MediaType> {
    * @return One ore more {@link MediaType}.
    */
   public static List<MediaType> parse(final String value) {
+    List<MediaType> alias = aliases.get(value);
+    if (alias != null) {
+      return alias;
+    }
     try {
       return cache.getUnchecked(value);
     } catch (UncheckedExecutionException ex) {
@@ -18,8 +18,11 @@
  */
 package org.jooby;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.channels.FileChannel;
@@ -84,6 +87,16 @@ import com.google.inject.TypeLiteral;
  *
  * API is simple and powerful!
  *
+ * <h2>renderer cache</h2>
+ * <p>
+ * The renderer that writes a response is cached by value type and accepted types (plus the view
+ * name for {@link View}). A value of the same shape goes straight to the cached renderer, skipping
+ * the renderers registered before it. Skipping them is safe only when they decline a value by
+ * looking at its type, so the renderer is cached only if all the renderers before it are
+ * {@link #typeBased()}. Otherwise, the whole chain is executed for every value, so registration
+ * order always wins. A cached renderer that declines a value is discarded.
+ * </p>
+ *
  * @author edgar
  * @since 0.6.0
  */
@@ -228,6 +241,41 @@ public interface Renderer {
      */
     void send(Reader reader) throws Exception;
 
+    /**
+     * Text writer for the HTTP response body. Characters are encoded with {@link #charset()}
+     * straight into response buffers (of <code>server.ResponseBufferSize</code>), so no
+     * intermediate {@link String} copy of the whole body is created. Nothing is sent until the
+     * writer is closed: a failure while writing leaves the response untouched.
+     *
+     * It will set a <code>Content-Length</code> if none was set.
+     *
+     * It will set a <code>Content-Type</code> to {@link MediaType#html} if none was set.
+     *
+     * Default implementation keeps the text in memory and sends it with {@link #send(String)} on
+     * {@link Writer#close()}.
+     *
+     * @return A writer, the response is sent on {@link Writer#close()}.
+     */
+    default Writer writer() {
+      return new StringWriter() {
+        private boolean closed;
+
+        @Override
+        public void close() throws IOException {
+          if (!closed) {
+            closed = true;
+            try {
+              send(toString());
+            } catch (IOException x) {
+              throw x;
+            } catch (Exception x) {
+              throw new IOException(x);
+            }
+          }
+        }
+      };
+    }
+
     /**
      * Write file into the HTTP response body, using OS zero-copy transfer (if possible).
      *
@@ -255,6 +303,17 @@ public interface Renderer {
     return CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_HYPHEN, name);
   }
 
+  /**
+   * True when this renderer accepts or declines a value by looking at its type and the accepted
+   * types only, never at the value itself. Renderers registered after a type based renderer might
+   * be cached and skip it (see renderer cache). Default is: <code>false</code>.
+   *
+   * @return True when this renderer accepts or declines a value by its type.
+   */
+  default boolean typeBased() {
+    return false;
+  }
+
   /**
    * Render the given value and write the response (if possible). If no response is written, the
    * next renderer in the chain will be invoked.
@@ -27,6 +27,7 @@ import java.util.Locale.LanguageRange;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 
 import org.jooby.scope.RequestScoped;
@@ -449,6 +450,22 @@ public interface Request extends Registry {
       return req.timestamp();
     }
 
+    @Override
+    public Optional<Long> deadline() {
+      return req.deadline();
+    }
+
+    @Override
+    public Request deadline(final long timeout, final TimeUnit unit) {
+      req.deadline(timeout, unit);
+      return this;
+    }
+
+    @Override
+    public boolean expired() {
+      return req.expired();
+    }
+
     @Override
     public String toString() {
       return req.toString();
@@ -1217,4 +1234,45 @@ public interface Request extends Registry {
    */
   long timestamp();
 
+  /**
+   * Request deadline (as milliseconds since epoch). A deadline is set from the
+   * <code>server.http.Deadline</code> property, the header defined by
+   * <code>server.http.DeadlineHeader</code> (a timeout in milliseconds) or a <code>deadline</code>
+   * route attribute.
+   *
+   * Once the deadline has passed, the route chain is interrupted with a <code>504</code> error and
+   * pending {@link Deferred} executions are cancelled.
+   *
+   * @return Request deadline or empty for no deadline.
+   */
+  default Optional<Long> deadline() {
+    return Optional.empty();
+  }
+
+  /**
+   * Set a request deadline, relative to {@link #timestamp()}. A deadline can't be extended: the
+   * earliest deadline always wins. Default implementation ignores the deadline.
+   *
+   * @param timeout Max time the request is allowed to take.
+   * @param unit Time unit.
+   * @return This request.
+   */
+  default Request deadline(final long timeout, final TimeUnit unit) {
+    return this;
+  }
+
+  /**
+   * True when the request deadline has passed or when the client went away before the response
+   * was sent. Long running handlers might check this flag and stop working on abandoned requests.
+   *
+   * Default implementation only checks the {@link #deadline()}, so it is always
+   * <code>false</code> for requests without a deadline. Server requests also report clients that
+   * went away.
+   *
+   * @return True when the request deadline has passed or the client went away.
+   */
+  default boolean expired() {
+    return deadline().map(deadline -> System.currentTimeMillis() >= deadline).orElse(false);
+  }
+
 }
@@ -23,9 +23,11 @@ import static java.util.Objects.requireNonNull;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
+import org.jooby.internal.LogRing;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -177,6 +179,28 @@ import org.slf4j.LoggerFactory;
  * }
  * }</pre>
  *
+ * <p>
+ * The default formatter (and the time zone variant) formats a date once per second, requests
+ * arriving in the same second reuse the previous output.
+ * </p>
+ *
+ * <h2>async</h2>
+ *
+ * <pre>{@code
+ * {
+ *   use("*", new RequestLogger()
+ *      .async());
+ * }
+ * }</pre>
+ *
+ * <p>
+ * Request threads copy the NCSA line into a bounded ring buffer and a background thread (named
+ * <code>request-logger</code>) calls the log function. Logging never blocks a request: when the
+ * buffer is full the line is dropped and counted, see {@link #dropped()}. Lines are truncated to
+ * <code>1024</code> characters. The background thread starts with the application and stops
+ * (after writing pending lines) when the application stops.
+ * </p>
+ *
  * @author edgar
  * @since 1.0.0
  */
@@ -198,8 +222,26 @@ public class RequestLogger implements Route.Handler {
   private static final char BR = ']';
   private static final char Q = '\"';
 
+  private static final int RECORD_SIZE = 1024;
+
   private static Function<Request, String> ANNON = req -> DASH;
 
+  /** Reusable line buffer. */
+  private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal
+      .withInitial(() -> new StringBuilder(256));
+
+  /** Formatted date and the second it belongs to. */
+  private static class Second {
+    final long value;
+
+    final String text;
+
+    Second(final long value, final String text) {
+      this.value = value;
+      this.text = text;
+    }
+  }
+
   /** The logging system. */
   private final Logger log = LoggerFactory.getLogger(getClass());
 
@@ -213,6 +255,11 @@ public class RequestLogger implements Route.Handler {
 
   private boolean extended;
 
+  /** Async buffer capacity or <code>0</code> for sync logging. */
+  private int capacity;
+
+  private volatile LogRing ring;
+
   /**
    * Creates a new {@link RequestLogger} and use the given function and userId provider. Please
    * note, if the user isn't present this function is allowed to returns <code>-</code> (dash
@@ -222,7 +269,7 @@ public class RequestLogger implements Route.Handler {
    */
   public RequestLogger(final Function<Request, String> userId) {
     this.userId = requireNonNull(userId, "User ID provider required.");
-    dateFormatter(FORMATTER);
+    dateFormatter(FORMATTER.getZone());
   }
 
   /**
@@ -236,7 +283,8 @@ public class RequestLogger implements Route.Handler {
   public void handle(final Request req, final Response rsp) throws Throwable {
     /** Push complete callback . */
     rsp.complete((ereq, ersp, x) -> {
-      StringBuilder sb = new StringBuilder(256);
+      StringBuilder sb = BUFFER.get();
+      sb.setLength(0);
       long timestamp = req.timestamp();
       sb.append(req.ip());
       sb.append(SP).append(DASH).append(SP);
@@ -264,7 +312,12 @@ public class RequestLogger implements Route.Handler {
         sb.append(SP);
         sb.append(now - timestamp);
       }
-      logRecord.accept(sb.toString());
+      LogRing ring = this.ring;
+      if (ring == null) {
+        logRecord.accept(sb.toString());
+      } else {
+        ring.offer(sb);
+      }
     });
   }
 
@@ -317,7 +370,19 @@ public class RequestLogger implements Route.Handler {
    * @return This instance.
    */
   public RequestLogger dateFormatter(final ZoneId zoneId) {
-    return dateFormatter(FORMATTER.withZone(zoneId));
+    requireNonNull(zoneId, "Zone required.");
+    DateTimeFormatter formatter = FORMATTER.withZone(zoneId);
+    // format pattern has seconds precision, so format once per second
+    AtomicReference<Second> cache = new AtomicReference<>(new Second(Long.MIN_VALUE, null));
+    return dateFormatter(ts -> {
+      long second = Math.floorDiv(ts, 1000L);
+      Second it = cache.get();
+      if (it.value != second) {
+        it = new Second(second, formatter.format(Instant.ofEpochMilli(ts)));
+        cache.set(it);
+      }
+      return it.text;
+    });
   }
 
   /**
@@ -341,4 +406,62 @@ public class RequestLogger implements Route.Handler {
     return this;
   }
 
+  /**
+   * Log from a background thread. NCSA lines are saved into a bounded buffer of
+   * <code>1024</code> lines, lines are dropped when the buffer is full. The background thread
+   * starts and stops with the application.
+   *
+   * @return This instance.
+   */
+  public RequestLogger async() {
+    return async(1024);
+  }
+
+  /**
+   * Log from a background thread. NCSA lines are saved into a bounded buffer of the given
+   * capacity (rounded up to a power of two), lines are dropped when the buffer is full. The
+   * background thread starts and stops with the application.
+   *
+   * @param capacity Max number of pending lines.
+   * @return This instance.
+   */
+  public RequestLogger async(final int capacity) {
+    this.capacity = capacity;
+    return this;
+  }
+
+  /**
+   * Start the async buffer (if any) on application start and stop it (pending lines are written
+   * first) on application stop. Lines are logged synchronously outside of that window.
+   *
+   * @param lifeCycle Application life cycle.
+   */
+  void lifeCycle(final LifeCycle lifeCycle) {
+    if (capacity > 0) {
+      // same logger might be used by more than one route
+      lifeCycle.onStart(() -> {
+        if (ring == null) {
+          ring = new LogRing("request-logger", capacity, RECORD_SIZE,
+              line -> logRecord.accept(line));
+        }
+      });
+      lifeCycle.onStop(() -> {
+        LogRing ring = this.ring;
+        this.ring = null;
+        if (ring != null) {
+          ring.stop();
+        }
+      });
+    }
+  }
+
+  /**
+   * @return Number of lines dropped bc the async buffer was full. Always <code>0</code> when
+   *         logging is synchronous.
+   */
+  public long dropped() {
+    LogRing ring = this.ring;
+    return ring == null ? 0 : ring.dropped();
+  }
+
 }
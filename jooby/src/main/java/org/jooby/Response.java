@@ -181,6 +181,11 @@ public interface Response {
       rsp.end();
     }
 
+    @Override
+    public boolean etag(final Object version) {
+      return rsp.etag(version);
+    }
+
     @Override
     public void redirect(final String location) throws Throwable {
       rsp.redirect(location);
@@ -627,6 +632,36 @@ public interface Response {
    */
   void end();
 
+  /**
+   * Set a strong <code>ETag</code> header from a cheap version token (a revision number, a
+   * last updated timestamp, a hash, etc...) and check it against the <code>If-None-Match</code>
+   * header. If the client has a fresh copy, the response ends with <code>304</code> and rendering
+   * is skipped:
+   *
+   * <pre>
+   *   get("/items", (req, rsp) {@literal ->} {
+   *     if (rsp.etag(repo.version())) {
+   *       // 304, nothing to do
+   *       return;
+   *     }
+   *     rsp.send(repo.list());
+   *   });
+   * </pre>
+   *
+   * <p>
+   * Default implementation sets the <code>ETag</code> header only (it has no access to the
+   * request), so it always returns <code>false</code>.
+   * </p>
+   *
+   * @param version A version token, must change when the representation does.
+   * @return True if the response ends with <code>304</code>.
+   */
+  default boolean etag(final Object version) {
+    String etag = version.toString();
+    header("ETag", etag.startsWith("\"") || etag.startsWith("W/\"") ? etag : "\"" + etag + "\"");
+    return false;
+  }
+
   /**
    * Append an after handler, will be execute before sending response.
    *
@@ -20,11 +20,17 @@ package org.jooby;
 
 import static java.util.Objects.requireNonNull;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import com.google.common.io.BaseEncoding;
 
@@ -127,6 +133,9 @@ public interface Session {
     /** Save interval. */
     private Long saveInterval;
 
+    /** Session codec. */
+    private Codec codec;
+
     /**
      * Creates a new session definition.
      *
@@ -174,6 +183,25 @@ public interface Session {
       return this;
     }
 
+    /**
+     * @return Codec used by distributed stores to encode/decode sessions.
+     */
+    public Optional<Codec> codec() {
+      return Optional.ofNullable(codec);
+    }
+
+    /**
+     * Set/override the codec used by distributed stores to encode/decode sessions. Default is
+     * {@link BinaryCodec}.
+     *
+     * @param codec A session codec.
+     * @return This definition.
+     */
+    public Definition codec(final Codec codec) {
+      this.codec = requireNonNull(codec, "A session codec is required.");
+      return this;
+    }
+
     /**
      * @return A session store instance or class.
      */
@@ -217,6 +245,17 @@ public interface Session {
 
     void create(final Session session);
 
+    /**
+     * Persist a session whose attributes didn't change, only the access and save times did.
+     * Stores might override this method to update the times without writing the attributes again.
+     * Default is {@link #save(Session)}.
+     *
+     * @param session A session to be persisted.
+     */
+    default void touch(final Session session) {
+      save(session);
+    }
+
     /**
      * Delete a session by ID.
      *
@@ -267,6 +306,253 @@ public interface Session {
 
   }
 
+  /**
+   * Encode and decode a session to/from bytes. Used by distributed {@link Store stores} that keep
+   * a session as a single binary value (hazelcast, memcached, redis, etc...).
+   *
+   * A custom codec is set via {@link Definition#codec(Codec)}, default is {@link BinaryCodec}.
+   *
+   * @author edgar
+   * @since 1.0.0
+   */
+  interface Codec {
+
+    /**
+     * Encode a session.
+     *
+     * @param session Session to encode.
+     * @return Encoded session.
+     */
+    byte[] encode(Session session);
+
+    /**
+     * Decode a session previously encoded by {@link #encode(Session)}.
+     *
+     * @param builder A session builder.
+     * @param bytes Encoded session.
+     * @return A session or <code>null</code> when the data is in a unknown format.
+     */
+    Session decode(Session.Builder builder, byte[] bytes);
+  }
+
+  /**
+   * Compact and versioned binary {@link Codec}. The format is:
+   *
+   * <pre>
+   * version:byte flags:byte createdAt:varint accessedAt:varint savedAt:varint
+   *   size:varint (name:string value:string)*
+   * </pre>
+   *
+   * <p>
+   * <code>accessedAt</code> and <code>savedAt</code> are saved as a delta from
+   * <code>createdAt</code> and strings as varint length plus UTF-8 bytes. Attributes are deflated
+   * when they are larger than the compression threshold. Times are never compressed, so
+   * {@link #touch(byte[], long, long)} is able to update them without touching the attributes.
+   * </p>
+   * <p>
+   * Unknown versions decode to <code>null</code>, so a session saved by a newer format is treated
+   * as expired (not as an error).
+   * </p>
+   *
+   * @author edgar
+   * @since 1.0.0
+   */
+  class BinaryCodec implements Codec {
+
+    /** Current format version. */
+    public static final byte VERSION = 1;
+
+    private static final int DEFLATE = 0x01;
+
+    private final int compressAbove;
+
+    /**
+     * Creates a new {@link BinaryCodec}.
+     *
+     * @param compressAbove Compress sessions larger than the given size (in bytes). Zero or less
+     *        turns off compression.
+     */
+    public BinaryCodec(final int compressAbove) {
+      this.compressAbove = compressAbove;
+    }
+
+    /**
+     * Creates a new {@link BinaryCodec} without compression.
+     */
+    public BinaryCodec() {
+      this(0);
+    }
+
+    @Override
+    public byte[] encode(final Session session) {
+      Map<String, String> attributes = session.attributes();
+      ByteArrayOutputStream body = new ByteArrayOutputStream(16 + attributes.size() * 16);
+      writeInt(body, attributes.size());
+      attributes.forEach((name, value) -> {
+        writeString(body, name);
+        writeString(body, value);
+      });
+      int flags = 0;
+      byte[] payload = body.toByteArray();
+      if (compressAbove > 0 && payload.length > compressAbove) {
+        payload = deflate(payload);
+        flags |= DEFLATE;
+      }
+      ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length + 24);
+      out.write(VERSION);
+      out.write(flags);
+      writeTimes(out, session.createdAt(), session.accessedAt(), session.savedAt());
+      out.write(payload, 0, payload.length);
+      return out.toByteArray();
+    }
+
+    @Override
+    public Session decode(final Session.Builder builder, final byte[] bytes) {
+      if (bytes.length < 2 || bytes[0] != VERSION) {
+        return null;
+      }
+      ByteBuffer in = ByteBuffer.wrap(bytes, 2, bytes.length - 2);
+      long createdAt = readLong(in);
+      builder.createdAt(createdAt)
+          .accessedAt(createdAt + readLong(in))
+          .savedAt(createdAt + readLong(in));
+      if ((bytes[1] & DEFLATE) != 0) {
+        in = ByteBuffer.wrap(inflate(bytes, in.position(), in.remaining()));
+      }
+      int size = readInt(in);
+      for (int i = 0; i < size; i++) {
+        builder.set(readString(in), readString(in));
+      }
+      return builder.build();
+    }
+
+    /**
+     * Update access and save times of a session encoded by {@link BinaryCodec}. Attributes are
+     * copied as they are (no decoding, no inflating).
+     *
+     * @param bytes Encoded session.
+     * @param accessedAt New access time.
+     * @param savedAt New save time.
+     * @return Encoded session with the new times or <code>null</code> when the data is in a
+     *         unknown format.
+     */
+    public static byte[] touch(final byte[] bytes, final long accessedAt, final long savedAt) {
+      if (bytes.length < 2 || bytes[0] != VERSION) {
+        return null;
+      }
+      ByteBuffer in = ByteBuffer.wrap(bytes, 2, bytes.length - 2);
+      long createdAt = readLong(in);
+      readLong(in);
+      readLong(in);
+      ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length + 8);
+      out.write(bytes, 0, 2);
+      writeTimes(out, createdAt, accessedAt, savedAt);
+      out.write(bytes, in.position(), in.remaining());
+      return out.toByteArray();
+    }
+
+    private static void writeTimes(final ByteArrayOutputStream out, final long createdAt,
+        final long accessedAt, final long savedAt) {
+      writeLong(out, createdAt);
+      writeLong(out, accessedAt - createdAt);
+      writeLong(out, savedAt - createdAt);
+    }
+
+    private static void writeLong(final ByteArrayOutputStream out, final long value) {
+      // zigzag, so small negative values (like -1) are small too
+      long n = (value << 1) ^ (value >> 63);
+      while ((n & ~0x7FL) != 0) {
+        out.write((int) ((n & 0x7F) | 0x80));
+        n >>>= 7;
+      }
+      out.write((int) n);
+    }
+
+    private static void writeInt(final ByteArrayOutputStream out, final int value) {
+      int n = value;
+      while ((n & ~0x7F) != 0) {
+        out.write((n & 0x7F) | 0x80);
+        n >>>= 7;
+      }
+      out.write(n);
+    }
+
+    private static void writeString(final ByteArrayOutputStream out, final String value) {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      writeInt(out, bytes.length);
+      out.write(bytes, 0, bytes.length);
+    }
+
+    private static long readLong(final ByteBuffer in) {
+      long n = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = in.get();
+        n |= (long) (b & 0x7F) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      return (n >>> 1) ^ -(n & 1);
+    }
+
+    private static int readInt(final ByteBuffer in) {
+      int n = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = in.get();
+        n |= (b & 0x7F) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      return n;
+    }
+
+    private static String readString(final ByteBuffer in) {
+      int len = readInt(in);
+      String value = new String(in.array(), in.arrayOffset() + in.position(), len,
+          StandardCharsets.UTF_8);
+      in.position(in.position() + len);
+      return value;
+    }
+
+    private static byte[] deflate(final byte[] bytes) {
+      Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+      try {
+        deflater.setInput(bytes);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+        byte[] buffer = new byte[512];
+        while (!deflater.finished()) {
+          out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        return out.toByteArray();
+      } finally {
+        deflater.end();
+      }
+    }
+
+    private static byte[] inflate(final byte[] bytes, final int offset, final int len) {
+      Inflater inflater = new Inflater();
+      try {
+        inflater.setInput(bytes, offset, len);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(len * 2);
+        byte[] buffer = new byte[512];
+        while (!inflater.finished()) {
+          int count = inflater.inflate(buffer);
+          if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+            throw new IllegalArgumentException("Truncated session data");
+          }
+          out.write(buffer, 0, count);
+        }
+        return out.toByteArray();
+      } catch (DataFormatException ex) {
+        throw new IllegalArgumentException("Corrupted session data", ex);
+      } finally {
+        inflater.end();
+      }
+    }
+  }
+
   /**
    * Build or restore a session from a persistent storage.
    *
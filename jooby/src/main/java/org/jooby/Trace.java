@@ -0,0 +1,595 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.slf4j.MDC;
+
+/**
+ * <h1>request tracing</h1>
+ * <p>
+ * A lightweight trace of a request: a root span (the request itself) with a child span per route
+ * (filter or handler) and per {@link Deferred} execution. Spans keep start and end timestamps, so
+ * you get a per-stage breakdown of the request latency.
+ * </p>
+ *
+ * <h2>usage</h2>
+ * <p>
+ * Tracing is off by default, turn it on with:
+ * </p>
+ *
+ * <pre>
+ * server.http.Trace = true
+ * </pre>
+ *
+ * <p>
+ * A trace continues the trace of the caller when the request has a
+ * <a href="https://www.w3.org/TR/trace-context/">W3C</a> <code>traceparent</code> header (see
+ * <code>server.http.TraceHeader</code>). The current trace is available from the request thread
+ * and from {@link Deferred} threads:
+ * </p>
+ *
+ * <pre>{@code
+ * {
+ *   get("/", req -> {
+ *     Trace trace = Trace.current().get();
+ *     // propagate to a downstream service
+ *     String traceparent = trace.traceparent();
+ *     ...
+ *   });
+ * }
+ * }</pre>
+ *
+ * <p>
+ * While a trace is bound to a thread, the trace ID is available in the logging {@link MDC} as
+ * <code>traceId</code>. Use {@link #wrap(Runnable)} or {@link #wrap(Executor)} for keeping the
+ * trace and the {@link MDC} across your own thread hops.
+ * </p>
+ *
+ * <p>
+ * Finished traces are sent to a {@link Trace.Exporter}. Default exporter keeps the last
+ * <code>server.http.TraceBuffer</code> traces in memory (see {@link Trace.Memory}), bind your
+ * own {@link Trace.Exporter} for sending traces somewhere else.
+ * </p>
+ *
+ * @author edgar
+ * @since 1.0.0
+ */
+public class Trace {
+
+  /**
+   * A timed operation within a trace.
+   *
+   * @author edgar
+   * @since 1.0.0
+   */
+  public static class Span {
+
+    private final Trace trace;
+
+    private final Span parent;
+
+    private final String id;
+
+    private final String name;
+
+    private final long start;
+
+    private volatile long end;
+
+    Span(final Trace trace, final Span parent, final String name) {
+      this.trace = trace;
+      this.parent = parent;
+      this.id = trace == null ? "" : hex(ThreadLocalRandom.current().nextLong());
+      this.name = name;
+      this.start = System.nanoTime();
+    }
+
+    /**
+     * @return Span ID.
+     */
+    public String id() {
+      return id;
+    }
+
+    /**
+     * @return Parent span ID, the root span ID for top level spans.
+     */
+    public String parent() {
+      if (parent == null) {
+        return trace == null ? "" : trace.id;
+      }
+      return parent.id;
+    }
+
+    /**
+     * @return Span name.
+     */
+    public String name() {
+      return name;
+    }
+
+    /**
+     * @return Start time in nanos (see {@link System#nanoTime()}).
+     */
+    public long start() {
+      return start;
+    }
+
+    /**
+     * @return End time in nanos (see {@link System#nanoTime()}) or <code>0</code> while running.
+     */
+    public long end() {
+      return end;
+    }
+
+    /**
+     * @param unit Time unit.
+     * @return Span duration, up to now while running.
+     */
+    public long duration(final TimeUnit unit) {
+      long end = this.end;
+      return unit.convert((end == 0 ? System.nanoTime() : end) - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Finish this span. Subsequent calls are ignored.
+     */
+    public void finish() {
+      // no-op span has no trace
+      if (trace != null && end == 0) {
+        end = System.nanoTime();
+        if (SPAN.get() == this) {
+          bind(parent);
+        }
+      }
+    }
+
+    @Override
+    public String toString() {
+      return name + " " + duration(TimeUnit.MICROSECONDS) + "us";
+    }
+  }
+
+  /**
+   * Receives finished traces.
+   *
+   * @author edgar
+   * @since 1.0.0
+   */
+  public interface Exporter {
+
+    /**
+     * Export a finished trace. Called from the thread who finished the request, so don't block.
+     *
+     * @param trace A finished trace.
+     */
+    void export(Trace trace);
+  }
+
+  /**
+   * Default {@link Exporter}, keeps the last <code>n</code> traces in memory.
+   *
+   * <pre>{@code
+   * {
+   *   get("/traces", req -> req.require(Trace.Memory.class).traces());
+   * }
+   * }</pre>
+   *
+   * @author edgar
+   * @since 1.0.0
+   */
+  @Singleton
+  public static class Memory implements Exporter {
+
+    private final int size;
+
+    private final ArrayDeque<Trace> traces;
+
+    /**
+     * Creates a new {@link Memory} exporter.
+     *
+     * @param size Max number of traces to keep.
+     */
+    @Inject
+    public Memory(@Named("server.http.TraceBuffer") final int size) {
+      this.size = Math.max(1, size);
+      this.traces = new ArrayDeque<>(this.size);
+    }
+
+    @Override
+    public synchronized void export(final Trace trace) {
+      if (traces.size() == size) {
+        traces.removeFirst();
+      }
+      traces.addLast(trace);
+    }
+
+    /**
+     * @return Last traces, oldest first.
+     */
+    public synchronized List<Trace> traces() {
+      return new ArrayList<>(traces);
+    }
+  }
+
+  /** MDC key with the trace ID. */
+  public static final String MDC_KEY = "traceId";
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private static final String INVALID_TRACE = "00000000000000000000000000000000";
+
+  private static final String INVALID_SPAN = "0000000000000000";
+
+  private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+
+  /** Current span of the trace bound to a thread, <code>null</code> for the root span. */
+  private static final ThreadLocal<Span> SPAN = new ThreadLocal<>();
+
+  private static final Span NOOP = new Span(null, null, "noop");
+
+  private final String traceId;
+
+  private final String parentId;
+
+  private final String id;
+
+  private final String flags;
+
+  private final String name;
+
+  private final long timestamp;
+
+  private final long start;
+
+  private volatile long end;
+
+  private final List<Span> spans = Collections.synchronizedList(new ArrayList<>());
+
+  private Trace(final String name, final String traceId, final String parentId,
+      final String flags) {
+    this.name = requireNonNull(name, "A name is required.");
+    this.traceId = traceId;
+    this.parentId = parentId;
+    this.flags = flags;
+    this.id = hex(ThreadLocalRandom.current().nextLong());
+    this.timestamp = System.currentTimeMillis();
+    this.start = System.nanoTime();
+  }
+
+  /**
+   * Creates a new trace.
+   *
+   * @param name Trace name, like: <code>GET /path</code>.
+   */
+  public Trace(final String name) {
+    this(name, newTraceId(), null, "01");
+  }
+
+  /**
+   * Creates a new trace, child of the given W3C <code>traceparent</code>. A new trace is
+   * created when the <code>traceparent</code> is missing or invalid.
+   *
+   * @param name Trace name, like: <code>GET /path</code>.
+   * @param traceparent A W3C <code>traceparent</code> value, like:
+   *        <code>00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01</code>. Optional.
+   * @return A new trace.
+   */
+  public static Trace of(final String name, final String traceparent) {
+    if (traceparent != null) {
+      String value = traceparent.trim();
+      int len = value.length();
+      // version-traceid-parentid-flags, newer versions might add fields
+      if (len >= 55 && (len == 55 || value.charAt(55) == '-')
+          && value.charAt(2) == '-' && value.charAt(35) == '-' && value.charAt(52) == '-') {
+        String version = value.substring(0, 2);
+        String traceId = value.substring(3, 35);
+        String parentId = value.substring(36, 52);
+        String flags = value.substring(53, 55);
+        if (hex(version) && !version.equals("ff") && (len == 55 || !version.equals("00"))
+            && hex(traceId) && !traceId.equals(INVALID_TRACE)
+            && hex(parentId) && !parentId.equals(INVALID_SPAN) && hex(flags)) {
+          return new Trace(name, traceId, parentId, flags);
+        }
+      }
+    }
+    return new Trace(name);
+  }
+
+  /**
+   * @return Trace ID (32 hex chars).
+   */
+  public String traceId() {
+    return traceId;
+  }
+
+  /**
+   * @return ID of the root span (16 hex chars).
+   */
+  public String id() {
+    return id;
+  }
+
+  /**
+   * @return ID of the remote parent span, present when the trace was created from a
+   *         <code>traceparent</code>.
+   */
+  public Optional<String> parentId() {
+    return Optional.ofNullable(parentId);
+  }
+
+  /**
+   * @return Trace name.
+   */
+  public String name() {
+    return name;
+  }
+
+  /**
+   * @return Start time in millis (epoch).
+   */
+  public long timestamp() {
+    return timestamp;
+  }
+
+  /**
+   * @param unit Time unit.
+   * @return Trace duration, up to now while running.
+   */
+  public long duration(final TimeUnit unit) {
+    long end = this.end;
+    return unit.convert((end == 0 ? System.nanoTime() : end) - start, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @return Span snapshot, in start order.
+   */
+  public List<Span> spans() {
+    synchronized (spans) {
+      return new ArrayList<>(spans);
+    }
+  }
+
+  /**
+   * @return A W3C <code>traceparent</code> value for downstream calls, with the current span of
+   *         the caller thread as parent.
+   */
+  public String traceparent() {
+    Span current = current(this);
+    return "00-" + traceId + "-" + (current == null ? id : current.id) + "-" + flags;
+  }
+
+  /**
+   * Start a new span. The span is a child of the current span of the caller thread (if any) and
+   * becomes the current span of the caller thread until {@link Span#finish()}. Current span is
+   * kept per thread, so it only applies while this trace is bound to the caller thread (see
+   * {@link #enter(Trace)}).
+   *
+   * @param name Span name.
+   * @return A new span.
+   */
+  public Span span(final String name) {
+    Span span = fork(name);
+    if (CURRENT.get() == this) {
+      bind(span);
+    }
+    return span;
+  }
+
+  /**
+   * Start a new span, child of the current span of the caller thread (if any). Unlike
+   * {@link #span(String)} the caller thread keeps its current span, so it is useful for work
+   * handed off to another thread, see {@link #enter(Trace, Span)}.
+   *
+   * @param name Span name.
+   * @return A new span.
+   */
+  public Span fork(final String name) {
+    Span span = new Span(this, current(this), name);
+    spans.add(span);
+    return span;
+  }
+
+  /**
+   * Finish this trace. Subsequent calls are ignored.
+   */
+  public void finish() {
+    if (end == 0) {
+      end = System.nanoTime();
+    }
+  }
+
+  /**
+   * @return Trace bound to the current thread.
+   */
+  public static Optional<Trace> current() {
+    return Optional.ofNullable(CURRENT.get());
+  }
+
+  /**
+   * Start a new span in the trace bound to the current thread. If there is no trace, a no-op
+   * span is returned.
+   *
+   * @param name Span name.
+   * @return A new span.
+   */
+  public static Span start(final String name) {
+    Trace trace = CURRENT.get();
+    return trace == null ? NOOP : trace.span(name);
+  }
+
+  /**
+   * Bind a trace to the current thread and set the <code>traceId</code> {@link MDC} entry.
+   *
+   * @param trace Trace to bind or <code>null</code>.
+   */
+  public static void enter(final Trace trace) {
+    enter(trace, null);
+  }
+
+  /**
+   * Bind a trace to the current thread, with the given span as current span, and set the
+   * <code>traceId</code> {@link MDC} entry.
+   *
+   * @param trace Trace to bind or <code>null</code>.
+   * @param span Current span or <code>null</code> for the root span.
+   */
+  public static void enter(final Trace trace, final Span span) {
+    if (trace == null) {
+      exit();
+    } else {
+      CURRENT.set(trace);
+      bind(span != null && span.trace == trace ? span : null);
+      MDC.put(MDC_KEY, trace.traceId);
+    }
+  }
+
+  /**
+   * Unbind the trace (and current span) from the current thread and remove the
+   * <code>traceId</code> {@link MDC} entry.
+   */
+  public static void exit() {
+    CURRENT.remove();
+    SPAN.remove();
+    MDC.remove(MDC_KEY);
+  }
+
+  /**
+   * Capture the trace, current span and {@link MDC} of the current thread and restore them while
+   * running the task (likely from a different thread). The task is returned as it is when there
+   * is nothing to capture.
+   *
+   * @param task Task to wrap.
+   * @return A task who runs with the caller trace, span and {@link MDC}.
+   */
+  public static Runnable wrap(final Runnable task) {
+    requireNonNull(task, "A task is required.");
+    Trace trace = CURRENT.get();
+    Span span = SPAN.get();
+    Map<String, String> mdc = MDC.getCopyOfContextMap();
+    if (trace == null && (mdc == null || mdc.isEmpty())) {
+      return task;
+    }
+    return () -> {
+      Trace prevTrace = CURRENT.get();
+      Span prevSpan = SPAN.get();
+      Map<String, String> prevMdc = MDC.getCopyOfContextMap();
+      try {
+        set(mdc);
+        if (trace != null) {
+          enter(trace, span);
+        }
+        task.run();
+      } finally {
+        set(prevMdc);
+        if (prevTrace == null) {
+          CURRENT.remove();
+        } else {
+          CURRENT.set(prevTrace);
+        }
+        bind(prevSpan);
+      }
+    };
+  }
+
+  /**
+   * Wrap an executor, so tasks run with the trace and {@link MDC} of the caller thread.
+   *
+   * @param executor Executor to wrap.
+   * @return An executor who propagates the trace and {@link MDC}.
+   */
+  public static Executor wrap(final Executor executor) {
+    requireNonNull(executor, "An executor is required.");
+    return task -> executor.execute(wrap(task));
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buff = new StringBuilder();
+    buff.append(name).append(" ").append(duration(TimeUnit.MICROSECONDS)).append("us [")
+        .append(traceId).append("]");
+    for (Span span : spans()) {
+      buff.append("\n  ");
+      for (Span it = span.parent; it != null; it = it.parent) {
+        buff.append("  ");
+      }
+      buff.append(span);
+    }
+    return buff.toString();
+  }
+
+  private static Span current(final Trace trace) {
+    return CURRENT.get() == trace ? SPAN.get() : null;
+  }
+
+  private static void bind(final Span span) {
+    if (span == null) {
+      SPAN.remove();
+    } else {
+      SPAN.set(span);
+    }
+  }
+
+  private static void set(final Map<String, String> mdc) {
+    if (mdc == null) {
+      MDC.clear();
+    } else {
+      MDC.setContextMap(mdc);
+    }
+  }
+
+  private static String newTraceId() {
+    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+    return hex(rnd.nextLong() | 1L) + hex(rnd.nextLong());
+  }
+
+  private static String hex(final long value) {
+    char[] chars = new char[16];
+    for (int i = 15; i >= 0; i--) {
+      chars[i] = HEX[(int) (value >>> ((15 - i) * 4)) & 0xf];
+    }
+    return new String(chars);
+  }
+
+  private static boolean hex(final String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char ch = value.charAt(i);
+      if (!(ch >= '0' && ch <= '9' || ch >= 'a' && ch <= 'f')) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -21,8 +21,10 @@ package org.jooby;
 import static java.util.Objects.requireNonNull;
 
 import java.io.FileNotFoundException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Special result that hold view name and model. It will be processed by a {@link View.Engine}.
@@ -41,6 +43,13 @@ public class View extends Result {
    * {@link FileNotFoundException} when a template can't be resolved it.
    * This gives the chance to the next view resolver to load the template.
    *
+   * Templates are compiled on first use. Engines that implement {@link #templates()} and
+   * {@link #compile(String)} can compile them at startup time, in parallel:
+   *
+   * <pre>
+   * view.warmup.enabled = true
+   * </pre>
+   *
    * @author edgar
    * @since 0.1.0
    */
@@ -66,6 +75,27 @@ public class View extends Result {
     void render(final View viewable, final Renderer.Context ctx) throws FileNotFoundException,
         Exception;
 
+    /**
+     * View names this engine is able to compile ahead of time. Used at startup time when
+     * <code>view.warmup.enabled = true</code>. Default is: none.
+     *
+     * @return View names.
+     * @throws Exception If templates can't be listed.
+     */
+    default Set<String> templates() throws Exception {
+      return Collections.emptySet();
+    }
+
+    /**
+     * Compile a template and keep it in the engine cache, so the first request doesn't pay for
+     * it. Called from multiple threads at startup time (see {@link #templates()}).
+     *
+     * @param name View name.
+     * @throws Exception If template is missing or doesn't compile.
+     */
+    default void compile(final String name) throws Exception {
+    }
+
   }
 
   /** View's name. */
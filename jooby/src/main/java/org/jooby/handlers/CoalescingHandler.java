@@ -0,0 +1,220 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.handlers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import org.jooby.Deferred;
+import org.jooby.Err;
+import org.jooby.Request;
+import org.jooby.Response;
+import org.jooby.Route;
+import org.jooby.Status;
+import org.jooby.internal.BufferedResponse;
+import org.jooby.internal.EncodedResult;
+import org.jooby.internal.ResponseImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <h1>request coalescing</h1>
+ * <p>
+ * Detects concurrent identical <code>GET</code> requests (same path, query string and
+ * <code>Accept</code> header) and executes the route once. The response (status, headers and
+ * encoded body) of the first request is sent to all the requests that arrived while it was
+ * running:
+ * </p>
+ *
+ * <pre>
+ * {
+ *   use("GET", "/api/**", new CoalescingHandler());
+ *
+ *   get("/api/products", () {@literal ->} ...);
+ * }
+ * </pre>
+ *
+ * <p>
+ * Waiting requests are {@link Deferred}, they don't hold a worker thread while waiting. Once the
+ * response is ready, they are resumed from the common fork-join pool and complete like any other
+ * deferred request: {@link Route.Complete} listeners are notified and request logs are written.
+ * </p>
+ *
+ * <h2>options</h2>
+ * <p>
+ * {@link #maxWaiters(int)} set the number of requests allowed to wait for a single execution,
+ * once reached requests are executed as usual. Default is: <code>1000</code>.
+ * </p>
+ * <p>
+ * {@link #timeout(long, TimeUnit)} set how long requests are allowed to wait. Waiting requests
+ * get a <code>504</code> response once it is reached. Default is: <code>30s</code>.
+ * </p>
+ * <p>
+ * {@link #vary(String...)} add request headers to the set of headers that identify a request.
+ * </p>
+ *
+ * <h2>what is shared?</h2>
+ * <p>
+ * Everything but cookies. Routes that stream the response (files, input streams) can't be shared,
+ * waiting requests get a <code>503</code> response. Only routes that produce the same response for
+ * every user should be coalesced.
+ * </p>
+ *
+ * @author edgar
+ * @since 1.0.0
+ */
+public class CoalescingHandler implements Route.Filter {
+
+  private static final String SET_COOKIE = "Set-Cookie";
+
+  /** The logging system. */
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  final Flights<EncodedResult> flights = new Flights<>();
+
+  private Set<String> vary = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+  /**
+   * Creates a new {@link CoalescingHandler}.
+   */
+  public CoalescingHandler() {
+    vary.add("Accept");
+  }
+
+  /**
+   * Set the max number of requests allowed to wait for a single execution. Default is:
+   * <code>1000</code>.
+   *
+   * @param maxWaiters Max number of waiting requests.
+   * @return This filter.
+   */
+  public CoalescingHandler maxWaiters(final int maxWaiters) {
+    flights.maxWaiters = maxWaiters;
+    return this;
+  }
+
+  /**
+   * Set how long requests are allowed to wait for a response. Default is: <code>30s</code>.
+   *
+   * @param timeout Timeout.
+   * @param unit Time unit.
+   * @return This filter.
+   */
+  public CoalescingHandler timeout(final long timeout, final TimeUnit unit) {
+    flights.timeout = unit.toMillis(timeout);
+    return this;
+  }
+
+  /**
+   * Add request headers to the set of headers that identify a request. The <code>Accept</code>
+   * header is always included.
+   *
+   * @param headers Header names.
+   * @return This filter.
+   */
+  public CoalescingHandler vary(final String... headers) {
+    vary.addAll(Arrays.asList(headers));
+    return this;
+  }
+
+  @Override
+  public void handle(final Request req, final Response rsp, final Route.Chain chain)
+      throws Throwable {
+    Response unwrapped = Response.Forwarding.unwrap(rsp);
+    if (!req.method().equals("GET") || !(unwrapped instanceof ResponseImpl)) {
+      chain.next(req, rsp);
+      return;
+    }
+
+    String key = Flights.key(req, vary);
+    Flights<EncodedResult>.Flight flight = flights.start(key);
+    if (flight != null) {
+      leader(req, rsp, chain, (ResponseImpl) unwrapped, flight);
+      return;
+    }
+    Flights<EncodedResult>.Flight inflight = flights.get(key);
+    if (inflight != null && inflight.reserve()) {
+      rsp.send(new Deferred(deferred -> {
+        // the deferred sends the response from the waiting request scope and fires complete
+        // listeners
+        BiConsumer<EncodedResult, Throwable> waiter = (result, failure) -> {
+          if (deferred.cancelled()) {
+            return;
+          }
+          if (failure != null) {
+            deferred.reject(failure);
+          } else {
+            deferred.resolve(result);
+          }
+        };
+        deferred.onCancel(() -> inflight.cancel(waiter));
+        inflight.await(waiter);
+      }));
+    } else {
+      chain.next(req, rsp);
+    }
+  }
+
+  private void leader(final Request req, final Response rsp, final Route.Chain chain,
+      final ResponseImpl unwrapped, final Flights<EncodedResult>.Flight flight) throws Throwable {
+    String key = flight.key();
+    unwrapped.buffer(buffer -> {
+      EncodedResult result = snapshot(buffer);
+      try {
+        buffer.flush();
+      } catch (Exception x) {
+        log.error("execution of {} resulted in exception", key, x);
+      } finally {
+        if (result == null) {
+          flight.done(null, new Err(Status.SERVICE_UNAVAILABLE,
+              "Streamed response can't be shared: " + key));
+        } else {
+          flight.done(result, null);
+        }
+      }
+    });
+    // release waiters when the response is never buffered
+    rsp.complete((rq, rs, cause) -> flight.done(null, cause.orElseGet(
+        () -> new Err(Status.SERVICE_UNAVAILABLE, "No response: " + key))));
+    chain.next(req, rsp);
+  }
+
+  private static EncodedResult snapshot(final BufferedResponse buffer) {
+    if (buffer.streaming()) {
+      return null;
+    }
+    Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    headers.putAll(buffer.headers());
+    headers.remove(SET_COOKIE);
+    return new EncodedResult(buffer.statusCode(), headers, buffer.body());
+  }
+
+  @Override
+  public String toString() {
+    return "CoalescingHandler[maxWaiters=" + flights.maxWaiters + ", timeout=" + flights.timeout
+        + "ms]";
+  }
+
+}
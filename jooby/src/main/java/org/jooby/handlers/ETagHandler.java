@@ -0,0 +1,127 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.handlers;
+
+import static java.util.Objects.requireNonNull;
+
+import org.jooby.Request;
+import org.jooby.Response;
+import org.jooby.Route;
+import org.jooby.internal.ResponseImpl;
+import org.jooby.spi.NativeResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * <h1>etag</h1>
+ * <p>
+ * Generates a strong <code>ETag</code> header for dynamic <code>GET</code> responses by hashing
+ * the rendered body, and replies with <code>304</code> (no body and no body headers) when the
+ * <code>If-None-Match</code> header matches:
+ * </p>
+ *
+ * <pre>
+ * {
+ *   use("GET", "/api/**", new ETagHandler());
+ *
+ *   get("/api/items", () {@literal ->} ...);
+ * }
+ * </pre>
+ *
+ * <p>
+ * Rendering still happens, but the body is never transmitted to clients with a fresh copy. Routes
+ * that are able to compute a cheap version token should call {@link Response#etag(Object)}, which
+ * skips rendering completely. The filter doesn't hash responses that already have an
+ * <code>ETag</code>.
+ * </p>
+ *
+ * <p>
+ * Only <code>200</code> responses are hashed. Streamed bodies (files and input streams) are sent
+ * as usual without an <code>ETag</code>.
+ * </p>
+ *
+ * @author edgar
+ * @since 1.0.0
+ */
+public class ETagHandler implements Route.Filter {
+
+  private static final String ETAG = "ETag";
+
+  /** The logging system. */
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final HashFunction hash;
+
+  /**
+   * Creates a new {@link ETagHandler}.
+   *
+   * @param hash Hash function to use.
+   */
+  public ETagHandler(final HashFunction hash) {
+    this.hash = requireNonNull(hash, "Hash function is required.");
+  }
+
+  /**
+   * Creates a new {@link ETagHandler} that uses murmur3 (128 bits).
+   */
+  public ETagHandler() {
+    this(Hashing.murmur3_128());
+  }
+
+  @Override
+  public void handle(final Request req, final Response rsp, final Route.Chain chain)
+      throws Throwable {
+    Response unwrapped = Response.Forwarding.unwrap(rsp);
+    if (!req.method().equals("GET") || !(unwrapped instanceof ResponseImpl)) {
+      chain.next(req, rsp);
+      return;
+    }
+
+    ((ResponseImpl) unwrapped).buffer(buffer -> {
+      try {
+        if (!buffer.streaming() && buffer.statusCode() == 200
+            && !buffer.header(ETAG).isPresent()) {
+          String etag = ResponseImpl.etag(hash.hashBytes(buffer.body()).toString());
+          buffer.header(ETAG, etag);
+          if (ResponseImpl.ifNoneMatch(req, etag)) {
+            NativeResponse target = buffer.unwrap();
+            ResponseImpl.notModified(target);
+            target.end();
+            return;
+          }
+        }
+        buffer.flush();
+      } catch (Exception x) {
+        log.error("execution of {} resulted in exception", req.path(), x);
+        buffer.fail();
+      }
+    });
+
+    chain.next(req, rsp);
+  }
+
+  @Override
+  public String toString() {
+    return "ETagHandler[" + hash + "]";
+  }
+
+}
@@ -0,0 +1,199 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.handlers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import org.jooby.Err;
+import org.jooby.Request;
+import org.jooby.Status;
+import org.jooby.internal.Timers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-flight requests by key. The first request (leader) runs the route, concurrent requests with
+ * the same key wait for the outcome. Shared by {@link CoalescingHandler} and
+ * {@link ResponseCache}.
+ *
+ * @param <T> Outcome of a flight.
+ */
+class Flights<T> {
+
+  /**
+   * An in-flight request.
+   */
+  class Flight {
+
+    private final String key;
+
+    private List<BiConsumer<T, Throwable>> waiters = new ArrayList<>();
+
+    private int reserved;
+
+    private boolean done;
+
+    private T value;
+
+    private Throwable failure;
+
+    private volatile ScheduledFuture<?> timeout;
+
+    Flight(final String key) {
+      this.key = key;
+    }
+
+    public String key() {
+      return key;
+    }
+
+    /**
+     * Reserve a waiting slot.
+     *
+     * @return False if the flight is done or there are too many waiters.
+     */
+    public synchronized boolean reserve() {
+      if (done || reserved >= maxWaiters) {
+        return false;
+      }
+      reserved += 1;
+      return true;
+    }
+
+    /**
+     * Notify the waiter once the flight is done, from the {@link Flights} executor. Waiter is
+     * notified from the caller thread when the flight is done already.
+     *
+     * @param waiter Waiter.
+     */
+    public void await(final BiConsumer<T, Throwable> waiter) {
+      synchronized (this) {
+        if (!done) {
+          waiters.add(waiter);
+          return;
+        }
+      }
+      waiter.accept(value, failure);
+    }
+
+    public synchronized void cancel(final BiConsumer<T, Throwable> waiter) {
+      waiters.remove(waiter);
+    }
+
+    /**
+     * Complete the flight. Only the first call counts.
+     *
+     * @param value Outcome or <code>null</code>.
+     * @param failure Failure or <code>null</code>.
+     */
+    public void done(final T value, final Throwable failure) {
+      List<BiConsumer<T, Throwable>> waiters;
+      synchronized (this) {
+        if (done) {
+          return;
+        }
+        done = true;
+        this.value = value;
+        this.failure = failure;
+        waiters = this.waiters;
+        this.waiters = Collections.emptyList();
+      }
+      flights.remove(key, this);
+      ScheduledFuture<?> timeout = this.timeout;
+      if (timeout != null) {
+        timeout.cancel(false);
+      }
+      // resume waiters off the leader thread: leader is still running inside its own request scope
+      for (BiConsumer<T, Throwable> waiter : waiters) {
+        try {
+          executor.execute(() -> waiter.accept(value, failure));
+        } catch (Throwable x) {
+          log.error("in-flight request resulted in exception: {}", key, x);
+        }
+      }
+    }
+  }
+
+  /** The logging system. */
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+
+  /** Resume waiting requests. */
+  Executor executor = ForkJoinPool.commonPool();
+
+  int maxWaiters = 1000;
+
+  long timeout = TimeUnit.SECONDS.toMillis(30);
+
+  /**
+   * Start a new flight. Caller is the leader and must call {@link Flight#done(Object, Throwable)}.
+   * Flights are completed with a <code>504</code> error once the timeout is reached.
+   *
+   * @param key Request key.
+   * @return A new flight or <code>null</code> if there is one for the key already.
+   */
+  public Flight start(final String key) {
+    Flight flight = new Flight(key);
+    if (flights.putIfAbsent(key, flight) != null) {
+      return null;
+    }
+    if (timeout > 0) {
+      flight.timeout = Timers.get().schedule(() -> flight.done(null,
+          new Err(Status.GATEWAY_TIMEOUT, "In-flight request timed out: " + key)),
+          timeout, TimeUnit.MILLISECONDS);
+    }
+    return flight;
+  }
+
+  /**
+   * @param key Request key.
+   * @return In-flight request or <code>null</code>.
+   */
+  public Flight get(final String key) {
+    return flights.get(key);
+  }
+
+  /**
+   * Request key: path, query string and the given headers.
+   *
+   * @param req HTTP request.
+   * @param vary Request headers.
+   * @return Request key.
+   */
+  public static String key(final Request req, final Collection<String> vary) {
+    StringBuilder key = new StringBuilder(req.path());
+    req.queryString().ifPresent(q -> key.append('?').append(q));
+    for (String name : vary) {
+      key.append('|').append(req.header(name).value(""));
+    }
+    return key.toString();
+  }
+
+}
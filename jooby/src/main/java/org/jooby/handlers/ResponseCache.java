@@ -0,0 +1,575 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.handlers;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.jooby.Deferred;
+import org.jooby.Err;
+import org.jooby.Request;
+import org.jooby.Response;
+import org.jooby.Route;
+import org.jooby.Status;
+import org.jooby.internal.BufferedResponse;
+import org.jooby.internal.DurationAttr;
+import org.jooby.internal.EncodedResult;
+import org.jooby.internal.ResponseImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Splitter;
+import com.google.common.primitives.Longs;
+
+/**
+ * <h1>response cache</h1>
+ * <p>
+ * Server side cache for rendered responses. Status, headers and the encoded body of a
+ * <code>GET</code> response are saved in a {@link Store} and replayed (without executing the
+ * route) until they expire:
+ * </p>
+ *
+ * <pre>
+ * {
+ *   use("GET", "/api/**", new ResponseCache(CaffeineResponseStore.class)
+ *     .ttl(30, TimeUnit.SECONDS));
+ *
+ *   get("/api/products", () {@literal ->} ...);
+ * }
+ * </pre>
+ *
+ * <h2>store</h2>
+ * <p>
+ * Cache modules provide a store: <code>CaffeineResponseStore</code>,
+ * <code>GuavaResponseStore</code>, <code>EhResponseStore</code> and
+ * <code>HcastResponseStore</code>. Or implement your own {@link Store}. Stores aren't required to
+ * expire entries, this filter keeps track of expiration.
+ * </p>
+ *
+ * <h2>cache key</h2>
+ * <p>
+ * The key is made of the request path, query string and the <code>Accept</code> header. Additional
+ * request headers might be added with {@link #vary(String...)}. Responses with a
+ * <code>Vary</code> header that mention any other header are never cached.
+ * </p>
+ *
+ * <h2>what is cached?</h2>
+ * <p>
+ * Only <code>200</code> responses without cookies, with a non streamed body and without a
+ * <code>Cache-Control: no-store, no-cache or private</code> header. A <code>max-age</code> or
+ * <code>s-maxage</code> directive overrides the time to live. Route might override the time to
+ * live with a <code>cache</code> attribute (<code>0</code> disable caching):
+ * </p>
+ *
+ * <pre>
+ * {
+ *   get("/api/categories", () {@literal ->} ...)
+ *     .attr("cache", "1h");
+ * }
+ * </pre>
+ *
+ * <h2>credentials</h2>
+ * <p>
+ * Requests with an <code>Authorization</code> or <code>Cookie</code> header bypass the cache,
+ * unless the response is explicitly shared with a <code>Cache-Control: public</code> or
+ * <code>s-maxage</code> directive. They never wait for (nor are waited by) concurrent misses.
+ * </p>
+ *
+ * <h2>concurrent misses</h2>
+ * <p>
+ * A single request computes a missing (or expired) entry. Concurrent requests for the same key
+ * wait for it (up to {@link #timeout(long, TimeUnit)}) without holding a thread and get the same
+ * response, even when it can't be cached (cookies aren't shared). Streamed responses can't be
+ * shared, waiting requests get a <code>503</code> response.
+ * </p>
+ *
+ * <h2>stale while revalidate</h2>
+ * <p>
+ * An expired entry might be served for a while ({@link #staleWhileRevalidate(long, TimeUnit)})
+ * while a single request recomputes it, so concurrent requests don't need to wait.
+ * </p>
+ *
+ * @author edgar
+ * @since 1.0.0
+ */
+public class ResponseCache implements Route.Filter {
+
+  /**
+   * Storage of cached responses.
+   *
+   * @author edgar
+   * @since 1.0.0
+   */
+  public interface Store {
+
+    /**
+     * Get a cached response.
+     *
+     * @param key Cache key.
+     * @return A cached response or <code>null</code>.
+     */
+    Entry get(String key);
+
+    /**
+     * Save a response.
+     *
+     * @param key Cache key.
+     * @param entry Response to save.
+     */
+    void put(String key, Entry entry);
+  }
+
+  /**
+   * A cached response: status, headers and encoded body.
+   *
+   * @author edgar
+   * @since 1.0.0
+   */
+  public static class Entry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    private final LinkedHashMap<String, List<String>> headers;
+
+    private final byte[] body;
+
+    private final long createdAt;
+
+    private final long expiresAt;
+
+    private final long staleAt;
+
+    /**
+     * Creates a new {@link Entry}.
+     *
+     * @param status Status code.
+     * @param headers Response headers.
+     * @param body Encoded body.
+     * @param createdAt Creation time in millis.
+     * @param ttl Time to live in millis.
+     * @param stale How long (after expiration) the entry might be served while revalidating.
+     */
+    public Entry(final int status, final Map<String, List<String>> headers, final byte[] body,
+        final long createdAt, final long ttl, final long stale) {
+      this.status = status;
+      this.headers = new LinkedHashMap<>();
+      headers.forEach((name, values) -> this.headers.put(name, new ArrayList<>(values)));
+      this.body = requireNonNull(body, "Body is required.");
+      this.createdAt = createdAt;
+      this.expiresAt = createdAt + ttl;
+      this.staleAt = expiresAt + stale;
+    }
+
+    /**
+     * @return Status code.
+     */
+    public int status() {
+      return status;
+    }
+
+    /**
+     * @return Response headers.
+     */
+    public Map<String, List<String>> headers() {
+      return headers;
+    }
+
+    /**
+     * @return Encoded body.
+     */
+    public byte[] body() {
+      return body;
+    }
+
+    /**
+     * @return Creation time in millis.
+     */
+    public long createdAt() {
+      return createdAt;
+    }
+
+    /**
+     * @return Time (in millis) after which the entry can't be served anymore, not even while
+     *         revalidating. Stores might evict the entry after that.
+     */
+    public long staleAt() {
+      return staleAt;
+    }
+
+    /**
+     * @param now Current time in millis.
+     * @return True if the entry hasn't expired yet.
+     */
+    public boolean fresh(final long now) {
+      return now < expiresAt;
+    }
+
+    /**
+     * @param now Current time in millis.
+     * @return True if the entry has expired, but it can be served while revalidating.
+     */
+    public boolean stale(final long now) {
+      return now >= expiresAt && now < staleAt;
+    }
+
+    @Override
+    public String toString() {
+      return status + " " + headers + " (" + body.length + " bytes)";
+    }
+  }
+
+  /** Route attribute with a time to live: millis or a duration expression like: 2s. */
+  private static final String CACHE = "cache";
+
+  private static final String AGE = "Age";
+
+  private static final String VARY = "Vary";
+
+  private static final String CACHE_CONTROL = "Cache-Control";
+
+  private static final String AUTHORIZATION = "Authorization";
+
+  private static final String COOKIE = "Cookie";
+
+  private static final String SET_COOKIE = "Set-Cookie";
+
+  /** The logging system. */
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final Class<? extends Store> storeType;
+
+  private Store store;
+
+  private long ttl = TimeUnit.MINUTES.toMillis(1);
+
+  private long stale;
+
+  private Set<String> vary = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+  /** Keys being computed. */
+  final Flights<Entry> inflight = new Flights<>();
+
+  /**
+   * Creates a new {@link ResponseCache}.
+   *
+   * @param store Store to use.
+   */
+  public ResponseCache(final Store store) {
+    this.store = requireNonNull(store, "Store is required.");
+    this.storeType = store.getClass();
+    vary.add("Accept");
+  }
+
+  /**
+   * Creates a new {@link ResponseCache}. The store is created by Guice on first use.
+   *
+   * @param store Store type to use.
+   */
+  public ResponseCache(final Class<? extends Store> store) {
+    this.storeType = requireNonNull(store, "Store is required.");
+    vary.add("Accept");
+  }
+
+  /**
+   * Set the default time to live of cached responses. Default is: <code>1m</code>.
+   *
+   * @param ttl Time to live.
+   * @param unit Time unit.
+   * @return This filter.
+   */
+  public ResponseCache ttl(final long ttl, final TimeUnit unit) {
+    this.ttl = unit.toMillis(ttl);
+    return this;
+  }
+
+  /**
+   * Set for how long an expired response might be served while a single request recomputes it.
+   * Default is: <code>0</code> (disabled).
+   *
+   * @param stale Stale time.
+   * @param unit Time unit.
+   * @return This filter.
+   */
+  public ResponseCache staleWhileRevalidate(final long stale, final TimeUnit unit) {
+    this.stale = unit.toMillis(stale);
+    return this;
+  }
+
+  /**
+   * Set how long concurrent requests wait for a missing entry. Default is: <code>30s</code>.
+   *
+   * @param timeout Timeout.
+   * @param unit Time unit.
+   * @return This filter.
+   */
+  public ResponseCache timeout(final long timeout, final TimeUnit unit) {
+    inflight.timeout = unit.toMillis(timeout);
+    return this;
+  }
+
+  /**
+   * Add request headers to the cache key. The <code>Accept</code> header is always part of the
+   * key.
+   *
+   * @param headers Header names.
+   * @return This filter.
+   */
+  public ResponseCache vary(final String... headers) {
+    vary.addAll(Arrays.asList(headers));
+    return this;
+  }
+
+  @Override
+  public void handle(final Request req, final Response rsp, final Route.Chain chain)
+      throws Throwable {
+    String method = req.method();
+    Response unwrapped = Response.Forwarding.unwrap(rsp);
+    long ttl = ttl(req);
+    if (!(method.equals("GET") || method.equals("HEAD")) || ttl <= 0
+        || !(unwrapped instanceof ResponseImpl)) {
+      chain.next(req, rsp);
+      return;
+    }
+
+    Store store = store(req);
+    String key = Flights.key(req, vary);
+    boolean personal = personal(req);
+    long now = System.currentTimeMillis();
+    Entry entry = store.get(key);
+    if (entry != null && (!personal || shared(entry.headers()))) {
+      if (entry.fresh(now)) {
+        send(unwrapped, entry, now);
+        return;
+      }
+      if (entry.stale(now) && inflight.get(key) != null) {
+        // somebody else is computing it
+        send(unwrapped, entry, now);
+        return;
+      }
+    }
+
+    if (method.equals("HEAD")) {
+      // body isn't rendered for HEAD, don't cache it
+      chain.next(req, rsp);
+      return;
+    }
+
+    if (personal) {
+      // response might depend on credentials: don't share a concurrent miss
+      ((ResponseImpl) unwrapped).buffer(save(store, key, ttl, true, null));
+      chain.next(req, rsp);
+      return;
+    }
+
+    Flights<Entry>.Flight flight = inflight.start(key);
+    if (flight == null) {
+      Flights<Entry>.Flight leader = inflight.get(key);
+      if (leader != null && leader.reserve()) {
+        rsp.send(new Deferred(deferred -> {
+          // the deferred sends the response from the waiting request scope and fires complete
+          // listeners
+          BiConsumer<Entry, Throwable> waiter = (shared, failure) -> {
+            if (deferred.cancelled()) {
+              return;
+            }
+            if (failure != null) {
+              deferred.reject(failure);
+            } else {
+              deferred.resolve(result(shared, System.currentTimeMillis()));
+            }
+          };
+          deferred.onCancel(() -> leader.cancel(waiter));
+          leader.await(waiter);
+        }));
+      } else {
+        // done already or too many waiters
+        chain.next(req, rsp);
+      }
+      return;
+    }
+
+    ((ResponseImpl) unwrapped).buffer(save(store, key, ttl, false, flight));
+    // release waiters when the response is never buffered
+    rsp.complete((rq, rs, cause) -> flight.done(null, cause.orElseGet(
+        () -> new Err(Status.SERVICE_UNAVAILABLE, "No response: " + key))));
+
+    chain.next(req, rsp);
+  }
+
+  private Consumer<BufferedResponse> save(final Store store, final String key, final long ttl,
+      final boolean personal, final Flights<Entry>.Flight flight) {
+    return buffer -> {
+      Entry newEntry = null;
+      try {
+        newEntry = entry(buffer, ttl, personal);
+        if (newEntry != null) {
+          store.put(key, newEntry);
+        }
+      } catch (Throwable x) {
+        log.error("response cache resulted in error: {}", key, x);
+      } finally {
+        if (flight != null) {
+          share(flight, buffer, newEntry);
+        }
+      }
+      try {
+        buffer.flush();
+      } catch (Exception x) {
+        log.error("execution of {} resulted in exception", key, x);
+        buffer.fail();
+      }
+    };
+  }
+
+  /**
+   * Complete a flight with the cached entry or with the (not cacheable) response of the leader.
+   */
+  private void share(final Flights<Entry>.Flight flight, final BufferedResponse buffer,
+      final Entry entry) {
+    try {
+      if (entry != null) {
+        flight.done(entry, null);
+      } else if (buffer.streaming()) {
+        flight.done(null, new Err(Status.SERVICE_UNAVAILABLE,
+            "Streamed response can't be shared: " + flight.key()));
+      } else {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(buffer.headers());
+        headers.remove(SET_COOKIE);
+        flight.done(new Entry(buffer.statusCode(), headers, buffer.body(),
+            System.currentTimeMillis(), 0, 0), null);
+      }
+    } catch (Throwable x) {
+      flight.done(null, x);
+    }
+  }
+
+  private Entry entry(final BufferedResponse buffer, final long ttl, final boolean personal) {
+    if (buffer.streaming() || buffer.statusCode() != 200) {
+      return null;
+    }
+    Map<String, List<String>> headers = buffer.headers();
+    if (headers.containsKey(SET_COOKIE)) {
+      return null;
+    }
+    List<String> vary = headers.get(VARY);
+    if (vary != null) {
+      for (String value : vary) {
+        for (String name : Splitter.on(',').trimResults().omitEmptyStrings().split(value)) {
+          if (!this.vary.contains(name)) {
+            return null;
+          }
+        }
+      }
+    }
+    long maxAge = ttl;
+    List<String> cacheControl = headers.get(CACHE_CONTROL);
+    if (cacheControl != null) {
+      for (String value : cacheControl) {
+        for (String directive : Splitter.on(',').trimResults().omitEmptyStrings().split(value)) {
+          String lc = directive.toLowerCase();
+          if (lc.equals("no-store") || lc.equals("no-cache") || lc.equals("private")) {
+            return null;
+          }
+          if (lc.startsWith("s-maxage=") || (lc.startsWith("max-age=") && maxAge == ttl)) {
+            Long seconds = Longs.tryParse(lc.substring(lc.indexOf('=') + 1));
+            if (seconds != null) {
+              maxAge = TimeUnit.SECONDS.toMillis(seconds);
+            }
+          }
+        }
+      }
+    }
+    if (maxAge <= 0 || (personal && !shared(headers))) {
+      return null;
+    }
+    return new Entry(buffer.statusCode(), headers, buffer.body(), System.currentTimeMillis(),
+        maxAge, stale);
+  }
+
+  private static boolean personal(final Request req) {
+    return req.header(AUTHORIZATION).isSet() || req.header(COOKIE).isSet();
+  }
+
+  private static boolean shared(final Map<String, List<String>> headers) {
+    List<String> cacheControl = headers.get(CACHE_CONTROL);
+    if (cacheControl != null) {
+      for (String value : cacheControl) {
+        for (String directive : Splitter.on(',').trimResults().omitEmptyStrings().split(value)) {
+          String lc = directive.toLowerCase();
+          if (lc.equals("public") || lc.startsWith("s-maxage=")) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  private void send(final Response rsp, final Entry entry, final long now) throws Exception {
+    rsp.header(AGE, age(entry, now));
+    ((ResponseImpl) rsp).send(entry.status(), entry.headers(), entry.body());
+  }
+
+  private static EncodedResult result(final Entry entry, final long now) {
+    Map<String, List<String>> headers = new LinkedHashMap<>(entry.headers());
+    headers.put(AGE, Collections.singletonList(Long.toString(age(entry, now))));
+    return new EncodedResult(entry.status(), headers, entry.body());
+  }
+
+  private static long age(final Entry entry, final long now) {
+    return TimeUnit.MILLISECONDS.toSeconds(Math.max(0, now - entry.createdAt()));
+  }
+
+  private long ttl(final Request req) {
+    Object value = req.route().attributes().get(CACHE);
+    if (value == null) {
+      return ttl;
+    }
+    return DurationAttr.millis(CACHE, value);
+  }
+
+  private Store store(final Request req) {
+    if (store == null) {
+      store = req.require(storeType);
+    }
+    return store;
+  }
+
+  @Override
+  public String toString() {
+    return "ResponseCache[" + storeType.getName() + "]";
+  }
+
+}
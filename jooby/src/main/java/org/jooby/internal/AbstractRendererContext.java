@@ -22,6 +22,7 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.Writer;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.channels.FileChannel;
@@ -42,6 +43,9 @@ import com.google.common.base.Joiner;
 
 public abstract class AbstractRendererContext implements Renderer.Context {
 
+  /** Default of <code>server.http.ResponseBufferSize</code>. */
+  static final int BUFFER_SIZE = 16 * 1024;
+
   private List<Renderer> renderers;
 
   private Matcher matcher;
@@ -56,36 +60,65 @@ public abstract class AbstractRendererContext implements Renderer.Context {
 
   private int rsize;
 
+  private int bufferSize;
+
+  /** Renderer by value shape, or <code>null</code>. */
+  private RendererCache cache;
+
   public AbstractRendererContext(final List<Renderer> renderers,
       final List<MediaType> produces,
       final Charset charset, final Map<String, Object> locals) {
+    this(renderers, produces, charset, locals, BUFFER_SIZE);
+  }
+
+  public AbstractRendererContext(final List<Renderer> renderers,
+      final List<MediaType> produces,
+      final Charset charset, final Map<String, Object> locals, final int bufferSize) {
+    this(renderers, produces, charset, locals, bufferSize, null);
+  }
+
+  public AbstractRendererContext(final List<Renderer> renderers,
+      final List<MediaType> produces,
+      final Charset charset, final Map<String, Object> locals, final int bufferSize,
+      final RendererCache cache) {
     this.renderers = renderers;
     this.produces = produces;
     this.matcher = MediaType.matcher(produces);
     this.charset = charset;
     this.locals = locals;
     rsize = this.renderers.size();
+    this.bufferSize = bufferSize;
+    this.cache = cache;
   }
 
   public void render(final Object value) throws Exception {
+    List<String> notFound = null;
+    // go straight to the renderer who wrote the last value of the same shape
+    Renderer cached = cache == null ? null : cache.get(value, produces);
+    if (cached != null) {
+      notFound = render(cached, value, notFound);
+      if (committed) {
+        return;
+      }
+      // declined
+      cache.invalidate(value, produces);
+    }
     int i = 0;
-    List<String> notFound = new ArrayList<>();
+    // renderers before the winner are skipped on cache hits: they must decline by type
+    boolean cacheable = cache != null;
     while (!committed && i < rsize) {
       Renderer next = renderers.get(i);
-      try {
-        next.render(value, this);
-      } catch (FileNotFoundException ex) {
-        // view engine should recover from a template not found
-        if (next instanceof View.Engine) {
-          notFound.add(next.toString());
-        } else {
-          throw ex;
+      if (next != cached) {
+        notFound = render(next, value, notFound);
+        if (committed && cacheable) {
+          cache.put(value, produces, next);
         }
       }
+      cacheable = cacheable && next.typeBased();
       i += 1;
     }
     if (!committed) {
-      if (notFound.size() > 0) {
+      if (notFound != null) {
         throw new FileNotFoundException("Template not found: " + ((View) value).name() + " in "
             + notFound);
       }
@@ -93,6 +126,22 @@ public abstract class AbstractRendererContext implements Renderer.Context {
     }
   }
 
+  private List<String> render(final Renderer renderer, final Object value,
+      final List<String> notFound) throws Exception {
+    try {
+      renderer.render(value, this);
+      return notFound;
+    } catch (FileNotFoundException ex) {
+      // view engine should recover from a template not found
+      if (renderer instanceof View.Engine) {
+        List<String> engines = notFound == null ? new ArrayList<>() : notFound;
+        engines.add(renderer.toString());
+        return engines;
+      }
+      throw ex;
+    }
+  }
+
   @Override
   public Map<String, Object> locals() {
     return locals;
@@ -132,6 +181,11 @@ public abstract class AbstractRendererContext implements Renderer.Context {
     send(new ReaderInputStream(reader, charset));
   }
 
+  @Override
+  public Writer writer() {
+    return new RendererWriter(this, charset, bufferSize);
+  }
+
   @Override
   public void send(final String text) throws Exception {
     type(MediaType.html);
@@ -185,6 +239,37 @@ public abstract class AbstractRendererContext implements Renderer.Context {
     return renderers.stream().map(Renderer::name).collect(Collectors.joining(", "));
   }
 
+  /**
+   * Send a body made of several buffers, produced by {@link #writer()} when the output doesn't
+   * fit in one buffer. The body length is known, so buffers are joined and sent as a regular
+   * body (not as a stream): a <code>Content-Length</code> is set and filters that buffer the
+   * response (cache, etag, coalescing) see a complete body.
+   *
+   * @param buffers Buffers ready to read.
+   * @throws Exception If send fails.
+   */
+  protected void _send(final List<ByteBuffer> buffers) throws Exception {
+    _send(join(buffers));
+  }
+
+  /**
+   * Join buffers into a single array.
+   *
+   * @param buffers Buffers ready to read.
+   * @return Bytes.
+   */
+  static byte[] join(final List<ByteBuffer> buffers) {
+    int size = buffers.stream().mapToInt(ByteBuffer::remaining).sum();
+    byte[] bytes = new byte[size];
+    int offset = 0;
+    for (ByteBuffer buffer : buffers) {
+      int len = buffer.remaining();
+      buffer.get(bytes, offset, len);
+      offset += len;
+    }
+    return bytes;
+  }
+
   protected abstract void _send(final byte[] bytes) throws Exception;
 
   protected abstract void _send(final ByteBuffer buffer) throws Exception;
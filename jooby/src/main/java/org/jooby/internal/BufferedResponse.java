@@ -0,0 +1,241 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import org.jooby.Status;
+import org.jooby.spi.NativeResponse;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+
+import javaslang.control.Try;
+
+/**
+ * Keep the response body in memory (headers and status are set on the real response) and notify
+ * a listener once the response ends. Listener must call {@link #flush()} (or write something else
+ * to the real response) and end the response, or call {@link #fail()} when it can't.
+ *
+ * Streamed bodies (files and input streams) aren't buffered: they are sent as usual, see
+ * {@link #streaming()}.
+ */
+public class BufferedResponse implements NativeResponse {
+
+  private final NativeResponse rsp;
+
+  private final Consumer<BufferedResponse> onEnd;
+
+  private final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+
+  private final Set<String> headerNames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+  private boolean committed;
+
+  private boolean streaming;
+
+  private boolean ended;
+
+  public BufferedResponse(final NativeResponse rsp, final Consumer<BufferedResponse> onEnd) {
+    this.rsp = rsp;
+    this.onEnd = onEnd;
+  }
+
+  @Override
+  public Optional<String> header(final String name) {
+    return rsp.header(name);
+  }
+
+  @Override
+  public List<String> headers(final String name) {
+    return rsp.headers(name);
+  }
+
+  @Override
+  public void header(final String name, final Iterable<String> values) {
+    headerNames.add(name);
+    rsp.header(name, values);
+  }
+
+  @Override
+  public void header(final String name, final String value) {
+    headerNames.add(name);
+    rsp.header(name, value);
+  }
+
+  @Override
+  public void removeHeader(final String name) {
+    headerNames.remove(name);
+    rsp.removeHeader(name);
+  }
+
+  @Override
+  public void send(final byte[] bytes) throws Exception {
+    if (streaming) {
+      rsp.send(bytes);
+    } else {
+      committed = true;
+      body.write(bytes);
+    }
+  }
+
+  @Override
+  public void send(final ByteBuffer buffer) throws Exception {
+    if (streaming) {
+      rsp.send(buffer);
+    } else {
+      committed = true;
+      if (buffer.hasArray()) {
+        body.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+      } else {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        body.write(bytes);
+      }
+    }
+  }
+
+  @Override
+  public void send(final InputStream stream) throws Exception {
+    stream();
+    rsp.send(stream);
+  }
+
+  @Override
+  public void send(final FileChannel channel) throws Exception {
+    stream();
+    rsp.send(channel);
+  }
+
+  @Override
+  public int statusCode() {
+    return rsp.statusCode();
+  }
+
+  @Override
+  public void statusCode(final int code) {
+    rsp.statusCode(code);
+  }
+
+  @Override
+  public boolean committed() {
+    return committed || rsp.committed();
+  }
+
+  @Override
+  public void end() {
+    if (ended) {
+      return;
+    }
+    ended = true;
+    onEnd.accept(this);
+  }
+
+  @Override
+  public void reset() {
+    body.reset();
+    headerNames.clear();
+    committed = false;
+    rsp.reset();
+  }
+
+  /**
+   * @return True if the body was streamed (not buffered).
+   */
+  public boolean streaming() {
+    return streaming;
+  }
+
+  /**
+   * @return The buffered body.
+   */
+  public byte[] body() {
+    return body.toByteArray();
+  }
+
+  /**
+   * @return Headers set while buffering.
+   */
+  public Map<String, List<String>> headers() {
+    Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    for (String name : headerNames) {
+      List<String> values = rsp.headers(name);
+      if (values.size() > 0) {
+        headers.put(name, ImmutableList.copyOf(values));
+      }
+    }
+    return Collections.unmodifiableMap(headers);
+  }
+
+  /**
+   * @return The real response.
+   */
+  public NativeResponse unwrap() {
+    return rsp;
+  }
+
+  /**
+   * Send the buffered body and end the real response.
+   *
+   * @throws Exception If send fails.
+   */
+  public void flush() throws Exception {
+    if (!streaming && body.size() > 0) {
+      rsp.send(body());
+    }
+    rsp.end();
+  }
+
+  /**
+   * End the real response after an error in the end listener: the response ends with
+   * <code>500</code> when nothing was sent yet, otherwise it is ended as it is.
+   */
+  public void fail() {
+    Try.run(() -> {
+      if (!rsp.committed()) {
+        rsp.reset();
+        rsp.statusCode(Status.SERVER_ERROR.value());
+      }
+      rsp.end();
+    }).onFailure(x -> LoggerFactory.getLogger(BufferedResponse.class)
+        .debug("unable to end response", x));
+  }
+
+  private void stream() throws Exception {
+    if (!streaming) {
+      streaming = true;
+      if (body.size() > 0) {
+        rsp.send(body());
+        body.reset();
+      }
+    }
+  }
+
+}
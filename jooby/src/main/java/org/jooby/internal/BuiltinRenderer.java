@@ -130,4 +130,10 @@ public enum BuiltinRenderer implements Renderer {
     }
   };
 
+  @Override
+  public boolean typeBased() {
+    // instanceof checks only
+    return true;
+  }
+
 }
@@ -0,0 +1,49 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+
+/**
+ * Parse route attributes with a duration: millis or a duration expression like: 2s. Attribute
+ * values come from route definitions, so an expression is parsed once and then reused.
+ */
+public class DurationAttr {
+
+  private static final Map<String, Long> CACHE = new ConcurrentHashMap<>();
+
+  /**
+   * @param name Attribute name (for error reporting).
+   * @param value Attribute value: a number (millis) or a duration expression.
+   * @return Duration in millis.
+   */
+  public static long millis(final String name, final Object value) {
+    if (value instanceof Number) {
+      return ((Number) value).longValue();
+    }
+    return CACHE.computeIfAbsent(value.toString(), expr -> ConfigFactory.empty()
+        .withValue(name, ConfigValueFactory.fromAnyRef(expr))
+        .getDuration(name, TimeUnit.MILLISECONDS));
+  }
+}
@@ -0,0 +1,57 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import java.util.List;
+import java.util.Map;
+
+import org.jooby.Result;
+
+/**
+ * A previously rendered response: status, headers and encoded body. Sent as it is, after filters
+ * and renderers aren't applied.
+ */
+public class EncodedResult extends Result {
+
+  private final int statusCode;
+
+  private final Map<String, List<String>> headers;
+
+  private final byte[] body;
+
+  public EncodedResult(final int statusCode, final Map<String, List<String>> headers,
+      final byte[] body) {
+    this.statusCode = statusCode;
+    this.headers = headers;
+    this.body = body;
+  }
+
+  public int statusCode() {
+    return statusCode;
+  }
+
+  public Map<String, List<String>> encodedHeaders() {
+    return headers;
+  }
+
+  public byte[] body() {
+    return body;
+  }
+
+}
@@ -32,6 +32,11 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -45,12 +50,12 @@ import org.jooby.Err;
 import org.jooby.Err.Handler;
 import org.jooby.MediaType;
 import org.jooby.Renderer;
-import org.jooby.Request;
-import org.jooby.Response;
+import org.jooby.Result;
 import org.jooby.Route;
 import org.jooby.Session;
 import org.jooby.Sse;
 import org.jooby.Status;
+import org.jooby.Trace;
 import org.jooby.WebSocket;
 import org.jooby.WebSocket.Definition;
 import org.jooby.internal.parser.ParserExecutor;
@@ -68,6 +73,8 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Sets;
+import com.google.common.primitives.Longs;
+import com.google.inject.Binding;
 import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.name.Names;
@@ -128,9 +135,8 @@ public class HttpHandlerImpl implements HttpHandler {
 
   private static final String CONTEXT_PATH = "contextPath";
 
-  private static final Key<Request> REQ = Key.get(Request.class);
-
-  private static final Key<Response> RSP = Key.get(Response.class);
+  /** Route attribute for routes that are safe to run in a non-blocking IO thread. */
+  private static final String NON_BLOCKING = "nonblocking";
 
   private static final Key<Sse> SSE = Key.get(Sse.class);
 
@@ -149,6 +155,12 @@ public class HttpHandlerImpl implements HttpHandler {
 
   private RequestScope requestScope;
 
+  /** Request scope slot of {@link Sse}. */
+  private int sseSlot;
+
+  /** Request scope slot of {@link Session}. */
+  private int sessionSlot;
+
   private Set<Definition> socketDefs;
 
   private Config config;
@@ -159,6 +171,9 @@ public class HttpHandlerImpl implements HttpHandler {
 
   private Charset charset;
 
+  /** Value of <code>server.http.ResponseBufferSize</code>. */
+  private int bufferSize;
+
   private List<Renderer> renderers;
 
   private ParserExecutor parserExecutor;
@@ -177,11 +192,26 @@ public class HttpHandlerImpl implements HttpHandler {
 
   private final Map<String, Renderer> rendererMap;
 
+  /** Renderer who wrote the last value of a given type + accept. */
+  private final RendererCache rendererCache = new RendererCache();
+
   private StatusCodeProvider sc;
 
   /** Global deferred executor. */
   private Key<Executor> gexec;
 
+  /** Request deadline in millis or 0. */
+  private long deadline;
+
+  /** Request header with a timeout in millis. */
+  private String deadlineHeader;
+
+  /** Trace exporter or <code>null</code> when tracing is off. */
+  private Trace.Exporter tracer;
+
+  /** Request header with a W3C trace context. */
+  private String traceHeader;
+
   @Inject
   public HttpHandlerImpl(final Injector injector,
       final RequestScope requestScope,
@@ -196,6 +226,8 @@ public class HttpHandlerImpl implements HttpHandler {
       final List<Locale> locale) {
     this.injector = requireNonNull(injector, "An injector is required.");
     this.requestScope = requireNonNull(requestScope, "A request scope is required.");
+    this.sseSlot = requestScope.id(SSE);
+    this.sessionSlot = requestScope.id(SESS);
     this.socketDefs = requireNonNull(sockets, "Sockets are required.");
     this.hasSockets = socketDefs.size() > 0;
     this.applicationPath = normalizeURI(requireNonNull(path, "An application.path is required."));
@@ -205,6 +237,7 @@ public class HttpHandlerImpl implements HttpHandler {
     _method = Strings.emptyToNull(this.config.getString("server.http.Method").trim());
     this.port = config.getInt("application.port");
     this.charset = charset;
+    this.bufferSize = config.getBytes("server.http.ResponseBufferSize").intValue();
     this.locale = locale;
     this.parserExecutor = parserExecutor;
     this.renderers = ImmutableList.copyOf(renderers);
@@ -226,6 +259,18 @@ public class HttpHandlerImpl implements HttpHandler {
     }
     // global deferred executor
     this.gexec = Key.get(Executor.class, Names.named(injector.getInstance(DEF_EXEC)));
+    // request deadline
+    this.deadline = config.getDuration("server.http.Deadline", TimeUnit.MILLISECONDS);
+    this.deadlineHeader = Strings
+        .emptyToNull(config.getString("server.http.DeadlineHeader").trim());
+    // request tracing
+    if (config.getBoolean("server.http.Trace")) {
+      Binding<Trace.Exporter> exporter = injector.getExistingBinding(Key.get(Trace.Exporter.class));
+      this.tracer = exporter == null
+          ? injector.getInstance(Trace.Memory.class)
+          : exporter.getProvider().get();
+      this.traceHeader = Strings.emptyToNull(config.getString("server.http.TraceHeader").trim());
+    }
   }
 
   @Override
@@ -234,7 +279,7 @@ public class HttpHandlerImpl implements HttpHandler {
 
     Map<String, Object> locals = new HashMap<>(16);
 
-    Map<Object, Object> scope = new HashMap<>(16);
+    RequestScope.Slots scope = requestScope.newScope();
 
     String verb = (_method == null ? request.method() : method(_method, request)).toUpperCase();
     String requestPath = normalizeURI(request.path());
@@ -254,28 +299,47 @@ public class HttpHandlerImpl implements HttpHandler {
         locale, scope, locals, start);
 
     ResponseImpl rsp = new ResponseImpl(req, parserExecutor, response, notFound, renderers,
-        rendererMap, locals, req.charset(), request.header(REFERER));
+        rendererMap, locals, req.charset(), request.header(REFERER), bufferSize, rendererCache);
+
+    // request deadline
+    if (deadline > 0) {
+      req.deadline(deadline, TimeUnit.MILLISECONDS);
+    }
+    if (deadlineHeader != null) {
+      request.header(deadlineHeader)
+          .map(value -> Longs.tryParse(value.trim()))
+          // ignore zero or negative timeouts
+          .filter(timeout -> timeout > 0)
+          .ifPresent(timeout -> req.deadline(timeout, TimeUnit.MILLISECONDS));
+    }
+
+    // request trace
+    if (tracer != null) {
+      String traceparent = traceHeader == null ? null : request.header(traceHeader).orElse(null);
+      req.trace(Trace.of(verb + " " + requestPath, traceparent));
+    }
 
     MediaType type = req.type();
 
     // seed req & rsp
-    scope.put(REQ, req);
-    scope.put(RSP, rsp);
+    scope.set(RequestScope.REQ, req);
+    scope.set(RequestScope.RSP, rsp);
 
     // seed sse
     Provider<Sse> sse = () -> Try.of(() -> request.upgrade(Sse.class))
         .getOrElseThrow(() -> new UnsupportedOperationException("Server-sent events"));
-    scope.put(SSE, sse);
+    scope.set(sseSlot, sse);
 
     // seed session
     Provider<Session> session = () -> req.session();
-    scope.put(SESS, session);
+    scope.set(sessionSlot, session);
 
     boolean deferred = false;
+    boolean dispatched = false;
     Throwable x = null;
     try {
 
-      requestScope.enter(scope);
+      enter(scope, req);
 
       // force https?
       if (redirectHttps != null) {
@@ -301,6 +365,32 @@ public class HttpHandlerImpl implements HttpHandler {
       List<Route> routes = routeCache
           .getUnchecked(new RouteKey(verb, requestPath, type, req.accept()));
 
+      // IO thread? move blocking routes to a worker thread
+      if (request.inIoThread() && !nonblocking(routes)) {
+        dispatched = true;
+        request.dispatch(() -> dispatched(scope, request, req, rsp, routes));
+        return;
+      }
+
+      new RouteChain(req, rsp, routes).next(req, rsp);
+
+    } catch (DeferredExecution ex) {
+      deferred = true;
+      onDeferred(scope, request, req, rsp, ex.deferred);
+    } catch (Throwable ex) {
+      x = ex;
+    } finally {
+      cleanup(req, rsp, true, x, !deferred && !dispatched);
+    }
+  }
+
+  private void dispatched(final RequestScope.Slots scope, final NativeRequest request,
+      final RequestImpl req, final ResponseImpl rsp, final List<Route> routes) {
+    boolean deferred = false;
+    Throwable x = null;
+    try {
+      enter(scope, req);
+
       new RouteChain(req, rsp, routes).next(req, rsp);
 
     } catch (DeferredExecution ex) {
@@ -313,6 +403,26 @@ public class HttpHandlerImpl implements HttpHandler {
     }
   }
 
+  /**
+   * A pipeline is non-blocking when all the matching routes (but the fallback) are marked with
+   * the <code>nonblocking</code> attribute.
+   *
+   * @param routes Matching routes.
+   * @return True for non-blocking pipelines.
+   */
+  static boolean nonblocking(final List<Route> routes) {
+    int size = routes.size() - 1;
+    if (size == 0) {
+      return false;
+    }
+    for (int i = 0; i < size; i++) {
+      if (!Boolean.TRUE.equals(routes.get(i).attributes().get(NON_BLOCKING))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private boolean upgrade(final NativeRequest request) {
     Optional<String> upgrade = request.header(UPGRADE);
     return upgrade.isPresent() && upgrade.get().equalsIgnoreCase(WEB_SOCKET);
@@ -325,9 +435,35 @@ public class HttpHandlerImpl implements HttpHandler {
     if (close) {
       rsp.done(Optional.ofNullable(x));
     }
+    Trace trace = req.trace();
+    if (trace != null) {
+      trace.finish();
+      Try.run(() -> tracer.export(trace))
+          .onFailure(cause -> log.error("export of: {} resulted in exception", trace.name(),
+              cause));
+    }
+  }
+
+  private void enter(final RequestScope.Slots scope, final RequestImpl req) {
+    enter(scope, req, null);
+  }
+
+  private void enter(final RequestScope.Slots scope, final RequestImpl req,
+      final Trace.Span span) {
+    requestScope.enter(scope);
+    if (tracer != null) {
+      Trace.enter(req.trace(), span);
+    }
+  }
+
+  private void exit() {
+    requestScope.exit();
+    if (tracer != null) {
+      Trace.exit();
+    }
   }
 
-  private void onDeferred(final Map<Object, Object> scope, final NativeRequest request,
+  private void onDeferred(final RequestScope.Slots scope, final NativeRequest request,
       final RequestImpl req, final ResponseImpl rsp, final Deferred deferred) {
     /** Deferred executor. */
     Key<Executor> execKey = deferred.executor()
@@ -337,31 +473,7 @@ public class HttpHandlerImpl implements HttpHandler {
     /** Get executor. */
     Executor executor = injector.getInstance(execKey);
 
-    request.startAsync(executor, () -> {
-      try {
-        deferred.handler(req, (success, x) -> {
-          boolean close = false;
-          Optional<Throwable> failure = Optional.ofNullable(x);
-          try {
-            requestScope.enter(scope);
-            if (success != null) {
-              close = true;
-              rsp.send(success);
-            }
-          } catch (Throwable exerr) {
-            failure = Optional.of(failure.orElse(exerr));
-          } finally {
-            Throwable cause = failure.orElse(null);
-            if (cause != null) {
-              close = true;
-            }
-            cleanup(req, rsp, close, cause, true);
-          }
-        });
-      } catch (Exception ex) {
-        handleErr(req, rsp, ex);
-      }
-    });
+    new DeferredTask(scope, req, rsp, deferred).start(request, executor);
   }
 
   private void cleanup(final RequestImpl req, final ResponseImpl rsp, final boolean close,
@@ -372,7 +484,7 @@ public class HttpHandlerImpl implements HttpHandler {
     if (done) {
       done(req, rsp, x, close);
     }
-    requestScope.exit();
+    exit();
   }
 
   private void handleErr(final RequestImpl req, final ResponseImpl rsp, final Throwable ex) {
@@ -401,6 +513,175 @@ public class HttpHandlerImpl implements HttpHandler {
     }
   }
 
+  /**
+   * Run a {@link Deferred} and make sure it is completed once: by the deferred itself, by an
+   * executor rejection, by the request deadline or because the client went away.
+   *
+   * The deferred runs as a future, so bounded executors are able to cancel (shed) a deferred that
+   * waited too long. Rejected or cancelled deferred are reported as a
+   * {@link RejectedExecutionException} (503).
+   */
+  private class DeferredTask {
+
+    private final RequestScope.Slots scope;
+
+    private final RequestImpl req;
+
+    private final ResponseImpl rsp;
+
+    private final Deferred deferred;
+
+    private final FutureTask<Void> future;
+
+    private final AtomicBoolean pending = new AtomicBoolean(true);
+
+    private volatile ScheduledFuture<?> timeout;
+
+    /** Time spent in the executor queue plus execution time, or <code>null</code>. */
+    private final Trace.Span span;
+
+    DeferredTask(final RequestScope.Slots scope, final RequestImpl req, final ResponseImpl rsp,
+        final Deferred deferred) {
+      this.scope = scope;
+      this.req = req;
+      this.rsp = rsp;
+      this.deferred = deferred;
+      Trace trace = req.trace();
+      // child of the current route span, the caller thread keeps its own current span
+      this.span = trace == null ? null
+          : trace.fork(deferred.executor().map(it -> "deferred " + it).orElse("deferred"));
+      this.future = new FutureTask<Void>(this::run, null) {
+        @Override
+        protected void done() {
+          if (isCancelled()) {
+            complete(new RejectedExecutionException(
+                "Deferred execution was cancelled: " + req.method() + req.path()));
+          }
+        }
+      };
+    }
+
+    public void start(final NativeRequest request, final Executor executor) {
+      request.onAbort(this::abort);
+
+      request.startAsync(command -> {
+        try {
+          executor.execute(command);
+        } catch (RejectedExecutionException ex) {
+          complete(ex);
+        }
+      }, future);
+
+      // once async: an expired deadline must not finish the request before the server knows
+      req.deadline().ifPresent(deadline -> {
+        timeout = Timers.get().schedule(this::expire, deadline - System.currentTimeMillis(),
+            TimeUnit.MILLISECONDS);
+        if (!pending.get()) {
+          // completed while scheduling
+          cancelTimeout();
+        }
+      });
+    }
+
+    private void run() {
+      try {
+        // request scoped objects (and the trace) are available from the deferred thread too
+        enter(scope, req, span);
+        if (req.expired()) {
+          throw req.deadlineExceeded();
+        }
+        deferred.handler(req, this::handle);
+      } catch (Throwable ex) {
+        complete(ex);
+      } finally {
+        exit();
+      }
+    }
+
+    private void handle(final Result success, final Throwable x) {
+      if (!pending.compareAndSet(true, false)) {
+        // rejected, expired or aborted
+        return;
+      }
+      cancelTimeout();
+      finishSpan();
+      boolean close = false;
+      Optional<Throwable> failure = Optional.ofNullable(x);
+      try {
+        enter(scope, req);
+        if (success != null) {
+          close = true;
+          rsp.send(success);
+        }
+      } catch (Throwable exerr) {
+        failure = Optional.of(failure.orElse(exerr));
+      } finally {
+        Throwable cause = failure.orElse(null);
+        if (cause != null) {
+          close = true;
+        }
+        cleanup(req, rsp, close, cause, true);
+      }
+    }
+
+    private void expire() {
+      // guarded by the pending flag, like complete and handle: the request is finished once even
+      // if the deferred is still running
+      interrupt(req.deadlineExceeded());
+    }
+
+    private void abort() {
+      if (pending.get()) {
+        req.abort();
+        interrupt(null);
+      }
+    }
+
+    private void interrupt(final Throwable cause) {
+      if (pending.compareAndSet(true, false)) {
+        cancelTimeout();
+        Try.run(deferred::cancel)
+            .onFailure(x -> log.debug("cancel of: {}{} resulted in exception", req.method(),
+                req.path(), x));
+        future.cancel(true);
+        finish(cause);
+      }
+    }
+
+    private void complete(final Throwable cause) {
+      if (pending.compareAndSet(true, false)) {
+        cancelTimeout();
+        finish(cause);
+      }
+    }
+
+    private void finish(final Throwable cause) {
+      finishSpan();
+      enter(scope, req);
+      if (req.aborted()) {
+        // client went away, there is nobody to talk to
+        Try.run(() -> cleanup(req, rsp, true, null, true))
+            .onFailure(x -> log.debug("execution of: {}{} was aborted", req.method(), req.path(),
+                x));
+      } else {
+        cleanup(req, rsp, true, cause, true);
+      }
+    }
+
+    private void finishSpan() {
+      if (span != null) {
+        span.finish();
+      }
+    }
+
+    private void cancelTimeout() {
+      ScheduledFuture<?> timeout = this.timeout;
+      if (timeout != null) {
+        timeout.cancel(false);
+      }
+    }
+  }
+
   private static String normalizeURI(final String uri) {
     int len = uri.length();
     return len > 1 && uri.charAt(len - 1) == '/' ? uri.substring(0, len - 1) : uri;
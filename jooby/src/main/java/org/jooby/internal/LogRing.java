@@ -0,0 +1,190 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded, lock-free ring of fixed size text records. Request threads copy a record into a
+ * preallocated slot (no allocation), a single background thread drains the ring into a
+ * {@link Consumer}. Records are dropped (and counted) when the ring is full, records longer than
+ * the slot are truncated.
+ *
+ * Slots are claimed with a per slot sequence number (bounded MPMC queue from Dmitry Vyukov), here
+ * with a single consumer. The drain thread parks while the ring is empty and producers wake it
+ * up, so there is no polling while idle.
+ *
+ * @author edgar
+ */
+public class LogRing {
+
+  /** The logging system. */
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final int mask;
+
+  private final char[][] records;
+
+  private final int[] lengths;
+
+  private final AtomicLongArray sequences;
+
+  private final AtomicLong tail = new AtomicLong();
+
+  /** Consumer position, owned by the drain thread. */
+  private long head;
+
+  private final AtomicLong dropped = new AtomicLong();
+
+  private final Consumer<String> sink;
+
+  private final Thread drainer;
+
+  private volatile boolean running = true;
+
+  /** True while the drain thread is about to park (or parked) on an empty ring. */
+  private volatile boolean idle;
+
+  /**
+   * Creates a new ring and start the drain thread.
+   *
+   * @param name Drain thread name.
+   * @param capacity Number of records, rounded up to a power of two.
+   * @param recordSize Max record length (in chars).
+   * @param sink Record consumer, called from drain thread.
+   */
+  public LogRing(final String name, final int capacity, final int recordSize,
+      final Consumer<String> sink) {
+    int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+    this.mask = size - 1;
+    this.records = new char[size][recordSize];
+    this.lengths = new int[size];
+    this.sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+    this.sink = sink;
+    this.drainer = new Thread(this::drain, name);
+    drainer.setDaemon(true);
+    drainer.start();
+  }
+
+  /**
+   * Copy a record into the ring.
+   *
+   * @param record Record to copy.
+   * @return True if the record was saved, false if the ring is full and record was dropped.
+   */
+  public boolean offer(final CharSequence record) {
+    long pos = tail.get();
+    int index;
+    while (true) {
+      index = (int) (pos & mask);
+      long diff = sequences.get(index) - pos;
+      if (diff == 0) {
+        if (tail.compareAndSet(pos, pos + 1)) {
+          break;
+        }
+        pos = tail.get();
+      } else if (diff < 0) {
+        dropped.incrementAndGet();
+        return false;
+      } else {
+        pos = tail.get();
+      }
+    }
+    char[] slot = records[index];
+    int len = Math.min(slot.length, record.length());
+    for (int i = 0; i < len; i++) {
+      slot[i] = record.charAt(i);
+    }
+    lengths[index] = len;
+    // publish: volatile write before reading idle, the drain thread does the opposite
+    sequences.set(index, pos + 1);
+    if (idle) {
+      LockSupport.unpark(drainer);
+    }
+    return true;
+  }
+
+  /**
+   * @return Number of records dropped bc the ring was full.
+   */
+  public long dropped() {
+    return dropped.get();
+  }
+
+  /**
+   * Stop the drain thread, pending records are written first.
+   */
+  public void stop() {
+    running = false;
+    LockSupport.unpark(drainer);
+    try {
+      drainer.join(TimeUnit.SECONDS.toMillis(1));
+    } catch (InterruptedException x) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void drain() {
+    while (running) {
+      if (!poll()) {
+        idle = true;
+        // check again after publishing idle, a concurrent offer might not see it
+        if (running && !ready()) {
+          LockSupport.park(this);
+        }
+        idle = false;
+      }
+    }
+    while (poll()) {
+      // flush
+    }
+  }
+
+  private boolean ready() {
+    return sequences.get((int) (head & mask)) == head + 1;
+  }
+
+  private boolean poll() {
+    int index = (int) (head & mask);
+    if (sequences.get(index) != head + 1) {
+      return false;
+    }
+    String record = new String(records[index], 0, lengths[index]);
+    // release slot
+    sequences.lazySet(index, head + mask + 1);
+    head += 1;
+    try {
+      sink.accept(record);
+    } catch (Exception x) {
+      log.error("record resulted in exception: {}", record, x);
+    }
+    return true;
+  }
+
+}
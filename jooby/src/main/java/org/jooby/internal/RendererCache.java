@@ -0,0 +1,112 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.jooby.MediaType;
+import org.jooby.Renderer;
+import org.jooby.View;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keep the renderer that wrote the last response of the same shape: value type and accepted
+ * types (plus view name for {@link View}). Renderers before it in the chain aren't tried again
+ * for that shape, unless the cached one declines. So, a renderer is cached only when all the
+ * renderers before it are {@link Renderer#typeBased()}.
+ *
+ * @author edgar
+ */
+public class RendererCache {
+
+  private static class Key {
+
+    private final Class<?> type;
+
+    private final List<MediaType> produces;
+
+    private final String view;
+
+    private final int hashCode;
+
+    public Key(final Object value, final List<MediaType> produces) {
+      this.type = value.getClass();
+      this.produces = produces;
+      // different templates might be handled by different engines
+      this.view = value instanceof View ? ((View) value).name() : null;
+      this.hashCode = Objects.hash(type, produces, view);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (obj instanceof Key) {
+        Key that = (Key) obj;
+        return type == that.type && Objects.equals(view, that.view)
+            && produces.equals(that.produces);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  /** Max number of entries: Accept header values aren't a closed set. */
+  static final int CACHE_SIZE = 1024;
+
+  private final Cache<Key, Renderer> cache = CacheBuilder.newBuilder()
+      .maximumSize(CACHE_SIZE)
+      .build();
+
+  /**
+   * @param value Value to render.
+   * @param produces Accepted types.
+   * @return Renderer that wrote a value of the same shape or <code>null</code>.
+   */
+  public Renderer get(final Object value, final List<MediaType> produces) {
+    return cache.getIfPresent(new Key(value, produces));
+  }
+
+  /**
+   * Save the renderer that wrote the value.
+   *
+   * @param value Rendered value.
+   * @param produces Accepted types.
+   * @param renderer Renderer who wrote the response.
+   */
+  public void put(final Object value, final List<MediaType> produces, final Renderer renderer) {
+    cache.put(new Key(value, produces), renderer);
+  }
+
+  /**
+   * Discard a renderer that declined a value.
+   *
+   * @param value Value to render.
+   * @param produces Accepted types.
+   */
+  public void invalidate(final Object value, final List<MediaType> produces) {
+    cache.invalidate(new Key(value, produces));
+  }
+
+}
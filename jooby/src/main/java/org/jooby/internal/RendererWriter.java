@@ -0,0 +1,177 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jooby.MediaType;
+
+/**
+ * Encode characters into buffers of <code>server.http.ResponseBufferSize</code> and send them on
+ * {@link #close()}. The body goes out with a <code>Content-Length</code>: a body that fits in one
+ * buffer is sent as it is, otherwise buffers are joined (see
+ * {@link AbstractRendererContext#_send(List)}). Buffers aren't recycled, because servers might
+ * read them after the renderer returns.
+ *
+ * @author edgar
+ */
+class RendererWriter extends Writer {
+
+  private final AbstractRendererContext ctx;
+
+  private final CharsetEncoder encoder;
+
+  private final int bufferSize;
+
+  /** Full buffers. */
+  private List<ByteBuffer> buffers;
+
+  private ByteBuffer buffer;
+
+  /** High surrogate from previous write. */
+  private char surrogate;
+
+  private boolean closed;
+
+  public RendererWriter(final AbstractRendererContext ctx, final Charset charset,
+      final int bufferSize) {
+    this.ctx = ctx;
+    // same as String.getBytes
+    this.encoder = charset.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    // room for any encoded char
+    this.bufferSize = Math.max(8, bufferSize);
+    this.buffer = ByteBuffer.allocate(this.bufferSize);
+  }
+
+  @Override
+  public void write(final int c) throws IOException {
+    write(new char[]{(char) c }, 0, 1);
+  }
+
+  @Override
+  public void write(final String str, final int off, final int len) throws IOException {
+    write(CharBuffer.wrap(str, off, off + len));
+  }
+
+  @Override
+  public void write(final char[] cbuf, final int off, final int len) throws IOException {
+    write(CharBuffer.wrap(cbuf, off, len));
+  }
+
+  @Override
+  public Writer append(final CharSequence csq) throws IOException {
+    write(CharBuffer.wrap(csq == null ? "null" : csq));
+    return this;
+  }
+
+  @Override
+  public Writer append(final CharSequence csq, final int start, final int end)
+      throws IOException {
+    write(CharBuffer.wrap(csq == null ? "null" : csq, start, end));
+    return this;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    // NOOP: response is sent on close
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (surrogate != 0) {
+      encode(CharBuffer.wrap(new char[]{surrogate }), true);
+    } else {
+      encode(CharBuffer.allocate(0), true);
+    }
+    while (encoder.flush(buffer).isOverflow()) {
+      next();
+    }
+    try {
+      ctx.type(MediaType.html);
+      if (buffers == null) {
+        ctx.length(buffer.position());
+        buffer.flip();
+        ctx._send(buffer);
+      } else {
+        buffers.add(buffer);
+        buffers.forEach(ByteBuffer::flip);
+        ctx.length(buffers.stream().mapToLong(ByteBuffer::remaining).sum());
+        ctx._send(buffers);
+        buffers = null;
+      }
+      ctx.setCommitted();
+    } catch (IOException | RuntimeException x) {
+      throw x;
+    } catch (Exception x) {
+      throw new IOException("Unable to send response", x);
+    }
+  }
+
+  private void write(final CharBuffer in) throws IOException {
+    if (closed) {
+      throw new IOException("Writer closed");
+    }
+    if (surrogate != 0 && in.hasRemaining()) {
+      encode(CharBuffer.wrap(new char[]{surrogate, in.get() }), false);
+      surrogate = 0;
+    }
+    encode(in, false);
+    if (in.hasRemaining()) {
+      // split surrogate pair, wait for next write
+      surrogate = in.get();
+    }
+  }
+
+  private void encode(final CharBuffer in, final boolean eof) throws IOException {
+    while (true) {
+      CoderResult result = encoder.encode(in, buffer, eof);
+      if (result.isOverflow()) {
+        next();
+      } else if (result.isUnderflow()) {
+        return;
+      } else {
+        result.throwException();
+      }
+    }
+  }
+
+  private void next() {
+    if (buffers == null) {
+      buffers = new ArrayList<>();
+    }
+    buffers.add(buffer);
+    buffer = ByteBuffer.allocate(bufferSize);
+  }
+
+}
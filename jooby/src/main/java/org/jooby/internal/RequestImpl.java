@@ -31,6 +31,7 @@ import java.util.Locale;
 import java.util.Locale.LanguageRange;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -47,6 +48,7 @@ import org.jooby.Response;
 import org.jooby.Route;
 import org.jooby.Session;
 import org.jooby.Status;
+import org.jooby.Trace;
 import org.jooby.Upload;
 import org.jooby.internal.parser.ParserExecutor;
 import org.jooby.spi.NativeRequest;
@@ -71,7 +73,7 @@ public class RequestImpl implements Request {
 
   private final NativeRequest req;
 
-  private final Map<Object, Object> scope;
+  private final RequestScope.Slots scope;
 
   private final Map<String, Object> locals;
 
@@ -93,9 +95,16 @@ public class RequestImpl implements Request {
 
   private long timestamp;
 
+  private long deadline = Long.MAX_VALUE;
+
+  private volatile boolean aborted;
+
+  /** Request trace or <code>null</code> when tracing is off. */
+  private Trace trace;
+
   public RequestImpl(final Injector injector, final NativeRequest req, final String contextPath,
       final int port, final Route route, final Charset charset, final List<Locale> locale,
-      final Map<Object, Object> scope, final Map<String, Object> locals, final long timestamp) {
+      final RequestScope.Slots scope, final Map<String, Object> locals, final long timestamp) {
     this.injector = injector;
     this.req = req;
     this.route = route;
@@ -402,7 +411,7 @@ public class RequestImpl implements Request {
   public Request set(final Key<?> key, final Object value) {
     requireNonNull(key, "A local's jey is required.");
     requireNonNull(value, "A local's value is required.");
-    scope.put(key, value);
+    scope.set(key, value);
     return this;
   }
 
@@ -476,6 +485,44 @@ public class RequestImpl implements Request {
     return timestamp;
   }
 
+  @Override
+  public Optional<Long> deadline() {
+    return deadline == Long.MAX_VALUE ? Optional.empty() : Optional.of(deadline);
+  }
+
+  @Override
+  public Request deadline(final long timeout, final TimeUnit unit) {
+    this.deadline = Math.min(deadline, timestamp + unit.toMillis(timeout));
+    return this;
+  }
+
+  @Override
+  public boolean expired() {
+    return aborted || (deadline != Long.MAX_VALUE && System.currentTimeMillis() >= deadline);
+  }
+
+  public Err deadlineExceeded() {
+    return new Err(Status.GATEWAY_TIMEOUT, aborted
+        ? "client went away"
+        : "deadline exceeded: " + (deadline - timestamp) + "ms");
+  }
+
+  public void abort() {
+    this.aborted = true;
+  }
+
+  public boolean aborted() {
+    return aborted;
+  }
+
+  public Trace trace() {
+    return trace;
+  }
+
+  void trace(final Trace trace) {
+    this.trace = trace;
+  }
+
   private Session setSession(final SessionManager sm, final Response rsp, final Session gsession) {
     Session rsession = new RequestScopedSession(sm, rsp, gsession, this::destroySession);
     reqSession = Optional.of(rsession);
@@ -18,7 +18,13 @@
  */
 package org.jooby.internal;
 
+import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jooby.Request;
+import org.jooby.Response;
 
 import com.google.inject.Key;
 import com.google.inject.OutOfScopeException;
@@ -26,12 +32,106 @@ import com.google.inject.Provider;
 import com.google.inject.Scope;
 import com.google.inject.Scopes;
 
+/**
+ * Request scope. Scoped objects live in the slots of a per-request array, each scoped key gets a
+ * slot id when the binding is scoped (injector creation), so resolving a scoped object is an array
+ * access. {@link Request} and {@link Response} have fixed slots: {@link #REQ} and {@link #RSP}.
+ */
 public class RequestScope implements Scope {
 
-  private final ThreadLocal<Map<Object, Object>> scope = new ThreadLocal<>();
+  /**
+   * Scoped objects of a request.
+   */
+  public static class Slots {
+
+    private final RequestScope scope;
+
+    /**
+     * Slot values. Request and deferred threads share the slots: writes (and growth) happen under
+     * the slots lock, each write republishes the array so lock-free reads see it.
+     */
+    private volatile Object[] values;
+
+    Slots(final RequestScope scope, final int size) {
+      this.scope = scope;
+      this.values = new Object[size];
+    }
+
+    /**
+     * Seed a scoped object.
+     *
+     * @param id Slot id.
+     * @param value Value.
+     * @return These slots.
+     */
+    public synchronized Slots set(final int id, final Object value) {
+      Object[] values = this.values;
+      if (id >= values.length) {
+        // a key scoped after this request started (just-in-time binding)
+        values = Arrays.copyOf(values, Math.max(id + 1, values.length * 2));
+      }
+      values[id] = value == null ? NULL : value;
+      // publish
+      this.values = values;
+      return this;
+    }
+
+    /**
+     * Seed a scoped object.
+     *
+     * @param key Key.
+     * @param value Value.
+     * @return These slots.
+     */
+    public Slots set(final Key<?> key, final Object value) {
+      return set(scope.id(key), value);
+    }
+
+    Object get(final int id) {
+      Object[] values = this.values;
+      return id < values.length ? values[id] : null;
+    }
+  }
+
+  /** Slot of {@link Request}. */
+  public static final int REQ = 0;
 
-  public void enter(final Map<Object, Object> locals) {
-    scope.set(locals);
+  /** Slot of {@link Response}. */
+  public static final int RSP = 1;
+
+  /** Marker for scoped null values. */
+  private static final Object NULL = new Object();
+
+  private final ThreadLocal<Slots> scope = new ThreadLocal<>();
+
+  private final Map<Key<?>, Integer> ids = new ConcurrentHashMap<>();
+
+  private final AtomicInteger nextId = new AtomicInteger();
+
+  public RequestScope() {
+    id(Key.get(Request.class));
+    id(Key.get(Response.class));
+  }
+
+  /**
+   * @return Empty slots for a new request.
+   */
+  public Slots newScope() {
+    return new Slots(this, nextId.get());
+  }
+
+  /**
+   * Slot id for the given key. Ids are assigned on first call.
+   *
+   * @param key A key.
+   * @return Slot id.
+   */
+  public int id(final Key<?> key) {
+    return ids.computeIfAbsent(key, k -> nextId.getAndIncrement());
+  }
+
+  public void enter(final Slots slots) {
+    scope.set(slots);
   }
 
   public void exit() {
@@ -41,35 +141,33 @@ public class RequestScope implements Scope {
   @SuppressWarnings({"unchecked", "rawtypes" })
   @Override
   public <T> Provider<T> scope(final Key<T> key, final Provider<T> unscoped) {
+    int id = id(key);
+    boolean unwrap = !javax.inject.Provider.class
+        .isAssignableFrom(key.getTypeLiteral().getRawType());
     return () -> {
-      Map<Object, Object> scopedObjects = getScopedObjectMap(key);
+      Slots slots = scope.get();
+      if (slots == null) {
+        throw new OutOfScopeException("Cannot access " + key + " outside of a scoping block");
+      }
 
-      T current = (T) scopedObjects.get(key);
-      if (current == null && !scopedObjects.containsKey(key)) {
+      Object current = slots.get(id);
+      if (current == null) {
         current = unscoped.get();
 
         // don't remember proxies; these exist only to serve circular dependencies
         if (Scopes.isCircularProxy(current)) {
-          return current;
+          return (T) current;
         }
 
-        scopedObjects.put(key, current);
+        slots.set(id, current);
+      } else if (current == NULL) {
+        return null;
       }
-      if (current instanceof javax.inject.Provider) {
-        if (!javax.inject.Provider.class.isAssignableFrom(key.getTypeLiteral().getRawType())) {
-          return (T) ((javax.inject.Provider) current).get();
-        }
+      if (unwrap && current instanceof javax.inject.Provider) {
+        return (T) ((javax.inject.Provider) current).get();
       }
-      return current;
+      return (T) current;
     };
   }
 
-  private <T> Map<Object, Object> getScopedObjectMap(final Key<T> key) {
-    Map<Object, Object> scopedObjects = scope.get();
-    if (scopedObjects == null) {
-      throw new OutOfScopeException("Cannot access " + key + " outside of a scoping block");
-    }
-    return scopedObjects;
-  }
-
 }
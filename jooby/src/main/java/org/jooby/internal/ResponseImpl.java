@@ -42,6 +42,7 @@ import org.jooby.Deferred;
 import org.jooby.MediaType;
 import org.jooby.Mutant;
 import org.jooby.Renderer;
+import org.jooby.Request;
 import org.jooby.Response;
 import org.jooby.Result;
 import org.jooby.Results;
@@ -61,10 +62,18 @@ public class ResponseImpl implements Response {
 
   private static final String LOCATION = "Location";
 
+  private static final String ETAG = "ETag";
+
+  private static final String IF_NONE_MATCH = "If-None-Match";
+
+  /** Headers of a body, a 304 response doesn't have one. */
+  private static final List<String> BODY_HEADERS = ImmutableList.of("Content-Length",
+      "Content-Type", "Transfer-Encoding");
+
   /** Char encoded content disposition. */
   private static final String CONTENT_DISPOSITION = "attachment; filename=\"%s\"; filename*=%s''%s";
 
-  private final NativeResponse rsp;
+  private NativeResponse rsp;
 
   private final Map<String, Object> locals;
 
@@ -72,6 +81,11 @@ public class ResponseImpl implements Response {
 
   private Charset charset;
 
+  /** Value of <code>server.http.ResponseBufferSize</code>. */
+  private int bufferSize;
+
+  private RendererCache rendererCache;
+
   private final Optional<String> referer;
 
   private Status status;
@@ -99,7 +113,8 @@ public class ResponseImpl implements Response {
   public ResponseImpl(final RequestImpl req, final ParserExecutor parserExecutor,
       final NativeResponse rsp, final Route route, final List<Renderer> renderers,
       final Map<String, Renderer> rendererMap, final Map<String, Object> locals,
-      final Charset charset, final Optional<String> referer) {
+      final Charset charset, final Optional<String> referer, final int bufferSize,
+      final RendererCache rendererCache) {
     this.req = req;
     this.parserExecutor = parserExecutor;
     this.rsp = rsp;
@@ -109,6 +124,8 @@ public class ResponseImpl implements Response {
     this.rendererMap = rendererMap;
     this.charset = charset;
     this.referer = referer;
+    this.bufferSize = bufferSize;
+    this.rendererCache = rendererCache;
   }
 
   @Override
@@ -266,6 +283,72 @@ public class ResponseImpl implements Response {
     end();
   }
 
+  @Override
+  public boolean etag(final Object version) {
+    String etag = etag(version.toString());
+    header(ETAG, etag);
+    String method = route.method();
+    if ((method.equals(Route.GET) || method.equals(Route.HEAD)) && ifNoneMatch(req, etag)) {
+      notModified();
+      end();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Quote a version token as strong entity tag (if need it).
+   *
+   * @param version Version token.
+   * @return An entity tag.
+   */
+  public static String etag(final String version) {
+    if (version.startsWith("\"") || version.startsWith("W/\"")) {
+      return version;
+    }
+    return "\"" + version + "\"";
+  }
+
+  /**
+   * Check the <code>If-None-Match</code> header against the given entity tag. Comparison is weak,
+   * as required for <code>If-None-Match</code>.
+   *
+   * @param req HTTP request.
+   * @param etag Entity tag.
+   * @return True if the client has a fresh copy.
+   */
+  public static boolean ifNoneMatch(final Request req, final String etag) {
+    String tag = weak(etag);
+    for (String value : req.header(IF_NONE_MATCH).toList()) {
+      for (String candidate : value.split(",")) {
+        String ctag = candidate.trim();
+        if (ctag.equals("*") || weak(ctag).equals(tag)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Downgrade a response to <code>304</code>: set the status code and remove the body headers.
+   *
+   * @param rsp A response.
+   */
+  public static void notModified(final NativeResponse rsp) {
+    rsp.statusCode(Status.NOT_MODIFIED.value());
+    BODY_HEADERS.forEach(rsp::removeHeader);
+  }
+
+  private void notModified() {
+    status(Status.NOT_MODIFIED);
+    notModified(rsp);
+  }
+
+  private static String weak(final String etag) {
+    return etag.startsWith("W/") ? etag.substring(2) : etag;
+  }
+
   @Override
   public void end() {
     if (!rsp.committed()) {
@@ -302,6 +385,12 @@ public class ResponseImpl implements Response {
       throw new DeferredExecution((Deferred) result);
     }
 
+    if (result instanceof EncodedResult) {
+      EncodedResult encoded = (EncodedResult) result;
+      send(encoded.statusCode(), encoded.encodedHeaders(), encoded.body());
+      return;
+    }
+
     Result finalResult = result;
 
     if (!failure) {
@@ -360,7 +449,9 @@ public class ResponseImpl implements Response {
           setType,
           locals,
           produces,
-          charset);
+          charset,
+          bufferSize,
+          rendererCache);
       // explicit renderer?
       Renderer renderer = rendererMap.get(route.attr("renderer"));
       if (renderer != null) {
@@ -373,6 +464,41 @@ public class ResponseImpl implements Response {
     end();
   }
 
+  /**
+   * Keep the body in memory until the response ends, then call the given listener. Listener is in
+   * charge of sending the buffered body (or something else) and ending the response.
+   *
+   * @param onEnd End listener.
+   * @return A buffered response.
+   */
+  public BufferedResponse buffer(final Consumer<BufferedResponse> onEnd) {
+    BufferedResponse buffer = new BufferedResponse(rsp, onEnd);
+    this.rsp = buffer;
+    return buffer;
+  }
+
+  /**
+   * Send a previously rendered response: status, headers and encoded body.
+   *
+   * @param status Status code.
+   * @param headers Response headers.
+   * @param body Encoded body.
+   * @throws Exception If send fails.
+   */
+  public void send(final int status, final Map<String, List<String>> headers, final byte[] body)
+      throws Exception {
+    status(status);
+    headers.forEach(rsp::header);
+    writeCookies();
+    List<String> etag = rsp.headers(ETAG);
+    if (etag.size() > 0 && ifNoneMatch(req, etag.get(0))) {
+      notModified();
+    } else if (body.length > 0 && !Route.HEAD.equals(route.method())) {
+      rsp.send(body);
+    }
+    end();
+  }
+
   @Override
   public void after(final After handler) {
     after.add(handler);
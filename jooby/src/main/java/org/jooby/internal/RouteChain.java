@@ -20,15 +20,20 @@ package org.jooby.internal;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.jooby.Request;
 import org.jooby.Response;
 import org.jooby.Route;
+import org.jooby.Trace;
 
 import com.google.common.collect.ImmutableMap;
 
 public class RouteChain implements Route.Chain {
 
+  /** Route attribute with a deadline: millis or a duration expression like: 2s. */
+  private static final String DEADLINE = "deadline";
+
   private List<Route> routes;
 
   private String prefix;
@@ -41,6 +46,8 @@ public class RouteChain implements Route.Chain {
 
   private boolean hasAttrs;
 
+  private boolean hasDeadline;
+
   public RouteChain(final RequestImpl req, final ResponseImpl rsp, final List<Route> routes) {
     this.routes = routes;
     this.rreq = req;
@@ -49,7 +56,9 @@ public class RouteChain implements Route.Chain {
     // eager decision if we need to wrap a route to get all the attrs within the change.
     ImmutableMap.Builder<String, Object> builder = ImmutableMap.builder();
     routes.forEach(r -> builder.putAll(r.attributes()));
-    this.hasAttrs = builder.build().size() > 0;
+    Map<String, Object> attrs = builder.build();
+    this.hasAttrs = attrs.size() > 0;
+    this.hasDeadline = attrs.containsKey(DEADLINE);
   }
 
   @Override
@@ -67,7 +76,31 @@ public class RouteChain implements Route.Chain {
     rreq.route(hasAttrs ? attrs(route, routes, i - 1) : route);
     rrsp.route(route);
 
-    get(route).handle(req, rsp, this);
+    if (hasDeadline) {
+      deadline(rreq, route.attributes().get(DEADLINE));
+    }
+    if (rreq.expired()) {
+      throw rreq.deadlineExceeded();
+    }
+
+    Trace trace = rreq.trace();
+    if (trace == null) {
+      get(route).handle(req, rsp, this);
+    } else {
+      // nested: a filter span includes the rest of the chain
+      Trace.Span span = trace.span(route.method() + " " + route.pattern());
+      try {
+        get(route).handle(req, rsp, this);
+      } finally {
+        span.finish();
+      }
+    }
+  }
+
+  private static void deadline(final RequestImpl req, final Object value) {
+    if (value != null) {
+      req.deadline(DurationAttr.millis(DEADLINE, value), TimeUnit.MILLISECONDS);
+    }
   }
 
   private Route next(final String prefix) {
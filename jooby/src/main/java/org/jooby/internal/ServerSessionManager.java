@@ -140,7 +140,7 @@ public class ServerSessionManager implements SessionManager {
       long interval = now - session.savedAt();
       if (interval >= saveInterval) {
         session.aboutToSave();
-        store.save(session);
+        store.touch(session);
       }
     }
     session.markAsSaved();
@@ -104,7 +104,8 @@ public class SseRenderer extends AbstractRendererContext {
   @Override
   protected void _send(final ByteBuffer buffer) throws Exception {
     byte[] bytes;
-    if (buffer.hasArray()) {
+    if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+        && buffer.remaining() == buffer.array().length) {
       _send(buffer.array());
     } else {
       bytes = new byte[buffer.remaining()];
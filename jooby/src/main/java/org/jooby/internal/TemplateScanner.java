@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Find templates under a classpath prefix, from directories and jars.
+ *
+ * @author edgar
+ */
+public class TemplateScanner {
+
+  private final ClassLoader loader;
+
+  private final String path;
+
+  private final String suffix;
+
+  public TemplateScanner(final ClassLoader loader, final String prefix, final String suffix) {
+    this.loader = loader;
+    String path = prefix.startsWith("/") ? prefix.substring(1) : prefix;
+    this.path = path.length() == 0 || path.endsWith("/") ? path : path + "/";
+    this.suffix = suffix;
+  }
+
+  /**
+   * @return File system directories mapped to the prefix.
+   * @throws IOException If classpath can't be read.
+   */
+  public List<Path> dirs() throws IOException {
+    List<Path> dirs = new ArrayList<>();
+    for (URL url : resources()) {
+      if ("file".equals(url.getProtocol())) {
+        try {
+          Path dir = Paths.get(url.toURI());
+          if (Files.isDirectory(dir)) {
+            dirs.add(dir);
+          }
+        } catch (URISyntaxException x) {
+          // skip it
+        }
+      }
+    }
+    return dirs;
+  }
+
+  /**
+   * @return Template names, without prefix and suffix.
+   * @throws IOException If classpath can't be read.
+   */
+  public Set<String> scan() throws IOException {
+    Set<String> names = new LinkedHashSet<>();
+    for (Path dir : dirs()) {
+      try (Stream<Path> files = Files.walk(dir)) {
+        files.filter(Files::isRegularFile)
+            .map(file -> dir.relativize(file).toString().replace('\\', '/'))
+            .filter(name -> name.endsWith(suffix))
+            .forEach(name -> names.add(name(name)));
+      }
+    }
+    for (URL url : resources()) {
+      if ("jar".equals(url.getProtocol())) {
+        URLConnection connection = url.openConnection();
+        connection.setUseCaches(false);
+        String root = ((JarURLConnection) connection).getEntryName();
+        root = root == null ? "" : root.substring(0, root.lastIndexOf('/') + 1);
+        try (JarFile jar = ((JarURLConnection) connection).getJarFile()) {
+          Enumeration<JarEntry> entries = jar.entries();
+          while (entries.hasMoreElements()) {
+            String entry = entries.nextElement().getName();
+            if (entry.startsWith(root) && entry.endsWith(suffix)) {
+              names.add(name(entry.substring(root.length())));
+            }
+          }
+        }
+      }
+    }
+    return names;
+  }
+
+  private String name(final String path) {
+    return path.substring(0, path.length() - suffix.length());
+  }
+
+  private List<URL> resources() throws IOException {
+    if (path.length() > 0) {
+      return Collections.list(loader.getResources(path));
+    }
+    // classpath root: directories are listed, but jars aren't. Use application.conf to find the
+    // application jar.
+    List<URL> urls = Collections.list(loader.getResources(""));
+    urls.addAll(Collections.list(loader.getResources("application.conf")));
+    return urls;
+  }
+
+}
@@ -0,0 +1,110 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.stream.Collectors;
+
+import org.jooby.Renderer;
+import org.jooby.View;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.typesafe.config.Config;
+
+/**
+ * Compile templates of {@link View.Engine} at startup time, in parallel.
+ *
+ * @author edgar
+ */
+public class ViewWarmup {
+
+  /** The logging system. */
+  private final Logger log = LoggerFactory.getLogger(View.Engine.class);
+
+  private final int parallelism;
+
+  private final boolean failFast;
+
+  public ViewWarmup(final Config conf) {
+    this.parallelism = Math.max(1, conf.getInt("view.warmup.parallelism"));
+    this.failFast = conf.getBoolean("view.warmup.failFast");
+  }
+
+  public void run(final Set<Renderer> renderers) throws Exception {
+    List<View.Engine> engines = renderers.stream()
+        .filter(View.Engine.class::isInstance)
+        .map(View.Engine.class::cast)
+        .collect(Collectors.toList());
+    if (engines.isEmpty()) {
+      return;
+    }
+    ForkJoinPool pool = new ForkJoinPool(parallelism, it -> {
+      ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(it);
+      thread.setName("view-warmup-" + thread.getPoolIndex());
+      return thread;
+    }, null, false);
+    try {
+      for (View.Engine engine : engines) {
+        warmup(pool, engine);
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private void warmup(final ForkJoinPool pool, final View.Engine engine) throws Exception {
+    long start = System.currentTimeMillis();
+    Set<String> names = engine.templates();
+    if (names.isEmpty()) {
+      return;
+    }
+    Queue<String> errors = new ConcurrentLinkedQueue<>();
+    try {
+      // parallel stream runs inside the pool
+      pool.submit(() -> names.parallelStream().forEach(name -> {
+        try {
+          engine.compile(name);
+        } catch (Exception x) {
+          if (failFast) {
+            throw new IllegalStateException(engine + ": template " + name + " doesn't compile", x);
+          }
+          errors.add(name);
+          log.error("{}: template {} doesn't compile", engine, name, x);
+        }
+      })).get();
+    } catch (ExecutionException x) {
+      Throwable cause = x.getCause();
+      if (cause instanceof Exception) {
+        throw (Exception) cause;
+      }
+      throw x;
+    }
+    log.info("{}: {} templates compiled in {}ms{}", engine, names.size(),
+        System.currentTimeMillis() - start,
+        errors.isEmpty() ? "" : " with errors in " + errors);
+  }
+
+}
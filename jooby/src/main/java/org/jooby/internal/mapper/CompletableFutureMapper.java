@@ -30,6 +30,7 @@ public class CompletableFutureMapper implements Route.Mapper<CompletableFuture>
   @Override
   public Object map(final CompletableFuture future) throws Throwable {
     return new Deferred(deferred -> {
+      deferred.onCancel(() -> future.cancel(true));
       future.whenComplete((value, x) -> {
         if (x != null) {
           deferred.reject((Throwable) x);
@@ -149,6 +149,35 @@ public interface NativeRequest {
    */
   void startAsync(Executor executor, Runnable runnable);
 
+  /**
+   * Register a callback to be executed when the client connection is closed before the response
+   * was sent. Servers that can't detect it should ignore the callback.
+   *
+   * @param callback Callback to execute when the client went away.
+   */
+  default void onAbort(final Runnable callback) {
+  }
+
+  /**
+   * True when the request is being executed by a non-blocking IO thread. Only non-blocking
+   * routes are allowed to run there, everything else must be moved to a worker thread via
+   * {@link #dispatch(Runnable)}.
+   *
+   * @return True when running in a non-blocking IO thread.
+   */
+  default boolean inIoThread() {
+    return false;
+  }
+
+  /**
+   * Move the execution of the given task from the IO thread to a worker thread.
+   *
+   * @param task Task to run.
+   */
+  default void dispatch(final Runnable task) {
+    task.run();
+  }
+
   /**
    * Send push promise to the client.
    *
@@ -65,6 +65,13 @@ public interface NativeResponse {
    */
   void header(String name, String value);
 
+  /**
+   * Remove a response header (if present).
+   *
+   * @param name Header's name.
+   */
+  void removeHeader(String name);
+
   void send(byte[] bytes) throws Exception;
 
   void send(ByteBuffer buffer) throws Exception;
@@ -18,6 +18,9 @@
  */
 package org.jooby.spi;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * A HTTP web server.
@@ -48,4 +51,15 @@ public interface Server {
    */
   void join() throws InterruptedException;
 
+  /**
+   * Server internals like IO threads, worker queues or open connections. Values are read every
+   * time the supplier is called, so a metric might be <code>0</code> before the server starts.
+   * See the <code>jooby-metrics</code> module for exporting them.
+   *
+   * @return Metrics by name. Default is empty.
+   */
+  default Map<String, Supplier<Number>> metrics() {
+    return Collections.emptyMap();
+  }
+
 }
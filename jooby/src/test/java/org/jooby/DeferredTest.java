@@ -4,8 +4,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jooby.test.MockUnit;
 import org.junit.Test;
@@ -87,6 +89,31 @@ public class DeferredTest {
     latch.await();
   }
 
+  @Test
+  public void onCancel() throws Exception {
+    AtomicInteger counter = new AtomicInteger();
+    Deferred deferred = new Deferred();
+    deferred.onCancel(counter::incrementAndGet);
+    deferred.onCancel(counter::incrementAndGet);
+    assertFalse(deferred.cancelled());
+    deferred.cancel();
+    assertTrue(deferred.cancelled());
+    assertEquals(2, counter.get());
+    // noop
+    deferred.cancel();
+    assertEquals(2, counter.get());
+    // run now
+    deferred.onCancel(counter::incrementAndGet);
+    assertEquals(3, counter.get());
+  }
+
+  @Test
+  public void cancelWithoutCallbacks() throws Exception {
+    Deferred deferred = new Deferred();
+    deferred.cancel();
+    assertTrue(deferred.cancelled());
+  }
+
   @Test
   public void setReject() throws Exception {
     Exception cause = new Exception();
@@ -515,6 +515,7 @@ public class JoobyTest {
     expect(config.getString("application.env")).andReturn("dev");
     expect(config.hasPath("server.join")).andReturn(true);
     expect(config.getBoolean("server.join")).andReturn(true);
+    expect(config.getBoolean("view.warmup.enabled")).andReturn(false);
     unit.registerMock(Config.class, config);
     // expect(config.origin()).andReturn(configOrigin).times(0, 1);
 
@@ -570,6 +571,7 @@ public class JoobyTest {
               expect(config.getString("application.env")).andReturn("dev");
               expect(config.hasPath("server.join")).andReturn(true);
               expect(config.getBoolean("server.join")).andReturn(true);
+              expect(config.getBoolean("view.warmup.enabled")).andReturn(false);
               // expect(config.origin()).andReturn(configOrigin).times(0, 1);
 
               AppPrinter printer = unit.constructor(AppPrinter.class)
@@ -983,6 +985,7 @@ public class JoobyTest {
               expect(config.getString("application.env")).andReturn("dev");
               expect(config.hasPath("server.join")).andReturn(true);
               expect(config.getBoolean("server.join")).andReturn(true);
+              expect(config.getBoolean("view.warmup.enabled")).andReturn(false);
               // expect(config.origin()).andReturn(configOrigin).times(0, 1);
 
               AppPrinter printer = unit.constructor(AppPrinter.class)
@@ -6,6 +6,7 @@ import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -15,6 +16,8 @@ import java.util.stream.Collectors;
 
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
+
 public class MediaTypeTest {
 
   @Test
@@ -238,6 +241,43 @@ public class MediaTypeTest {
     assertEquals(Optional.empty(), type);
   }
 
+  @Test
+  public void interned() {
+    assertTrue(MediaType.json == MediaType.valueOf("application/json"));
+    assertTrue(MediaType.html == MediaType.parse("text/html, */*").get(0));
+    assertTrue(MediaType.all == MediaType.parse("text/html, */*").get(1));
+    assertTrue(MediaType.json != MediaType.valueOf("application/json;charset=utf-8"));
+  }
+
+  @Test
+  public void parseCache() {
+    String accept = "text/html, application/xhtml+xml, application/xml;q=0.9, */*;q=0.8";
+    assertTrue(MediaType.parse(accept) == MediaType.parse(accept));
+  }
+
+  @Test
+  public void negotiationCache() {
+    List<MediaType> accept = MediaType.parse("application/json, text/html;q=0.9");
+    List<MediaType> produces = new ArrayList<>(MediaType.valueOf("text/html", "application/json"));
+
+    List<MediaType> result = MediaType.matcher(accept).filter(produces);
+    assertEquals(ImmutableList.of(MediaType.json, MediaType.html), result);
+    assertTrue(result == MediaType.matcher(accept).filter(produces));
+
+    // changing the candidates doesn't corrupt the cache
+    produces.remove(MediaType.json);
+    assertEquals(ImmutableList.of(MediaType.html), MediaType.matcher(accept).filter(produces));
+  }
+
+  @Test
+  public void matchesSingleCandidate() {
+    MediaType.Matcher matcher = MediaType.matcher(MediaType.parse("text/*, application/json"));
+    assertTrue(matcher.matches(MediaType.plain));
+    assertFalse(matcher.matches(MediaType.xml));
+    assertEquals(Optional.of(MediaType.json), matcher.first(MediaType.json));
+    assertEquals(Optional.empty(), matcher.first(MediaType.xml));
+  }
+
   private void assertMediaTypes(final List<MediaType> types, final String... expected) {
     assertEquals(types.toString(), expected.length, types.size());
     Collections.sort(types);
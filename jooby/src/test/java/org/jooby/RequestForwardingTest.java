@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 
 import org.jooby.Request.Forwarding;
@@ -749,6 +750,33 @@ public class RequestForwardingTest {
         });
   }
 
+  @Test
+  public void deadline() throws Exception {
+    new MockUnit(Request.class)
+        .expect(unit -> {
+          Request req = unit.get(Request.class);
+          expect(req.deadline()).andReturn(Optional.of(1L));
+          expect(req.deadline(5L, TimeUnit.SECONDS)).andReturn(req);
+        })
+        .run(unit -> {
+          Request req = new Request.Forwarding(unit.get(Request.class));
+          assertEquals(Optional.of(1L), req.deadline());
+          assertEquals(req, req.deadline(5L, TimeUnit.SECONDS));
+        });
+  }
+
+  @Test
+  public void expired() throws Exception {
+    new MockUnit(Request.class)
+        .expect(unit -> {
+          Request req = unit.get(Request.class);
+          expect(req.expired()).andReturn(true);
+        })
+        .run(unit -> {
+          assertEquals(true, new Request.Forwarding(unit.get(Request.class)).expired());
+        });
+  }
+
   @Test
   public void flash() throws Exception {
     new MockUnit(Request.class, Map.class)
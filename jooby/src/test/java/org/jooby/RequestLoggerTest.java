@@ -4,7 +4,12 @@ import static org.easymock.EasyMock.expect;
 import static org.junit.Assert.assertEquals;
 
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.jooby.test.MockUnit;
 import org.jooby.test.MockUnit.Block;
@@ -13,6 +18,8 @@ import org.junit.runner.RunWith;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import javaslang.control.Try.CheckedRunnable;
+
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({RequestLogger.class, System.class })
 public class RequestLoggerTest {
@@ -93,6 +100,71 @@ public class RequestLoggerTest {
         }, onComplete);
   }
 
+  @Test
+  public void async() throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    List<String> lines = new ArrayList<>();
+    RequestLogger logger = new RequestLogger()
+        .dateFormatter(ZoneId.of("UTC"))
+        .async(2)
+        .log(line -> {
+          lines.add(line);
+          latch.countDown();
+        });
+    new MockUnit(Request.class, Response.class, Env.class)
+        .expect(unit -> {
+          Env env = unit.get(Env.class);
+          expect(env.onStart(unit.capture(CheckedRunnable.class))).andReturn(env);
+          expect(env.onStop(unit.capture(CheckedRunnable.class))).andReturn(env);
+        })
+        .expect(capture)
+        .expect(timestamp(7L))
+        .expect(ip("127.0.0.1"))
+        .expect(method("GET"))
+        .expect(path("/"))
+        .expect(protocol("HTTP/1.1"))
+        .expect(status(Status.OK))
+        .expect(len(345L))
+        .run(unit -> {
+          logger.lifeCycle(unit.get(Env.class));
+          // start
+          unit.captured(CheckedRunnable.class).get(0).run();
+          logger.handle(unit.get(Request.class), unit.get(Response.class));
+          assertEquals(0L, logger.dropped());
+        }, onComplete, unit -> {
+          latch.await(5, TimeUnit.SECONDS);
+          // stop
+          unit.captured(CheckedRunnable.class).get(1).run();
+          assertEquals(Arrays.asList(
+              "127.0.0.1 - - [01/Jan/1970:00:00:00 +0000] \"GET / HTTP/1.1\" 200 345"), lines);
+        });
+  }
+
+  @Test
+  public void asyncWithoutLifeCycle() throws Exception {
+    List<String> lines = new ArrayList<>();
+    new MockUnit(Request.class, Response.class)
+        .expect(capture)
+        .expect(timestamp(7L))
+        .expect(ip("127.0.0.1"))
+        .expect(method("GET"))
+        .expect(path("/"))
+        .expect(protocol("HTTP/1.1"))
+        .expect(status(Status.OK))
+        .expect(len(345L))
+        .run(unit -> {
+          // not started: log from the caller thread
+          new RequestLogger()
+              .dateFormatter(ZoneId.of("UTC"))
+              .async()
+              .log(lines::add)
+              .handle(unit.get(Request.class), unit.get(Response.class));
+        }, onComplete, unit -> {
+          assertEquals(Arrays.asList(
+              "127.0.0.1 - - [01/Jan/1970:00:00:00 +0000] \"GET / HTTP/1.1\" 200 345"), lines);
+        });
+  }
+
   private Block referer(final String referer) {
     return unit -> {
       Mutant mutant = unit.mock(Mutant.class);
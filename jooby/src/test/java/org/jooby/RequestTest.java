@@ -12,6 +12,7 @@ import java.util.Locale;
 import java.util.Locale.LanguageRange;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 
 import org.jooby.test.MockUnit;
@@ -231,6 +232,24 @@ public class RequestTest {
 
   }
 
+  @Test
+  public void noDeadline() throws Exception {
+    RequestMock req = new RequestMock();
+    assertEquals(Optional.empty(), req.deadline());
+    assertEquals(req, req.deadline(1, TimeUnit.SECONDS));
+    assertEquals(false, req.expired());
+  }
+
+  @Test
+  public void expired() throws Exception {
+    assertEquals(true, new RequestMock() {
+      @Override
+      public Optional<Long> deadline() {
+        return Optional.of(System.currentTimeMillis() - 1);
+      }
+    }.expired());
+  }
+
   @Test
   public void accepts() throws Exception {
     LinkedList<MediaType> dataList = new LinkedList<>();
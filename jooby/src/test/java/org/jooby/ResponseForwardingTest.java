@@ -345,6 +345,20 @@ public class ResponseForwardingTest {
         });
   }
 
+  @Test
+  public void etag() throws Exception {
+    new MockUnit(Response.class)
+        .expect(unit -> {
+          Response rsp = unit.get(Response.class);
+          expect(rsp.etag(1L)).andReturn(true);
+        })
+        .run(unit -> {
+          Response rsp = new Response.Forwarding(unit.get(Response.class));
+
+          assertEquals(true, rsp.etag(1L));
+        });
+  }
+
   @Test
   public void pushAfter() throws Exception {
     new MockUnit(Response.class, Route.After.class)
@@ -76,6 +76,11 @@ public class ResponseTest {
       throw new UnsupportedOperationException();
     }
 
+    @Override
+    public boolean etag(final Object version) {
+      throw new UnsupportedOperationException();
+    }
+
     @Override
     public Optional<MediaType> type() {
       throw new UnsupportedOperationException();
@@ -0,0 +1,192 @@
+package org.jooby;
+
+import static org.easymock.EasyMock.expect;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jooby.test.MockUnit;
+import org.junit.Test;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+
+public class SessionCodecTest {
+
+  static class SessionBuilder implements Session.Builder {
+
+    Map<String, String> attributes = new LinkedHashMap<>();
+
+    long createdAt;
+
+    long accessedAt;
+
+    long savedAt;
+
+    Session session;
+
+    SessionBuilder(final Session session) {
+      this.session = session;
+    }
+
+    @Override
+    public String sessionId() {
+      return "sid";
+    }
+
+    @Override
+    public Session.Builder set(final String name, final String value) {
+      attributes.put(name, value);
+      return this;
+    }
+
+    @Override
+    public Session.Builder set(final Map<String, String> attributes) {
+      this.attributes.putAll(attributes);
+      return this;
+    }
+
+    @Override
+    public Session.Builder createdAt(final long createdAt) {
+      this.createdAt = createdAt;
+      return this;
+    }
+
+    @Override
+    public Session.Builder accessedAt(final long accessedAt) {
+      this.accessedAt = accessedAt;
+      return this;
+    }
+
+    @Override
+    public Session.Builder savedAt(final long savedAt) {
+      this.savedAt = savedAt;
+      return this;
+    }
+
+    @Override
+    public Session build() {
+      return session;
+    }
+
+  }
+
+  @Test
+  public void encodeDecode() throws Exception {
+    Map<String, String> attributes = ImmutableMap.of("user", "edgar", "ñ", "日本", "empty", "");
+    new MockUnit(Session.class)
+        .expect(session(1467302400000L, 1467302401234L, -1L, attributes))
+        .run(unit -> {
+          Session.Codec codec = new Session.BinaryCodec();
+          byte[] bytes = codec.encode(unit.get(Session.class));
+          assertEquals(Session.BinaryCodec.VERSION, bytes[0]);
+          assertEquals(0, bytes[1]);
+
+          SessionBuilder builder = new SessionBuilder(unit.get(Session.class));
+          assertEquals(unit.get(Session.class), codec.decode(builder, bytes));
+          assertEquals(1467302400000L, builder.createdAt);
+          assertEquals(1467302401234L, builder.accessedAt);
+          assertEquals(-1L, builder.savedAt);
+          assertEquals(attributes, builder.attributes);
+        });
+  }
+
+  @Test
+  public void compact() throws Exception {
+    new MockUnit(Session.class)
+        .expect(session(1467302400000L, 1467302400000L, 1467302400000L, ImmutableMap.of()))
+        .run(unit -> {
+          byte[] bytes = new Session.BinaryCodec().encode(unit.get(Session.class));
+          // version + flags + createdAt (6) + 2 zero deltas + size
+          assertEquals(11, bytes.length);
+        });
+  }
+
+  @Test
+  public void compress() throws Exception {
+    String value = Strings.repeat("jooby", 200);
+    Map<String, String> attributes = ImmutableMap.of("k", value);
+    new MockUnit(Session.class)
+        .expect(session(1L, 2L, 3L, attributes))
+        .run(unit -> {
+          Session.Codec codec = new Session.BinaryCodec(512);
+          byte[] bytes = codec.encode(unit.get(Session.class));
+          assertEquals(1, bytes[1]);
+          assertTrue(bytes.length < value.length());
+
+          SessionBuilder builder = new SessionBuilder(unit.get(Session.class));
+          codec.decode(builder, bytes);
+          assertEquals(1L, builder.createdAt);
+          assertEquals(2L, builder.accessedAt);
+          assertEquals(3L, builder.savedAt);
+          assertEquals(attributes, builder.attributes);
+        });
+  }
+
+  @Test
+  public void skipCompressionOnSmallSessions() throws Exception {
+    new MockUnit(Session.class)
+        .expect(session(1L, 2L, 3L, ImmutableMap.of("k", "v")))
+        .run(unit -> {
+          byte[] bytes = new Session.BinaryCodec(512).encode(unit.get(Session.class));
+          assertEquals(0, bytes[1]);
+        });
+  }
+
+  @Test
+  public void touch() throws Exception {
+    String value = Strings.repeat("jooby", 200);
+    Map<String, String> attributes = ImmutableMap.of("k", value);
+    new MockUnit(Session.class)
+        .expect(session(1467302400000L, 1467302400000L, -1L, attributes))
+        .run(unit -> {
+          Session.Codec codec = new Session.BinaryCodec(512);
+          byte[] bytes = Session.BinaryCodec.touch(codec.encode(unit.get(Session.class)),
+              1467302460000L, 1467302461000L);
+
+          SessionBuilder builder = new SessionBuilder(unit.get(Session.class));
+          codec.decode(builder, bytes);
+          assertEquals(1467302400000L, builder.createdAt);
+          assertEquals(1467302460000L, builder.accessedAt);
+          assertEquals(1467302461000L, builder.savedAt);
+          assertEquals(attributes, builder.attributes);
+
+          assertNull(Session.BinaryCodec.touch(new byte[]{2, 0 }, 1L, 1L));
+        });
+  }
+
+  @Test
+  public void unknownVersion() throws Exception {
+    new MockUnit(Session.class)
+        .run(unit -> {
+          Session.Codec codec = new Session.BinaryCodec();
+          SessionBuilder builder = new SessionBuilder(unit.get(Session.class));
+          assertNull(codec.decode(builder, new byte[]{2, 0, 0, 0, 0, 0 }));
+          assertNull(codec.decode(builder, new byte[0]));
+        });
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void corrupted() throws Exception {
+    new MockUnit(Session.class)
+        .run(unit -> {
+          Session.Codec codec = new Session.BinaryCodec();
+          SessionBuilder builder = new SessionBuilder(unit.get(Session.class));
+          codec.decode(builder, new byte[]{1, 1, 7, 7, 7 });
+        });
+  }
+
+  private MockUnit.Block session(final long createdAt, final long accessedAt, final long savedAt,
+      final Map<String, String> attributes) {
+    return unit -> {
+      Session session = unit.get(Session.class);
+      expect(session.createdAt()).andReturn(createdAt);
+      expect(session.accessedAt()).andReturn(accessedAt);
+      expect(session.savedAt()).andReturn(savedAt);
+      expect(session.attributes()).andReturn(attributes);
+    };
+  }
+}
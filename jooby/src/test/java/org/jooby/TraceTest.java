@@ -0,0 +1,261 @@
+package org.jooby;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class TraceTest {
+
+  private static final String TRACEPARENT =
+      "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01";
+
+  @Test
+  public void newTrace() {
+    Trace trace = new Trace("GET /");
+    assertEquals("GET /", trace.name());
+    assertEquals(32, trace.traceId().length());
+    assertEquals(16, trace.id().length());
+    assertFalse(trace.parentId().isPresent());
+    assertEquals("00-" + trace.traceId() + "-" + trace.id() + "-01", trace.traceparent());
+  }
+
+  @Test
+  public void traceparent() {
+    Trace trace = Trace.of("GET /", TRACEPARENT);
+    assertEquals("0af7651916cd43dd8448eb211c80319c", trace.traceId());
+    assertEquals("b7ad6b7169203331", trace.parentId().get());
+    assertNotEquals("b7ad6b7169203331", trace.id());
+    assertEquals("00-0af7651916cd43dd8448eb211c80319c-" + trace.id() + "-01",
+        trace.traceparent());
+
+    // future version with extra fields
+    assertEquals("0af7651916cd43dd8448eb211c80319c",
+        Trace.of("GET /", "01" + TRACEPARENT.substring(2) + "-xyz").traceId());
+  }
+
+  @Test
+  public void invalidTraceparent() {
+    String[] values = {
+        null,
+        "",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331",
+        TRACEPARENT + "-xyz",
+        "ff" + TRACEPARENT.substring(2),
+        "00-0AF7651916CD43DD8448EB211C80319C-b7ad6b7169203331-01",
+        "00-00000000000000000000000000000000-b7ad6b7169203331-01",
+        "00-0af7651916cd43dd8448eb211c80319c-0000000000000000-01",
+        "00_0af7651916cd43dd8448eb211c80319c_b7ad6b7169203331_01" };
+    for (String value : values) {
+      Trace trace = Trace.of("GET /", value);
+      assertFalse(value, trace.parentId().isPresent());
+      assertNotEquals(value, "0af7651916cd43dd8448eb211c80319c", trace.traceId());
+    }
+  }
+
+  @Test
+  public void spans() {
+    Trace trace = new Trace("GET /");
+    Trace.enter(trace);
+    Trace.Span filter;
+    Trace.Span handler;
+    try {
+      filter = trace.span("* /**");
+      handler = trace.span("GET /");
+      assertEquals("00-" + trace.traceId() + "-" + handler.id() + "-01", trace.traceparent());
+      handler.finish();
+      filter.finish();
+      // back to root
+      assertEquals("00-" + trace.traceId() + "-" + trace.id() + "-01", trace.traceparent());
+    } finally {
+      Trace.exit();
+    }
+    // ignored
+    long end = filter.end();
+    filter.finish();
+    assertEquals(end, filter.end());
+    trace.finish();
+
+    assertEquals(trace.id(), filter.parent());
+    assertEquals(filter.id(), handler.parent());
+    assertTrue(handler.end() > 0);
+    assertTrue(filter.end() >= handler.end());
+    assertTrue(filter.duration(TimeUnit.NANOSECONDS) >= handler.duration(TimeUnit.NANOSECONDS));
+    assertTrue(trace.duration(TimeUnit.NANOSECONDS) >= filter.duration(TimeUnit.NANOSECONDS));
+
+    List<Trace.Span> spans = trace.spans();
+    assertEquals(2, spans.size());
+    assertEquals(filter, spans.get(0));
+    assertEquals(handler, spans.get(1));
+  }
+
+  @Test
+  public void spanPerThread() throws Exception {
+    Trace trace = new Trace("GET /");
+    AtomicReference<Trace.Span> other = new AtomicReference<>();
+    Trace.enter(trace);
+    try {
+      Trace.Span handler = trace.span("GET /");
+      Thread thread = new Thread(() -> {
+        Trace.enter(trace);
+        try {
+          other.set(trace.span("other"));
+        } finally {
+          Trace.exit();
+        }
+      });
+      thread.start();
+      thread.join();
+      // another thread doesn't change the current span of this thread
+      assertEquals(trace.id(), other.get().parent());
+      assertEquals("00-" + trace.traceId() + "-" + handler.id() + "-01", trace.traceparent());
+      handler.finish();
+    } finally {
+      Trace.exit();
+    }
+  }
+
+  @Test
+  public void fork() {
+    Trace trace = new Trace("GET /");
+    Trace.enter(trace);
+    try {
+      Trace.Span handler = trace.span("GET /");
+      Trace.Span deferred = trace.fork("deferred");
+      assertEquals(handler.id(), deferred.parent());
+      // caller thread keeps its current span
+      assertEquals("00-" + trace.traceId() + "-" + handler.id() + "-01", trace.traceparent());
+
+      Trace.enter(trace, deferred);
+      assertEquals("00-" + trace.traceId() + "-" + deferred.id() + "-01", trace.traceparent());
+      Trace.Span db = Trace.start("db");
+      assertEquals(deferred.id(), db.parent());
+      db.finish();
+      deferred.finish();
+      assertEquals("00-" + trace.traceId() + "-" + handler.id() + "-01", trace.traceparent());
+    } finally {
+      Trace.exit();
+    }
+  }
+
+  @Test
+  public void noopSpan() {
+    Trace.Span span = Trace.start("noop");
+    span.finish();
+    assertEquals(0, span.end());
+    assertEquals("", span.parent());
+  }
+
+  @Test
+  public void current() {
+    Trace trace = new Trace("GET /");
+    assertFalse(Trace.current().isPresent());
+    Trace.enter(trace);
+    try {
+      assertEquals(trace, Trace.current().get());
+      Trace.Span span = Trace.start("db");
+      span.finish();
+      assertEquals(span, trace.spans().get(0));
+    } finally {
+      Trace.exit();
+    }
+    assertFalse(Trace.current().isPresent());
+  }
+
+  @Test
+  public void wrapWithoutContext() {
+    Runnable task = () -> {
+    };
+    assertTrue(task == Trace.wrap(task));
+  }
+
+  @Test
+  public void wrapExecutor() throws Exception {
+    Trace trace = new Trace("GET /");
+    AtomicReference<Trace> current = new AtomicReference<>();
+    ExecutorService threads = Executors.newSingleThreadExecutor();
+    try {
+      Executor executor = Trace.wrap(threads);
+      Trace.enter(trace);
+      try {
+        executor.execute(() -> current.set(Trace.current().orElse(null)));
+      } finally {
+        Trace.exit();
+      }
+      threads.shutdown();
+      threads.awaitTermination(1, TimeUnit.SECONDS);
+      assertEquals(trace, current.get());
+    } finally {
+      threads.shutdownNow();
+    }
+  }
+
+  @Test
+  public void wrapSpan() {
+    Trace trace = new Trace("GET /");
+    AtomicReference<Trace.Span> child = new AtomicReference<>();
+    Runnable task;
+    Trace.Span handler;
+    Trace.enter(trace);
+    try {
+      handler = trace.span("GET /");
+      task = Trace.wrap(() -> {
+        Trace.Span span = Trace.start("task");
+        span.finish();
+        child.set(span);
+      });
+    } finally {
+      Trace.exit();
+    }
+    task.run();
+    assertEquals(handler.id(), child.get().parent());
+    assertFalse(Trace.current().isPresent());
+  }
+
+  @Test
+  public void wrapRestoresContext() {
+    Trace trace = new Trace("GET /");
+    Trace other = new Trace("GET /other");
+    AtomicReference<Trace> current = new AtomicReference<>();
+    Runnable task;
+    Trace.enter(trace);
+    try {
+      task = Trace.wrap(() -> current.set(Trace.current().orElse(null)));
+    } finally {
+      Trace.exit();
+    }
+    Trace.enter(other);
+    try {
+      task.run();
+      assertEquals(trace, current.get());
+      assertEquals(other, Trace.current().get());
+    } finally {
+      Trace.exit();
+    }
+  }
+
+  @Test
+  public void memory() {
+    Trace.Memory memory = new Trace.Memory(2);
+    Trace t1 = new Trace("GET /1");
+    Trace t2 = new Trace("GET /2");
+    Trace t3 = new Trace("GET /3");
+    memory.export(t1);
+    memory.export(t2);
+    memory.export(t3);
+    List<Trace> traces = memory.traces();
+    assertEquals(2, traces.size());
+    assertEquals(t2, traces.get(0));
+    assertEquals(t3, traces.get(1));
+  }
+
+}
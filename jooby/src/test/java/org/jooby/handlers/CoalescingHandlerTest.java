@@ -0,0 +1,255 @@
+package org.jooby.handlers;
+
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.jooby.Deferred;
+import org.jooby.Err;
+import org.jooby.Mutant;
+import org.jooby.Request;
+import org.jooby.Response;
+import org.jooby.Route;
+import org.jooby.internal.BufferedResponse;
+import org.jooby.internal.EncodedResult;
+import org.jooby.internal.ResponseImpl;
+import org.jooby.test.MockUnit;
+import org.jooby.test.MockUnit.Block;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+public class CoalescingHandlerTest {
+
+  private Block request(final Request req) {
+    return unit -> {
+      Mutant header = unit.mock(Mutant.class);
+      expect(header.value("")).andReturn("*/*");
+
+      expect(req.method()).andReturn("GET");
+      expect(req.path()).andReturn("/products");
+      expect(req.queryString()).andReturn(Optional.empty());
+      expect(req.header("Accept")).andReturn(header);
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private Block leader(final Request req, final ResponseImpl rsp) {
+    return unit -> {
+      expect(rsp.buffer(unit.capture(Consumer.class))).andReturn(null);
+      rsp.complete(unit.capture(Route.Complete.class));
+
+      Route.Chain chain = unit.get(Route.Chain.class);
+      chain.next(req, rsp);
+    };
+  }
+
+  @Test
+  public void ignorePost() throws Throwable {
+    new MockUnit(Request.class, Response.class, Route.Chain.class)
+        .expect(unit -> {
+          Request req = unit.get(Request.class);
+          expect(req.method()).andReturn("POST");
+
+          Route.Chain chain = unit.get(Route.Chain.class);
+          chain.next(req, unit.get(Response.class));
+        })
+        .run(unit -> {
+          new CoalescingHandler().handle(unit.get(Request.class), unit.get(Response.class),
+              unit.get(Route.Chain.class));
+        });
+  }
+
+  @Test
+  public void fanOut() throws Throwable {
+    Request[] reqs = new Request[2];
+    new MockUnit(Route.Chain.class, BufferedResponse.class, Deferred.Handler.class)
+        .expect(unit -> {
+          Request req1 = reqs[0] = unit.mock(Request.class);
+          Request req2 = reqs[1] = unit.mock(Request.class);
+          ResponseImpl rsp1 = unit.registerMock(ResponseImpl.class);
+          ResponseImpl rsp2 = unit.mock(ResponseImpl.class);
+          unit.registerMock(Response.class, rsp2);
+
+          request(req1).run(unit);
+          leader(req1, rsp1).run(unit);
+          request(req2).run(unit);
+
+          rsp2.send(unit.capture(Deferred.class));
+
+          BufferedResponse buffer = unit.get(BufferedResponse.class);
+          expect(buffer.streaming()).andReturn(false);
+          expect(buffer.statusCode()).andReturn(200);
+          expect(buffer.headers()).andReturn(ImmutableMap.of(
+              "Content-Type", ImmutableList.of("text/plain"),
+              "Set-Cookie", ImmutableList.of("sid=1")));
+          expect(buffer.body()).andReturn("OK".getBytes());
+          buffer.flush();
+
+          Deferred.Handler handler = unit.get(Deferred.Handler.class);
+          handler.handle(unit.capture(EncodedResult.class), eq(null));
+        })
+        .run(unit -> {
+          CoalescingHandler handler = new CoalescingHandler();
+          handler.flights.executor = Runnable::run;
+          handler.handle(reqs[0], unit.get(ResponseImpl.class), unit.get(Route.Chain.class));
+          handler.handle(reqs[1], unit.get(Response.class), unit.get(Route.Chain.class));
+
+          Deferred deferred = unit.captured(Deferred.class).iterator().next();
+          deferred.handler(reqs[1], unit.get(Deferred.Handler.class));
+        }, unit -> {
+          unit.captured(Consumer.class).iterator().next().accept(unit.get(BufferedResponse.class));
+        }, unit -> {
+          EncodedResult result = unit.captured(EncodedResult.class).iterator().next();
+          assertEquals(200, result.statusCode());
+          assertEquals(ImmutableList.of("text/plain"), result.encodedHeaders().get("Content-Type"));
+          assertEquals(null, result.encodedHeaders().get("Set-Cookie"));
+          assertArrayEquals("OK".getBytes(), result.body());
+        });
+  }
+
+  @Test
+  public void maxWaiters() throws Throwable {
+    Request[] reqs = new Request[2];
+    new MockUnit(Route.Chain.class)
+        .expect(unit -> {
+          Request req1 = reqs[0] = unit.mock(Request.class);
+          Request req2 = reqs[1] = unit.mock(Request.class);
+          ResponseImpl rsp1 = unit.registerMock(ResponseImpl.class);
+          ResponseImpl rsp2 = unit.mock(ResponseImpl.class);
+          unit.registerMock(Response.class, rsp2);
+
+          request(req1).run(unit);
+          leader(req1, rsp1).run(unit);
+          request(req2).run(unit);
+
+          Route.Chain chain = unit.get(Route.Chain.class);
+          chain.next(req2, rsp2);
+        })
+        .run(unit -> {
+          CoalescingHandler handler = new CoalescingHandler().maxWaiters(0);
+          handler.handle(reqs[0], unit.get(ResponseImpl.class), unit.get(Route.Chain.class));
+          handler.handle(reqs[1], unit.get(Response.class), unit.get(Route.Chain.class));
+        });
+  }
+
+  @Test
+  public void streamed() throws Throwable {
+    Request[] reqs = new Request[2];
+    new MockUnit(Route.Chain.class, BufferedResponse.class, Deferred.Handler.class)
+        .expect(unit -> {
+          Request req1 = reqs[0] = unit.mock(Request.class);
+          Request req2 = reqs[1] = unit.mock(Request.class);
+          ResponseImpl rsp1 = unit.registerMock(ResponseImpl.class);
+          ResponseImpl rsp2 = unit.mock(ResponseImpl.class);
+          unit.registerMock(Response.class, rsp2);
+
+          request(req1).run(unit);
+          leader(req1, rsp1).run(unit);
+          request(req2).run(unit);
+
+          rsp2.send(unit.capture(Deferred.class));
+
+          BufferedResponse buffer = unit.get(BufferedResponse.class);
+          expect(buffer.streaming()).andReturn(true);
+          buffer.flush();
+
+          Deferred.Handler handler = unit.get(Deferred.Handler.class);
+          handler.handle(eq(null), unit.capture(Err.class));
+        })
+        .run(unit -> {
+          CoalescingHandler handler = new CoalescingHandler();
+          handler.flights.executor = Runnable::run;
+          handler.handle(reqs[0], unit.get(ResponseImpl.class), unit.get(Route.Chain.class));
+          handler.handle(reqs[1], unit.get(Response.class), unit.get(Route.Chain.class));
+
+          unit.captured(Consumer.class).iterator().next().accept(unit.get(BufferedResponse.class));
+
+          Deferred deferred = unit.captured(Deferred.class).iterator().next();
+          deferred.handler(reqs[1], unit.get(Deferred.Handler.class));
+        }, unit -> {
+          assertEquals(503, unit.captured(Err.class).iterator().next().statusCode());
+        });
+  }
+
+  @Test
+  public void completeWithoutResponse() throws Throwable {
+    Request[] reqs = new Request[2];
+    new MockUnit(Route.Chain.class, Deferred.Handler.class)
+        .expect(unit -> {
+          Request req1 = reqs[0] = unit.mock(Request.class);
+          Request req2 = reqs[1] = unit.mock(Request.class);
+          ResponseImpl rsp1 = unit.registerMock(ResponseImpl.class);
+          ResponseImpl rsp2 = unit.mock(ResponseImpl.class);
+          unit.registerMock(Response.class, rsp2);
+
+          request(req1).run(unit);
+          leader(req1, rsp1).run(unit);
+          request(req2).run(unit);
+
+          rsp2.send(unit.capture(Deferred.class));
+
+          Deferred.Handler handler = unit.get(Deferred.Handler.class);
+          handler.handle(eq(null), unit.capture(Err.class));
+        })
+        .run(unit -> {
+          CoalescingHandler handler = new CoalescingHandler();
+          handler.flights.executor = Runnable::run;
+          handler.handle(reqs[0], unit.get(ResponseImpl.class), unit.get(Route.Chain.class));
+          handler.handle(reqs[1], unit.get(Response.class), unit.get(Route.Chain.class));
+
+          Deferred deferred = unit.captured(Deferred.class).iterator().next();
+          deferred.handler(reqs[1], unit.get(Deferred.Handler.class));
+
+          unit.captured(Route.Complete.class).iterator().next()
+              .handle(reqs[0], unit.get(ResponseImpl.class), Optional.empty());
+        }, unit -> {
+          assertEquals(503, unit.captured(Err.class).iterator().next().statusCode());
+        });
+  }
+
+  @Test
+  public void cancel() throws Throwable {
+    Request[] reqs = new Request[2];
+    new MockUnit(Route.Chain.class, BufferedResponse.class, Deferred.Handler.class)
+        .expect(unit -> {
+          Request req1 = reqs[0] = unit.mock(Request.class);
+          Request req2 = reqs[1] = unit.mock(Request.class);
+          ResponseImpl rsp1 = unit.registerMock(ResponseImpl.class);
+          ResponseImpl rsp2 = unit.mock(ResponseImpl.class);
+          unit.registerMock(Response.class, rsp2);
+
+          request(req1).run(unit);
+          leader(req1, rsp1).run(unit);
+          request(req2).run(unit);
+
+          rsp2.send(unit.capture(Deferred.class));
+
+          BufferedResponse buffer = unit.get(BufferedResponse.class);
+          expect(buffer.streaming()).andReturn(false);
+          expect(buffer.statusCode()).andReturn(200);
+          expect(buffer.headers()).andReturn(ImmutableMap.of());
+          expect(buffer.body()).andReturn("OK".getBytes());
+          buffer.flush();
+        })
+        .run(unit -> {
+          CoalescingHandler handler = new CoalescingHandler();
+          handler.handle(reqs[0], unit.get(ResponseImpl.class), unit.get(Route.Chain.class));
+          handler.handle(reqs[1], unit.get(Response.class), unit.get(Route.Chain.class));
+
+          Deferred deferred = unit.captured(Deferred.class).iterator().next();
+          deferred.handler(reqs[1], unit.get(Deferred.Handler.class));
+          deferred.cancel();
+          assertTrue(deferred.cancelled());
+
+          unit.captured(Consumer.class).iterator().next().accept(unit.get(BufferedResponse.class));
+        });
+  }
+
+}
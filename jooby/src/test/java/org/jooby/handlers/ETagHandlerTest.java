@@ -0,0 +1,215 @@
+package org.jooby.handlers;
+
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.jooby.Mutant;
+import org.jooby.Request;
+import org.jooby.Response;
+import org.jooby.Route;
+import org.jooby.internal.BufferedResponse;
+import org.jooby.internal.ResponseImpl;
+import org.jooby.spi.NativeResponse;
+import org.jooby.test.MockUnit;
+import org.jooby.test.MockUnit.Block;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+
+public class ETagHandlerTest {
+
+  private static final String ETAG = "\"" + Hashing.murmur3_128().hashBytes("OK".getBytes())
+      + "\"";
+
+  private Block method(final String method) {
+    return unit -> {
+      Request req = unit.get(Request.class);
+      expect(req.method()).andReturn(method);
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private Block buffer() {
+    return unit -> {
+      ResponseImpl rsp = unit.get(ResponseImpl.class);
+      expect(rsp.buffer(unit.capture(Consumer.class))).andReturn(unit.get(BufferedResponse.class));
+
+      Route.Chain chain = unit.get(Route.Chain.class);
+      chain.next(unit.get(Request.class), rsp);
+    };
+  }
+
+  private Block body(final int status) {
+    return unit -> {
+      BufferedResponse buffer = unit.get(BufferedResponse.class);
+      expect(buffer.streaming()).andReturn(false);
+      expect(buffer.statusCode()).andReturn(status);
+    };
+  }
+
+  private Block ifNoneMatch(final String... values) {
+    return unit -> {
+      Mutant header = unit.mock(Mutant.class);
+      expect(header.toList()).andReturn(ImmutableList.copyOf(values));
+
+      Request req = unit.get(Request.class);
+      expect(req.header("If-None-Match")).andReturn(header);
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private Block onEnd() {
+    return unit -> {
+      unit.captured(Consumer.class).iterator().next().accept(unit.get(BufferedResponse.class));
+    };
+  }
+
+  @Test
+  public void ignorePost() throws Throwable {
+    new MockUnit(Request.class, Response.class, Route.Chain.class)
+        .expect(method("POST"))
+        .expect(unit -> {
+          Route.Chain chain = unit.get(Route.Chain.class);
+          chain.next(unit.get(Request.class), unit.get(Response.class));
+        })
+        .run(unit -> {
+          new ETagHandler().handle(unit.get(Request.class), unit.get(Response.class),
+              unit.get(Route.Chain.class));
+        });
+  }
+
+  @Test
+  public void etag() throws Throwable {
+    new MockUnit(Request.class, ResponseImpl.class, Route.Chain.class, BufferedResponse.class)
+        .expect(method("GET"))
+        .expect(buffer())
+        .expect(body(200))
+        .expect(ifNoneMatch())
+        .expect(unit -> {
+          BufferedResponse buffer = unit.get(BufferedResponse.class);
+          expect(buffer.header("ETag")).andReturn(Optional.empty());
+          expect(buffer.body()).andReturn("OK".getBytes());
+          buffer.header("ETag", ETAG);
+          buffer.flush();
+        })
+        .run(unit -> {
+          new ETagHandler().handle(unit.get(Request.class), unit.get(ResponseImpl.class),
+              unit.get(Route.Chain.class));
+        }, onEnd());
+  }
+
+  @Test
+  public void notModified() throws Throwable {
+    new MockUnit(Request.class, ResponseImpl.class, Route.Chain.class, BufferedResponse.class,
+        NativeResponse.class)
+            .expect(method("GET"))
+            .expect(buffer())
+            .expect(body(200))
+            .expect(ifNoneMatch("\"x\", " + ETAG))
+            .expect(unit -> {
+              BufferedResponse buffer = unit.get(BufferedResponse.class);
+              expect(buffer.header("ETag")).andReturn(Optional.empty());
+              expect(buffer.body()).andReturn("OK".getBytes());
+              buffer.header("ETag", ETAG);
+              expect(buffer.unwrap()).andReturn(unit.get(NativeResponse.class));
+
+              NativeResponse rsp = unit.get(NativeResponse.class);
+              rsp.statusCode(304);
+              // no body: body headers are gone
+              rsp.removeHeader("Content-Length");
+              rsp.removeHeader("Content-Type");
+              rsp.removeHeader("Transfer-Encoding");
+              rsp.end();
+            })
+            .run(unit -> {
+              new ETagHandler().handle(unit.get(Request.class), unit.get(ResponseImpl.class),
+                  unit.get(Route.Chain.class));
+            }, onEnd());
+  }
+
+  @Test
+  public void skipNonOk() throws Throwable {
+    new MockUnit(Request.class, ResponseImpl.class, Route.Chain.class, BufferedResponse.class)
+        .expect(method("GET"))
+        .expect(buffer())
+        .expect(body(404))
+        .expect(unit -> {
+          BufferedResponse buffer = unit.get(BufferedResponse.class);
+          buffer.flush();
+        })
+        .run(unit -> {
+          new ETagHandler().handle(unit.get(Request.class), unit.get(ResponseImpl.class),
+              unit.get(Route.Chain.class));
+        }, onEnd());
+  }
+
+  @Test
+  public void flushError() throws Throwable {
+    new MockUnit(Request.class, ResponseImpl.class, Route.Chain.class, BufferedResponse.class)
+        .expect(method("GET"))
+        .expect(buffer())
+        .expect(body(404))
+        .expect(unit -> {
+          Request req = unit.get(Request.class);
+          expect(req.path()).andReturn("/");
+
+          BufferedResponse buffer = unit.get(BufferedResponse.class);
+          buffer.flush();
+          expectLastCall().andThrow(new IOException("broken pipe"));
+          buffer.fail();
+        })
+        .run(unit -> {
+          new ETagHandler().handle(unit.get(Request.class), unit.get(ResponseImpl.class),
+              unit.get(Route.Chain.class));
+        }, onEnd());
+  }
+
+  @Test
+  public void versionToken() throws Throwable {
+    new MockUnit(Request.class, ResponseImpl.class, Route.Chain.class, BufferedResponse.class)
+        .expect(method("GET"))
+        .expect(buffer())
+        .expect(body(200))
+        .expect(unit -> {
+          BufferedResponse buffer = unit.get(BufferedResponse.class);
+          expect(buffer.header("ETag")).andReturn(Optional.of("\"v1\""));
+          buffer.flush();
+        })
+        .run(unit -> {
+          new ETagHandler().handle(unit.get(Request.class), unit.get(ResponseImpl.class),
+              unit.get(Route.Chain.class));
+        }, onEnd());
+  }
+
+  @Test
+  public void quote() {
+    assertEquals("\"v1\"", ResponseImpl.etag("v1"));
+    assertEquals("\"v1\"", ResponseImpl.etag("\"v1\""));
+    assertEquals("W/\"v1\"", ResponseImpl.etag("W/\"v1\""));
+  }
+
+  @Test
+  public void weakMatch() throws Throwable {
+    new MockUnit(Request.class)
+        .expect(ifNoneMatch("W/\"v1\""))
+        .run(unit -> {
+          assertEquals(true, ResponseImpl.ifNoneMatch(unit.get(Request.class), "\"v1\""));
+        });
+  }
+
+  @Test
+  public void anyMatch() throws Throwable {
+    new MockUnit(Request.class)
+        .expect(ifNoneMatch("*"))
+        .run(unit -> {
+          assertEquals(true, ResponseImpl.ifNoneMatch(unit.get(Request.class), "\"v1\""));
+        });
+  }
+
+}
@@ -0,0 +1,582 @@
+package org.jooby.handlers;
+
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.isA;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.jooby.Deferred;
+import org.jooby.Err;
+import org.jooby.Mutant;
+import org.jooby.Request;
+import org.jooby.Response;
+import org.jooby.Route;
+import org.jooby.internal.BufferedResponse;
+import org.jooby.internal.EncodedResult;
+import org.jooby.internal.ResponseImpl;
+import org.jooby.test.MockUnit;
+import org.jooby.test.MockUnit.Block;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+public class ResponseCacheTest {
+
+  private Block route(final Map<String, Object> attributes) {
+    return unit -> {
+      Route route = unit.get(Route.class);
+      expect(route.attributes()).andReturn(attributes);
+
+      Request req = unit.get(Request.class);
+      expect(req.route()).andReturn(route);
+    };
+  }
+
+  private Block method(final String method) {
+    return unit -> {
+      Request req = unit.get(Request.class);
+      expect(req.method()).andReturn(method);
+    };
+  }
+
+  private Block key(final String path, final String accept) {
+    return key(path, accept, false, false);
+  }
+
+  private Block key(final String path, final String accept, final boolean authorization,
+      final boolean cookie) {
+    return unit -> {
+      Mutant header = unit.mock(Mutant.class);
+      expect(header.value("")).andReturn(accept);
+
+      Request req = unit.get(Request.class);
+      expect(req.path()).andReturn(path);
+      expect(req.queryString()).andReturn(Optional.empty());
+      expect(req.header("Accept")).andReturn(header);
+
+      Mutant auth = unit.mock(Mutant.class);
+      expect(auth.isSet()).andReturn(authorization);
+      expect(req.header("Authorization")).andReturn(auth);
+      if (!authorization) {
+        Mutant cookies = unit.mock(Mutant.class);
+        expect(cookies.isSet()).andReturn(cookie);
+        expect(req.header("Cookie")).andReturn(cookies);
+      }
+    };
+  }
+
+  @Test
+  public void entry() {
+    ResponseCache.Entry entry = new ResponseCache.Entry(200,
+        ImmutableMap.of("Content-Type", ImmutableList.of("text/plain")), "OK".getBytes(), 1000L,
+        100L, 50L);
+    assertEquals(200, entry.status());
+    assertEquals(ImmutableList.of("text/plain"), entry.headers().get("Content-Type"));
+    assertArrayEquals("OK".getBytes(), entry.body());
+    assertEquals(1000L, entry.createdAt());
+    assertEquals(1150L, entry.staleAt());
+
+    assertTrue(entry.fresh(1000L));
+    assertTrue(entry.fresh(1099L));
+    assertFalse(entry.fresh(1100L));
+
+    assertFalse(entry.stale(1099L));
+    assertTrue(entry.stale(1100L));
+    assertTrue(entry.stale(1149L));
+    assertFalse(entry.stale(1150L));
+
+    assertEquals("200 {Content-Type=[text/plain]} (2 bytes)", entry.toString());
+  }
+
+  @Test
+  public void ignorePost() throws Throwable {
+    new MockUnit(Request.class, Response.class, Route.Chain.class, Route.class,
+        ResponseCache.Store.class)
+            .expect(method("POST"))
+            .expect(route(ImmutableMap.of()))
+            .expect(unit -> {
+              Route.Chain chain = unit.get(Route.Chain.class);
+              chain.next(unit.get(Request.class), unit.get(Response.class));
+            })
+            .run(unit -> {
+              new ResponseCache(unit.get(ResponseCache.Store.class))
+                  .handle(unit.get(Request.class), unit.get(Response.class),
+                      unit.get(Route.Chain.class));
+            });
+  }
+
+  @Test
+  public void disabledByRoute() throws Throwable {
+    new MockUnit(Request.class, ResponseImpl.class, Route.Chain.class, Route.class,
+        ResponseCache.Store.class)
+            .expect(method("GET"))
+            .expect(route(ImmutableMap.of("cache", 0)))
+            .expect(unit -> {
+              Route.Chain chain = unit.get(Route.Chain.class);
+              chain.next(unit.get(Request.class), unit.get(ResponseImpl.class));
+            })
+            .run(unit -> {
+              new ResponseCache(unit.get(ResponseCache.Store.class))
+                  .handle(unit.get(Request.class), unit.get(ResponseImpl.class),
+                      unit.get(Route.Chain.class));
+            });
+  }
+
+  @Test
+  public void hit() throws Throwable {
+    long now = System.currentTimeMillis();
+    ResponseCache.Entry entry = new ResponseCache.Entry(200,
+        ImmutableMap.of("Content-Type", ImmutableList.of("text/plain")), "OK".getBytes(), now,
+        TimeUnit.MINUTES.toMillis(1), 0);
+    new MockUnit(Request.class, ResponseImpl.class, Route.Chain.class, Route.class,
+        ResponseCache.Store.class)
+            .expect(method("GET"))
+            .expect(route(ImmutableMap.of("cache", "30s")))
+            .expect(key("/products", "*/*"))
+            .expect(unit -> {
+              ResponseCache.Store store = unit.get(ResponseCache.Store.class);
+              expect(store.get("/products|*/*")).andReturn(entry);
+
+              ResponseImpl rsp = unit.get(ResponseImpl.class);
+              expect(rsp.header("Age", 0L)).andReturn(rsp);
+              rsp.send(200, entry.headers(), entry.body());
+            })
+            .run(unit -> {
+              new ResponseCache(unit.get(ResponseCache.Store.class))
+                  .handle(unit.get(Request.class), unit.get(ResponseImpl.class),
+                      unit.get(Route.Chain.class));
+            });
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void miss() throws Throwable {
+    new MockUnit(Request.class, ResponseImpl.class, Route.Chain.class, Route.class,
+        ResponseCache.Store.class, BufferedResponse.class)
+            .expect(method("GET"))
+            .expect(route(ImmutableMap.of()))
+            .expect(key("/products", "*/*"))
+            .expect(unit -> {
+              ResponseCache.Store store = unit.get(ResponseCache.Store.class);
+              expect(store.get("/products|*/*")).andReturn(null);
+              store.put(eq("/products|*/*"), isA(ResponseCache.Entry.class));
+
+              ResponseImpl rsp = unit.get(ResponseImpl.class);
+              expect(rsp.buffer(unit.capture(Consumer.class))).andReturn(null);
+              rsp.complete(isA(Route.Complete.class));
+
+              Route.Chain chain = unit.get(Route.Chain.class);
+              chain.next(unit.get(Request.class), rsp);
+
+              BufferedResponse buffer = unit.get(BufferedResponse.class);
+              expect(buffer.streaming()).andReturn(false);
+              expect(buffer.statusCode()).andReturn(200).times(2);
+              expect(buffer.headers()).andReturn(ImmutableMap.of());
+              expect(buffer.body()).andReturn("OK".getBytes());
+              buffer.flush();
+            })
+            .run(unit -> {
+              ResponseCache cache = new ResponseCache(unit.get(ResponseCache.Store.class));
+              cache.handle(unit.get(Request.class), unit.get(ResponseImpl.class),
+                  unit.get(Route.Chain.class));
+              assertTrue(cache.inflight.get("/products|*/*") != null);
+
+              unit.captured(Consumer.class).iterator().next()
+                  .accept(unit.get(BufferedResponse.class));
+              assertEquals(null, cache.inflight.get("/products|*/*"));
+            });
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void privateResponse() throws Throwable {
+    new MockUnit(Request.class, ResponseImpl.class, Route.Chain.class, Route.class,
+        ResponseCache.Store.class, BufferedResponse.class)
+            .expect(method("GET"))
+            .expect(route(ImmutableMap.of()))
+            .expect(key("/products", "*/*"))
+            .expect(unit -> {
+              ResponseCache.Store store = unit.get(ResponseCache.Store.class);
+              expect(store.get("/products|*/*")).andReturn(null);
+
+              ResponseImpl rsp = unit.get(ResponseImpl.class);
+              expect(rsp.buffer(unit.capture(Consumer.class))).andReturn(null);
+              rsp.complete(isA(Route.Complete.class));
+
+              Route.Chain chain = unit.get(Route.Chain.class);
+              chain.next(unit.get(Request.class), rsp);
+
+              BufferedResponse buffer = unit.get(BufferedResponse.class);
+              expect(buffer.streaming()).andReturn(false);
+              expect(buffer.statusCode()).andReturn(200);
+              expect(buffer.headers()).andReturn(
+                  ImmutableMap.of("Cache-Control", ImmutableList.of("private, max-age=60")));
+              buffer.flush();
+            })
+            .run(unit -> {
+              ResponseCache cache = new ResponseCache(unit.get(ResponseCache.Store.class));
+              cache.handle(unit.get(Request.class), unit.get(ResponseImpl.class),
+                  unit.get(Route.Chain.class));
+
+              unit.captured(Consumer.class).iterator().next()
+                  .accept(unit.get(BufferedResponse.class));
+              assertEquals(null, cache.inflight.get("/products|*/*"));
+            });
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void authorizationBypass() throws Throwable {
+    long now = System.currentTimeMillis();
+    ResponseCache.Entry entry = new ResponseCache.Entry(200,
+        ImmutableMap.of("Content-Type", ImmutableList.of("text/plain")), "OK".getBytes(), now,
+        TimeUnit.MINUTES.toMillis(1), 0);
+    new MockUnit(Request.class, ResponseImpl.class, Route.Chain.class, Route.class,
+        ResponseCache.Store.class, BufferedResponse.class)
+            .expect(method("GET"))
+            .expect(route(ImmutableMap.of()))
+            .expect(key("/products", "*/*", true, false))
+            .expect(unit -> {
+              // cached entry isn't public
+              ResponseCache.Store store = unit.get(ResponseCache.Store.class);
+              expect(store.get("/products|*/*")).andReturn(entry);
+
+              ResponseImpl rsp = unit.get(ResponseImpl.class);
+              expect(rsp.buffer(unit.capture(Consumer.class))).andReturn(null);
+
+              Route.Chain chain = unit.get(Route.Chain.class);
+              chain.next(unit.get(Request.class), rsp);
+
+              BufferedResponse buffer = unit.get(BufferedResponse.class);
+              expect(buffer.streaming()).andReturn(false);
+              expect(buffer.statusCode()).andReturn(200);
+              expect(buffer.headers()).andReturn(
+                  ImmutableMap.of("Cache-Control", ImmutableList.of("max-age=60")));
+              buffer.flush();
+            })
+            .run(unit -> {
+              ResponseCache cache = new ResponseCache(unit.get(ResponseCache.Store.class));
+              cache.handle(unit.get(Request.class), unit.get(ResponseImpl.class),
+                  unit.get(Route.Chain.class));
+              // not a shared miss
+              assertEquals(null, cache.inflight.get("/products|*/*"));
+
+              unit.captured(Consumer.class).iterator().next()
+                  .accept(unit.get(BufferedResponse.class));
+            });
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void cookiePublicResponse() throws Throwable {
+    new MockUnit(Request.class, ResponseImpl.class, Route.Chain.class, Route.class,
+        ResponseCache.Store.class, BufferedResponse.class)
+            .expect(method("GET"))
+            .expect(route(ImmutableMap.of()))
+            .expect(key("/products", "*/*", false, true))
+            .expect(unit -> {
+              ResponseCache.Store store = unit.get(ResponseCache.Store.class);
+              expect(store.get("/products|*/*")).andReturn(null);
+              store.put(eq("/products|*/*"), isA(ResponseCache.Entry.class));
+
+              ResponseImpl rsp = unit.get(ResponseImpl.class);
+              expect(rsp.buffer(unit.capture(Consumer.class))).andReturn(null);
+
+              Route.Chain chain = unit.get(Route.Chain.class);
+              chain.next(unit.get(Request.class), rsp);
+
+              BufferedResponse buffer = unit.get(BufferedResponse.class);
+              expect(buffer.streaming()).andReturn(false);
+              expect(buffer.statusCode()).andReturn(200).times(2);
+              expect(buffer.headers()).andReturn(
+                  ImmutableMap.of("Cache-Control", ImmutableList.of("public, max-age=60")));
+              expect(buffer.body()).andReturn("OK".getBytes());
+              buffer.flush();
+            })
+            .run(unit -> {
+              ResponseCache cache = new ResponseCache(unit.get(ResponseCache.Store.class));
+              cache.handle(unit.get(Request.class), unit.get(ResponseImpl.class),
+                  unit.get(Route.Chain.class));
+
+              unit.captured(Consumer.class).iterator().next()
+                  .accept(unit.get(BufferedResponse.class));
+            });
+  }
+
+  @Test
+  public void authorizationPublicHit() throws Throwable {
+    long now = System.currentTimeMillis();
+    ResponseCache.Entry entry = new ResponseCache.Entry(200,
+        ImmutableMap.of("Cache-Control", ImmutableList.of("s-maxage=60")), "OK".getBytes(), now,
+        TimeUnit.MINUTES.toMillis(1), 0);
+    new MockUnit(Request.class, ResponseImpl.class, Route.Chain.class, Route.class,
+        ResponseCache.Store.class)
+            .expect(method("GET"))
+            .expect(route(ImmutableMap.of()))
+            .expect(key("/products", "*/*", true, false))
+            .expect(unit -> {
+              ResponseCache.Store store = unit.get(ResponseCache.Store.class);
+              expect(store.get("/products|*/*")).andReturn(entry);
+
+              ResponseImpl rsp = unit.get(ResponseImpl.class);
+              expect(rsp.header("Age", 0L)).andReturn(rsp);
+              rsp.send(200, entry.headers(), entry.body());
+            })
+            .run(unit -> {
+              new ResponseCache(unit.get(ResponseCache.Store.class))
+                  .handle(unit.get(Request.class), unit.get(ResponseImpl.class),
+                      unit.get(Route.Chain.class));
+            });
+  }
+
+  @Test
+  public void concurrentMiss() throws Throwable {
+    long now = System.currentTimeMillis();
+    ResponseCache.Entry entry = new ResponseCache.Entry(200,
+        ImmutableMap.of("Content-Type", ImmutableList.of("text/plain")), "OK".getBytes(), now,
+        TimeUnit.MINUTES.toMillis(1), 0);
+    new MockUnit(Request.class, ResponseImpl.class, Route.Chain.class, Route.class,
+        ResponseCache.Store.class, Deferred.Handler.class)
+            .expect(method("GET"))
+            .expect(route(ImmutableMap.of()))
+            .expect(key("/products", "*/*"))
+            .expect(unit -> {
+              ResponseCache.Store store = unit.get(ResponseCache.Store.class);
+              expect(store.get("/products|*/*")).andReturn(null);
+
+              ResponseImpl rsp = unit.get(ResponseImpl.class);
+              rsp.send(unit.capture(Deferred.class));
+
+              Deferred.Handler handler = unit.get(Deferred.Handler.class);
+              handler.handle(unit.capture(EncodedResult.class), eq(null));
+            })
+            .run(unit -> {
+              ResponseCache cache = new ResponseCache(unit.get(ResponseCache.Store.class));
+              cache.inflight.executor = Runnable::run;
+              Flights<ResponseCache.Entry>.Flight flight = cache.inflight.start("/products|*/*");
+              cache.handle(unit.get(Request.class), unit.get(ResponseImpl.class),
+                  unit.get(Route.Chain.class));
+
+              // waiter doesn't hold the caller thread
+              Deferred deferred = unit.captured(Deferred.class).iterator().next();
+              deferred.handler(unit.get(Request.class), unit.get(Deferred.Handler.class));
+              flight.done(entry, null);
+            }, unit -> {
+              EncodedResult result = unit.captured(EncodedResult.class).iterator().next();
+              assertEquals(200, result.statusCode());
+              assertEquals(ImmutableList.of("text/plain"),
+                  result.encodedHeaders().get("Content-Type"));
+              assertEquals(ImmutableList.of("0"), result.encodedHeaders().get("Age"));
+              assertArrayEquals("OK".getBytes(), result.body());
+            });
+  }
+
+  @Test
+  public void concurrentMissFailure() throws Throwable {
+    Err failure = new Err(504);
+    new MockUnit(Request.class, ResponseImpl.class, Route.Chain.class, Route.class,
+        ResponseCache.Store.class, Deferred.Handler.class)
+            .expect(method("GET"))
+            .expect(route(ImmutableMap.of("cache", "30s")))
+            .expect(key("/products", "*/*"))
+            .expect(unit -> {
+              ResponseCache.Store store = unit.get(ResponseCache.Store.class);
+              expect(store.get("/products|*/*")).andReturn(null);
+
+              ResponseImpl rsp = unit.get(ResponseImpl.class);
+              rsp.send(unit.capture(Deferred.class));
+
+              Deferred.Handler handler = unit.get(Deferred.Handler.class);
+              handler.handle(null, failure);
+            })
+            .run(unit -> {
+              ResponseCache cache = new ResponseCache(unit.get(ResponseCache.Store.class));
+              cache.inflight.executor = Runnable::run;
+              Flights<ResponseCache.Entry>.Flight flight = cache.inflight.start("/products|*/*");
+              cache.handle(unit.get(Request.class), unit.get(ResponseImpl.class),
+                  unit.get(Route.Chain.class));
+
+              Deferred deferred = unit.captured(Deferred.class).iterator().next();
+              deferred.handler(unit.get(Request.class), unit.get(Deferred.Handler.class));
+              flight.done(null, failure);
+            });
+  }
+
+  @Test
+  public void concurrentMissCancelled() throws Throwable {
+    new MockUnit(Request.class, ResponseImpl.class, Route.Chain.class, Route.class,
+        ResponseCache.Store.class, Deferred.Handler.class)
+            .expect(method("GET"))
+            .expect(route(ImmutableMap.of()))
+            .expect(key("/products", "*/*"))
+            .expect(unit -> {
+              ResponseCache.Store store = unit.get(ResponseCache.Store.class);
+              expect(store.get("/products|*/*")).andReturn(null);
+
+              ResponseImpl rsp = unit.get(ResponseImpl.class);
+              rsp.send(unit.capture(Deferred.class));
+            })
+            .run(unit -> {
+              ResponseCache cache = new ResponseCache(unit.get(ResponseCache.Store.class));
+              cache.inflight.executor = Runnable::run;
+              Flights<ResponseCache.Entry>.Flight flight = cache.inflight.start("/products|*/*");
+              cache.handle(unit.get(Request.class), unit.get(ResponseImpl.class),
+                  unit.get(Route.Chain.class));
+
+              Deferred deferred = unit.captured(Deferred.class).iterator().next();
+              deferred.handler(unit.get(Request.class), unit.get(Deferred.Handler.class));
+              // client went away: waiter is removed, handler isn't called
+              deferred.cancel();
+              flight.done(null, null);
+            });
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shareNotCacheable() throws Throwable {
+    new MockUnit(Request.class, ResponseImpl.class, Route.Chain.class, Route.class,
+        ResponseCache.Store.class, BufferedResponse.class)
+            .expect(method("GET"))
+            .expect(route(ImmutableMap.of()))
+            .expect(key("/products", "*/*"))
+            .expect(unit -> {
+              ResponseCache.Store store = unit.get(ResponseCache.Store.class);
+              expect(store.get("/products|*/*")).andReturn(null);
+
+              ResponseImpl rsp = unit.get(ResponseImpl.class);
+              expect(rsp.buffer(unit.capture(Consumer.class))).andReturn(null);
+              rsp.complete(isA(Route.Complete.class));
+
+              Route.Chain chain = unit.get(Route.Chain.class);
+              chain.next(unit.get(Request.class), rsp);
+
+              BufferedResponse buffer = unit.get(BufferedResponse.class);
+              expect(buffer.streaming()).andReturn(false).times(2);
+              expect(buffer.statusCode()).andReturn(200).times(2);
+              expect(buffer.headers()).andReturn(ImmutableMap.of(
+                  "Content-Type", ImmutableList.of("text/plain"),
+                  "Set-Cookie", ImmutableList.of("sid=1"))).times(2);
+              expect(buffer.body()).andReturn("OK".getBytes());
+              buffer.flush();
+            })
+            .run(unit -> {
+              ResponseCache cache = new ResponseCache(unit.get(ResponseCache.Store.class));
+              cache.inflight.executor = Runnable::run;
+              cache.handle(unit.get(Request.class), unit.get(ResponseImpl.class),
+                  unit.get(Route.Chain.class));
+
+              ResponseCache.Entry[] shared = new ResponseCache.Entry[1];
+              cache.inflight.get("/products|*/*").await((value, failure) -> shared[0] = value);
+
+              unit.captured(Consumer.class).iterator().next()
+                  .accept(unit.get(BufferedResponse.class));
+
+              // not saved, but waiters get it without the cookie
+              assertEquals(200, shared[0].status());
+              assertEquals(ImmutableList.of("text/plain"), shared[0].headers().get("Content-Type"));
+              assertEquals(null, shared[0].headers().get("Set-Cookie"));
+              assertArrayEquals("OK".getBytes(), shared[0].body());
+            });
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shareStreamed() throws Throwable {
+    new MockUnit(Request.class, ResponseImpl.class, Route.Chain.class, Route.class,
+        ResponseCache.Store.class, BufferedResponse.class)
+            .expect(method("GET"))
+            .expect(route(ImmutableMap.of()))
+            .expect(key("/products", "*/*"))
+            .expect(unit -> {
+              ResponseCache.Store store = unit.get(ResponseCache.Store.class);
+              expect(store.get("/products|*/*")).andReturn(null);
+
+              ResponseImpl rsp = unit.get(ResponseImpl.class);
+              expect(rsp.buffer(unit.capture(Consumer.class))).andReturn(null);
+              rsp.complete(isA(Route.Complete.class));
+
+              Route.Chain chain = unit.get(Route.Chain.class);
+              chain.next(unit.get(Request.class), rsp);
+
+              BufferedResponse buffer = unit.get(BufferedResponse.class);
+              expect(buffer.streaming()).andReturn(true).times(2);
+              buffer.flush();
+            })
+            .run(unit -> {
+              ResponseCache cache = new ResponseCache(unit.get(ResponseCache.Store.class));
+              cache.inflight.executor = Runnable::run;
+              cache.handle(unit.get(Request.class), unit.get(ResponseImpl.class),
+                  unit.get(Route.Chain.class));
+
+              Throwable[] shared = new Throwable[1];
+              cache.inflight.get("/products|*/*").await((value, failure) -> shared[0] = failure);
+
+              unit.captured(Consumer.class).iterator().next()
+                  .accept(unit.get(BufferedResponse.class));
+
+              assertEquals(503, ((Err) shared[0]).statusCode());
+            });
+  }
+
+  @Test
+  public void headMiss() throws Throwable {
+    new MockUnit(Request.class, ResponseImpl.class, Route.Chain.class, Route.class,
+        ResponseCache.Store.class)
+            .expect(method("HEAD"))
+            .expect(route(ImmutableMap.of()))
+            .expect(key("/products", ""))
+            .expect(unit -> {
+              ResponseCache.Store store = unit.get(ResponseCache.Store.class);
+              expect(store.get("/products|")).andReturn(null);
+
+              Route.Chain chain = unit.get(Route.Chain.class);
+              chain.next(unit.get(Request.class), unit.get(ResponseImpl.class));
+            })
+            .run(unit -> {
+              new ResponseCache(unit.get(ResponseCache.Store.class))
+                  .handle(unit.get(Request.class), unit.get(ResponseImpl.class),
+                      unit.get(Route.Chain.class));
+            });
+  }
+
+  @Test
+  public void lazyStore() throws Throwable {
+    new MockUnit(Request.class, ResponseImpl.class, Route.Chain.class, Route.class,
+        ResponseCache.Store.class)
+            .expect(method("HEAD"))
+            .expect(route(ImmutableMap.of()))
+            .expect(key("/products", ""))
+            .expect(unit -> {
+              Request req = unit.get(Request.class);
+              expect(req.require(ResponseCache.Store.class))
+                  .andReturn(unit.get(ResponseCache.Store.class));
+
+              ResponseCache.Store store = unit.get(ResponseCache.Store.class);
+              expect(store.get("/products|")).andReturn(null);
+
+              Route.Chain chain = unit.get(Route.Chain.class);
+              chain.next(unit.get(Request.class), unit.get(ResponseImpl.class));
+            })
+            .run(unit -> {
+              new ResponseCache(ResponseCache.Store.class)
+                  .handle(unit.get(Request.class), unit.get(ResponseImpl.class),
+                      unit.get(Route.Chain.class));
+            });
+  }
+
+  @Test
+  public void toStringDescription() {
+    assertEquals("ResponseCache[org.jooby.handlers.ResponseCache$Store]",
+        new ResponseCache(ResponseCache.Store.class).toString());
+  }
+
+}
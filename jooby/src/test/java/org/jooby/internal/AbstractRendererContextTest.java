@@ -1,5 +1,9 @@
 package org.jooby.internal;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
@@ -7,6 +11,8 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jooby.Err;
 import org.jooby.MediaType;
@@ -50,4 +56,155 @@ public class AbstractRendererContextTest {
         });
   }
 
+  private static class Ctx extends AbstractRendererContext {
+
+    public Ctx(final List<Renderer> renderers, final List<MediaType> produces,
+        final RendererCache cache) {
+      super(renderers, produces, StandardCharsets.UTF_8, Collections.emptyMap(), 16, cache);
+    }
+
+    @Override
+    protected void _send(final byte[] bytes) throws Exception {
+    }
+
+    @Override
+    protected void _send(final ByteBuffer buffer) throws Exception {
+    }
+
+    @Override
+    protected void _send(final FileChannel file) throws Exception {
+    }
+
+    @Override
+    protected void _send(final InputStream stream) throws Exception {
+    }
+
+  }
+
+  @Test
+  public void rendererCache() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    List<Renderer> renderers = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      renderers.add(typeBased((value, ctx) -> calls.incrementAndGet()));
+    }
+    renderers.add(typeBased((value, ctx) -> {
+      calls.incrementAndGet();
+      if (value instanceof Integer) {
+        ctx.send(value.toString());
+      }
+    }));
+    renderers.add(BuiltinRenderer.text);
+    List<MediaType> produces = ImmutableList.of(MediaType.html);
+    RendererCache cache = new RendererCache();
+
+    new Ctx(renderers, produces, cache).render(1);
+    assertEquals(9, calls.get());
+
+    // straight to the 9th renderer
+    new Ctx(renderers, produces, cache).render(2);
+    assertEquals(10, calls.get());
+
+    // different type
+    new Ctx(renderers, produces, cache).render("s");
+    assertEquals(19, calls.get());
+    new Ctx(renderers, produces, cache).render("s");
+    assertEquals(19, calls.get());
+  }
+
+  @Test
+  public void rendererCacheDecline() throws Exception {
+    List<String> calls = new ArrayList<>();
+    AtomicBoolean accept = new AtomicBoolean(true);
+    Renderer first = (value, ctx) -> {
+      calls.add("first");
+      if (accept.get()) {
+        ctx.send(value.toString());
+      }
+    };
+    Renderer second = (value, ctx) -> {
+      calls.add("second");
+      ctx.send(value.toString());
+    };
+    List<MediaType> produces = ImmutableList.of(MediaType.html);
+    RendererCache cache = new RendererCache();
+
+    new Ctx(ImmutableList.of(first, second), produces, cache).render("v");
+    accept.set(false);
+    new Ctx(ImmutableList.of(first, second), produces, cache).render("v");
+    new Ctx(ImmutableList.of(first, second), produces, cache).render("v");
+    // first isn't type based: second isn't cached
+    accept.set(true);
+    new Ctx(ImmutableList.of(first, second), produces, cache).render("v");
+    assertEquals(ImmutableList.of("first", "first", "second", "first", "second", "first"),
+        calls);
+  }
+
+  @Test
+  public void rendererCacheKeepsPrecedence() throws Exception {
+    List<String> calls = new ArrayList<>();
+    Renderer first = (value, ctx) -> {
+      calls.add("first");
+      if (value.toString().startsWith("!")) {
+        ctx.send(value.toString());
+      }
+    };
+    Renderer second = (value, ctx) -> {
+      calls.add("second");
+      ctx.send(value.toString());
+    };
+    List<MediaType> produces = ImmutableList.of(MediaType.html);
+    RendererCache cache = new RendererCache();
+
+    new Ctx(ImmutableList.of(first, second), produces, cache).render("v");
+    new Ctx(ImmutableList.of(first, second), produces, cache).render("!v");
+    assertEquals(ImmutableList.of("first", "second", "first"), calls);
+  }
+
+  private static Renderer typeBased(final Renderer renderer) {
+    return new Renderer() {
+      @Override
+      public void render(final Object value, final Context ctx) throws Exception {
+        renderer.render(value, ctx);
+      }
+
+      @Override
+      public boolean typeBased() {
+        return true;
+      }
+    };
+  }
+
+  @Test
+  public void rendererCacheTemplateNotFound() throws Exception {
+    List<String> calls = new ArrayList<>();
+    View.Engine hbs = new View.Engine() {
+      @Override
+      public void render(final View view, final Renderer.Context ctx) throws Exception {
+        calls.add("hbs");
+        if (view.name().equals("missing")) {
+          throw new FileNotFoundException(view.name());
+        }
+        ctx.send(view.name());
+      }
+
+      @Override
+      public String toString() {
+        return "hbs";
+      }
+    };
+    List<MediaType> produces = ImmutableList.of(MediaType.html);
+    RendererCache cache = new RendererCache();
+
+    new Ctx(ImmutableList.of(hbs), produces, cache).render(Results.html("index"));
+    new Ctx(ImmutableList.of(hbs), produces, cache).render(Results.html("index"));
+    try {
+      new Ctx(ImmutableList.of(hbs), produces, cache).render(Results.html("missing"));
+      fail();
+    } catch (FileNotFoundException x) {
+      assertEquals("Template not found: missing in [hbs]", x.getMessage());
+    }
+    assertEquals(ImmutableList.of("hbs", "hbs", "hbs"), calls);
+  }
+
 }
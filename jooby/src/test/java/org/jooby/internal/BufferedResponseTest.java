@@ -0,0 +1,206 @@
+package org.jooby.internal;
+
+import static org.easymock.EasyMock.aryEq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.jooby.spi.NativeResponse;
+import org.jooby.test.MockUnit;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class BufferedResponseTest {
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void bufferBody() throws Exception {
+    new MockUnit(NativeResponse.class, Consumer.class)
+        .run(unit -> {
+          BufferedResponse buffer = new BufferedResponse(unit.get(NativeResponse.class),
+              unit.get(Consumer.class));
+          buffer.send("Hello ".getBytes());
+          buffer.send(ByteBuffer.wrap("World".getBytes()));
+          ByteBuffer direct = ByteBuffer.allocateDirect(1);
+          direct.put((byte) '!');
+          direct.flip();
+          buffer.send(direct);
+          assertTrue(buffer.committed());
+          assertFalse(buffer.streaming());
+          assertEquals("Hello World!", new String(buffer.body()));
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void notCommitted() throws Exception {
+    new MockUnit(NativeResponse.class, Consumer.class)
+        .expect(unit -> {
+          NativeResponse rsp = unit.get(NativeResponse.class);
+          expect(rsp.committed()).andReturn(false);
+        })
+        .run(unit -> {
+          assertFalse(new BufferedResponse(unit.get(NativeResponse.class),
+              unit.get(Consumer.class)).committed());
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void headers() throws Exception {
+    new MockUnit(NativeResponse.class, Consumer.class)
+        .expect(unit -> {
+          NativeResponse rsp = unit.get(NativeResponse.class);
+          rsp.header("Content-Type", "text/plain");
+          rsp.header("X-Value", Arrays.asList("a", "b"));
+          expect(rsp.headers("Content-Type")).andReturn(ImmutableList.of("text/plain"));
+          expect(rsp.headers("X-Value")).andReturn(ImmutableList.of("a", "b"));
+        })
+        .run(unit -> {
+          BufferedResponse buffer = new BufferedResponse(unit.get(NativeResponse.class),
+              unit.get(Consumer.class));
+          buffer.header("Content-Type", "text/plain");
+          buffer.header("X-Value", Arrays.asList("a", "b"));
+          Map<String, List<String>> headers = buffer.headers();
+          assertEquals(ImmutableList.of("text/plain"), headers.get("content-type"));
+          assertEquals(ImmutableList.of("a", "b"), headers.get("X-Value"));
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void removeHeader() throws Exception {
+    new MockUnit(NativeResponse.class, Consumer.class)
+        .expect(unit -> {
+          NativeResponse rsp = unit.get(NativeResponse.class);
+          rsp.header("Content-Length", "2");
+          rsp.removeHeader("content-length");
+        })
+        .run(unit -> {
+          BufferedResponse buffer = new BufferedResponse(unit.get(NativeResponse.class),
+              unit.get(Consumer.class));
+          buffer.header("Content-Length", "2");
+          buffer.removeHeader("content-length");
+          assertEquals(0, buffer.headers().size());
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void stream() throws Exception {
+    new MockUnit(NativeResponse.class, Consumer.class, InputStream.class)
+        .expect(unit -> {
+          NativeResponse rsp = unit.get(NativeResponse.class);
+          rsp.send(aryEq("head".getBytes()));
+          rsp.send(unit.get(InputStream.class));
+          rsp.send(aryEq("tail".getBytes()));
+          rsp.end();
+        })
+        .run(unit -> {
+          BufferedResponse buffer = new BufferedResponse(unit.get(NativeResponse.class),
+              unit.get(Consumer.class));
+          buffer.send("head".getBytes());
+          buffer.send(unit.get(InputStream.class));
+          buffer.send("tail".getBytes());
+          assertTrue(buffer.streaming());
+          buffer.flush();
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void endOnce() throws Exception {
+    new MockUnit(NativeResponse.class, Consumer.class)
+        .expect(unit -> {
+          Consumer<BufferedResponse> onEnd = unit.get(Consumer.class);
+          onEnd.accept(unit.capture(BufferedResponse.class));
+        })
+        .run(unit -> {
+          BufferedResponse buffer = new BufferedResponse(unit.get(NativeResponse.class),
+              unit.get(Consumer.class));
+          buffer.end();
+          buffer.end();
+        }, unit -> {
+          assertEquals(1, unit.captured(BufferedResponse.class).size());
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void flush() throws Exception {
+    new MockUnit(NativeResponse.class, Consumer.class)
+        .expect(unit -> {
+          NativeResponse rsp = unit.get(NativeResponse.class);
+          rsp.send(aryEq("body".getBytes()));
+          rsp.end();
+        })
+        .run(unit -> {
+          BufferedResponse buffer = new BufferedResponse(unit.get(NativeResponse.class),
+              unit.get(Consumer.class));
+          buffer.send("body".getBytes());
+          buffer.flush();
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void reset() throws Exception {
+    new MockUnit(NativeResponse.class, Consumer.class)
+        .expect(unit -> {
+          NativeResponse rsp = unit.get(NativeResponse.class);
+          rsp.reset();
+          rsp.end();
+        })
+        .run(unit -> {
+          BufferedResponse buffer = new BufferedResponse(unit.get(NativeResponse.class),
+              unit.get(Consumer.class));
+          buffer.send("body".getBytes());
+          buffer.reset();
+          assertArrayEquals(new byte[0], buffer.body());
+          buffer.flush();
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void fail() throws Exception {
+    new MockUnit(NativeResponse.class, Consumer.class)
+        .expect(unit -> {
+          NativeResponse rsp = unit.get(NativeResponse.class);
+          expect(rsp.committed()).andReturn(false);
+          rsp.reset();
+          rsp.statusCode(500);
+          rsp.end();
+        })
+        .run(unit -> {
+          new BufferedResponse(unit.get(NativeResponse.class), unit.get(Consumer.class)).fail();
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void failCommitted() throws Exception {
+    new MockUnit(NativeResponse.class, Consumer.class)
+        .expect(unit -> {
+          NativeResponse rsp = unit.get(NativeResponse.class);
+          expect(rsp.committed()).andReturn(true);
+          rsp.end();
+          expectLastCall().andThrow(new IllegalStateException("closed"));
+        })
+        .run(unit -> {
+          new BufferedResponse(unit.get(NativeResponse.class), unit.get(Consumer.class)).fail();
+        });
+  }
+
+}
@@ -0,0 +1,29 @@
+package org.jooby.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.typesafe.config.ConfigException;
+
+public class DurationAttrTest {
+
+  @Test
+  public void number() {
+    assertEquals(500L, DurationAttr.millis("deadline", 500));
+    assertEquals(500L, DurationAttr.millis("deadline", 500L));
+  }
+
+  @Test
+  public void expression() {
+    assertEquals(2000L, DurationAttr.millis("deadline", "2s"));
+    assertEquals(2000L, DurationAttr.millis("cache", "2s"));
+    assertEquals(60000L, DurationAttr.millis("cache", "1m"));
+  }
+
+  @Test(expected = ConfigException.class)
+  public void badExpression() {
+    DurationAttr.millis("deadline", "2 parsecs");
+  }
+
+}
@@ -0,0 +1,66 @@
+package org.jooby.internal;
+
+import static org.easymock.EasyMock.expect;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.jooby.Route;
+import org.jooby.test.MockUnit;
+import org.jooby.test.MockUnit.Block;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class HttpHandlerImplTest {
+
+  private static final Map<String, Object> NON_BLOCKING = ImmutableMap.of("nonblocking", true);
+
+  private Block route(final List<Route> routes, final Map<String, Object> attributes) {
+    return unit -> {
+      Route route = unit.mock(Route.class);
+      if (attributes != null) {
+        expect(route.attributes()).andReturn(attributes);
+      }
+      routes.add(route);
+    };
+  }
+
+  @Test
+  public void nonblocking() throws Exception {
+    List<Route> routes = new ArrayList<>();
+    new MockUnit()
+        .expect(route(routes, NON_BLOCKING))
+        .expect(route(routes, NON_BLOCKING))
+        // fallback (404) route is ignored
+        .expect(route(routes, null))
+        .run(unit -> {
+          assertEquals(true, HttpHandlerImpl.nonblocking(routes));
+        });
+  }
+
+  @Test
+  public void blocking() throws Exception {
+    List<Route> routes = new ArrayList<>();
+    new MockUnit()
+        .expect(route(routes, NON_BLOCKING))
+        .expect(route(routes, ImmutableMap.of()))
+        .expect(route(routes, null))
+        .run(unit -> {
+          assertEquals(false, HttpHandlerImpl.nonblocking(routes));
+        });
+  }
+
+  @Test
+  public void onlyFallback() throws Exception {
+    List<Route> routes = new ArrayList<>();
+    new MockUnit()
+        .expect(route(routes, null))
+        .run(unit -> {
+          assertEquals(false, HttpHandlerImpl.nonblocking(routes));
+        });
+  }
+
+}
@@ -0,0 +1,94 @@
+package org.jooby.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class LogRingTest {
+
+  @Test
+  public void drain() throws Exception {
+    List<String> records = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch latch = new CountDownLatch(3);
+    LogRing ring = new LogRing("ring", 4, 16, record -> {
+      records.add(record);
+      latch.countDown();
+    });
+    assertTrue(ring.offer("a"));
+    assertTrue(ring.offer(new StringBuilder("b")));
+    assertTrue(ring.offer("0123456789abcdefXYZ"));
+    latch.await(5, TimeUnit.SECONDS);
+    ring.stop();
+    assertEquals(Arrays.asList("a", "b", "0123456789abcdef"), records);
+    assertEquals(0L, ring.dropped());
+  }
+
+  @Test
+  public void dropWhenFull() throws Exception {
+    CountDownLatch block = new CountDownLatch(1);
+    List<String> records = Collections.synchronizedList(new ArrayList<>());
+    LogRing ring = new LogRing("ring", 2, 8, record -> {
+      try {
+        block.await();
+      } catch (InterruptedException x) {
+        Thread.currentThread().interrupt();
+      }
+      records.add(record);
+    });
+    int saved = 0;
+    for (int i = 0; i < 10; i++) {
+      if (ring.offer(Integer.toString(i))) {
+        saved += 1;
+      }
+    }
+    // consumer holds at most one record, ring holds two
+    assertTrue(saved <= 3);
+    assertEquals(10 - saved, ring.dropped());
+    assertFalse(ring.dropped() == 0);
+    block.countDown();
+    ring.stop();
+    assertEquals(saved, records.size());
+  }
+
+  @Test
+  public void errorsDontStopDrain() throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    LogRing ring = new LogRing("ring", 4, 8, record -> {
+      if (record.equals("x")) {
+        throw new IllegalStateException("intentional err");
+      }
+      latch.countDown();
+    });
+    ring.offer("x");
+    ring.offer("y");
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    ring.stop();
+  }
+
+  @Test
+  public void wakeUpWhenIdle() throws Exception {
+    List<String> records = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch latch = new CountDownLatch(2);
+    LogRing ring = new LogRing("ring", 4, 8, record -> {
+      records.add(record);
+      latch.countDown();
+    });
+    assertTrue(ring.offer("a"));
+    // drain thread is parked by now
+    Thread.sleep(100L);
+    assertTrue(ring.offer("b"));
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    ring.stop();
+    assertEquals(Arrays.asList("a", "b"), records);
+  }
+
+}
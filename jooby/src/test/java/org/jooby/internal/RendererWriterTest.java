@@ -0,0 +1,120 @@
+package org.jooby.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import org.jooby.MediaType;
+import org.jooby.Renderer;
+import org.junit.Test;
+
+import com.google.common.io.ByteStreams;
+
+public class RendererWriterTest {
+
+  private static class Ctx extends AbstractRendererContext {
+
+    long length = -1;
+
+    MediaType type;
+
+    byte[] bytes;
+
+    boolean chunked;
+
+    public Ctx(final int bufferSize) {
+      super(Collections.emptyList(), Collections.emptyList(), StandardCharsets.UTF_8,
+          Collections.emptyMap(), bufferSize);
+    }
+
+    @Override
+    public Renderer.Context length(final long length) {
+      this.length = length;
+      return this;
+    }
+
+    @Override
+    public Renderer.Context type(final MediaType type) {
+      this.type = type;
+      return this;
+    }
+
+    @Override
+    protected void _send(final byte[] bytes) throws Exception {
+      this.bytes = bytes;
+    }
+
+    @Override
+    protected void _send(final ByteBuffer buffer) throws Exception {
+      bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+    }
+
+    @Override
+    protected void _send(final FileChannel file) throws Exception {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected void _send(final InputStream stream) throws Exception {
+      chunked = true;
+      bytes = ByteStreams.toByteArray(stream);
+    }
+  }
+
+  @Test
+  public void fitsInBuffer() throws Exception {
+    Ctx ctx = new Ctx(16);
+    Writer writer = ctx.writer();
+    writer.write("Hello ");
+    writer.append("World");
+    assertNull(ctx.bytes);
+    writer.close();
+    assertEquals(MediaType.html, ctx.type);
+    assertEquals(11, ctx.length);
+    assertEquals(false, ctx.chunked);
+    assertEquals("Hello World", new String(ctx.bytes, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void largerThanBuffer() throws Exception {
+    Ctx ctx = new Ctx(8);
+    Writer writer = ctx.writer();
+    writer.write("Hello World");
+    writer.close();
+    // known length: joined and sent as a body, not as a stream
+    assertEquals(11, ctx.length);
+    assertEquals(false, ctx.chunked);
+    assertEquals("Hello World", new String(ctx.bytes, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void multibyte() throws Exception {
+    String text = "\u00f1and\u00fa \ud83d\ude00 ok";
+    Ctx ctx = new Ctx(8);
+    Writer writer = ctx.writer();
+    // split surrogate pair between writes
+    for (char c : text.toCharArray()) {
+      writer.write(c);
+    }
+    writer.close();
+    assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), ctx.bytes);
+  }
+
+  @Test
+  public void noSendWithoutClose() throws Exception {
+    Ctx ctx = new Ctx(8);
+    Writer writer = ctx.writer();
+    writer.write("Hello World");
+    writer.flush();
+    assertNull(ctx.bytes);
+  }
+
+}
@@ -8,6 +8,7 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import org.jooby.Err;
 import org.jooby.Route;
@@ -46,7 +47,7 @@ public class RequestImplTest {
         .run(unit -> {
           new RequestImpl(unit.get(Injector.class), unit.get(NativeRequest.class), "/", 8080,
               unit.get(Route.class), StandardCharsets.UTF_8, ImmutableList.of(Locale.ENGLISH),
-              ImmutableMap.of(), ImmutableMap.of(), 1L);
+              new RequestScope().newScope(), ImmutableMap.of(), 1L);
         });
   }
 
@@ -64,7 +65,7 @@ public class RequestImplTest {
         .run(unit -> {
           RequestImpl req = new RequestImpl(unit.get(Injector.class), unit.get(NativeRequest.class),
               "/", 8080,
-              unit.get(Route.class), StandardCharsets.UTF_8, ImmutableList.of(Locale.ENGLISH), ImmutableMap.of(),
+              unit.get(Route.class), StandardCharsets.UTF_8, ImmutableList.of(Locale.ENGLISH), new RequestScope().newScope(),
               ImmutableMap.of(), 1L);
           assertEquals(true, req.matches("/path/**"));
         });
@@ -82,7 +83,7 @@ public class RequestImplTest {
         .run(unit -> {
           RequestImpl req = new RequestImpl(unit.get(Injector.class), unit.get(NativeRequest.class),
               "/", 8080,
-              unit.get(Route.class), StandardCharsets.UTF_8, ImmutableList.of(Locale.ENGLISH), ImmutableMap.of(),
+              unit.get(Route.class), StandardCharsets.UTF_8, ImmutableList.of(Locale.ENGLISH), new RequestScope().newScope(),
               ImmutableMap.of(), 1L);
           assertEquals(Locale.ENGLISH, req.locale());
         });
@@ -102,7 +103,7 @@ public class RequestImplTest {
         .run(unit -> {
           try {
             new RequestImpl(unit.get(Injector.class), unit.get(NativeRequest.class), "/", 8080,
-                unit.get(Route.class), StandardCharsets.UTF_8, ImmutableList.of(Locale.ENGLISH), ImmutableMap.of(),
+                unit.get(Route.class), StandardCharsets.UTF_8, ImmutableList.of(Locale.ENGLISH), new RequestScope().newScope(),
                 ImmutableMap.of(), 1L).param("f");
             fail("expecting error");
           } catch (Err ex) {
@@ -129,7 +130,7 @@ public class RequestImplTest {
         .run(unit -> {
           try {
             new RequestImpl(unit.get(Injector.class), unit.get(NativeRequest.class), "/", 8080,
-                unit.get(Route.class), StandardCharsets.UTF_8, ImmutableList.of(Locale.ENGLISH), ImmutableMap.of(),
+                unit.get(Route.class), StandardCharsets.UTF_8, ImmutableList.of(Locale.ENGLISH), new RequestScope().newScope(),
                 ImmutableMap.of(), 1L).params();
             fail("expecting error");
           } catch (Err ex) {
@@ -139,6 +140,54 @@ public class RequestImplTest {
         });
   }
 
+  @Test
+  public void deadline() throws Exception {
+    new MockUnit(Injector.class, NativeRequest.class, Route.class)
+        .expect(accept)
+        .expect(acceptLan)
+        .expect(contentType)
+        .run(unit -> {
+          long now = System.currentTimeMillis();
+          RequestImpl req = new RequestImpl(unit.get(Injector.class),
+              unit.get(NativeRequest.class), "/", 8080, unit.get(Route.class),
+              StandardCharsets.UTF_8, ImmutableList.of(Locale.ENGLISH), new RequestScope().newScope(),
+              ImmutableMap.of(), now);
+          assertEquals(Optional.empty(), req.deadline());
+          assertEquals(false, req.expired());
+
+          req.deadline(1, TimeUnit.HOURS);
+          assertEquals(Optional.of(now + TimeUnit.HOURS.toMillis(1)), req.deadline());
+          // can't extend a deadline
+          req.deadline(2, TimeUnit.HOURS);
+          assertEquals(Optional.of(now + TimeUnit.HOURS.toMillis(1)), req.deadline());
+          assertEquals(false, req.expired());
+
+          req.deadline(0, TimeUnit.MILLISECONDS);
+          assertEquals(true, req.expired());
+          assertEquals(504, req.deadlineExceeded().statusCode());
+        });
+  }
+
+  @Test
+  public void abort() throws Exception {
+    new MockUnit(Injector.class, NativeRequest.class, Route.class)
+        .expect(accept)
+        .expect(acceptLan)
+        .expect(contentType)
+        .run(unit -> {
+          RequestImpl req = new RequestImpl(unit.get(Injector.class),
+              unit.get(NativeRequest.class), "/", 8080, unit.get(Route.class),
+              StandardCharsets.UTF_8, ImmutableList.of(Locale.ENGLISH), new RequestScope().newScope(),
+              ImmutableMap.of(), System.currentTimeMillis());
+          assertEquals(false, req.aborted());
+          req.abort();
+          assertEquals(true, req.aborted());
+          assertEquals(true, req.expired());
+          assertEquals("Gateway Timeout(504): client went away",
+              req.deadlineExceeded().getMessage());
+        });
+  }
+
   @Test
   public void params() throws Exception {
     IOException cause = new IOException("intentional err");
@@ -157,7 +206,7 @@ public class RequestImplTest {
         .run(unit -> {
           try {
             new RequestImpl(unit.get(Injector.class), unit.get(NativeRequest.class), "/", 8080,
-                unit.get(Route.class), StandardCharsets.UTF_8, ImmutableList.of(Locale.ENGLISH), ImmutableMap.of(),
+                unit.get(Route.class), StandardCharsets.UTF_8, ImmutableList.of(Locale.ENGLISH), new RequestScope().newScope(),
                 ImmutableMap.of(), 1L).param("p");
             fail("expecting error");
           } catch (Err ex) {
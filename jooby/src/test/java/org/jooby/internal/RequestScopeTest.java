@@ -3,9 +3,8 @@ package org.jooby.internal;
 import static org.easymock.EasyMock.expect;
 import static org.junit.Assert.assertEquals;
 
-import java.util.Collections;
-import java.util.Map;
-
+import org.jooby.Request;
+import org.jooby.Response;
 import org.jooby.test.MockUnit;
 import org.junit.Test;
 
@@ -13,16 +12,27 @@ import com.google.inject.Key;
 import com.google.inject.OutOfScopeException;
 import com.google.inject.Provider;
 import com.google.inject.internal.CircularDependencyProxy;
+import com.google.inject.name.Names;
 
 public class RequestScopeTest {
 
   @Test
   public void enter() {
     RequestScope requestScope = new RequestScope();
-    requestScope.enter(Collections.emptyMap());
+    requestScope.enter(requestScope.newScope());
     requestScope.exit();
   }
 
+  @Test
+  public void ids() {
+    RequestScope requestScope = new RequestScope();
+    assertEquals(RequestScope.REQ, requestScope.id(Key.get(Request.class)));
+    assertEquals(RequestScope.RSP, requestScope.id(Key.get(Response.class)));
+    assertEquals(2, requestScope.id(Key.get(Object.class)));
+    assertEquals(2, requestScope.id(Key.get(Object.class)));
+    assertEquals(3, requestScope.id(Key.get(Object.class, Names.named("x"))));
+  }
+
   @SuppressWarnings({"unchecked", "rawtypes" })
   @Test
   public void scopedValue() throws Exception {
@@ -30,22 +40,17 @@ public class RequestScopeTest {
     Key<Object> key = Key.get(Object.class);
     Object value = new Object();
     try {
-      new MockUnit(Provider.class, Map.class)
-          .expect(unit -> {
-            Map scopedObjects = unit.get(Map.class);
-            requestScope.enter(scopedObjects);
-            expect(scopedObjects.get(key)).andReturn(null);
-            expect(scopedObjects.containsKey(key)).andReturn(false);
-
-            expect(scopedObjects.put(key, value)).andReturn(null);
-          })
+      new MockUnit(Provider.class)
           .expect(unit -> {
             Provider provider = unit.get(Provider.class);
             expect(provider.get()).andReturn(value);
           })
           .run(unit -> {
-            Object result = requestScope.<Object> scope(key, unit.get(Provider.class)).get();
-            assertEquals(value, result);
+            Provider<Object> scoped = requestScope.scope(key, unit.get(Provider.class));
+            requestScope.enter(requestScope.newScope());
+            assertEquals(value, scoped.get());
+            // once per request
+            assertEquals(value, scoped.get());
           });
     } finally {
       requestScope.exit();
@@ -58,16 +63,11 @@ public class RequestScopeTest {
     RequestScope requestScope = new RequestScope();
     Key<Object> key = Key.get(Object.class);
     try {
-      new MockUnit(Provider.class, Map.class)
-          .expect(unit -> {
-            Map scopedObjects = unit.get(Map.class);
-            requestScope.enter(scopedObjects);
-            expect(scopedObjects.get(key)).andReturn(null);
-            expect(scopedObjects.containsKey(key)).andReturn(true);
-          })
+      new MockUnit(Provider.class)
           .run(unit -> {
-            Object result = requestScope.<Object> scope(key, unit.get(Provider.class)).get();
-            assertEquals(null, result);
+            Provider<Object> scoped = requestScope.scope(key, unit.get(Provider.class));
+            requestScope.enter(requestScope.newScope().set(key, null));
+            assertEquals(null, scoped.get());
           });
     } finally {
       requestScope.exit();
@@ -81,15 +81,74 @@ public class RequestScopeTest {
     Key<Object> key = Key.get(Object.class);
     Object value = new Object();
     try {
-      new MockUnit(Provider.class, Map.class)
+      new MockUnit(Provider.class)
+          .run(unit -> {
+            Provider<Object> scoped = requestScope.scope(key, unit.get(Provider.class));
+            requestScope.enter(requestScope.newScope().set(key, value));
+            assertEquals(value, scoped.get());
+          });
+    } finally {
+      requestScope.exit();
+    }
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes" })
+  @Test
+  public void requestSlot() throws Exception {
+    RequestScope requestScope = new RequestScope();
+    try {
+      new MockUnit(Provider.class, Request.class)
+          .run(unit -> {
+            Provider<Request> scoped = requestScope.scope(Key.get(Request.class),
+                unit.get(Provider.class));
+            requestScope.enter(requestScope.newScope()
+                .set(RequestScope.REQ, unit.get(Request.class)));
+            assertEquals(unit.get(Request.class), scoped.get());
+          });
+    } finally {
+      requestScope.exit();
+    }
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes" })
+  @Test
+  public void scopedProvider() throws Exception {
+    RequestScope requestScope = new RequestScope();
+    Key<Object> key = Key.get(Object.class);
+    Object value = new Object();
+    javax.inject.Provider<Object> seed = () -> value;
+    try {
+      new MockUnit(Provider.class)
+          .run(unit -> {
+            Provider<Object> scoped = requestScope.scope(key, unit.get(Provider.class));
+            requestScope.enter(requestScope.newScope().set(key, seed));
+            assertEquals(value, scoped.get());
+          });
+    } finally {
+      requestScope.exit();
+    }
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes" })
+  @Test
+  public void keyScopedAfterRequestStarted() throws Exception {
+    RequestScope requestScope = new RequestScope();
+    Object value = new Object();
+    try {
+      new MockUnit(Provider.class)
           .expect(unit -> {
-            Map scopedObjects = unit.get(Map.class);
-            requestScope.enter(scopedObjects);
-            expect(scopedObjects.get(key)).andReturn(value);
+            Provider provider = unit.get(Provider.class);
+            expect(provider.get()).andReturn(value);
           })
           .run(unit -> {
-            Object result = requestScope.<Object> scope(key, unit.get(Provider.class)).get();
-            assertEquals(value, result);
+            requestScope.enter(requestScope.newScope());
+            for (int i = 0; i < 10; i++) {
+              requestScope.id(Key.get(Object.class, Names.named("k" + i)));
+            }
+            Provider<Object> scoped = requestScope.scope(Key.get(Object.class),
+                unit.get(Provider.class));
+            assertEquals(value, scoped.get());
+            assertEquals(value, scoped.get());
           });
     } finally {
       requestScope.exit();
@@ -102,18 +161,13 @@ public class RequestScopeTest {
     RequestScope requestScope = new RequestScope();
     Key<Object> key = Key.get(Object.class);
     try {
-      new MockUnit(Provider.class, Map.class, CircularDependencyProxy.class)
-          .expect(unit -> {
-            Map scopedObjects = unit.get(Map.class);
-            requestScope.enter(scopedObjects);
-            expect(scopedObjects.get(key)).andReturn(null);
-            expect(scopedObjects.containsKey(key)).andReturn(false);
-          })
+      new MockUnit(Provider.class, CircularDependencyProxy.class)
           .expect(unit -> {
             Provider provider = unit.get(Provider.class);
             expect(provider.get()).andReturn(unit.get(CircularDependencyProxy.class));
           })
           .run(unit -> {
+            requestScope.enter(requestScope.newScope());
             Object result = requestScope.<Object> scope(key, unit.get(Provider.class)).get();
             assertEquals(unit.get(CircularDependencyProxy.class), result);
           });
@@ -128,10 +182,35 @@ public class RequestScopeTest {
     RequestScope requestScope = new RequestScope();
     Key<Object> key = Key.get(Object.class);
     Object value = new Object();
-    new MockUnit(Provider.class, Map.class)
+    new MockUnit(Provider.class)
         .run(unit -> {
           Object result = requestScope.<Object> scope(key, unit.get(Provider.class)).get();
           assertEquals(value, result);
         });
   }
+
+  @Test
+  public void concurrentGrowth() throws Exception {
+    RequestScope requestScope = new RequestScope();
+    RequestScope.Slots slots = requestScope.newScope();
+    int size = 1000;
+    Thread even = new Thread(() -> {
+      for (int i = 0; i < size; i += 2) {
+        slots.set(i, i);
+      }
+    });
+    Thread odd = new Thread(() -> {
+      for (int i = 1; i < size; i += 2) {
+        slots.set(i, i);
+      }
+    });
+    even.start();
+    odd.start();
+    even.join();
+    odd.join();
+    for (int i = 0; i < size; i++) {
+      assertEquals(i, slots.get(i));
+    }
+  }
+
 }
@@ -153,7 +153,7 @@ public class ServerSessionManagerTest {
               session.aboutToSave();
 
               Store store = unit.get(Store.class);
-              store.save(session);
+              store.touch(session);
 
               session.markAsSaved();
             })
@@ -0,0 +1,42 @@
+package org.jooby.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+public class TemplateScannerTest {
+
+  private ClassLoader loader = getClass().getClassLoader();
+
+  @Test
+  public void scan() throws Exception {
+    Set<String> names = new TemplateScanner(loader, "/scanner", ".html").scan();
+    assertEquals(Sets.newTreeSet(Sets.newHashSet("index", "partials/body")),
+        new TreeSet<>(names));
+  }
+
+  @Test
+  public void scanWithTrailingSlash() throws Exception {
+    Set<String> names = new TemplateScanner(loader, "/scanner/partials/", ".html").scan();
+    assertEquals(Sets.newHashSet("body"), names);
+  }
+
+  @Test
+  public void dirs() throws Exception {
+    assertEquals(1, new TemplateScanner(loader, "/scanner", ".html").dirs().size());
+    assertEquals(0, new TemplateScanner(loader, "/missing", ".html").dirs().size());
+  }
+
+  @Test
+  public void jar() throws Exception {
+    // junit is packaged as jar
+    Set<String> names = new TemplateScanner(loader, "/org/junit/runner", ".class").scan();
+    assertEquals(true, names.contains("JUnitCore"));
+  }
+
+}
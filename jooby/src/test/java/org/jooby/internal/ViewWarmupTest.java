@@ -0,0 +1,89 @@
+package org.jooby.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.FileNotFoundException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.jooby.Renderer;
+import org.jooby.View;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+
+public class ViewWarmupTest {
+
+  private static class Engine implements View.Engine {
+
+    Set<String> compiled = new ConcurrentSkipListSet<>();
+
+    private Set<String> templates;
+
+    public Engine(final Set<String> templates) {
+      this.templates = templates;
+    }
+
+    @Override
+    public void render(final View viewable, final Renderer.Context ctx) throws Exception {
+    }
+
+    @Override
+    public Set<String> templates() throws Exception {
+      return templates;
+    }
+
+    @Override
+    public void compile(final String name) throws Exception {
+      if (name.startsWith("missing")) {
+        throw new FileNotFoundException(name);
+      }
+      compiled.add(name);
+    }
+
+    @Override
+    public String toString() {
+      return "test";
+    }
+  }
+
+  private Config conf(final boolean failFast) {
+    return ConfigFactory.empty()
+        .withValue("view.warmup.parallelism", ConfigValueFactory.fromAnyRef(2))
+        .withValue("view.warmup.failFast", ConfigValueFactory.fromAnyRef(failFast));
+  }
+
+  @Test
+  public void compile() throws Exception {
+    Engine engine = new Engine(Sets.newHashSet("a", "b", "c", "d"));
+    new ViewWarmup(conf(true)).run(ImmutableSet.of(engine, BuiltinRenderer.text));
+    assertEquals(Sets.newHashSet("a", "b", "c", "d"), engine.compiled);
+  }
+
+  @Test
+  public void noTemplates() throws Exception {
+    new ViewWarmup(conf(true)).run(ImmutableSet.of(new View.Engine() {
+      @Override
+      public void render(final View viewable, final Renderer.Context ctx) throws Exception {
+      }
+    }));
+  }
+
+  @Test
+  public void logErrors() throws Exception {
+    Engine engine = new Engine(Sets.newHashSet("a", "missing", "c"));
+    new ViewWarmup(conf(false)).run(ImmutableSet.of(engine));
+    assertEquals(Sets.newHashSet("a", "c"), engine.compiled);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void failFast() throws Exception {
+    Engine engine = new Engine(Sets.newHashSet("a", "missing", "c"));
+    new ViewWarmup(conf(true)).run(ImmutableSet.of(engine));
+  }
+
+}
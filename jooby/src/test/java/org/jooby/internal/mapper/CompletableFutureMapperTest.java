@@ -27,6 +27,9 @@ public class CompletableFutureMapperTest {
 
   @SuppressWarnings({"unchecked", "rawtypes" })
   private Block future = unit -> {
+    Deferred deferred = unit.get(Deferred.class);
+    expect(deferred.onCancel(unit.capture(Runnable.class))).andReturn(deferred);
+
     CompletableFuture future = unit.get(CompletableFuture.class);
     expect(future.whenComplete(unit.capture(BiConsumer.class))).andReturn(future);
   };
@@ -75,4 +78,21 @@ public class CompletableFutureMapperTest {
           next.accept(null, value);
         });
   }
+
+  @Test
+  public void cancel() throws Exception {
+    new MockUnit(CompletableFuture.class)
+        .expect(deferred)
+        .expect(future)
+        .expect(unit -> {
+          CompletableFuture<?> future = unit.get(CompletableFuture.class);
+          expect(future.cancel(true)).andReturn(true);
+        })
+        .run(unit -> {
+          new CompletableFutureMapper()
+              .map(unit.get(CompletableFuture.class));
+        }, init0, unit -> {
+          unit.captured(Runnable.class).iterator().next().run();
+        });
+  }
 }